@@ -279,6 +279,7 @@ const MortgageCalculator = () => {
                   <th className="px-4 py-3 text-left font-semibold text-gray-700 border-b">Rate (%)</th>
                   <th className="px-4 py-3 text-left font-semibold text-gray-700 border-b">Points</th>
                   <th className="px-4 py-3 text-left font-semibold text-gray-700 border-b">APR (%)</th>
+                  <th className="px-4 py-3 text-left font-semibold text-gray-700 border-b">Monthly Payment ($)</th>
                   <th className="px-4 py-3 text-left font-semibold text-gray-700 border-b">Applied Rules</th>
                 </tr>
               </thead>
@@ -289,6 +290,7 @@ const MortgageCalculator = () => {
                     <td className="px-4 py-3 border-b">{option.rate.toFixed(3)}</td>
                     <td className="px-4 py-3 border-b">{option.points.toFixed(3)}</td>
                     <td className="px-4 py-3 border-b">{option.apr.toFixed(3)}</td>
+                    <td className="px-4 py-3 border-b">{formatNumberWithCommas(option.monthlyPayment.toFixed(2))}</td>
                     <td className="px-4 py-3 border-b">
                       <ul className="list-disc pl-5">
                         {option.appliedRules.map((rule, ruleIndex) => (
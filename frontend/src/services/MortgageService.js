@@ -5,7 +5,8 @@ const API_URL = process.env.REACT_APP_API_URL || 'http://localhost:8080/api';
 const calculateMortgageOptions = async (mortgageInput) => {
   try {
     console.log('Sending mortgage data to backend:', mortgageInput);
-    const response = await axios.post(`${API_URL}/mortgage/calculate`, mortgageInput);
+    // GET so the browser cache can revalidate repeated quotes with If-None-Match and reuse them on a 304.
+    const response = await axios.get(`${API_URL}/mortgage/calculate`, { params: mortgageInput });
     return response.data;
   } catch (error) {
     console.error('Error in API call:', error);
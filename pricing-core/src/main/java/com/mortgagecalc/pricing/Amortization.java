@@ -0,0 +1,35 @@
+package com.mortgagecalc.pricing;
+
+public final class Amortization {
+    
+    private Amortization() {
+    }
+    
+    /**
+     * Level monthly payment that fully amortizes {@code principal}, given the precomputed discount factor
+     * {@code (1 + monthlyRate)^-termMonths}.
+     */
+    public static double monthlyPayment(double principal, double monthlyRate, double discountFactor, int termMonths) {
+        if (monthlyRate == 0) {
+            return principal / termMonths;
+        }
+        return principal * monthlyRate / (1 - discountFactor);
+    }
+    
+    public static double monthlyPayment(double principal, double annualRatePercent, int termMonths) {
+        double monthlyRate = annualRatePercent / 1200;
+        return monthlyPayment(principal, monthlyRate, DiscountFactorTable.compute(monthlyRate, termMonths), termMonths);
+    }
+    
+    /**
+     * Unrounded balance left after {@code months} payments of {@code payment} on {@code principal}.
+     */
+    public static double balanceAfter(double principal, double annualRatePercent, double payment, int months) {
+        double monthlyRate = annualRatePercent / 1200;
+        if (monthlyRate == 0) {
+            return principal - payment * months;
+        }
+        double growth = Math.pow(1 + monthlyRate, months);
+        return principal * growth - payment * (growth - 1) / monthlyRate;
+    }
+}
@@ -0,0 +1,117 @@
+package com.mortgagecalc.pricing;
+
+/**
+ * Two-way hashed cache of payment factors and APRs for one product and set of ARM terms. Within those both depend
+ * only on the note rate and points, not the loan amount, and a snapshot and rule book produce few distinct pairs,
+ * so nearly every quote is a hit and skips both the discount-factor lookup and the solver. Entries are immutable
+ * and published with a single reference store, so racing writers at worst overwrite each other; a miss allocates
+ * one entry.
+ * <p>
+ * The payment is the initial one. For an adjustable product with an index path, the APR is the composite Appendix J
+ * rate: payments at the note rate for the fixed period, then re-amortized at each annual reset to the rate
+ * {@link ArmTerms#resetRate} gives (index plus margin, within the caps). Without an index path it is the
+ * fixed-rate APR at the note rate.
+ */
+final class AmortizationMemo {
+    private static final int SLOTS = 4096;
+    
+    private final DiscountFactorTable discountFactors;
+    private final int fixedMonths;
+    private final ArmTerms armTerms;
+    private final Entry[] entries = new Entry[SLOTS];
+    
+    AmortizationMemo(DiscountFactorTable discountFactors) {
+        this(discountFactors, discountFactors.getTermMonths(), ArmTerms.NONE);
+    }
+    
+    AmortizationMemo(MortgageProduct product, ArmTerms armTerms) {
+        this(DiscountFactorTable.forTerm(product.getTermMonths()),
+                product.isAdjustable() ? product.getFixedMonths() : product.getTermMonths(), armTerms);
+    }
+    
+    private AmortizationMemo(DiscountFactorTable discountFactors, int fixedMonths, ArmTerms armTerms) {
+        this.discountFactors = discountFactors;
+        this.fixedMonths = fixedMonths;
+        this.armTerms = armTerms;
+    }
+    
+    Entry lookup(double rate, double points) {
+        long rateBits = Double.doubleToRawLongBits(rate);
+        long pointsBits = Double.doubleToRawLongBits(points);
+        long hash = (rateBits * 31 + pointsBits) * 0x9E3779B97F4A7C15L;
+        int first = (int) (hash >>> 52);
+        int second = (int) (hash >>> 40) & (SLOTS - 1);
+        
+        Entry entry = entries[first];
+        if (entry != null && entry.matches(rateBits, pointsBits)) {
+            return entry;
+        }
+        entry = entries[second];
+        if (entry != null && entry.matches(rateBits, pointsBits)) {
+            return entry;
+        }
+        
+        entry = compute(rateBits, pointsBits, rate, points);
+        entries[entries[first] == null ? first : second] = entry;
+        return entry;
+    }
+    
+    private Entry compute(long rateBits, long pointsBits, double rate, double points) {
+        int termMonths = discountFactors.getTermMonths();
+        double monthlyRate = rate / 1200;
+        double discountFactor = discountFactors.atMonthly(monthlyRate);
+        double paymentPerDollar = Amortization.monthlyPayment(1, monthlyRate, discountFactor, termMonths);
+        
+        // Points are the prepaid finance charge: the borrower repays the full loan but only receives the rest.
+        double apr = rate;
+        if (fixedMonths < termMonths && armTerms.hasIndexPath()) {
+            apr = compositeApr(rate, paymentPerDollar, 1 - points / 100);
+        } else if (points != 0) {
+            apr = AprSolver.HALLEY.solveMonthlyRate(paymentPerDollar, 1 - points / 100, discountFactors, monthlyRate,
+                    discountFactor) * 1200;
+        }
+        
+        return new Entry(rateBits, pointsBits, paymentPerDollar, apr);
+    }
+    
+    /**
+     * APR of one dollar borrowed at {@code rate}, with its payment stepping at every reset after the fixed period.
+     */
+    private double compositeApr(double rate, double paymentPerDollar, double amountFinanced) {
+        int termMonths = discountFactors.getTermMonths();
+        int steps = 1 + (termMonths - fixedMonths + 11) / 12;
+        int[] starts = new int[steps];
+        double[] payments = new double[steps];
+        payments[0] = paymentPerDollar;
+        
+        double balance = 1;
+        double stepRate = rate;
+        for (int step = 1; step < steps; step++) {
+            int month = fixedMonths + 12 * (step - 1);
+            balance = Amortization.balanceAfter(balance, stepRate, payments[step - 1], month - starts[step - 1]);
+            stepRate = armTerms.resetRate(step - 1, rate, stepRate);
+            starts[step] = month;
+            payments[step] = Amortization.monthlyPayment(balance, stepRate, termMonths - month);
+        }
+        
+        return AprSolver.solveMonthlyRate(starts, payments, termMonths, amountFinanced, rate / 1200) * 1200;
+    }
+    
+    static final class Entry {
+        private final long rateBits;
+        private final long pointsBits;
+        final double paymentPerDollar;
+        final double apr;
+        
+        private Entry(long rateBits, long pointsBits, double paymentPerDollar, double apr) {
+            this.rateBits = rateBits;
+            this.pointsBits = pointsBits;
+            this.paymentPerDollar = paymentPerDollar;
+            this.apr = apr;
+        }
+        
+        private boolean matches(long rateBits, long pointsBits) {
+            return this.rateBits == rateBits && this.pointsBits == pointsBits;
+        }
+    }
+}
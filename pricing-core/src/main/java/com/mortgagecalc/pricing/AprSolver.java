@@ -0,0 +1,155 @@
+package com.mortgagecalc.pricing;
+
+/**
+ * Solves for the monthly rate at which a level payment stream discounts to the amount financed, i.e. the
+ * actuarial APR of Regulation Z Appendix J for a closed-end loan with regular periods and no odd first period.
+ * Variable-rate loans, whose payments step at each reset, go through
+ * {@link #solveMonthlyRate(int[], double[], int, double, double)} instead.
+ * The seed is the note rate and its discount factor, so the first step reuses the value already looked up for the
+ * payment, and later iterates read their discount factors from the same {@link DiscountFactorTable}.
+ * <p>
+ * Each variant stops as soon as its convergence order says the error left after the latest step is below 1e-9
+ * percentage points of annual rate, so Halley finishes in two steps and Newton in three for ordinary fees;
+ * {@link #MAX_ITERATIONS} bounds the pathological cases.
+ */
+public enum AprSolver {
+    NEWTON {
+        @Override
+        double step(double monthlyRate, double discountFactor, double financedPerPayment, int termMonths) {
+            double inverseRate = 1 / monthlyRate;
+            double annuity = (1 - discountFactor) * inverseRate;
+            double slope = (termMonths * discountFactor / (1 + monthlyRate) - annuity) * inverseRate;
+            return (financedPerPayment - annuity) / slope;
+        }
+        
+        @Override
+        boolean converged(double delta, int termMonths) {
+            return termMonths * delta * delta < TOLERANCE;
+        }
+    },
+    
+    HALLEY {
+        @Override
+        double step(double monthlyRate, double discountFactor, double financedPerPayment, int termMonths) {
+            double inverseRate = 1 / monthlyRate;
+            double inverseGrowth = 1 / (1 + monthlyRate);
+            double annuity = (1 - discountFactor) * inverseRate;
+            double slope = (termMonths * discountFactor * inverseGrowth - annuity) * inverseRate;
+            double curvature = (-termMonths * (termMonths + 1.0) * discountFactor * inverseGrowth * inverseGrowth
+                    - 2 * slope) * inverseRate;
+            
+            double f = annuity - financedPerPayment;
+            return -2 * f * slope / (2 * slope * slope - f * curvature);
+        }
+        
+        @Override
+        boolean converged(double delta, int termMonths) {
+            double scaled = termMonths * delta;
+            return scaled * scaled * Math.abs(delta) < TOLERANCE;
+        }
+    };
+    
+    public static final int MAX_ITERATIONS = 8;
+    
+    static final double TOLERANCE = 1e-9 / 1200;
+    static final double MIN_MONTHLY_RATE = 1e-9;
+    
+    /**
+     * Correction to {@code monthlyRate} towards the root of {@code annuity(i) - financedPerPayment}, where
+     * {@code annuity(i) = (1 - (1+i)^-n) / i}.
+     */
+    abstract double step(double monthlyRate, double discountFactor, double financedPerPayment, int termMonths);
+    
+    abstract boolean converged(double delta, int termMonths);
+    
+    /**
+     * Returns the monthly rate, or NaN when nothing is financed. Multiply by 1,200 for the annual percentage rate.
+     */
+    public double solveMonthlyRate(double payment, double amountFinanced, DiscountFactorTable discountFactors,
+                                   double seedMonthlyRate, double seedDiscountFactor) {
+        if (!(amountFinanced > 0) || !(payment > 0)) {
+            return Double.NaN;
+        }
+        
+        int termMonths = discountFactors.getTermMonths();
+        double monthlyRate = seedMonthlyRate;
+        double discountFactor = seedDiscountFactor;
+        if (!(monthlyRate >= MIN_MONTHLY_RATE)) {
+            monthlyRate = MIN_MONTHLY_RATE;
+            discountFactor = discountFactors.atMonthly(monthlyRate);
+        }
+        
+        double financedPerPayment = amountFinanced / payment;
+        for (int i = 0; i < MAX_ITERATIONS; i++) {
+            double delta = step(monthlyRate, discountFactor, financedPerPayment, termMonths);
+            monthlyRate = Math.max(MIN_MONTHLY_RATE, monthlyRate + delta);
+            if (converged(delta, termMonths)) {
+                break;
+            }
+            discountFactor = discountFactors.atMonthly(monthlyRate);
+        }
+        
+        return monthlyRate;
+    }
+    
+    /**
+     * Returns the monthly rate at which a stepped payment stream discounts to the amount financed, or NaN when
+     * nothing is financed: {@code payments[j]} is paid each month after {@code starts[j]} up to the next start, or
+     * to {@code termMonths} for the last step. This is the Appendix J rate for a variable-rate loan's composite
+     * payments. It evaluates {@link Math#pow} per step and iteration, so callers should memoize it; the present
+     * value is convex and decreasing in the rate, so Newton converges from any seed.
+     */
+    public static double solveMonthlyRate(int[] starts, double[] payments, int termMonths, double amountFinanced,
+                                          double seedMonthlyRate) {
+        if (!(amountFinanced > 0) || !(payments[0] > 0)) {
+            return Double.NaN;
+        }
+        
+        double monthlyRate = Math.max(MIN_MONTHLY_RATE, seedMonthlyRate);
+        for (int iteration = 0; iteration < 4 * MAX_ITERATIONS; iteration++) {
+            double inverseRate = 1 / monthlyRate;
+            double inverseGrowth = 1 / (1 + monthlyRate);
+            double presentValue = 0;
+            double slope = 0;
+            for (int j = 0; j < starts.length; j++) {
+                int start = starts[j];
+                int end = j + 1 < starts.length ? starts[j + 1] : termMonths;
+                double startFactor = Math.pow(inverseGrowth, start);
+                double endFactor = Math.pow(inverseGrowth, end);
+                double annuity = (startFactor - endFactor) * inverseRate;
+                presentValue += payments[j] * annuity;
+                slope += payments[j] * ((end * endFactor - start * startFactor) * inverseGrowth - annuity)
+                        * inverseRate;
+            }
+            
+            double delta = (amountFinanced - presentValue) / slope;
+            monthlyRate = Math.max(MIN_MONTHLY_RATE, monthlyRate + delta);
+            if (Math.abs(delta) < TOLERANCE) {
+                break;
+            }
+        }
+        return monthlyRate;
+    }
+    
+    /**
+     * Slow but unconditionally convergent reference, used to check the iterative solvers.
+     */
+    static double bisect(double payment, double amountFinanced, int termMonths) {
+        if (!(amountFinanced > 0) || !(payment > 0)) {
+            return Double.NaN;
+        }
+        
+        double low = MIN_MONTHLY_RATE;
+        double high = 1.0;
+        for (int i = 0; i < 100 && high - low > TOLERANCE / 1000; i++) {
+            double mid = (low + high) / 2;
+            double annuity = (1 - DiscountFactorTable.compute(mid, termMonths)) / mid;
+            if (payment * annuity > amountFinanced) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return (low + high) / 2;
+    }
+}
@@ -0,0 +1,77 @@
+package com.mortgagecalc.pricing;
+
+import java.util.Arrays;
+
+/**
+ * How an ARM's rate is projected at each annual reset: the index for that reset plus the margin, rounded to the
+ * nearest eighth, then held within the initial, periodic and lifetime caps and never below the margin. The index
+ * path lists one projected index value per reset; the last value is held for later resets, and an empty path
+ * keeps the initial rate.
+ */
+public final class ArmTerms {
+    public static final ArmTerms NONE = new ArmTerms(new double[0], 0, 0, 0, 0);
+    
+    private final double[] indexPath;
+    private final double margin;
+    private final double initialCap;
+    private final double periodicCap;
+    private final double lifetimeCap;
+    
+    public ArmTerms(double[] indexPath, double margin, double initialCap, double periodicCap, double lifetimeCap) {
+        this.indexPath = indexPath.clone();
+        this.margin = margin;
+        this.initialCap = initialCap;
+        this.periodicCap = periodicCap;
+        this.lifetimeCap = lifetimeCap;
+    }
+    
+    public double[] getIndexPath() {
+        return indexPath.clone();
+    }
+    
+    public double getMargin() {
+        return margin;
+    }
+    
+    public double getInitialCap() {
+        return initialCap;
+    }
+    
+    public double getPeriodicCap() {
+        return periodicCap;
+    }
+    
+    public double getLifetimeCap() {
+        return lifetimeCap;
+    }
+    
+    /**
+     * Whether resets can change the rate; without an index path an ARM keeps its initial rate for the term.
+     */
+    public boolean hasIndexPath() {
+        return indexPath.length > 0;
+    }
+    
+    /**
+     * Rate after reset number {@code reset} (0 for the first adjustment).
+     */
+    public double resetRate(int reset, double initialRate, double previousRate) {
+        if (indexPath.length == 0) {
+            return previousRate;
+        }
+        
+        double index = indexPath[Math.min(reset, indexPath.length - 1)];
+        double fullyIndexed = Math.round((index + margin) * 8) / 8.0;
+        double cap = reset == 0 ? initialCap : periodicCap;
+        
+        double rate = Math.min(Math.max(fullyIndexed, previousRate - cap), previousRate + cap);
+        rate = Math.min(rate, initialRate + lifetimeCap);
+        return Math.max(rate, margin);
+    }
+    
+    @Override
+    public String toString() {
+        return "ArmTerms{indexPath=" + Arrays.toString(indexPath) + ", margin=" + margin + ", caps=" + initialCap
+                + "/" + periodicCap + "/" + lifetimeCap + "}";
+    }
+}
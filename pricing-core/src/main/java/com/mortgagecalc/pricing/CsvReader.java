@@ -0,0 +1,71 @@
+package com.mortgagecalc.pricing;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reader for the comma-separated rate sheets and rule tables. Fields may be double-quoted, with {@code ""} for
+ * a literal quote, and quoted fields may span lines; LF and CRLF line ends are both accepted. A blank line reads
+ * as a single empty field. Kept in-house so the library has no runtime dependencies.
+ */
+public final class CsvReader implements Closeable {
+    private final Reader source;
+    private final List<String> fields = new ArrayList<>();
+    private final StringBuilder field = new StringBuilder();
+    
+    public CsvReader(Reader source) {
+        this.source = source instanceof BufferedReader ? source : new BufferedReader(source);
+    }
+    
+    /**
+     * The next record's fields, or {@code null} at the end of the input.
+     *
+     * @throws IOException if the input ends inside a quoted field
+     */
+    public String[] readNext() throws IOException {
+        int c = source.read();
+        if (c < 0) {
+            return null;
+        }
+        
+        fields.clear();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c < 0) {
+                    throw new IOException("Unterminated quoted field");
+                }
+                if (c == '"') {
+                    c = source.read();
+                    if (c != '"') {
+                        quoted = false;
+                        continue;
+                    }
+                }
+                field.append((char) c);
+            } else if (c < 0 || c == '\n') {
+                break;
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = source.read();
+        }
+        fields.add(field.toString());
+        return fields.toArray(new String[0]);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        source.close();
+    }
+}
@@ -0,0 +1,69 @@
+package com.mortgagecalc.pricing;
+
+public enum MortgageProduct {
+    FIXED_30("fixed_30", "30-Year Fixed", 30, 30),
+    FIXED_15("fixed_15", "15-Year Fixed", 15, 15),
+    ARM_5_1("arm_5_1", "5/1 ARM", 30, 5),
+    ARM_7_1("arm_7_1", "7/1 ARM", 30, 7);
+    
+    private static final MortgageProduct[] ALL = values();
+    
+    private final String key;
+    private final String displayName;
+    private final int termYears;
+    private final int fixedYears;
+    
+    MortgageProduct(String key, String displayName, int termYears, int fixedYears) {
+        this.key = key;
+        this.displayName = displayName;
+        this.termYears = termYears;
+        this.fixedYears = fixedYears;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public String getDisplayName() {
+        return displayName;
+    }
+    
+    public int getTermYears() {
+        return termYears;
+    }
+    
+    public int getTermMonths() {
+        return termYears * 12;
+    }
+    
+    /**
+     * Months at the initial rate; ARMs reset annually after this.
+     */
+    public int getFixedMonths() {
+        return fixedYears * 12;
+    }
+    
+    public boolean isAdjustable() {
+        return fixedYears < termYears;
+    }
+    
+    public static MortgageProduct byOrdinal(int ordinal) {
+        return ALL[ordinal];
+    }
+    
+    public static int count() {
+        return ALL.length;
+    }
+    
+    /**
+     * Looks a product up by its rate-sheet key or its display name, as returned in {@code MortgageOption}.
+     */
+    public static MortgageProduct find(String keyOrName) {
+        for (MortgageProduct product : ALL) {
+            if (product.key.equalsIgnoreCase(keyOrName) || product.displayName.equalsIgnoreCase(keyOrName)) {
+                return product;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,111 @@
+package com.mortgagecalc.pricing;
+
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.pricing.rules.RuleBookLoader;
+import com.mortgagecalc.pricing.rules.RuleMatch;
+
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Entry point for pricing in-process without the web application: load a rates directory and a rule table once,
+ * then quote from any number of threads. A pricer is immutable and bound to the sheets and rules it was built
+ * with; load a new one to pick up changes. Callers pricing millions of quotes can take {@link #getKernel()} and
+ * reuse {@link QuoteResult}s instead.
+ * <p>
+ * Adjustable products' APRs follow the {@link ArmTerms} a pricer is built with. Without them it uses
+ * {@link ArmTerms#NONE}, quoting ARMs at their initial rate for the whole term; pass the terms configured under
+ * {@code mortgage.arm} to quote the same APRs as the web application.
+ */
+public final class Pricer {
+    private final PricingKernel kernel;
+    
+    private Pricer(PricingKernel kernel) {
+        this.kernel = kernel;
+    }
+    
+    /**
+     * Pricer over {@code snapshot} and {@code ruleBook} with {@link ArmTerms#NONE}.
+     */
+    public static Pricer of(RateSnapshot snapshot, CompiledRuleBook ruleBook) {
+        return of(snapshot, ruleBook, ArmTerms.NONE);
+    }
+    
+    public static Pricer of(RateSnapshot snapshot, CompiledRuleBook ruleBook, ArmTerms armTerms) {
+        return new Pricer(PricingKernel.of(snapshot, ruleBook, armTerms));
+    }
+    
+    /**
+     * Loads with nearest-row interpolation and {@link ArmTerms#NONE}.
+     */
+    public static Pricer load(Path ratesDirectory, Path rulesFile) {
+        return load(ratesDirectory, rulesFile, RateInterpolation.NEAREST);
+    }
+    
+    /**
+     * Loads with {@link ArmTerms#NONE}.
+     */
+    public static Pricer load(Path ratesDirectory, Path rulesFile, RateInterpolation interpolation) {
+        return load(ratesDirectory, rulesFile, interpolation, ArmTerms.NONE);
+    }
+    
+    /**
+     * Loads the sheets and grids in {@code ratesDirectory} as snapshot 1, laid out as the web application expects
+     * under {@code mortgage.rates.directory}, and compiles the rule table at {@code rulesFile}. Like the web
+     * application, it rejects a directory that leaves any product without a sheet or grid.
+     *
+     * @throws RateSheetException if a sheet or the rule table cannot be loaded, or a product has no rate data
+     */
+    public static Pricer load(Path ratesDirectory, Path rulesFile, RateInterpolation interpolation,
+                              ArmTerms armTerms) {
+        Map<String, RateTable> rateTables = new LinkedHashMap<>();
+        Map<String, RateGrid> rateGrids = new LinkedHashMap<>();
+        RateSheetLoader.loadDirectory(ratesDirectory, interpolation, rateTables, rateGrids);
+        RateSheetLoader.requireEveryProduct(ratesDirectory.toString(), rateTables.keySet(), rateGrids.keySet());
+        RateSnapshot snapshot = new RateSnapshot(1, Instant.now(), ratesDirectory.toString(), rateTables, rateGrids);
+        return of(snapshot, CompiledRuleBook.compile(RuleBookLoader.readCsv(rulesFile)), armTerms);
+    }
+    
+    public PricingKernel getKernel() {
+        return kernel;
+    }
+    
+    public RateSnapshot getSnapshot() {
+        return kernel.getSnapshot();
+    }
+    
+    public CompiledRuleBook getRuleBook() {
+        return kernel.getRuleBook();
+    }
+    
+    /**
+     * Prices every {@link MortgageProduct}, in declaration order.
+     *
+     * @throws IllegalArgumentException if the loan value or property price is not positive
+     */
+    public List<Quote> quote(QuoteRequest request) {
+        if (!(request.getLoanValue() > 0.0) || !(request.getPropertyPrice() > 0.0)) {
+            throw new IllegalArgumentException("Loan value and property price must be positive");
+        }
+        
+        RuleMatch quoteRules = kernel.matchQuote(request.getCreditScore(), request.getLoanValue(),
+                request.getPropertyPrice(), request.getAssetsUnderManagement(), request.getState(),
+                request.getHomeType());
+        long gridCells = kernel.locate(request.getLockPeriodDays(), request.getCreditScore(), request.getLoanValue(),
+                request.getPropertyPrice());
+        
+        List<Quote> quotes = new ArrayList<>(MortgageProduct.count());
+        QuoteResult result = new QuoteResult();
+        for (MortgageProduct product : MortgageProduct.values()) {
+            kernel.price(product, quoteRules, gridCells, request.getLoanValue(), request.getPoints(), result, null);
+            quotes.add(new Quote(product, result.getRateSnapshotId(), result.getRate(), result.getPoints(),
+                    result.getApr(), result.getMonthlyPayment(),
+                    kernel.getRuleBook().describe(result.getAppliedRules())));
+        }
+        return quotes;
+    }
+}
@@ -0,0 +1,234 @@
+package com.mortgagecalc.pricing;
+
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.pricing.rules.RuleMatch;
+import com.mortgagecalc.pricing.rules.RuleTarget;
+
+/**
+ * Prices quotes from primitive inputs against one rate snapshot and rule book, writing into caller-owned
+ * {@link QuoteResult}s. Once the rule book has seen a quote's buckets and the amortization memo its rate and
+ * points, a call allocates nothing, so high-volume callers can hold a kernel and a result array and price in a
+ * tight loop. A kernel is bound to one snapshot and rule book; build a new one when either changes.
+ * <p>
+ * Products with a {@link RateGrid} take their base rate from the grid cell {@link #locate} picks for the quote;
+ * the rest price from their one-dimensional {@link RateTable}. Adjustable products quote a composite APR over the
+ * resets the kernel's {@link ArmTerms} project.
+ */
+public final class PricingKernel {
+    private final RateSnapshot snapshot;
+    private final CompiledRuleBook ruleBook;
+    private final ArmTerms armTerms;
+    private final RateTable[] rateTables;
+    private final RateGrid[] rateGrids;
+    private final long[] gridRadix;
+    private final AmortizationMemo[] amortization;
+    
+    private PricingKernel(RateSnapshot snapshot, CompiledRuleBook ruleBook, ArmTerms armTerms) {
+        this.snapshot = snapshot;
+        this.ruleBook = ruleBook;
+        this.armTerms = armTerms;
+        this.rateTables = new RateTable[MortgageProduct.count()];
+        this.rateGrids = new RateGrid[MortgageProduct.count()];
+        this.gridRadix = new long[MortgageProduct.count()];
+        this.amortization = new AmortizationMemo[MortgageProduct.count()];
+        long radix = 1;
+        for (MortgageProduct product : MortgageProduct.values()) {
+            rateTables[product.ordinal()] = snapshot.getRateTable(product.getKey());
+            rateGrids[product.ordinal()] = snapshot.getRateGrid(product.getKey());
+            gridRadix[product.ordinal()] = radix;
+            if (rateGrids[product.ordinal()] != null) {
+                radix = Math.multiplyExact(radix, rateGrids[product.ordinal()].cellCount());
+            }
+            amortization[product.ordinal()] = new AmortizationMemo(product, armTerms);
+        }
+    }
+    
+    /**
+     * Kernel whose adjustable products keep their initial rate for the term, as with {@link ArmTerms#NONE}.
+     */
+    public static PricingKernel of(RateSnapshot snapshot, CompiledRuleBook ruleBook) {
+        return new PricingKernel(snapshot, ruleBook, ArmTerms.NONE);
+    }
+    
+    public static PricingKernel of(RateSnapshot snapshot, CompiledRuleBook ruleBook, ArmTerms armTerms) {
+        return new PricingKernel(snapshot, ruleBook, armTerms);
+    }
+    
+    public RateSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    public CompiledRuleBook getRuleBook() {
+        return ruleBook;
+    }
+    
+    public ArmTerms getArmTerms() {
+        return armTerms;
+    }
+    
+    /**
+     * Matches the product-independent rule dimensions once per quote; pass the result to
+     * {@link #price(MortgageProduct, RuleMatch, double, double, QuoteResult)} for each product.
+     */
+    public RuleMatch matchQuote(double creditScore, double loanValue, double propertyPrice,
+                                double assetsUnderManagement, String state, String homeType) {
+        return ruleBook.matchQuote(creditScore, loanValue / propertyPrice * 100, loanValue, assetsUnderManagement,
+                state, homeType);
+    }
+    
+    /**
+     * Every gridded product's cell for a quote, packed into one mixed-radix number: product {@code p}'s
+     * {@link RateGrid#cellIndex} is {@code gridCells / radix(p) % cellCount(p)}. Zero when no product has a grid.
+     * Two quotes with the same result and quote rule match price identically, so it also serves as a cache key.
+     */
+    public long locate(int lockPeriodDays, double creditScore, double loanValue, double propertyPrice) {
+        double ltv = loanValue / propertyPrice * 100;
+        long gridCells = 0;
+        for (int i = 0; i < rateGrids.length; i++) {
+            RateGrid grid = rateGrids[i];
+            if (grid != null) {
+                gridCells += grid.cellIndex(lockPeriodDays, ltv, creditScore) * gridRadix[i];
+            }
+        }
+        return gridCells;
+    }
+    
+    /**
+     * Number of discrete base rates {@code product} can price from: grid cells × points columns when it has a
+     * grid, otherwise rate sheet rows. -1 when its sheet interpolates, since any requested points may then quote
+     * a distinct rate.
+     */
+    public int baseRowCount(MortgageProduct product) {
+        RateGrid rateGrid = rateGrids[product.ordinal()];
+        if (rateGrid != null) {
+            return rateGrid.cellCount() * rateGrid.pointCount();
+        }
+        RateTable rateTable = rateTables[product.ordinal()];
+        return rateTable.getInterpolation() == RateInterpolation.NEAREST ? rateTable.size() : -1;
+    }
+    
+    /**
+     * The base row below {@link #baseRowCount} that {@link #price} would read for these grid cells and points.
+     * Only defined for products with a non-negative row count.
+     */
+    public int baseRow(MortgageProduct product, long gridCells, double requestedPoints) {
+        RateGrid rateGrid = rateGrids[product.ordinal()];
+        if (rateGrid != null) {
+            int cell = (int) (gridCells / gridRadix[product.ordinal()] % rateGrid.cellCount());
+            return cell * rateGrid.pointCount() + rateGrid.nearestPoint(requestedPoints);
+        }
+        return rateTables[product.ordinal()].nearestRow(requestedPoints);
+    }
+    
+    /**
+     * Prices {@code product} from one base row, giving the same result as {@link #price} for any quote whose
+     * {@link #baseRow} it is.
+     */
+    public void priceBaseRow(MortgageProduct product, RuleMatch quoteRules, int row, double loanValue,
+                             QuoteResult result) {
+        double baseRate;
+        double basePoints;
+        RateGrid rateGrid = rateGrids[product.ordinal()];
+        if (rateGrid != null) {
+            baseRate = rateGrid.rateAt(row, 0);
+            basePoints = rateGrid.pointsAt(row % rateGrid.pointCount());
+        } else {
+            baseRate = rateTables[product.ordinal()].rateAt(row);
+            basePoints = rateTables[product.ordinal()].pointsAt(row);
+        }
+        
+        RuleMatch appliedRules = ruleBook.matchProduct(product.getKey(), quoteRules);
+        double rate = ruleBook.apply(RuleTarget.RATE, baseRate, appliedRules);
+        double points = ruleBook.apply(RuleTarget.POINTS, basePoints, appliedRules);
+        AmortizationMemo.Entry terms = amortization[product.ordinal()].lookup(rate, points);
+        result.set(product, snapshot.getVersion(), rate, points, terms.apr, loanValue * terms.paymentPerDollar,
+                appliedRules);
+    }
+    
+    public void price(MortgageProduct product, RuleMatch quoteRules, double loanValue, double requestedPoints,
+                      QuoteResult result) {
+        price(product, quoteRules, 0L, loanValue, requestedPoints, result, null);
+    }
+    
+    public void price(MortgageProduct product, RuleMatch quoteRules, double loanValue, double requestedPoints,
+                      QuoteResult result, long[] stageNanos) {
+        price(product, quoteRules, 0L, loanValue, requestedPoints, result, stageNanos);
+    }
+    
+    /**
+     * Prices one product in the grid cells from {@link #locate}, also adding the nanoseconds spent in each
+     * {@link PricingStage} to {@code stageNanos} (indexed by ordinal) when it is non-null. The clock is only read
+     * for timed calls, so callers can sample. Overloads without {@code gridCells} price gridded products at the
+     * first lock period, LTV band and FICO band.
+     */
+    public void price(MortgageProduct product, RuleMatch quoteRules, long gridCells, double loanValue,
+                      double requestedPoints, QuoteResult result, long[] stageNanos) {
+        RateTable rateTable = rateTables[product.ordinal()];
+        RateGrid rateGrid = rateGrids[product.ordinal()];
+        if (rateGrid == null && rateTable.isEmpty()) {
+            throw new IllegalStateException("No rate data available for " + product.getKey());
+        }
+        
+        long start = stageNanos != null ? System.nanoTime() : 0L;
+        double baseRate;
+        double basePoints;
+        if (rateGrid != null) {
+            int cell = (int) (gridCells / gridRadix[product.ordinal()] % rateGrid.cellCount()) * rateGrid.pointCount();
+            int point = rateGrid.nearestPoint(requestedPoints);
+            baseRate = rateGrid.rateAt(cell, point);
+            basePoints = rateGrid.pointsAt(point);
+        } else if (rateTable.getInterpolation() == RateInterpolation.NEAREST) {
+            int row = rateTable.nearestRow(requestedPoints);
+            baseRate = rateTable.rateAt(row);
+            basePoints = rateTable.pointsAt(row);
+        } else {
+            basePoints = rateTable.quotedPoints(requestedPoints);
+            baseRate = rateTable.interpolatedRate(basePoints);
+        }
+        long looked = stageNanos != null ? System.nanoTime() : 0L;
+        
+        RuleMatch appliedRules = ruleBook.matchProduct(product.getKey(), quoteRules);
+        double rate = ruleBook.apply(RuleTarget.RATE, baseRate, appliedRules);
+        double points = ruleBook.apply(RuleTarget.POINTS, basePoints, appliedRules);
+        long applied = stageNanos != null ? System.nanoTime() : 0L;
+        
+        AmortizationMemo.Entry terms = amortization[product.ordinal()].lookup(rate, points);
+        
+        result.set(product, snapshot.getVersion(), rate, points, terms.apr, loanValue * terms.paymentPerDollar,
+                appliedRules);
+        
+        if (stageNanos != null) {
+            stageNanos[PricingStage.RATE_LOOKUP.ordinal()] += looked - start;
+            stageNanos[PricingStage.RULE_APPLICATION.ordinal()] += applied - looked;
+            stageNanos[PricingStage.APR.ordinal()] += System.nanoTime() - applied;
+        }
+    }
+    
+    /**
+     * Prices every {@link MortgageProduct} into {@code results}, indexed by ordinal, at the shortest lock period.
+     */
+    public void priceAll(double creditScore, double loanValue, double propertyPrice, double assetsUnderManagement,
+                         String state, String homeType, double requestedPoints, QuoteResult[] results) {
+        priceAll(0, creditScore, loanValue, propertyPrice, assetsUnderManagement, state, homeType, requestedPoints,
+                results);
+    }
+    
+    public void priceAll(int lockPeriodDays, double creditScore, double loanValue, double propertyPrice,
+                         double assetsUnderManagement, String state, String homeType, double requestedPoints,
+                         QuoteResult[] results) {
+        RuleMatch quoteRules = matchQuote(creditScore, loanValue, propertyPrice, assetsUnderManagement, state,
+                homeType);
+        long gridCells = locate(lockPeriodDays, creditScore, loanValue, propertyPrice);
+        for (int i = 0; i < rateTables.length; i++) {
+            price(MortgageProduct.byOrdinal(i), quoteRules, gridCells, loanValue, requestedPoints, results[i], null);
+        }
+    }
+    
+    public static QuoteResult[] newResults() {
+        QuoteResult[] results = new QuoteResult[MortgageProduct.count()];
+        for (int i = 0; i < results.length; i++) {
+            results[i] = new QuoteResult();
+        }
+        return results;
+    }
+}
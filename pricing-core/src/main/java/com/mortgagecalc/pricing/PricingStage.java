@@ -0,0 +1,30 @@
+package com.mortgagecalc.pricing;
+
+/**
+ * Steps of {@link PricingKernel#price}, used to index the per-stage nanosecond totals it can report.
+ */
+public enum PricingStage {
+    RATE_LOOKUP("rate_lookup"),
+    RULE_APPLICATION("rule_application"),
+    APR("apr");
+    
+    private static final PricingStage[] VALUES = values();
+    
+    private final String tag;
+    
+    PricingStage(String tag) {
+        this.tag = tag;
+    }
+    
+    public String getTag() {
+        return tag;
+    }
+    
+    public static int count() {
+        return VALUES.length;
+    }
+    
+    public static PricingStage byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+}
@@ -0,0 +1,55 @@
+package com.mortgagecalc.pricing;
+
+import java.util.List;
+
+/**
+ * One product's priced quote from {@link Pricer}, with the applied rules described in rule-book order.
+ */
+public final class Quote {
+    private final MortgageProduct product;
+    private final long rateSnapshotId;
+    private final double rate;
+    private final double points;
+    private final double apr;
+    private final double monthlyPayment;
+    private final List<String> appliedRules;
+    
+    public Quote(MortgageProduct product, long rateSnapshotId, double rate, double points, double apr,
+                 double monthlyPayment, List<String> appliedRules) {
+        this.product = product;
+        this.rateSnapshotId = rateSnapshotId;
+        this.rate = rate;
+        this.points = points;
+        this.apr = apr;
+        this.monthlyPayment = monthlyPayment;
+        this.appliedRules = List.copyOf(appliedRules);
+    }
+    
+    public MortgageProduct getProduct() {
+        return product;
+    }
+    
+    public long getRateSnapshotId() {
+        return rateSnapshotId;
+    }
+    
+    public double getRate() {
+        return rate;
+    }
+    
+    public double getPoints() {
+        return points;
+    }
+    
+    public double getApr() {
+        return apr;
+    }
+    
+    public double getMonthlyPayment() {
+        return monthlyPayment;
+    }
+    
+    public List<String> getAppliedRules() {
+        return appliedRules;
+    }
+}
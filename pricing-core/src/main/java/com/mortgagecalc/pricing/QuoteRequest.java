@@ -0,0 +1,79 @@
+package com.mortgagecalc.pricing;
+
+/**
+ * Borrower and property inputs for {@link Pricer#quote}. A lock period of zero takes each grid's shortest lock.
+ */
+public final class QuoteRequest {
+    private double creditScore;
+    private double loanValue;
+    private double propertyPrice;
+    private double points;
+    private String state;
+    private String homeType;
+    private double assetsUnderManagement;
+    private int lockPeriodDays;
+    
+    public double getCreditScore() {
+        return creditScore;
+    }
+    
+    public void setCreditScore(double creditScore) {
+        this.creditScore = creditScore;
+    }
+    
+    public double getLoanValue() {
+        return loanValue;
+    }
+    
+    public void setLoanValue(double loanValue) {
+        this.loanValue = loanValue;
+    }
+    
+    public double getPropertyPrice() {
+        return propertyPrice;
+    }
+    
+    public void setPropertyPrice(double propertyPrice) {
+        this.propertyPrice = propertyPrice;
+    }
+    
+    public double getPoints() {
+        return points;
+    }
+    
+    public void setPoints(double points) {
+        this.points = points;
+    }
+    
+    public String getState() {
+        return state;
+    }
+    
+    public void setState(String state) {
+        this.state = state;
+    }
+    
+    public String getHomeType() {
+        return homeType;
+    }
+    
+    public void setHomeType(String homeType) {
+        this.homeType = homeType;
+    }
+    
+    public double getAssetsUnderManagement() {
+        return assetsUnderManagement;
+    }
+    
+    public void setAssetsUnderManagement(double assetsUnderManagement) {
+        this.assetsUnderManagement = assetsUnderManagement;
+    }
+    
+    public int getLockPeriodDays() {
+        return lockPeriodDays;
+    }
+    
+    public void setLockPeriodDays(int lockPeriodDays) {
+        this.lockPeriodDays = lockPeriodDays;
+    }
+}
@@ -0,0 +1,57 @@
+package com.mortgagecalc.pricing;
+
+import com.mortgagecalc.pricing.rules.RuleMatch;
+
+/**
+ * Mutable output slot for {@link PricingKernel}. Callers allocate one per product up front and reuse it across
+ * quotes; every field is overwritten on each call. Applied rules are reported as the interned {@link RuleMatch},
+ * which lists rule ids in rule-book order.
+ */
+public final class QuoteResult {
+    private MortgageProduct product;
+    private long rateSnapshotId;
+    private double rate;
+    private double points;
+    private double apr;
+    private double monthlyPayment;
+    private RuleMatch appliedRules;
+    
+    void set(MortgageProduct product, long rateSnapshotId, double rate, double points, double apr,
+             double monthlyPayment, RuleMatch appliedRules) {
+        this.product = product;
+        this.rateSnapshotId = rateSnapshotId;
+        this.rate = rate;
+        this.points = points;
+        this.apr = apr;
+        this.monthlyPayment = monthlyPayment;
+        this.appliedRules = appliedRules;
+    }
+    
+    public MortgageProduct getProduct() {
+        return product;
+    }
+    
+    public long getRateSnapshotId() {
+        return rateSnapshotId;
+    }
+    
+    public double getRate() {
+        return rate;
+    }
+    
+    public double getPoints() {
+        return points;
+    }
+    
+    public double getApr() {
+        return apr;
+    }
+    
+    public double getMonthlyPayment() {
+        return monthlyPayment;
+    }
+    
+    public RuleMatch getAppliedRules() {
+        return appliedRules;
+    }
+}
@@ -0,0 +1,196 @@
+package com.mortgagecalc.pricing;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Dense base-rate grid for one product over lock period × LTV band × FICO band × points. Rates sit in one flat
+ * array in that order with points varying fastest, so once a quote's bands are known its cell is
+ * {@code ((lock * ltvBands + ltv) * ficoBands + fico) * points + point}.
+ * <p>
+ * Band rules: a lock request gets the shortest lock period at least that long (the longest when it exceeds
+ * them all); an LTV falls in the first band whose maximum is at least the LTV (the last when above them all);
+ * a credit score falls in the highest band whose minimum it reaches (the lowest when below them all). Points
+ * snap to the nearest column, ties going to the lower points.
+ */
+public final class RateGrid {
+    private final int[] lockPeriods;
+    private final double[] ltvMaxima;
+    private final double[] ficoMinima;
+    private final double[] points;
+    private final double[] rates;
+    private final int ficoStride;
+    private final int ltvStride;
+    private final int lockStride;
+    
+    private RateGrid(int[] lockPeriods, double[] ltvMaxima, double[] ficoMinima, double[] points, double[] rates) {
+        this.lockPeriods = lockPeriods;
+        this.ltvMaxima = ltvMaxima;
+        this.ficoMinima = ficoMinima;
+        this.points = points;
+        this.rates = rates;
+        this.ficoStride = points.length;
+        this.ltvStride = ficoStride * ficoMinima.length;
+        this.lockStride = ltvStride * ltvMaxima.length;
+    }
+    
+    /**
+     * Builds a grid from parallel row columns in any order. Every combination of the distinct axis values must
+     * appear exactly once.
+     *
+     * @throws RateSheetException if a cell is missing or repeated
+     */
+    public static RateGrid of(int[] lockDays, double[] ltvMax, double[] ficoMin, double[] pointValues,
+                              double[] rateValues) {
+        int rows = rateValues.length;
+        if (lockDays.length != rows || ltvMax.length != rows || ficoMin.length != rows || pointValues.length != rows) {
+            throw new IllegalArgumentException("Grid columns must have the same length");
+        }
+        if (rows == 0) {
+            throw new RateSheetException("Rate grid is empty");
+        }
+        
+        int[] lockAxis = Arrays.stream(lockDays).sorted().distinct().toArray();
+        double[] ltvAxis = distinct(ltvMax);
+        double[] ficoAxis = distinct(ficoMin);
+        double[] pointsAxis = distinct(pointValues);
+        
+        long cells = (long) lockAxis.length * ltvAxis.length * ficoAxis.length * pointsAxis.length;
+        if (cells != rows) {
+            throw new RateSheetException("Rate grid has " + rows + " rows but its axes span " + cells + " cells");
+        }
+        
+        RateGrid grid = new RateGrid(lockAxis, ltvAxis, ficoAxis, pointsAxis, new double[rows]);
+        boolean[] filled = new boolean[rows];
+        for (int row = 0; row < rows; row++) {
+            int cell = Arrays.binarySearch(lockAxis, lockDays[row]) * grid.lockStride
+                    + Arrays.binarySearch(ltvAxis, ltvMax[row] + 0.0) * grid.ltvStride
+                    + Arrays.binarySearch(ficoAxis, ficoMin[row] + 0.0) * grid.ficoStride
+                    + Arrays.binarySearch(pointsAxis, pointValues[row] + 0.0);
+            if (filled[cell]) {
+                throw new RateSheetException("Rate grid repeats lock " + lockDays[row] + ", LTV " + ltvMax[row]
+                        + ", FICO " + ficoMin[row] + ", points " + pointValues[row]);
+            }
+            filled[cell] = true;
+            grid.rates[cell] = rateValues[row];
+        }
+        return grid;
+    }
+    
+    /**
+     * The quote's lock/LTV/FICO cell as a dense index below {@link #cellCount()}.
+     */
+    public int cellIndex(int lockPeriodDays, double ltv, double creditScore) {
+        int lock = Arrays.binarySearch(lockPeriods, lockPeriodDays);
+        if (lock < 0) {
+            lock = Math.min(-lock - 1, lockPeriods.length - 1);
+        }
+        
+        int ltvBand = 0;
+        while (ltvBand < ltvMaxima.length - 1 && !(ltv <= ltvMaxima[ltvBand])) {
+            ltvBand++;
+        }
+        
+        int ficoBand = ficoMinima.length - 1;
+        while (ficoBand > 0 && !(creditScore >= ficoMinima[ficoBand])) {
+            ficoBand--;
+        }
+        
+        return (lock * ltvMaxima.length + ltvBand) * ficoMinima.length + ficoBand;
+    }
+    
+    /**
+     * Number of lock/LTV/FICO cells, i.e. rows of points.
+     */
+    public int cellCount() {
+        return lockPeriods.length * ltvMaxima.length * ficoMinima.length;
+    }
+    
+    /**
+     * Points columns per cell; {@code cellIndex * pointCount()} is the cell's offset for {@link #rateAt}.
+     */
+    public int pointCount() {
+        return points.length;
+    }
+    
+    public int nearestPoint(double requestedPoints) {
+        int found = Arrays.binarySearch(points, requestedPoints);
+        if (found >= 0) {
+            return found;
+        }
+        if (Double.isNaN(requestedPoints)) {
+            return 0;
+        }
+        
+        int hi = -found - 1;
+        if (hi == 0) {
+            return 0;
+        }
+        if (hi == points.length) {
+            return hi - 1;
+        }
+        return requestedPoints - points[hi - 1] <= points[hi] - requestedPoints ? hi - 1 : hi;
+    }
+    
+    public double pointsAt(int point) {
+        return points[point];
+    }
+    
+    public double rateAt(int cellOffset, int point) {
+        return rates[cellOffset + point];
+    }
+    
+    /**
+     * Approximate heap footprint: object headers plus the axes and the rate array.
+     */
+    public long estimatedBytes() {
+        return 96 + (long) lockPeriods.length * Integer.BYTES
+                + (long) (ltvMaxima.length + ficoMinima.length + points.length + rates.length) * Double.BYTES;
+    }
+    
+    /**
+     * Feeds the axes and rates to {@code digest}, each axis preceded by its length.
+     */
+    void digest(MessageDigest digest) {
+        ByteBuffer buffer = ByteBuffer.allocate(5 * Integer.BYTES + lockPeriods.length * Integer.BYTES
+                + (ltvMaxima.length + ficoMinima.length + points.length + rates.length) * Double.BYTES);
+        buffer.putInt(lockPeriods.length);
+        for (int lockPeriod : lockPeriods) {
+            buffer.putInt(lockPeriod);
+        }
+        for (double[] values : new double[][] {ltvMaxima, ficoMinima, points, rates}) {
+            buffer.putInt(values.length);
+            for (double value : values) {
+                buffer.putDouble(value);
+            }
+        }
+        digest.update(buffer.flip());
+    }
+    
+    /**
+     * Axis sizes, cell count and footprint, for the admin grid report.
+     */
+    public Map<String, Object> footprint() {
+        Map<String, Object> footprint = new LinkedHashMap<>();
+        footprint.put("lockPeriods", lockPeriods.length);
+        footprint.put("ltvBands", ltvMaxima.length);
+        footprint.put("ficoBands", ficoMinima.length);
+        footprint.put("points", points.length);
+        footprint.put("cells", rates.length);
+        footprint.put("rateBytes", (long) rates.length * Double.BYTES);
+        footprint.put("estimatedBytes", estimatedBytes());
+        return footprint;
+    }
+    
+    private static double[] distinct(double[] values) {
+        for (double value : values) {
+            if (Double.isNaN(value)) {
+                throw new RateSheetException("Rate grid axis values must be numeric");
+            }
+        }
+        return Arrays.stream(values).map(value -> value + 0.0).sorted().distinct().toArray();
+    }
+}
@@ -0,0 +1,37 @@
+package com.mortgagecalc.pricing;
+
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+/**
+ * How a {@link RateTable} prices points between its sheet rows. {@link #NEAREST} quotes the closest row's points
+ * and rate; the other modes quote the requested points (clamped to the sheet's range) at a rate read off a
+ * curve through the rows.
+ */
+public enum RateInterpolation {
+    NEAREST("nearest"),
+    /** Straight lines between adjacent rows. */
+    LINEAR("linear"),
+    /** Fritsch-Carlson cubic Hermite: smooth, passes through every row, and never overshoots between them. */
+    MONOTONE_CUBIC("monotone-cubic");
+    
+    private final String key;
+    
+    RateInterpolation(String key) {
+        this.key = key;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public static RateInterpolation fromKey(String key) {
+        for (RateInterpolation interpolation : values()) {
+            if (interpolation.key.equalsIgnoreCase(key.trim())) {
+                return interpolation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown rate interpolation '" + key + "', expected one of "
+                + Arrays.stream(values()).map(RateInterpolation::getKey).collect(Collectors.joining(", ")));
+    }
+}
@@ -0,0 +1,12 @@
+package com.mortgagecalc.pricing;
+
+public class RateSheetException extends RuntimeException {
+    
+    public RateSheetException(String message) {
+        super(message);
+    }
+    
+    public RateSheetException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,250 @@
+package com.mortgagecalc.pricing;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Supplier;
+
+public final class RateSheetLoader {
+    public static final String CSV_EXTENSION = ".csv";
+    public static final String COMPILED_EXTENSION = ".rsb";
+    public static final String GRID_EXTENSION = ".grid.csv";
+    
+    private RateSheetLoader() {
+    }
+    
+    /**
+     * Parses a {@code points,rate} sheet. The first line is a header and rows with fewer than two columns are
+     * ignored.
+     */
+    public static RateTable readCsv(String mortgageType, Reader source) {
+        return readCsv(mortgageType, source, RateInterpolation.NEAREST);
+    }
+    
+    public static RateTable readCsv(String mortgageType, Reader source, RateInterpolation interpolation) {
+        double[] points = new double[16];
+        double[] rates = new double[16];
+        int size = 0;
+        
+        try (CsvReader reader = new CsvReader(source)) {
+            reader.readNext();
+            
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                if (line.length >= 2) {
+                    if (size == points.length) {
+                        points = Arrays.copyOf(points, size * 2);
+                        rates = Arrays.copyOf(rates, size * 2);
+                    }
+                    points[size] = Double.parseDouble(line[0].trim());
+                    rates[size] = Double.parseDouble(line[1].trim());
+                    size++;
+                }
+            }
+        } catch (IOException | NumberFormatException e) {
+            throw new RateSheetException("Error loading CSV data for " + mortgageType, e);
+        }
+        
+        return RateTable.of(Arrays.copyOf(points, size), Arrays.copyOf(rates, size), interpolation);
+    }
+    
+    /**
+     * Parses a {@code lockDays,ltvMax,ficoMin,points,rate} grid sheet. The first line is a header and rows with
+     * fewer than five columns are ignored.
+     */
+    public static RateGrid readGridCsv(String mortgageType, Reader source) {
+        int[] lockDays = new int[64];
+        double[][] columns = new double[4][64];
+        int size = 0;
+        
+        try (CsvReader reader = new CsvReader(source)) {
+            reader.readNext();
+            
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                if (line.length >= 5) {
+                    if (size == lockDays.length) {
+                        lockDays = Arrays.copyOf(lockDays, size * 2);
+                        for (int c = 0; c < columns.length; c++) {
+                            columns[c] = Arrays.copyOf(columns[c], size * 2);
+                        }
+                    }
+                    lockDays[size] = Integer.parseInt(line[0].trim());
+                    for (int c = 0; c < columns.length; c++) {
+                        columns[c][size] = Double.parseDouble(line[c + 1].trim());
+                    }
+                    size++;
+                }
+            }
+            
+            return RateGrid.of(Arrays.copyOf(lockDays, size), Arrays.copyOf(columns[0], size),
+                    Arrays.copyOf(columns[1], size), Arrays.copyOf(columns[2], size), Arrays.copyOf(columns[3], size));
+        } catch (IOException | NumberFormatException | RateSheetException e) {
+            throw new RateSheetException("Error loading rate grid for " + mortgageType, e);
+        }
+    }
+    
+    /**
+     * Loads every {@code <product>.csv} and compiled {@code <product>.rsb} sheet and every
+     * {@code <product>.grid.csv} grid in {@code directory}. A compiled sheet takes precedence over a CSV sheet for the
+     * same product; one compiled for a different interpolation mode is copied to the heap with the requested mode,
+     * losing the mapping.
+     *
+     * @throws RateSheetException if the directory holds no sheets or any sheet fails to load
+     */
+    public static void loadDirectory(Path directory, RateInterpolation interpolation,
+                                     Map<String, RateTable> rateTables, Map<String, RateGrid> rateGrids) {
+        Map<String, Path> sheets = new LinkedHashMap<>();
+        Map<String, Path> grids = new LinkedHashMap<>();
+        listDirectory(directory, sheets, grids);
+        
+        for (Map.Entry<String, Path> sheet : sheets.entrySet()) {
+            rateTables.put(sheet.getKey(), loadSheet(sheet.getKey(), sheet.getValue(), interpolation));
+        }
+        for (Map.Entry<String, Path> grid : grids.entrySet()) {
+            rateGrids.put(grid.getKey(), loadGrid(grid.getKey(), grid.getValue()));
+        }
+    }
+    
+    /**
+     * Lists the same sheets and grids as {@link #loadDirectory} but only adds a loader for each, for
+     * {@link RateSnapshot#deferred}. Nothing is read until a loader is called.
+     *
+     * @throws RateSheetException if the directory holds no sheets
+     */
+    public static void deferDirectory(Path directory, RateInterpolation interpolation,
+                                      Map<String, Supplier<RateTable>> rateTables,
+                                      Map<String, Supplier<RateGrid>> rateGrids) {
+        Map<String, Path> sheets = new LinkedHashMap<>();
+        Map<String, Path> grids = new LinkedHashMap<>();
+        listDirectory(directory, sheets, grids);
+        
+        for (Map.Entry<String, Path> sheet : sheets.entrySet()) {
+            String mortgageType = sheet.getKey();
+            Path path = sheet.getValue();
+            rateTables.put(mortgageType, () -> loadSheet(mortgageType, path, interpolation));
+        }
+        for (Map.Entry<String, Path> grid : grids.entrySet()) {
+            String mortgageType = grid.getKey();
+            Path path = grid.getValue();
+            rateGrids.put(mortgageType, () -> loadGrid(mortgageType, path));
+        }
+    }
+    
+    /**
+     * Rejects sheets that leave a {@link MortgageProduct} with neither a table nor a grid; priced, they would fail
+     * every quote for it. Call it on what {@link #loadDirectory} or {@link #deferDirectory} found before using it.
+     *
+     * @throws RateSheetException naming the products {@code source} has no sheet or grid for
+     */
+    public static void requireEveryProduct(String source, Set<String> rateTables, Set<String> rateGrids) {
+        List<String> missing = new ArrayList<>();
+        for (MortgageProduct product : MortgageProduct.values()) {
+            if (!rateTables.contains(product.getKey()) && !rateGrids.contains(product.getKey())) {
+                missing.add(product.getKey());
+            }
+        }
+        if (!missing.isEmpty()) {
+            throw new RateSheetException("No rate sheet or grid for " + String.join(", ", missing) + " in " + source);
+        }
+    }
+    
+    /**
+     * Maps a compiled {@code .rsb} sheet read-only. Nothing is parsed or copied: lookups read the mapping, so every
+     * process mapping the same file shares its pages. The mapping lives as long as the table is reachable, so a
+     * sheet must be replaced by renaming a new file over it, never rewritten in place.
+     */
+    public static RateTable mapCompiled(String mortgageType, Path sheet) {
+        try (FileChannel channel = FileChannel.open(sheet, StandardOpenOption.READ)) {
+            return RateTable.wrap(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()));
+        } catch (IOException | RateSheetException e) {
+            throw new RateSheetException("Error mapping compiled rate sheet for " + mortgageType, e);
+        }
+    }
+    
+    /**
+     * Writes {@code rateTable} as a compiled sheet. The bytes go to a temporary file in the same directory that
+     * is then renamed over {@code sheet}, so processes that have the old sheet mapped keep reading it intact.
+     */
+    public static void writeCompiled(RateTable rateTable, Path sheet) throws IOException {
+        Path directory = sheet.toAbsolutePath().getParent();
+        Path temporary = Files.createTempFile(directory, sheet.getFileName().toString(), ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.WRITE)) {
+                ByteBuffer compiled = rateTable.compiled();
+                while (compiled.hasRemaining()) {
+                    channel.write(compiled);
+                }
+                channel.force(false);
+            }
+            Files.move(temporary, sheet, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+    
+    private static void listDirectory(Path directory, Map<String, Path> sheets, Map<String, Path> grids) {
+        try (DirectoryStream<Path> entries = Files.newDirectoryStream(directory)) {
+            for (Path sheet : entries) {
+                String fileName = sheet.getFileName().toString();
+                if (!fileName.endsWith(CSV_EXTENSION) && !fileName.endsWith(COMPILED_EXTENSION)) {
+                    continue;
+                }
+                if (fileName.endsWith(GRID_EXTENSION)) {
+                    grids.put(fileName.substring(0, fileName.length() - GRID_EXTENSION.length()), sheet);
+                    continue;
+                }
+                String mortgageType = fileName.substring(0, fileName.lastIndexOf('.'));
+                if (fileName.endsWith(COMPILED_EXTENSION) || !sheets.containsKey(mortgageType)) {
+                    sheets.put(mortgageType, sheet);
+                }
+            }
+        } catch (IOException e) {
+            throw new RateSheetException("Error reading rate directory " + directory, e);
+        }
+        
+        if (sheets.isEmpty() && grids.isEmpty()) {
+            throw new RateSheetException("No rate sheets found in " + directory);
+        }
+    }
+    
+    private static RateTable loadSheet(String mortgageType, Path sheet, RateInterpolation interpolation) {
+        if (sheet.getFileName().toString().endsWith(COMPILED_EXTENSION)) {
+            RateTable rateTable = mapCompiled(mortgageType, sheet);
+            if (rateTable.getInterpolation() != interpolation) {
+                // Looked up here rather than held in a static: initializing platform logging costs a cold start ~50ms.
+                System.getLogger(RateSheetLoader.class.getName()).log(System.Logger.Level.WARNING,
+                        "{0} was compiled for {1} interpolation but {2} is configured; recompile it to keep it mapped",
+                        sheet, rateTable.getInterpolation().getKey(), interpolation.getKey());
+            }
+            return rateTable.withInterpolation(interpolation);
+        }
+        
+        try (Reader reader = Files.newBufferedReader(sheet, StandardCharsets.UTF_8)) {
+            return readCsv(mortgageType, reader, interpolation);
+        } catch (IOException e) {
+            throw new RateSheetException("Error reading rate sheet " + sheet, e);
+        }
+    }
+    
+    private static RateGrid loadGrid(String mortgageType, Path grid) {
+        try (Reader reader = Files.newBufferedReader(grid, StandardCharsets.UTF_8)) {
+            return readGridCsv(mortgageType, reader);
+        } catch (IOException e) {
+            throw new RateSheetException("Error reading rate grid " + grid, e);
+        }
+    }
+}
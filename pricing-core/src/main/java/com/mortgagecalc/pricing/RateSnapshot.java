@@ -0,0 +1,255 @@
+package com.mortgagecalc.pricing;
+
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Supplier;
+
+/**
+ * An immutable, versioned set of rate tables and, for products that have them, multi-dimensional rate grids.
+ * Pricing reads one snapshot per quote so a reload published
+ * mid-request never mixes old and new sheets.
+ * <p>
+ * A {@link #deferred} snapshot knows which products it has but parses each one's sheet on first use, so a process
+ * can publish it before reading any rate data.
+ */
+public final class RateSnapshot {
+    public static final RateSnapshot EMPTY = new RateSnapshot(0, Instant.EPOCH, "none", Map.of());
+    
+    private final long version;
+    private final Instant loadedAt;
+    private final String source;
+    private final Map<String, Deferred<RateTable>> rateTables;
+    private final Map<String, Deferred<RateGrid>> rateGrids;
+    private volatile String contentDigest;
+    private volatile PricingKernel kernel;
+    
+    public RateSnapshot(long version, Instant loadedAt, String source, Map<String, RateTable> rateTables) {
+        this(version, loadedAt, source, rateTables, Map.of());
+    }
+    
+    public RateSnapshot(long version, Instant loadedAt, String source, Map<String, RateTable> rateTables,
+                        Map<String, RateGrid> rateGrids) {
+        this(version, loadedAt, source, loaded(rateTables), loaded(rateGrids));
+    }
+    
+    private RateSnapshot(long version, Instant loadedAt, String source,
+                         LinkedHashMap<String, Deferred<RateTable>> rateTables,
+                         LinkedHashMap<String, Deferred<RateGrid>> rateGrids) {
+        this.version = version;
+        this.loadedAt = loadedAt;
+        this.source = source;
+        this.rateTables = rateTables;
+        this.rateGrids = rateGrids;
+    }
+    
+    /**
+     * A snapshot whose tables and grids are produced by their loaders the first time a product is looked up. A
+     * loader runs at most once successfully; one that throws is retried on the next lookup. Loaders read their
+     * sheets when first called, not when the snapshot is published, so they should read files that are replaced
+     * rather than edited in place.
+     */
+    public static RateSnapshot deferred(long version, Instant loadedAt, String source,
+                                        Map<String, Supplier<RateTable>> rateTables,
+                                        Map<String, Supplier<RateGrid>> rateGrids) {
+        return new RateSnapshot(version, loadedAt, source, loading(rateTables), loading(rateGrids));
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    /**
+     * SHA-256 of every product's table and grid, base64url-encoded. It depends only on the rate data, so processes
+     * that published the same sheets agree on it however their versions were numbered. Computed on first use,
+     * loading any products a deferred snapshot has not loaded yet, and kept for the snapshot's lifetime.
+     */
+    public String getContentDigest() {
+        String digest = contentDigest;
+        if (digest == null) {
+            digest = computeContentDigest();
+            contentDigest = digest;
+        }
+        return digest;
+    }
+    
+    /**
+     * Kernel over this snapshot, built on first use and reused while callers pass the same rule book and ARM terms,
+     * so quotes pinned to a retained snapshot do not rebuild one per request. It is held by the snapshot, so a
+     * snapshot dropped from history takes its kernel with it.
+     */
+    public PricingKernel kernel(CompiledRuleBook ruleBook, ArmTerms armTerms) {
+        PricingKernel cached = kernel;
+        if (cached == null || cached.getRuleBook() != ruleBook || cached.getArmTerms() != armTerms) {
+            cached = PricingKernel.of(this, ruleBook, armTerms);
+            kernel = cached;
+        }
+        return cached;
+    }
+    
+    /**
+     * Products with a rate table, without loading any.
+     */
+    public Set<String> getProducts() {
+        return Collections.unmodifiableSet(rateTables.keySet());
+    }
+    
+    /**
+     * Products with a rate grid, without loading any.
+     */
+    public Set<String> getGriddedProducts() {
+        return Collections.unmodifiableSet(rateGrids.keySet());
+    }
+    
+    /**
+     * Every product's rate table, loading any not yet loaded.
+     */
+    public Map<String, RateTable> getRateTables() {
+        Map<String, RateTable> loaded = new LinkedHashMap<>();
+        for (Map.Entry<String, Deferred<RateTable>> rateTable : rateTables.entrySet()) {
+            loaded.put(rateTable.getKey(), rateTable.getValue().get());
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+    
+    public RateTable getRateTable(String mortgageType) {
+        Deferred<RateTable> rateTable = rateTables.get(mortgageType);
+        return rateTable != null ? rateTable.get() : RateTable.EMPTY;
+    }
+    
+    /**
+     * Every product's rate grid, loading any not yet loaded.
+     */
+    public Map<String, RateGrid> getRateGrids() {
+        Map<String, RateGrid> loaded = new LinkedHashMap<>();
+        for (Map.Entry<String, Deferred<RateGrid>> rateGrid : rateGrids.entrySet()) {
+            loaded.put(rateGrid.getKey(), rateGrid.getValue().get());
+        }
+        return Collections.unmodifiableMap(loaded);
+    }
+    
+    /**
+     * The product's rate grid, or {@code null} when it only has a rate table.
+     */
+    public RateGrid getRateGrid(String mortgageType) {
+        Deferred<RateGrid> rateGrid = rateGrids.get(mortgageType);
+        return rateGrid != null ? rateGrid.get() : null;
+    }
+    
+    /**
+     * Whether every table and grid has been loaded; always true unless the snapshot is {@link #deferred}.
+     */
+    public boolean isLoaded() {
+        for (Deferred<RateTable> rateTable : rateTables.values()) {
+            if (rateTable.peek() == null) {
+                return false;
+            }
+        }
+        for (Deferred<RateGrid> rateGrid : rateGrids.values()) {
+            if (rateGrid.peek() == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * Heap held by the tables and grids loaded so far; products a deferred snapshot has not loaded count nothing.
+     */
+    public long estimatedBytes() {
+        long bytes = 128;
+        for (Deferred<RateTable> rateTable : rateTables.values()) {
+            RateTable loaded = rateTable.peek();
+            bytes += loaded != null ? loaded.estimatedBytes() : 0;
+        }
+        for (Deferred<RateGrid> rateGrid : rateGrids.values()) {
+            RateGrid loaded = rateGrid.peek();
+            bytes += loaded != null ? loaded.estimatedBytes() : 0;
+        }
+        return bytes;
+    }
+    
+    private String computeContentDigest() {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        
+        // Sorted by product so the digest does not depend on the order a directory listed its sheets in.
+        for (Map.Entry<String, RateTable> rateTable : new TreeMap<>(getRateTables()).entrySet()) {
+            digest.update(("table:" + rateTable.getKey() + "\n").getBytes(StandardCharsets.UTF_8));
+            digest.update(rateTable.getValue().compiled());
+        }
+        for (Map.Entry<String, RateGrid> rateGrid : new TreeMap<>(getRateGrids()).entrySet()) {
+            digest.update(("grid:" + rateGrid.getKey() + "\n").getBytes(StandardCharsets.UTF_8));
+            rateGrid.getValue().digest(digest);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(digest.digest());
+    }
+    
+    private static <T> LinkedHashMap<String, Deferred<T>> loaded(Map<String, T> values) {
+        LinkedHashMap<String, Deferred<T>> deferred = new LinkedHashMap<>();
+        for (Map.Entry<String, T> value : values.entrySet()) {
+            deferred.put(value.getKey(), new Deferred<>(value.getValue(), null));
+        }
+        return deferred;
+    }
+    
+    private static <T> LinkedHashMap<String, Deferred<T>> loading(Map<String, Supplier<T>> loaders) {
+        LinkedHashMap<String, Deferred<T>> deferred = new LinkedHashMap<>();
+        for (Map.Entry<String, Supplier<T>> loader : loaders.entrySet()) {
+            deferred.put(loader.getKey(), new Deferred<>(null, loader.getValue()));
+        }
+        return deferred;
+    }
+    
+    /**
+     * A value that is either present from the start or produced once by its loader.
+     */
+    private static final class Deferred<T> {
+        private Supplier<T> loader;
+        private volatile T value;
+        
+        Deferred(T value, Supplier<T> loader) {
+            this.value = value;
+            this.loader = loader;
+        }
+        
+        T peek() {
+            return value;
+        }
+        
+        T get() {
+            T loaded = value;
+            if (loaded != null) {
+                return loaded;
+            }
+            synchronized (this) {
+                if (value == null) {
+                    value = loader.get();
+                    loader = null;
+                }
+                return value;
+            }
+        }
+    }
+}
@@ -0,0 +1,404 @@
+package com.mortgagecalc.pricing;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.IntStream;
+
+/**
+ * Points-to-rate curve for one product, sorted by points so the nearest row can be found by binary search without
+ * allocating. Ties resolve to the row that appeared first in the source sheet, matching a front-to-back linear
+ * scan. Interpolating tables also hold one cubic per segment between adjacent rows, precomputed at load so a lookup
+ * is one segment search and a Horner evaluation.
+ * <p>
+ * Tables built from rows hold primitive arrays. Tables read from a compiled {@code .rsb} sheet price straight
+ * from the memory-mapped file, which has this little-endian layout:
+ * <pre>
+ *  0  int    magic "RSB1"
+ *  4  int    format version
+ *  8  int    interpolation ordinal
+ * 12  int    rows
+ * 16  int    index of the first source row
+ * 20  int    coefficient count: 4 * (rows - 1) when interpolating, else 0
+ * 24  long   reserved
+ * 32  double points[rows], ascending
+ *     double rates[rows]
+ *     double coefficients[count]
+ *     int    sourceRows[rows]
+ * </pre>
+ */
+public final class RateTable {
+    static final int MAGIC = 0x31425352;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_BYTES = 32;
+    
+    public static final RateTable EMPTY = new RateTable(new double[0], new double[0], new int[0],
+            RateInterpolation.NEAREST);
+    
+    private final int size;
+    private final int firstSourceRow;
+    private final RateInterpolation interpolation;
+    /** Heap columns; all null for a mapped table. */
+    private final double[] points;
+    private final double[] rates;
+    /**
+     * Segment {@code i} holds {@code a, b, c, d} from index {@code 4 * i}, for
+     * {@code rate = a + b*t + c*t^2 + d*t^3} with {@code t = x - points[i]}. Empty for nearest-row tables.
+     */
+    private final double[] coefficients;
+    private final int[] sourceRows;
+    /** The mapped sheet, or null for a heap table. */
+    private final ByteBuffer data;
+    private final int ratesOffset;
+    private final int coefficientsOffset;
+    private final int sourceRowsOffset;
+    
+    private RateTable(double[] points, double[] rates, int[] sourceRows, RateInterpolation interpolation) {
+        this.size = points.length;
+        this.interpolation = interpolation;
+        this.points = points;
+        this.rates = rates;
+        this.coefficients = coefficients(points, rates, interpolation);
+        this.sourceRows = sourceRows;
+        this.data = null;
+        this.ratesOffset = HEADER_BYTES + size * Double.BYTES;
+        this.coefficientsOffset = ratesOffset + size * Double.BYTES;
+        this.sourceRowsOffset = coefficientsOffset + coefficients.length * Double.BYTES;
+        
+        int first = 0;
+        for (int i = 1; i < size; i++) {
+            if (sourceRows[i] < sourceRows[first]) {
+                first = i;
+            }
+        }
+        this.firstSourceRow = first;
+    }
+    
+    private RateTable(ByteBuffer data) {
+        if (data.capacity() < HEADER_BYTES || data.getInt(0) != MAGIC) {
+            throw new RateSheetException("Not a compiled rate sheet");
+        }
+        if (data.getInt(4) != FORMAT_VERSION) {
+            throw new RateSheetException("Unsupported compiled rate sheet version " + data.getInt(4));
+        }
+        int mode = data.getInt(8);
+        if (mode < 0 || mode >= RateInterpolation.values().length) {
+            throw new RateSheetException("Unknown interpolation " + mode + " in compiled rate sheet");
+        }
+        
+        int size = data.getInt(12);
+        int first = data.getInt(16);
+        int coefficientCount = data.getInt(20);
+        long expectedCoefficients = mode == RateInterpolation.NEAREST.ordinal() || size < 2 ? 0 : (size - 1L) * 4;
+        long expectedBytes = HEADER_BYTES + ((long) size * 2 + coefficientCount) * Double.BYTES
+                + (long) size * Integer.BYTES;
+        if (size < 0 || coefficientCount != expectedCoefficients || data.capacity() != expectedBytes
+                || (size > 0 && (first < 0 || first >= size))) {
+            throw new RateSheetException("Compiled rate sheet is truncated or corrupt");
+        }
+        
+        this.size = size;
+        this.firstSourceRow = first;
+        this.interpolation = RateInterpolation.values()[mode];
+        this.points = null;
+        this.rates = null;
+        this.coefficients = null;
+        this.sourceRows = null;
+        this.data = data;
+        this.ratesOffset = HEADER_BYTES + size * Double.BYTES;
+        this.coefficientsOffset = ratesOffset + size * Double.BYTES;
+        this.sourceRowsOffset = coefficientsOffset + coefficientCount * Double.BYTES;
+    }
+    
+    /**
+     * Builds a table from rows in source order. Rows repeating an earlier points value are unreachable by a
+     * nearest-point search and are dropped.
+     */
+    public static RateTable of(double[] points, double[] rates) {
+        return of(points, rates, RateInterpolation.NEAREST);
+    }
+    
+    public static RateTable of(double[] points, double[] rates, RateInterpolation interpolation) {
+        if (points.length != rates.length) {
+            throw new IllegalArgumentException("Points and rates must have the same length");
+        }
+        for (double p : points) {
+            if (Double.isNaN(p)) {
+                throw new IllegalArgumentException("Rate sheet points must be numeric");
+            }
+        }
+        
+        // Sheets are normally written in points order; only sort (and drop repeats) when one is not.
+        int[] sourceRows = new int[points.length];
+        boolean ascending = true;
+        for (int row = 0; row < points.length; row++) {
+            sourceRows[row] = row;
+            ascending &= row == 0 || points[row - 1] < points[row];
+        }
+        if (ascending) {
+            return new RateTable(points.clone(), rates.clone(), sourceRows, interpolation);
+        }
+        
+        Integer[] order = IntStream.range(0, points.length).boxed().toArray(Integer[]::new);
+        Arrays.sort(order, Comparator.comparingDouble((Integer i) -> points[i]).thenComparingInt(i -> i));
+        
+        double[] sortedPoints = new double[points.length];
+        double[] sortedRates = new double[points.length];
+        int size = 0;
+        
+        for (int row : order) {
+            if (size > 0 && sortedPoints[size - 1] == points[row]) {
+                continue;
+            }
+            sortedPoints[size] = points[row];
+            sortedRates[size] = rates[row];
+            sourceRows[size] = row;
+            size++;
+        }
+        
+        return new RateTable(Arrays.copyOf(sortedPoints, size), Arrays.copyOf(sortedRates, size),
+                Arrays.copyOf(sourceRows, size), interpolation);
+    }
+    
+    /**
+     * Wraps a buffer in the compiled layout, typically a mapped {@code .rsb} file, without copying it.
+     *
+     * @throws RateSheetException if the header does not describe a complete table
+     */
+    static RateTable wrap(ByteBuffer data) {
+        return new RateTable(data.order(ByteOrder.LITTLE_ENDIAN));
+    }
+    
+    /**
+     * The same rows priced with another interpolation mode. A different mode always yields a heap table.
+     */
+    public RateTable withInterpolation(RateInterpolation interpolation) {
+        if (interpolation == this.interpolation) {
+            return this;
+        }
+        
+        double[] points = new double[size];
+        double[] rates = new double[size];
+        int[] sourceRows = new int[size];
+        for (int row = 0; row < size; row++) {
+            points[row] = pointsAt(row);
+            rates[row] = rateAt(row);
+            sourceRows[row] = sourceRowAt(row);
+        }
+        return new RateTable(points, rates, sourceRows, interpolation);
+    }
+    
+    public RateInterpolation getInterpolation() {
+        return interpolation;
+    }
+    
+    /**
+     * Whether lookups read a memory-mapped sheet rather than heap arrays.
+     */
+    public boolean isMapped() {
+        return data != null;
+    }
+    
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public double pointsAt(int row) {
+        return points != null ? points[row] : data.getDouble(HEADER_BYTES + row * Double.BYTES);
+    }
+    
+    public double rateAt(int row) {
+        return rates != null ? rates[row] : data.getDouble(ratesOffset + row * Double.BYTES);
+    }
+    
+    /**
+     * Approximate heap footprint: object headers plus the backing arrays. A mapped table's rows live in the page
+     * cache, shared with every other process mapping the same sheet, so only the headers count.
+     */
+    public long estimatedBytes() {
+        return isMapped() ? 64 : 64 + (long) sourceRowsOffset - HEADER_BYTES + (long) size * Integer.BYTES;
+    }
+    
+    /**
+     * The table in the compiled layout, positioned at 0. Writing it out produces an {@code .rsb} sheet.
+     */
+    public ByteBuffer compiled() {
+        if (data != null) {
+            return data.duplicate().order(ByteOrder.LITTLE_ENDIAN).clear();
+        }
+        
+        ByteBuffer compiled = ByteBuffer.allocate(sourceRowsOffset + size * Integer.BYTES)
+                .order(ByteOrder.LITTLE_ENDIAN);
+        compiled.putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putInt(interpolation.ordinal())
+                .putInt(size)
+                .putInt(firstSourceRow)
+                .putInt(coefficients.length)
+                .putLong(0);
+        compiled.asDoubleBuffer().put(points).put(rates).put(coefficients);
+        compiled.position(sourceRowsOffset);
+        compiled.asIntBuffer().put(sourceRows);
+        return compiled.clear();
+    }
+    
+    /**
+     * Points an interpolating table quotes for a request: the request clamped to the sheet's range. A non-finite
+     * request gets the first source row's points, as {@link #nearestRow(double)} does.
+     */
+    public double quotedPoints(double requestedPoints) {
+        if (!Double.isFinite(requestedPoints)) {
+            return pointsAt(firstSourceRow);
+        }
+        return Math.max(pointsAt(0), Math.min(pointsAt(size - 1), requestedPoints));
+    }
+    
+    /**
+     * Rate on the interpolated curve at {@code quotedPoints}, which must come from {@link #quotedPoints(double)}.
+     */
+    public double interpolatedRate(double quotedPoints) {
+        int segment = binarySearch(quotedPoints);
+        if (segment < 0) {
+            segment = -segment - 2;
+        }
+        if (segment >= size - 1) {
+            return rateAt(size - 1);
+        }
+        
+        double t = quotedPoints - pointsAt(segment);
+        if (coefficients != null) {
+            int c = segment * 4;
+            return coefficients[c] + t * (coefficients[c + 1] + t * (coefficients[c + 2] + t * coefficients[c + 3]));
+        }
+        int c = coefficientsOffset + segment * 4 * Double.BYTES;
+        return data.getDouble(c)
+                + t * (data.getDouble(c + 8) + t * (data.getDouble(c + 16) + t * data.getDouble(c + 24)));
+    }
+    
+    /**
+     * Returns the row whose points value is closest to {@code requestedPoints}.
+     */
+    public int nearestRow(double requestedPoints) {
+        if (!Double.isFinite(requestedPoints)) {
+            return firstSourceRow;
+        }
+        
+        int found = binarySearch(requestedPoints);
+        if (found >= 0) {
+            return found;
+        }
+        
+        int hi = -found - 1;
+        int lo = hi - 1;
+        double minDiff = Math.min(
+                lo >= 0 ? Math.abs(pointsAt(lo) - requestedPoints) : Double.POSITIVE_INFINITY,
+                hi < size ? Math.abs(pointsAt(hi) - requestedPoints) : Double.POSITIVE_INFINITY);
+        
+        // Rounding can make more than two neighbours equidistant; the earliest source row among them wins.
+        int best = -1;
+        for (int i = lo; i >= 0 && Math.abs(pointsAt(i) - requestedPoints) == minDiff; i--) {
+            best = earlierSourceRow(best, i);
+        }
+        for (int i = hi; i < size && Math.abs(pointsAt(i) - requestedPoints) == minDiff; i++) {
+            best = earlierSourceRow(best, i);
+        }
+        return best;
+    }
+    
+    private int sourceRowAt(int row) {
+        return sourceRows != null ? sourceRows[row] : data.getInt(sourceRowsOffset + row * Integer.BYTES);
+    }
+    
+    /**
+     * {@link Arrays#binarySearch(double[], double)} over the points column, mapped or not.
+     */
+    private int binarySearch(double key) {
+        if (points != null) {
+            return Arrays.binarySearch(points, key);
+        }
+        
+        int low = 0;
+        int high = size - 1;
+        
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            double midVal = pointsAt(mid);
+            
+            if (midVal < key) {
+                low = mid + 1;
+            } else if (midVal > key) {
+                high = mid - 1;
+            } else {
+                long midBits = Double.doubleToLongBits(midVal);
+                long keyBits = Double.doubleToLongBits(key);
+                if (midBits == keyBits) {
+                    return mid;
+                } else if (midBits < keyBits) {
+                    low = mid + 1;
+                } else {
+                    high = mid - 1;
+                }
+            }
+        }
+        return -(low + 1);
+    }
+    
+    private int earlierSourceRow(int current, int candidate) {
+        return current < 0 || sourceRowAt(candidate) < sourceRowAt(current) ? candidate : current;
+    }
+    
+    private static double[] coefficients(double[] points, double[] rates, RateInterpolation interpolation) {
+        int segments = points.length - 1;
+        if (interpolation == RateInterpolation.NEAREST || segments < 1) {
+            return new double[0];
+        }
+        
+        double[] slopes = new double[segments];
+        for (int i = 0; i < segments; i++) {
+            slopes[i] = (rates[i + 1] - rates[i]) / (points[i + 1] - points[i]);
+        }
+        double[] tangents = interpolation == RateInterpolation.LINEAR ? null : monotoneTangents(points, slopes);
+        
+        double[] coefficients = new double[segments * 4];
+        for (int i = 0; i < segments; i++) {
+            coefficients[i * 4] = rates[i];
+            if (tangents == null) {
+                coefficients[i * 4 + 1] = slopes[i];
+                continue;
+            }
+            double h = points[i + 1] - points[i];
+            coefficients[i * 4 + 1] = tangents[i];
+            coefficients[i * 4 + 2] = (3 * slopes[i] - 2 * tangents[i] - tangents[i + 1]) / h;
+            coefficients[i * 4 + 3] = (tangents[i] + tangents[i + 1] - 2 * slopes[i]) / (h * h);
+        }
+        return coefficients;
+    }
+    
+    /**
+     * Fritsch-Carlson tangents: zero at local extrema, otherwise the weighted harmonic mean of the adjacent
+     * slopes, which keeps each segment monotone. End tangents take the end segment's slope.
+     */
+    private static double[] monotoneTangents(double[] points, double[] slopes) {
+        int segments = slopes.length;
+        double[] tangents = new double[segments + 1];
+        tangents[0] = slopes[0];
+        tangents[segments] = slopes[segments - 1];
+        
+        for (int i = 1; i < segments; i++) {
+            if (slopes[i - 1] * slopes[i] <= 0) {
+                continue;
+            }
+            double before = points[i] - points[i - 1];
+            double after = points[i + 1] - points[i];
+            double w1 = 2 * after + before;
+            double w2 = after + 2 * before;
+            tangents[i] = (w1 + w2) / (w1 / slopes[i - 1] + w2 / slopes[i]);
+        }
+        return tangents;
+    }
+}
@@ -0,0 +1,133 @@
+package com.mortgagecalc.pricing;
+
+/**
+ * Walks an amortization schedule one month at a time without materializing it. Payments, interest and balances
+ * are rounded to cents as a servicer would; the final payment clears whatever balance remains. Adjustable products
+ * re-amortize the remaining balance over the remaining term at each reset projected by {@link ArmTerms}.
+ */
+public final class ScheduleCursor {
+    private final ArmTerms armTerms;
+    private final double initialRate;
+    private final int termMonths;
+    private final int fixedMonths;
+    
+    private int month;
+    private double rate;
+    private double payment;
+    private double interest;
+    private double principal;
+    private double balance;
+    
+    private ScheduleCursor(MortgageProduct product, double loanValue, double rate, ArmTerms armTerms) {
+        this.armTerms = armTerms;
+        this.initialRate = rate;
+        this.termMonths = product.getTermMonths();
+        this.fixedMonths = product.isAdjustable() ? product.getFixedMonths() : termMonths;
+        this.rate = rate;
+        this.balance = cents(loanValue);
+        this.payment = levelPayment(balance, rate, termMonths);
+    }
+    
+    private ScheduleCursor(ScheduleCursor position) {
+        this.armTerms = position.armTerms;
+        this.initialRate = position.initialRate;
+        this.termMonths = position.termMonths;
+        this.fixedMonths = position.fixedMonths;
+        this.month = position.month;
+        this.rate = position.rate;
+        this.payment = position.payment;
+        this.interest = position.interest;
+        this.principal = position.principal;
+        this.balance = position.balance;
+    }
+    
+    /**
+     * Cursor positioned before the first payment; call {@link #next()} to move onto month 1.
+     */
+    public static ScheduleCursor start(MortgageProduct product, double loanValue, double rate, ArmTerms armTerms) {
+        return new ScheduleCursor(product, loanValue, rate, armTerms);
+    }
+    
+    /**
+     * Independent cursor at the same position, so a page can be walked more than once without skipping to it again.
+     */
+    public ScheduleCursor copy() {
+        return new ScheduleCursor(this);
+    }
+    
+    public int getTermMonths() {
+        return termMonths;
+    }
+    
+    /**
+     * Advances to the next payment. Returns false once the term is over.
+     */
+    public boolean next() {
+        if (month >= termMonths) {
+            return false;
+        }
+        
+        if (month >= fixedMonths && (month - fixedMonths) % 12 == 0) {
+            int reset = (month - fixedMonths) / 12;
+            double resetRate = armTerms.resetRate(reset, initialRate, rate);
+            if (resetRate != rate) {
+                rate = resetRate;
+                payment = levelPayment(balance, rate, termMonths - month);
+            }
+        }
+        
+        month++;
+        interest = cents(balance * rate / 1200);
+        if (month == termMonths || payment - interest >= balance) {
+            principal = balance;
+            payment = cents(principal + interest);
+        } else {
+            principal = cents(payment - interest);
+        }
+        balance = cents(balance - principal);
+        return true;
+    }
+    
+    /**
+     * Advances past up to {@code rows} payments and returns how many were skipped.
+     */
+    public int skip(int rows) {
+        int skipped = 0;
+        while (skipped < rows && next()) {
+            skipped++;
+        }
+        return skipped;
+    }
+    
+    public int getMonth() {
+        return month;
+    }
+    
+    public double getRate() {
+        return rate;
+    }
+    
+    public double getPayment() {
+        return payment;
+    }
+    
+    public double getInterest() {
+        return interest;
+    }
+    
+    public double getPrincipal() {
+        return principal;
+    }
+    
+    public double getBalance() {
+        return balance;
+    }
+    
+    private static double levelPayment(double balance, double rate, int months) {
+        return cents(Amortization.monthlyPayment(balance, rate, months));
+    }
+    
+    private static double cents(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
@@ -0,0 +1,14 @@
+package com.mortgagecalc.pricing;
+
+public class UnknownRateSnapshotException extends RuntimeException {
+    private final long version;
+    
+    public UnknownRateSnapshotException(long version) {
+        super("Rate snapshot " + version + " is not available");
+        this.version = version;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+}
@@ -0,0 +1,406 @@
+package com.mortgagecalc.pricing.rules;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Rule book compiled into per-dimension bucket tables plus a lazily built decision graph.
+ * <p>
+ * Each dimension splits its value space at the boundaries used by any rule, and every bucket holds a bitmask of
+ * the rules it satisfies. A quote walks from the root {@link RuleMatch} through one bucket per dimension; each
+ * step ANDs in that bucket's mask and interns the result, and the transition is cached on the node. Once a path
+ * has been seen, matching is one bucket search and one array read per dimension, and each node carries its
+ * summed rate and points adjustments, so neither matching nor applying depends on the rule count. The number of interned matches is capped; past the cap the masks are still computed, just not cached.
+ */
+public final class CompiledRuleBook {
+    public static final CompiledRuleBook EMPTY = compile(List.of());
+    
+    private static final int DEFAULT_MAX_INTERNED = 50_000;
+    private static final RuleDimension[] QUOTE_DIMENSIONS = {RuleDimension.CREDIT_SCORE, RuleDimension.LTV,
+            RuleDimension.LOAN_VALUE, RuleDimension.ASSETS_UNDER_MANAGEMENT, RuleDimension.STATE,
+            RuleDimension.HOME_TYPE};
+    
+    private final List<PricingRule> rules;
+    private final int words;
+    private final double[] adjustments;
+    private final RuleTarget[] targets;
+    private final NumericIndex[] numericIndexes;
+    private final CategoryIndex[] categoryIndexes;
+    private final int[] bucketCounts;
+    private final Map<MaskKey, RuleMatch> interned = new ConcurrentHashMap<>();
+    private final AtomicInteger internIds = new AtomicInteger();
+    private final int maxInterned;
+    private final RuleMatch root;
+    
+    private CompiledRuleBook(List<PricingRule> rules, int maxInterned) {
+        this.rules = List.copyOf(rules);
+        this.words = Math.max(1, (rules.size() + 63) >>> 6);
+        this.adjustments = new double[rules.size()];
+        this.targets = new RuleTarget[rules.size()];
+        this.numericIndexes = new NumericIndex[RuleDimension.values().length];
+        this.categoryIndexes = new CategoryIndex[RuleDimension.values().length];
+        this.bucketCounts = new int[RuleDimension.values().length];
+        this.maxInterned = maxInterned;
+        
+        long[] allRules = new long[words];
+        for (int id = 0; id < rules.size(); id++) {
+            allRules[id >>> 6] |= 1L << id;
+            adjustments[id] = rules.get(id).getAdjustment();
+            targets[id] = rules.get(id).getTarget();
+        }
+        
+        for (RuleDimension dimension : RuleDimension.values()) {
+            Map<Integer, RuleCondition[]> constrained = conditionsOn(dimension);
+            if (constrained.isEmpty()) {
+                continue;
+            }
+            if (dimension.isNumeric()) {
+                NumericIndex index = new NumericIndex(constrained);
+                numericIndexes[dimension.ordinal()] = index;
+                bucketCounts[dimension.ordinal()] = index.bucketCount();
+            } else {
+                CategoryIndex index = new CategoryIndex(constrained);
+                categoryIndexes[dimension.ordinal()] = index;
+                bucketCounts[dimension.ordinal()] = index.bucketCount();
+            }
+        }
+        
+        this.root = intern(allRules);
+    }
+    
+    public static CompiledRuleBook compile(List<PricingRule> rules) {
+        return new CompiledRuleBook(rules, DEFAULT_MAX_INTERNED);
+    }
+    
+    public static CompiledRuleBook compile(List<PricingRule> rules, int maxInterned) {
+        return new CompiledRuleBook(rules, maxInterned);
+    }
+    
+    public int ruleCount() {
+        return rules.size();
+    }
+    
+    public PricingRule rule(int id) {
+        return rules.get(id);
+    }
+    
+    public List<PricingRule> rules() {
+        return rules;
+    }
+    
+    /**
+     * Descriptions of the matched rules, in rule order.
+     */
+    public List<String> describe(RuleMatch match) {
+        List<String> descriptions = new ArrayList<>(match.size());
+        for (int i = 0; i < match.size(); i++) {
+            descriptions.add(rules.get(match.ruleId(i)).getDescription());
+        }
+        return descriptions;
+    }
+    
+    public int internedMatches() {
+        return interned.size();
+    }
+    
+    /**
+     * Rules whose product-independent conditions hold for the quote.
+     */
+    public RuleMatch matchQuote(double creditScore, double ltv, double loanValue, double assetsUnderManagement,
+                                String state, String homeType) {
+        RuleMatch match = root;
+        match = step(match, RuleDimension.CREDIT_SCORE, numericBucket(RuleDimension.CREDIT_SCORE, creditScore));
+        match = step(match, RuleDimension.LTV, numericBucket(RuleDimension.LTV, ltv));
+        match = step(match, RuleDimension.LOAN_VALUE, numericBucket(RuleDimension.LOAN_VALUE, loanValue));
+        match = step(match, RuleDimension.ASSETS_UNDER_MANAGEMENT,
+                numericBucket(RuleDimension.ASSETS_UNDER_MANAGEMENT, assetsUnderManagement));
+        match = step(match, RuleDimension.STATE, categoryBucket(RuleDimension.STATE, state));
+        match = step(match, RuleDimension.HOME_TYPE, categoryBucket(RuleDimension.HOME_TYPE, homeType));
+        return match;
+    }
+    
+    /**
+     * Every distinct {@link #matchQuote quote match} some quote can reach, interning each one. Dimensions are
+     * walked in {@code matchQuote} order keeping only distinct matches after each, so the work grows with the
+     * number of distinct rule sets rather than the product of the bucket counts. Returns {@code null} if the
+     * intern limit is reached first.
+     */
+    public List<RuleMatch> quoteMatches() {
+        Collection<RuleMatch> frontier = List.of(root);
+        for (RuleDimension dimension : QUOTE_DIMENSIONS) {
+            int buckets = bucketCounts[dimension.ordinal()];
+            if (buckets == 0) {
+                continue;
+            }
+            Map<Integer, RuleMatch> next = new LinkedHashMap<>();
+            for (RuleMatch match : frontier) {
+                for (int bucket = 0; bucket < buckets; bucket++) {
+                    RuleMatch stepped = step(match, dimension, bucket);
+                    if (stepped.getId() < 0) {
+                        return null;
+                    }
+                    next.putIfAbsent(stepped.getId(), stepped);
+                }
+            }
+            frontier = next.values();
+        }
+        return List.copyOf(frontier);
+    }
+    
+    /**
+     * Narrows a {@link #matchQuote quote match} to the rules that also apply to {@code product}.
+     */
+    public RuleMatch matchProduct(String product, RuleMatch quoteMatch) {
+        return step(quoteMatch, RuleDimension.PRODUCT, categoryBucket(RuleDimension.PRODUCT, product));
+    }
+    
+    /**
+     * Adds the matched adjustments for {@code target} to {@code base}. The adjustments are summed once, in rule
+     * order, when the match is built, so this is a single addition however many rules matched.
+     */
+    public double apply(RuleTarget target, double base, RuleMatch match) {
+        return base + match.adjustment(target);
+    }
+    
+    /**
+     * Bucket index of {@code value} on a dimension, or -1 when no rule constrains it. Two quotes with the same
+     * bucket on every dimension match exactly the same rules.
+     */
+    public int bucketOf(RuleDimension dimension, double value) {
+        return numericBucket(dimension, value);
+    }
+    
+    public int bucketOf(RuleDimension dimension, String value) {
+        return categoryBucket(dimension, value);
+    }
+    
+    public int bucketCount(RuleDimension dimension) {
+        return bucketCounts[dimension.ordinal()];
+    }
+    
+    private int numericBucket(RuleDimension dimension, double value) {
+        NumericIndex index = numericIndexes[dimension.ordinal()];
+        return index == null ? -1 : index.bucketOf(value);
+    }
+    
+    private int categoryBucket(RuleDimension dimension, String value) {
+        CategoryIndex index = categoryIndexes[dimension.ordinal()];
+        return index == null ? -1 : index.bucketOf(value);
+    }
+    
+    private RuleMatch step(RuleMatch match, RuleDimension dimension, int bucket) {
+        if (bucket < 0) {
+            return match;
+        }
+        
+        RuleMatch[] transitions = match.transitions[dimension.ordinal()];
+        if (transitions == null) {
+            // Racing threads may each install an array; losing one only drops cached transitions.
+            transitions = new RuleMatch[bucketCounts[dimension.ordinal()]];
+            match.transitions[dimension.ordinal()] = transitions;
+        }
+        RuleMatch next = transitions[bucket];
+        if (next == null) {
+            long[] bucketMasks = dimension.isNumeric()
+                    ? numericIndexes[dimension.ordinal()].bucketMasks
+                    : categoryIndexes[dimension.ordinal()].bucketMasks;
+            long[] mask = new long[words];
+            int offset = bucket * words;
+            for (int w = 0; w < words; w++) {
+                mask[w] = match.mask()[w] & bucketMasks[offset + w];
+            }
+            next = intern(mask);
+            if (next.getId() >= 0) {
+                transitions[bucket] = next;
+            }
+        }
+        return next;
+    }
+    
+    private RuleMatch intern(long[] mask) {
+        MaskKey key = new MaskKey(mask);
+        RuleMatch existing = interned.get(key);
+        if (existing != null) {
+            return existing;
+        }
+        if (interned.size() >= maxInterned) {
+            return newMatch(-1, mask);
+        }
+        return interned.computeIfAbsent(key, k -> newMatch(internIds.getAndIncrement(), mask));
+    }
+    
+    private RuleMatch newMatch(int id, long[] mask) {
+        int count = 0;
+        for (long bits : mask) {
+            count += Long.bitCount(bits);
+        }
+        int[] ruleIds = new int[count];
+        int n = 0;
+        for (int w = 0; w < mask.length; w++) {
+            long bits = mask[w];
+            while (bits != 0) {
+                ruleIds[n++] = (w << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+            }
+        }
+        double[] sums = new double[RuleTarget.values().length];
+        for (int ruleId : ruleIds) {
+            sums[targets[ruleId].ordinal()] += adjustments[ruleId];
+        }
+        
+        return new RuleMatch(id, mask, ruleIds, sums, new RuleMatch[bucketCounts.length][]);
+    }
+    
+    /**
+     * Rules mapped to all conditions they place on one dimension; several conditions on a dimension intersect.
+     */
+    private Map<Integer, RuleCondition[]> conditionsOn(RuleDimension dimension) {
+        Map<Integer, RuleCondition[]> constrained = new HashMap<>();
+        for (int id = 0; id < rules.size(); id++) {
+            List<RuleCondition> conditions = new ArrayList<>();
+            for (RuleCondition condition : rules.get(id).getConditions()) {
+                if (condition.getDimension() == dimension) {
+                    conditions.add(condition);
+                }
+            }
+            if (!conditions.isEmpty()) {
+                constrained.put(id, conditions.toArray(new RuleCondition[0]));
+            }
+        }
+        return constrained;
+    }
+    
+    private void setIfMatched(long[] bucketMasks, int bucket, int id, boolean matched) {
+        if (matched) {
+            bucketMasks[bucket * words + (id >>> 6)] |= 1L << id;
+        }
+    }
+    
+    private final class NumericIndex {
+        private final double[] cuts;
+        private final long[] bucketMasks;
+        
+        NumericIndex(Map<Integer, RuleCondition[]> constrained) {
+            TreeSet<Double> boundaries = new TreeSet<>();
+            for (RuleCondition[] conditions : constrained.values()) {
+                for (RuleCondition condition : conditions) {
+                    if (Double.isFinite(condition.getLower())) {
+                        boundaries.add(condition.getLower());
+                    }
+                    if (Double.isFinite(condition.getUpper())) {
+                        boundaries.add(condition.getUpper());
+                    }
+                }
+            }
+            cuts = new double[boundaries.size()];
+            int cut = 0;
+            for (double boundary : boundaries) {
+                cuts[cut++] = boundary;
+            }
+            
+            // Buckets 0..cuts.length cover the number line; the extra last bucket is NaN, which only
+            // unconstrained rules accept.
+            int nanBucket = cuts.length + 1;
+            bucketMasks = new long[(nanBucket + 1) * words];
+            for (int id = 0; id < rules.size(); id++) {
+                RuleCondition[] conditions = constrained.get(id);
+                for (int bucket = 0; bucket < nanBucket; bucket++) {
+                    // Conditions only change value at cut points, so any value in the bucket is representative.
+                    double representative = bucket == 0 ? Double.NEGATIVE_INFINITY : cuts[bucket - 1];
+                    boolean matched = true;
+                    if (conditions != null) {
+                        for (RuleCondition condition : conditions) {
+                            matched &= condition.matches(representative);
+                        }
+                    }
+                    setIfMatched(bucketMasks, bucket, id, matched);
+                }
+                setIfMatched(bucketMasks, nanBucket, id, conditions == null);
+            }
+        }
+        
+        int bucketCount() {
+            return cuts.length + 2;
+        }
+        
+        int bucketOf(double value) {
+            if (Double.isNaN(value)) {
+                return cuts.length + 1;
+            }
+            int found = Arrays.binarySearch(cuts, value + 0.0);
+            return found >= 0 ? found + 1 : -found - 1;
+        }
+    }
+    
+    private final class CategoryIndex {
+        private final Map<String, Integer> buckets = new HashMap<>();
+        private final long[] bucketMasks;
+        
+        CategoryIndex(Map<Integer, RuleCondition[]> constrained) {
+            for (RuleCondition[] conditions : constrained.values()) {
+                for (RuleCondition condition : conditions) {
+                    for (String value : condition.getValues()) {
+                        buckets.putIfAbsent(value, buckets.size() + 1);
+                    }
+                }
+            }
+            
+            // Bucket 0 stands for any value no rule mentions, including null.
+            String[] representatives = new String[buckets.size() + 1];
+            for (Map.Entry<String, Integer> bucket : buckets.entrySet()) {
+                representatives[bucket.getValue()] = bucket.getKey();
+            }
+            
+            bucketMasks = new long[representatives.length * words];
+            for (int id = 0; id < rules.size(); id++) {
+                RuleCondition[] conditions = constrained.get(id);
+                for (int bucket = 0; bucket < representatives.length; bucket++) {
+                    boolean matched = true;
+                    if (conditions != null) {
+                        for (RuleCondition condition : conditions) {
+                            matched &= condition.matches(representatives[bucket]);
+                        }
+                    }
+                    setIfMatched(bucketMasks, bucket, id, matched);
+                }
+            }
+        }
+        
+        int bucketCount() {
+            return buckets.size() + 1;
+        }
+        
+        int bucketOf(String value) {
+            Integer bucket = value == null ? null : buckets.get(value);
+            return bucket == null ? 0 : bucket;
+        }
+    }
+    
+    private static final class MaskKey {
+        private final long[] mask;
+        private final int hash;
+        
+        MaskKey(long[] mask) {
+            this.mask = mask;
+            this.hash = Arrays.hashCode(mask);
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof MaskKey key && Arrays.equals(mask, key.mask);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
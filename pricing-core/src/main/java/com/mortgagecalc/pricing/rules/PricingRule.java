@@ -0,0 +1,63 @@
+package com.mortgagecalc.pricing.rules;
+
+import java.util.List;
+
+public final class PricingRule {
+    private final String id;
+    private final RuleTarget target;
+    private final double adjustment;
+    private final List<RuleCondition> conditions;
+    private final String description;
+    
+    public PricingRule(String id, RuleTarget target, double adjustment, List<RuleCondition> conditions,
+                       String description) {
+        this.id = id;
+        this.target = target;
+        this.adjustment = adjustment;
+        this.conditions = List.copyOf(conditions);
+        this.description = description;
+    }
+    
+    public String getId() {
+        return id;
+    }
+    
+    public RuleTarget getTarget() {
+        return target;
+    }
+    
+    public double getAdjustment() {
+        return adjustment;
+    }
+    
+    public List<RuleCondition> getConditions() {
+        return conditions;
+    }
+    
+    public String getDescription() {
+        return description;
+    }
+    
+    /**
+     * Evaluates the rule condition by condition. This is the reference semantics the compiled rule book must
+     * reproduce; pricing itself goes through {@link CompiledRuleBook}.
+     */
+    public boolean matches(double creditScore, double ltv, double loanValue, double assetsUnderManagement,
+                           String state, String homeType, String product) {
+        for (RuleCondition condition : conditions) {
+            boolean matched = switch (condition.getDimension()) {
+                case CREDIT_SCORE -> condition.matches(creditScore);
+                case LTV -> condition.matches(ltv);
+                case LOAN_VALUE -> condition.matches(loanValue);
+                case ASSETS_UNDER_MANAGEMENT -> condition.matches(assetsUnderManagement);
+                case STATE -> condition.matches(state);
+                case HOME_TYPE -> condition.matches(homeType);
+                case PRODUCT -> condition.matches(product);
+            };
+            if (!matched) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,57 @@
+package com.mortgagecalc.pricing.rules;
+
+import com.mortgagecalc.pricing.CsvReader;
+import com.mortgagecalc.pricing.RateSheetException;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public final class RuleBookLoader {
+    
+    private RuleBookLoader() {
+    }
+    
+    /**
+     * Reads an {@code id,target,adjustment,conditions,description} rule table. Conditions are separated by
+     * {@code ;} and all must hold; an empty conditions column applies the rule to every quote.
+     */
+    public static List<PricingRule> readCsv(String sourceName, Reader source) {
+        List<PricingRule> rules = new ArrayList<>();
+        
+        try (CsvReader reader = new CsvReader(source)) {
+            reader.readNext();
+            
+            String[] line;
+            while ((line = reader.readNext()) != null) {
+                if (line.length < 5 || line[0].isBlank()) {
+                    continue;
+                }
+                List<RuleCondition> conditions = new ArrayList<>();
+                for (String expression : line[3].split(";")) {
+                    if (!expression.isBlank()) {
+                        conditions.add(RuleCondition.parse(expression));
+                    }
+                }
+                rules.add(new PricingRule(line[0].trim(), RuleTarget.valueOf(line[1].trim()),
+                        Double.parseDouble(line[2].trim()), conditions, line[4].trim()));
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            throw new RateSheetException("Error loading pricing rules from " + sourceName, e);
+        }
+        
+        return rules;
+    }
+    
+    public static List<PricingRule> readCsv(Path rulesFile) {
+        try (Reader reader = Files.newBufferedReader(rulesFile, StandardCharsets.UTF_8)) {
+            return readCsv(rulesFile.toString(), reader);
+        } catch (IOException e) {
+            throw new RateSheetException("Error loading pricing rules from " + rulesFile, e);
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package com.mortgagecalc.pricing.rules;
+
+import java.util.Arrays;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * A single predicate on one dimension. Numeric conditions are normalised to a half-open interval
+ * {@code [lower, upper)} so that every comparison operator compiles to the same bucket boundaries; categorical
+ * conditions hold the accepted values.
+ */
+public final class RuleCondition {
+    private static final Pattern EXPRESSION = Pattern.compile("\\s*(\\w+)\\s*(<=|>=|<|>|=|\\s+in\\s+)\\s*(.+?)\\s*");
+    
+    private final RuleDimension dimension;
+    private final double lower;
+    private final double upper;
+    private final Set<String> values;
+    
+    private RuleCondition(RuleDimension dimension, double lower, double upper, Set<String> values) {
+        this.dimension = dimension;
+        this.lower = lower;
+        this.upper = upper;
+        this.values = values;
+    }
+    
+    public static RuleCondition range(RuleDimension dimension, double lower, double upper) {
+        if (!dimension.isNumeric()) {
+            throw new IllegalArgumentException(dimension.getKey() + " does not take a numeric range");
+        }
+        return new RuleCondition(dimension, lower + 0.0, upper + 0.0, Set.of());
+    }
+    
+    public static RuleCondition oneOf(RuleDimension dimension, String... values) {
+        if (dimension.isNumeric()) {
+            throw new IllegalArgumentException(dimension.getKey() + " does not take categorical values");
+        }
+        return new RuleCondition(dimension, 0, 0, new LinkedHashSet<>(Arrays.asList(values)));
+    }
+    
+    /**
+     * Parses expressions such as {@code loanValue<500000}, {@code creditScore>=740}, {@code state=NY} or
+     * {@code homeType in Condo|Townhouse}.
+     */
+    public static RuleCondition parse(String expression) {
+        Matcher matcher = EXPRESSION.matcher(expression);
+        if (!matcher.matches()) {
+            throw new IllegalArgumentException("Malformed rule condition: " + expression);
+        }
+        
+        RuleDimension dimension = RuleDimension.fromKey(matcher.group(1));
+        String operator = matcher.group(2).trim();
+        String operand = matcher.group(3);
+        
+        if (!dimension.isNumeric()) {
+            if (operator.equals("=")) {
+                return oneOf(dimension, operand);
+            }
+            if (operator.equals("in")) {
+                return oneOf(dimension, Arrays.stream(operand.split("\\|")).map(String::trim).toArray(String[]::new));
+            }
+            throw new IllegalArgumentException("Operator " + operator + " is not valid for " + dimension.getKey());
+        }
+        
+        double value = Double.parseDouble(operand);
+        return switch (operator) {
+            case "<" -> range(dimension, Double.NEGATIVE_INFINITY, value);
+            case "<=" -> range(dimension, Double.NEGATIVE_INFINITY, Math.nextUp(value));
+            case ">" -> range(dimension, Math.nextUp(value), Double.POSITIVE_INFINITY);
+            case ">=" -> range(dimension, value, Double.POSITIVE_INFINITY);
+            case "=" -> range(dimension, value, Math.nextUp(value));
+            default -> throw new IllegalArgumentException("Operator " + operator + " is not valid for " + dimension.getKey());
+        };
+    }
+    
+    public RuleDimension getDimension() {
+        return dimension;
+    }
+    
+    public double getLower() {
+        return lower;
+    }
+    
+    public double getUpper() {
+        return upper;
+    }
+    
+    public Set<String> getValues() {
+        return values;
+    }
+    
+    public boolean matches(double value) {
+        return value >= lower && (value < upper || upper == Double.POSITIVE_INFINITY);
+    }
+    
+    public boolean matches(String value) {
+        return value != null && values.contains(value);
+    }
+    
+    @Override
+    public String toString() {
+        if (dimension.isNumeric()) {
+            return dimension.getKey() + " in [" + lower + ", " + upper + ")";
+        }
+        return dimension.getKey() + " in " + values.stream().collect(Collectors.joining("|"));
+    }
+}
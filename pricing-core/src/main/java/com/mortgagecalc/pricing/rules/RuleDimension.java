@@ -0,0 +1,36 @@
+package com.mortgagecalc.pricing.rules;
+
+public enum RuleDimension {
+    CREDIT_SCORE("creditScore", true),
+    LTV("ltv", true),
+    LOAN_VALUE("loanValue", true),
+    ASSETS_UNDER_MANAGEMENT("assetsUnderManagement", true),
+    STATE("state", false),
+    HOME_TYPE("homeType", false),
+    PRODUCT("product", false);
+    
+    private final String key;
+    private final boolean numeric;
+    
+    RuleDimension(String key, boolean numeric) {
+        this.key = key;
+        this.numeric = numeric;
+    }
+    
+    public String getKey() {
+        return key;
+    }
+    
+    public boolean isNumeric() {
+        return numeric;
+    }
+    
+    public static RuleDimension fromKey(String key) {
+        for (RuleDimension dimension : values()) {
+            if (dimension.key.equals(key)) {
+                return dimension;
+            }
+        }
+        throw new IllegalArgumentException("Unknown rule dimension: " + key);
+    }
+}
@@ -0,0 +1,55 @@
+package com.mortgagecalc.pricing.rules;
+
+/**
+ * The set of rules satisfied after some or all dimensions of a quote have been looked up. Matches are interned
+ * by {@link CompiledRuleBook}: two quotes that fall in rule-equivalent buckets share the same instance, which
+ * also caches the transitions to the next dimension's buckets.
+ */
+public final class RuleMatch {
+    private final int id;
+    private final long[] mask;
+    private final int[] ruleIds;
+    private final double[] adjustments;
+    final RuleMatch[][] transitions;
+    
+    RuleMatch(int id, long[] mask, int[] ruleIds, double[] adjustments, RuleMatch[][] transitions) {
+        this.id = id;
+        this.mask = mask;
+        this.ruleIds = ruleIds;
+        this.adjustments = adjustments;
+        this.transitions = transitions;
+    }
+    
+    /**
+     * Interning id, unique within one compiled rule book; -1 for matches created after the intern limit was hit.
+     */
+    public int getId() {
+        return id;
+    }
+    
+    public int size() {
+        return ruleIds.length;
+    }
+    
+    /**
+     * Id of the {@code index}-th matched rule, in rule file order.
+     */
+    public int ruleId(int index) {
+        return ruleIds[index];
+    }
+    
+    /**
+     * Sum of the matched rules' adjustments for {@code target}, added up in rule file order.
+     */
+    public double adjustment(RuleTarget target) {
+        return adjustments[target.ordinal()];
+    }
+    
+    public boolean contains(int ruleId) {
+        return (mask[ruleId >>> 6] & (1L << ruleId)) != 0;
+    }
+    
+    long[] mask() {
+        return mask;
+    }
+}
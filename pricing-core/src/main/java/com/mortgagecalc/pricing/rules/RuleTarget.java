@@ -0,0 +1,6 @@
+package com.mortgagecalc.pricing.rules;
+
+public enum RuleTarget {
+    RATE,
+    POINTS
+}
@@ -0,0 +1,149 @@
+package com.mortgagecalc.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AprSolverTest {
+    
+    @Test
+    void testMonthlyPayment_KnownValues() {
+        assertEquals(1199.10, Amortization.monthlyPayment(200000, 6.0, 360), 0.005);
+        assertEquals(1687.71, Amortization.monthlyPayment(200000, 6.0, 180), 0.005);
+        assertEquals(1000.0, Amortization.monthlyPayment(360000, 0.0, 360));
+    }
+    
+    @Test
+    void testDiscountFactorTable_MatchesDirectComputation() {
+        DiscountFactorTable table = DiscountFactorTable.forTerm(360);
+        
+        assertSame(table, DiscountFactorTable.forTerm(360));
+        for (double rate : new double[] {0.0, 3.125, 6.875, 7.0 + 0.25 - 0.125, 24.999, 25.0, 25.5, 6.0001, -0.5}) {
+            assertEquals(DiscountFactorTable.compute(rate / 1200, 360), table.at(rate), 1e-15);
+        }
+        
+        Random random = new Random(3);
+        for (int i = 0; i < 10_000; i++) {
+            double monthlyRate = random.nextDouble() * 0.02;
+            double expected = DiscountFactorTable.compute(monthlyRate, 360);
+            assertEquals(expected, table.atMonthly(monthlyRate), expected * 1e-13);
+        }
+        
+        // Just under half a grid step from the nearest entry, where the series correction is largest. Rounding
+        // 1 + i costs both sides up to n ulps, so this is as tight as the comparison with Math.pow can be.
+        for (int step = 1; step < DiscountFactorTable.MAX_STEPS; step += 997) {
+            double monthlyRate = (step + 0.4999) / (DiscountFactorTable.STEPS_PER_PERCENT * 1200);
+            double expected = DiscountFactorTable.compute(monthlyRate, 360);
+            assertEquals(expected, table.atMonthly(monthlyRate), expected * 1e-13);
+        }
+    }
+    
+    @Test
+    void testSolve_NoFeesGivesNoteRate() {
+        double payment = Amortization.monthlyPayment(300000, 6.5, 360);
+        
+        for (AprSolver solver : AprSolver.values()) {
+            double monthly = solver.solveMonthlyRate(payment, 300000, DiscountFactorTable.forTerm(360), 6.5 / 1200,
+                    DiscountFactorTable.compute(6.5 / 1200, 360));
+            assertEquals(6.5, monthly * 1200, 1e-9);
+        }
+    }
+    
+    @Test
+    void testSolve_PointsRaiseApr() {
+        // $200,000 at 6% over 30 years with 2 points financed: APR 6.1895%.
+        double payment = Amortization.monthlyPayment(200000, 6.0, 360);
+        
+        for (AprSolver solver : AprSolver.values()) {
+            double apr = solver.solveMonthlyRate(payment, 196000, DiscountFactorTable.forTerm(360), 0.005,
+                    DiscountFactorTable.compute(0.005, 360)) * 1200;
+            assertEquals(6.1895, apr, 1e-4);
+        }
+    }
+    
+    @Test
+    void testSolve_LenderCreditLowersApr() {
+        double payment = Amortization.monthlyPayment(200000, 6.0, 360);
+        
+        double apr = AprSolver.HALLEY.solveMonthlyRate(payment, 202000, DiscountFactorTable.forTerm(360), 0.005,
+                DiscountFactorTable.compute(0.005, 360)) * 1200;
+        
+        assertTrue(apr < 6.0);
+        assertEquals(AprSolver.bisect(payment, 202000, 360) * 1200, apr, 1e-8);
+    }
+    
+    @Test
+    void testSolve_NothingFinanced() {
+        DiscountFactorTable table = DiscountFactorTable.forTerm(360);
+        
+        assertTrue(Double.isNaN(AprSolver.NEWTON.solveMonthlyRate(1000, 0, table, 0.005, 0.1)));
+        assertTrue(Double.isNaN(AprSolver.bisect(1000, -5, 360)));
+    }
+    
+    @Test
+    void testSolve_MatchesBisectionAcrossRandomQuotes() {
+        Random random = new Random(9);
+        
+        for (int i = 0; i < 2_000; i++) {
+            int termMonths = random.nextBoolean() ? 360 : 180;
+            double rate = 1 + random.nextInt(10_000) / 1000.0;
+            double loan = 50_000 + random.nextInt(2_000_000);
+            double points = random.nextInt(17) * 0.25 - 1.0;
+            double monthlyRate = rate / 1200;
+            DiscountFactorTable table = DiscountFactorTable.forTerm(termMonths);
+            double discountFactor = table.at(rate);
+            double payment = Amortization.monthlyPayment(loan, monthlyRate, discountFactor, termMonths);
+            double amountFinanced = loan - points / 100 * loan;
+            
+            double expected = AprSolver.bisect(payment, amountFinanced, termMonths) * 1200;
+            for (AprSolver solver : AprSolver.values()) {
+                double apr = solver.solveMonthlyRate(payment, amountFinanced, table, monthlyRate, discountFactor)
+                        * 1200;
+                assertEquals(expected, apr, 1e-7, solver + " rate=" + rate + " points=" + points);
+            }
+        }
+    }
+    
+    @Test
+    void testAmortizationMemo_ReusesEntriesPerRateAndPoints() {
+        AmortizationMemo memo = new AmortizationMemo(DiscountFactorTable.forTerm(360));
+        
+        AmortizationMemo.Entry entry = memo.lookup(6.0, 2.0);
+        
+        assertSame(entry, memo.lookup(6.0, 2.0));
+        assertNotSame(entry, memo.lookup(6.0, 1.0));
+        assertEquals(6.1895, entry.apr, 1e-4);
+        assertEquals(1199.10, 200000 * entry.paymentPerDollar, 0.005);
+        assertEquals(6.0, memo.lookup(6.0, 0.0).apr);
+    }
+    
+    @Test
+    void testAmortizationMemo_ArmQuotesCompositeApr() {
+        // 5/1 ARM at 6%, index 4.5 + margin 2.75 = 7.25% from month 61 (within the 2-point initial cap). Per dollar:
+        // 60 payments of 0.00599551 at 6%, leaving 0.93054357, then 300 payments of 0.00672603 at 7.25%. The rate
+        // discounting that stream to 1.00 (no points) is 6.74902%, and to 0.99 (one point) 6.84464%.
+        ArmTerms armTerms = new ArmTerms(new double[] {4.5}, 2.75, 2.0, 2.0, 5.0);
+        AmortizationMemo arm = new AmortizationMemo(MortgageProduct.ARM_5_1, armTerms);
+        
+        assertEquals(6.74902, arm.lookup(6.0, 0.0).apr, 1e-5);
+        assertEquals(6.84464, arm.lookup(6.0, 1.0).apr, 1e-5);
+        assertEquals(1199.10, 200000 * arm.lookup(6.0, 0.0).paymentPerDollar, 0.005);
+        
+        // Fixed-rate products ignore the ARM terms, and without an index path an ARM keeps its initial rate.
+        assertEquals(6.0, new AmortizationMemo(MortgageProduct.FIXED_30, armTerms).lookup(6.0, 0.0).apr);
+        assertEquals(6.0, new AmortizationMemo(MortgageProduct.ARM_5_1, ArmTerms.NONE).lookup(6.0, 0.0).apr);
+    }
+    
+    @Test
+    void testSolveComposite_LevelStreamMatchesLevelSolver() {
+        double payment = Amortization.monthlyPayment(200000, 6.0, 360);
+        
+        double apr = AprSolver.solveMonthlyRate(new int[] {0, 60}, new double[] {payment, payment}, 360, 196000,
+                0.005) * 1200;
+        
+        assertEquals(AprSolver.bisect(payment, 196000, 360) * 1200, apr, 1e-8);
+        assertTrue(Double.isNaN(AprSolver.solveMonthlyRate(new int[] {0}, new double[] {payment}, 360, 0, 0.005)));
+    }
+}
@@ -0,0 +1,40 @@
+package com.mortgagecalc.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvReaderTest {
+    
+    @Test
+    void testReadNext_QuotedFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(
+                "id,description\r\nA,\"Jumbo, high LTV\"\nB,\"Says \"\"hi\"\"\"\n\nC,\"two\nlines\""));
+        
+        assertArrayEquals(new String[] {"id", "description"}, reader.readNext());
+        assertArrayEquals(new String[] {"A", "Jumbo, high LTV"}, reader.readNext());
+        assertArrayEquals(new String[] {"B", "Says \"hi\""}, reader.readNext());
+        assertArrayEquals(new String[] {""}, reader.readNext());
+        assertArrayEquals(new String[] {"C", "two\nlines"}, reader.readNext());
+        assertNull(reader.readNext());
+    }
+    
+    @Test
+    void testReadNext_EmptyFields() throws IOException {
+        CsvReader reader = new CsvReader(new StringReader("a,,\n,b\n"));
+        
+        assertArrayEquals(new String[] {"a", "", ""}, reader.readNext());
+        assertArrayEquals(new String[] {"", "b"}, reader.readNext());
+        assertNull(reader.readNext());
+    }
+    
+    @Test
+    void testReadNext_UnterminatedQuote() {
+        CsvReader reader = new CsvReader(new StringReader("a,\"open\n"));
+        
+        assertThrows(IOException.class, reader::readNext);
+    }
+}
@@ -0,0 +1,131 @@
+package com.mortgagecalc.pricing;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricerTest {
+    
+    private static final String RULES = """
+            id,target,adjustment,conditions,description
+            SMALL_LOAN,RATE,1.0,loanValue<500000,Small loan
+            NEW_YORK,POINTS,0.25,state=NY,New York
+            SHORT_TERM,RATE,-0.5,product=fixed_15,Short term
+            """;
+    
+    @Test
+    void testQuote_MatchesKernel(@TempDir Path directory) throws IOException {
+        Pricer pricer = load(directory);
+        QuoteRequest request = createRequest();
+        
+        List<Quote> quotes = pricer.quote(request);
+        
+        QuoteResult[] results = PricingKernel.newResults();
+        pricer.getKernel().priceAll(720, 400000, 500000, 0, "NY", "Condo", 0.0, results);
+        assertEquals(MortgageProduct.count(), quotes.size());
+        for (MortgageProduct product : MortgageProduct.values()) {
+            Quote quote = quotes.get(product.ordinal());
+            QuoteResult expected = results[product.ordinal()];
+            assertEquals(product, quote.getProduct());
+            assertEquals(1, quote.getRateSnapshotId());
+            assertEquals(expected.getRate(), quote.getRate());
+            assertEquals(expected.getPoints(), quote.getPoints());
+            assertEquals(expected.getApr(), quote.getApr());
+            assertEquals(expected.getMonthlyPayment(), quote.getMonthlyPayment());
+        }
+        assertEquals(List.of("Small loan", "New York"),
+                quotes.get(MortgageProduct.FIXED_30.ordinal()).getAppliedRules());
+        assertEquals(List.of("Small loan", "New York", "Short term"),
+                quotes.get(MortgageProduct.FIXED_15.ordinal()).getAppliedRules());
+    }
+    
+    @Test
+    void testLoad_UsesGridsAndLockPeriod(@TempDir Path directory) throws IOException {
+        Files.writeString(directory.resolve("fixed_30" + RateSheetLoader.GRID_EXTENSION), RateGridTest.GRID);
+        Pricer pricer = load(directory);
+        QuoteRequest request = createRequest();
+        
+        request.setLockPeriodDays(30);
+        double shortLock = pricer.quote(request).get(MortgageProduct.FIXED_30.ordinal()).getRate();
+        request.setLockPeriodDays(60);
+        double longLock = pricer.quote(request).get(MortgageProduct.FIXED_30.ordinal()).getRate();
+        
+        assertNotNull(pricer.getSnapshot().getRateGrid("fixed_30"));
+        assertNotEquals(shortLock, longLock);
+    }
+    
+    @Test
+    void testLoad_ArmTermsSetArmAprs(@TempDir Path directory) throws IOException {
+        Pricer initialRate = load(directory);
+        // The ARM prices at 8% here and resets to 6.0 + 2.75 = 8.75% after five years.
+        ArmTerms armTerms = new ArmTerms(new double[] {6.0}, 2.75, 2.0, 2.0, 5.0);
+        Pricer reset = Pricer.load(directory, directory.resolve("rules.txt"), RateInterpolation.NEAREST, armTerms);
+        QuoteRequest request = createRequest();
+        
+        Quote initialArm = initialRate.quote(request).get(MortgageProduct.ARM_5_1.ordinal());
+        Quote resetArm = reset.quote(request).get(MortgageProduct.ARM_5_1.ordinal());
+        
+        assertSame(armTerms, reset.getKernel().getArmTerms());
+        assertSame(ArmTerms.NONE, initialRate.getKernel().getArmTerms());
+        assertEquals(initialArm.getRate(), resetArm.getRate());
+        assertTrue(resetArm.getApr() > initialArm.getApr());
+        assertEquals(initialRate.quote(request).get(MortgageProduct.FIXED_30.ordinal()).getApr(),
+                reset.quote(request).get(MortgageProduct.FIXED_30.ordinal()).getApr());
+    }
+    
+    @Test
+    void testLoad_MissingRulesFile(@TempDir Path directory) throws IOException {
+        for (MortgageProduct product : MortgageProduct.values()) {
+            Files.writeString(directory.resolve(product.getKey() + ".csv"), "points,rate\n0.0,7.0\n");
+        }
+        
+        RateSheetException e = assertThrows(RateSheetException.class,
+                () -> Pricer.load(directory, directory.resolve("missing.csv")));
+        assertTrue(e.getMessage().startsWith("Error loading pricing rules from "));
+    }
+    
+    @Test
+    void testLoad_RejectsProductWithoutRates(@TempDir Path directory) throws IOException {
+        load(directory);
+        Files.delete(directory.resolve("arm_7_1.csv"));
+        
+        RateSheetException e = assertThrows(RateSheetException.class,
+                () -> Pricer.load(directory, directory.resolve("rules.txt")));
+        
+        assertEquals("No rate sheet or grid for arm_7_1 in " + directory, e.getMessage());
+    }
+    
+    @Test
+    void testQuote_RejectsNonPositiveAmounts(@TempDir Path directory) throws IOException {
+        Pricer pricer = load(directory);
+        QuoteRequest request = createRequest();
+        request.setPropertyPrice(0);
+        
+        assertThrows(IllegalArgumentException.class, () -> pricer.quote(request));
+    }
+    
+    private Pricer load(Path directory) throws IOException {
+        for (MortgageProduct product : MortgageProduct.values()) {
+            Files.writeString(directory.resolve(product.getKey() + ".csv"),
+                    "points,rate\n-1.0,7.5\n0.0,7.0\n1.0,6.5\n");
+        }
+        Path rules = Files.writeString(directory.resolve("rules.txt"), RULES);
+        return Pricer.load(directory, rules);
+    }
+    
+    private QuoteRequest createRequest() {
+        QuoteRequest request = new QuoteRequest();
+        request.setCreditScore(720);
+        request.setLoanValue(400000);
+        request.setPropertyPrice(500000);
+        request.setState("NY");
+        request.setHomeType("Condo");
+        return request;
+    }
+}
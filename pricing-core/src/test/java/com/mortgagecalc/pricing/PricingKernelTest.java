@@ -0,0 +1,166 @@
+package com.mortgagecalc.pricing;
+
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.pricing.rules.RuleBookLoader;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.lang.management.ManagementFactory;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingKernelTest {
+    
+    private static final String RULES = """
+            id,target,adjustment,conditions,description
+            SMALL_LOAN,RATE,1.0,loanValue<500000,Small loan
+            HIGH_AUM,RATE,-0.25,assetsUnderManagement>10000000,High AUM
+            NEW_YORK,POINTS,0.25,state=NY,New York
+            SHORT_TERM,RATE,-0.5,product=fixed_15,Short term
+            """;
+    
+    private CompiledRuleBook ruleBook;
+    private RateSnapshot snapshot;
+    
+    @BeforeEach
+    void setUp() {
+        ruleBook = CompiledRuleBook.compile(RuleBookLoader.readCsv("test", new StringReader(RULES)));
+        
+        Map<String, RateTable> rateTables = new LinkedHashMap<>();
+        for (MortgageProduct product : MortgageProduct.values()) {
+            rateTables.put(product.getKey(), RateTable.of(new double[] {-1.0, 0.0, 1.0}, new double[] {7.5, 7.0, 6.5}));
+        }
+        snapshot = new RateSnapshot(3, Instant.now(), "test", rateTables);
+    }
+    
+    @Test
+    void testPriceAll_AppliesRulesPerProduct() {
+        PricingKernel kernel = PricingKernel.of(snapshot, ruleBook);
+        QuoteResult[] results = PricingKernel.newResults();
+        
+        kernel.priceAll(720, 400000, 500000, 0, "NY", "Condo", 0.0, results);
+        
+        QuoteResult fixed30 = results[MortgageProduct.FIXED_30.ordinal()];
+        assertEquals(MortgageProduct.FIXED_30, fixed30.getProduct());
+        assertEquals(3, fixed30.getRateSnapshotId());
+        assertEquals(8.0, fixed30.getRate());
+        assertEquals(0.25, fixed30.getPoints());
+        assertEquals(2, fixed30.getAppliedRules().size());
+        assertEquals(0, fixed30.getAppliedRules().ruleId(0));
+        assertEquals(2, fixed30.getAppliedRules().ruleId(1));
+        
+        QuoteResult fixed15 = results[MortgageProduct.FIXED_15.ordinal()];
+        assertEquals(7.5, fixed15.getRate());
+        assertTrue(fixed15.getAppliedRules().contains(3));
+        assertEquals(Amortization.monthlyPayment(400000, 8.0, 360), fixed30.getMonthlyPayment(), 1e-9);
+        assertEquals(8.0264, fixed30.getApr(), 1e-4);
+        assertEquals(7.5409, fixed15.getApr(), 1e-4);
+    }
+    
+    @Test
+    void testPrice_InterpolatesBetweenRows() {
+        Map<String, RateTable> rateTables = new LinkedHashMap<>();
+        snapshot.getRateTables().forEach((product, rateTable) ->
+                rateTables.put(product, rateTable.withInterpolation(RateInterpolation.LINEAR)));
+        PricingKernel kernel = PricingKernel.of(new RateSnapshot(4, Instant.now(), "test", rateTables), ruleBook);
+        QuoteResult result = new QuoteResult();
+        
+        kernel.price(MortgageProduct.FIXED_30, kernel.matchQuote(720, 600000, 800000, 0, "CA", "Condo"), 600000, 0.3,
+                result);
+        
+        assertEquals(6.85, result.getRate(), 1e-12);
+        assertEquals(0.3, result.getPoints());
+        
+        kernel.price(MortgageProduct.FIXED_30, kernel.matchQuote(720, 600000, 800000, 0, "CA", "Condo"), 600000, 3.0,
+                result);
+        
+        assertEquals(6.5, result.getRate());
+        assertEquals(1.0, result.getPoints());
+    }
+    
+    @Test
+    void testPriceAll_UsesRateGridCells() {
+        RateGrid grid = RateSheetLoader.readGridCsv("fixed_30", new StringReader(RateGridTest.GRID));
+        PricingKernel kernel = PricingKernel.of(new RateSnapshot(5, Instant.now(), "test", snapshot.getRateTables(),
+                Map.of("fixed_30", grid, "arm_5_1", grid)), ruleBook);
+        QuoteResult[] results = PricingKernel.newResults();
+        
+        kernel.priceAll(45, 750, 600000, 750000, 0, "CA", "Condo", 0.4, results);
+        
+        assertEquals(6.60, results[MortgageProduct.FIXED_30.ordinal()].getRate());
+        assertEquals(0.0, results[MortgageProduct.FIXED_30.ordinal()].getPoints());
+        assertEquals(6.60, results[MortgageProduct.ARM_5_1.ordinal()].getRate());
+        assertEquals(6.5, results[MortgageProduct.FIXED_15.ordinal()].getRate());
+        
+        kernel.priceAll(30, 700, 700000, 750000, 0, "CA", "Condo", 1.0, results);
+        
+        assertEquals(7.00, results[MortgageProduct.FIXED_30.ordinal()].getRate());
+        assertEquals(1.0, results[MortgageProduct.FIXED_30.ordinal()].getPoints());
+        assertEquals(7.00, results[MortgageProduct.ARM_5_1.ordinal()].getRate());
+    }
+    
+    @Test
+    void testLocate_PacksEachGridsCell() {
+        RateGrid grid = RateSheetLoader.readGridCsv("fixed_30", new StringReader(RateGridTest.GRID));
+        PricingKernel kernel = PricingKernel.of(new RateSnapshot(5, Instant.now(), "test", snapshot.getRateTables(),
+                Map.of("fixed_30", grid, "arm_5_1", grid)), ruleBook);
+        
+        assertEquals(0, PricingKernel.of(snapshot, ruleBook).locate(60, 750, 700000, 750000));
+        assertEquals(0, kernel.locate(30, 700, 600000, 750000));
+        assertEquals(grid.cellIndex(60, 93.3, 750) * (1 + grid.cellCount()), kernel.locate(60, 750, 700000, 750000));
+    }
+    
+    @Test
+    void testPrice_OverwritesReusedResult() {
+        PricingKernel kernel = PricingKernel.of(snapshot, ruleBook);
+        QuoteResult result = new QuoteResult();
+        
+        kernel.price(MortgageProduct.ARM_5_1, kernel.matchQuote(720, 400000, 500000, 0, "NY", "Condo"), 400000, 0.0,
+                result);
+        kernel.price(MortgageProduct.ARM_7_1, kernel.matchQuote(720, 600000, 800000, 0, "CA", "Condo"), 600000, 1.0,
+                result);
+        
+        assertEquals(MortgageProduct.ARM_7_1, result.getProduct());
+        assertEquals(6.5, result.getRate());
+        assertEquals(1.0, result.getPoints());
+        assertEquals(0, result.getAppliedRules().size());
+    }
+    
+    @Test
+    void testPrice_MissingRateTable() {
+        RateSnapshot partial = new RateSnapshot(1, Instant.now(), "test",
+                Map.of("fixed_30", RateTable.of(new double[] {0.0}, new double[] {7.0})));
+        PricingKernel kernel = PricingKernel.of(partial, ruleBook);
+        QuoteResult[] results = PricingKernel.newResults();
+        
+        IllegalStateException e = assertThrows(IllegalStateException.class,
+                () -> kernel.priceAll(720, 400000, 500000, 0, "NY", "Condo", 0.0, results));
+        assertEquals("No rate data available for fixed_15", e.getMessage());
+    }
+    
+    @Test
+    void testPriceAll_DoesNotAllocateOnceWarm() {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        PricingKernel kernel = PricingKernel.of(snapshot, ruleBook);
+        QuoteResult[] results = PricingKernel.newResults();
+        String[] states = {"NY", "CA", "TX"};
+        
+        for (int i = 0; i < 10_000; i++) {
+            kernel.priceAll(600 + i % 250, 300000 + i % 7 * 50000, 900000, i % 3 * 6000000.0, states[i % 3], "Condo",
+                    i % 5 * 0.5 - 1.0, results);
+        }
+        
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < 10_000; i++) {
+            kernel.priceAll(600 + i % 250, 300000 + i % 7 * 50000, 900000, i % 3 * 6000000.0, states[i % 3], "Condo",
+                    i % 5 * 0.5 - 1.0, results);
+        }
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        
+        assertEquals(0, allocated);
+    }
+}
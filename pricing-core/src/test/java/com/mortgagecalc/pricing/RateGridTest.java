@@ -0,0 +1,111 @@
+package com.mortgagecalc.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateGridTest {
+    
+    static final String GRID = """
+            lockDays,ltvMax,ficoMin,points,rate
+            30,80,680,0,7.00
+            30,80,680,1,6.75
+            30,80,740,0,6.50
+            30,80,740,1,6.25
+            30,95,680,0,7.25
+            30,95,680,1,7.00
+            30,95,740,0,6.75
+            30,95,740,1,6.50
+            60,80,680,0,7.10
+            60,80,680,1,6.85
+            60,80,740,0,6.60
+            60,80,740,1,6.35
+            60,95,680,0,7.35
+            60,95,680,1,7.10
+            60,95,740,0,6.85
+            60,95,740,1,6.60
+            """;
+    
+    @Test
+    void testCellIndex_BandRules() {
+        RateGrid grid = RateSheetLoader.readGridCsv("fixed_30", new StringReader(GRID));
+        
+        assertEquals(7.00, rate(grid, 30, 80, 700, 0.0));
+        assertEquals(7.10, rate(grid, 45, 80, 700, 0.0));
+        assertEquals(7.10, rate(grid, 90, 80, 700, 0.0));
+        assertEquals(7.00, rate(grid, 1, 60, 700, 0.0));
+        assertEquals(7.25, rate(grid, 30, 80.01, 700, 0.0));
+        assertEquals(7.25, rate(grid, 30, 120, 700, 0.0));
+        assertEquals(6.50, rate(grid, 30, 80, 740, 0.0));
+        assertEquals(7.00, rate(grid, 30, 80, 600, 0.0));
+        assertEquals(6.35, rate(grid, 60, 80, 850, 1.0));
+    }
+    
+    @Test
+    void testNearestPoint_TieGoesToLowerPoints() {
+        RateGrid grid = RateSheetLoader.readGridCsv("fixed_30", new StringReader(GRID));
+        
+        assertEquals(0.0, grid.pointsAt(grid.nearestPoint(0.5)));
+        assertEquals(1.0, grid.pointsAt(grid.nearestPoint(0.51)));
+        assertEquals(0.0, grid.pointsAt(grid.nearestPoint(-3.0)));
+        assertEquals(1.0, grid.pointsAt(grid.nearestPoint(3.0)));
+        assertEquals(0.0, grid.pointsAt(grid.nearestPoint(Double.NaN)));
+    }
+    
+    @Test
+    void testOf_RowOrderDoesNotMatter() {
+        RateGrid grid = RateGrid.of(new int[] {60, 30, 60, 30}, new double[] {80, 80, 80, 80},
+                new double[] {700, 700, 700, 700}, new double[] {1, 0, 0, 1}, new double[] {6.9, 7.0, 7.2, 6.8});
+        
+        assertEquals(2, grid.cellCount());
+        assertEquals(2, grid.pointCount());
+        assertEquals(7.0, rate(grid, 30, 80, 700, 0.0));
+        assertEquals(6.8, rate(grid, 30, 80, 700, 1.0));
+        assertEquals(7.2, rate(grid, 60, 80, 700, 0.0));
+        assertEquals(6.9, rate(grid, 60, 80, 700, 1.0));
+    }
+    
+    @Test
+    void testOf_MissingOrRepeatedCell() {
+        RateSheetException missing = assertThrows(RateSheetException.class, () -> RateGrid.of(new int[] {30, 60, 60},
+                new double[] {80, 80, 95}, new double[] {700, 700, 700}, new double[] {0, 0, 0},
+                new double[] {7.0, 7.1, 7.2}));
+        RateSheetException repeated = assertThrows(RateSheetException.class, () -> RateGrid.of(
+                new int[] {30, 30, 60, 30}, new double[] {80, 95, 80, 80}, new double[] {700, 700, 700, 700},
+                new double[] {0, 0, 0, 0}, new double[] {7.0, 7.1, 7.2, 7.3}));
+        
+        assertEquals("Rate grid has 3 rows but its axes span 4 cells", missing.getMessage());
+        assertEquals("Rate grid repeats lock 30, LTV 80.0, FICO 700.0, points 0.0", repeated.getMessage());
+    }
+    
+    @Test
+    void testReadGridCsv_MalformedRow() {
+        RateSheetException e = assertThrows(RateSheetException.class, () -> RateSheetLoader.readGridCsv("fixed_30",
+                new StringReader("lockDays,ltvMax,ficoMin,points,rate\n30,80,680,0,not-a-rate")));
+        
+        assertEquals("Error loading rate grid for fixed_30", e.getMessage());
+    }
+    
+    @Test
+    void testFootprint() {
+        RateGrid grid = RateSheetLoader.readGridCsv("fixed_30", new StringReader(GRID));
+        
+        Map<String, Object> footprint = grid.footprint();
+        
+        assertEquals(2, footprint.get("lockPeriods"));
+        assertEquals(2, footprint.get("ltvBands"));
+        assertEquals(2, footprint.get("ficoBands"));
+        assertEquals(2, footprint.get("points"));
+        assertEquals(16, footprint.get("cells"));
+        assertEquals(128L, footprint.get("rateBytes"));
+        assertEquals(grid.estimatedBytes(), footprint.get("estimatedBytes"));
+    }
+    
+    private static double rate(RateGrid grid, int lockPeriodDays, double ltv, double creditScore, double points) {
+        return grid.rateAt(grid.cellIndex(lockPeriodDays, ltv, creditScore) * grid.pointCount(),
+                grid.nearestPoint(points));
+    }
+}
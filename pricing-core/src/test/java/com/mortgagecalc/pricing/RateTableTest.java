@@ -0,0 +1,182 @@
+package com.mortgagecalc.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateTableTest {
+    
+    @Test
+    void testNearestRow_ExactAndBetweenPoints() {
+        RateTable table = RateTable.of(new double[] {-1.0, -0.5, 0.0, 0.5, 1.0}, new double[] {7.5, 7.2, 7.0, 6.8, 6.6});
+        
+        assertEquals(7.0, table.rateAt(table.nearestRow(0.0)));
+        assertEquals(6.8, table.rateAt(table.nearestRow(0.4)));
+        assertEquals(7.5, table.rateAt(table.nearestRow(-3.0)));
+        assertEquals(6.6, table.rateAt(table.nearestRow(5.0)));
+    }
+    
+    @Test
+    void testNearestRow_TieGoesToEarlierSourceRow() {
+        RateTable ascending = RateTable.of(new double[] {0.0, 0.5}, new double[] {7.0, 6.8});
+        RateTable descending = RateTable.of(new double[] {0.5, 0.0}, new double[] {6.8, 7.0});
+        
+        assertEquals(7.0, ascending.rateAt(ascending.nearestRow(0.25)));
+        assertEquals(6.8, descending.rateAt(descending.nearestRow(0.25)));
+    }
+    
+    @Test
+    void testNearestRow_NonFiniteRequestUsesFirstSourceRow() {
+        RateTable table = RateTable.of(new double[] {0.5, -1.0, 1.0}, new double[] {6.8, 7.5, 6.6});
+        
+        assertEquals(6.8, table.rateAt(table.nearestRow(Double.POSITIVE_INFINITY)));
+        assertEquals(6.8, table.rateAt(table.nearestRow(Double.NaN)));
+    }
+    
+    @Test
+    void testOf_DropsDuplicatePoints() {
+        RateTable table = RateTable.of(new double[] {0.0, 0.5, 0.0}, new double[] {7.0, 6.8, 9.9});
+        
+        assertEquals(2, table.size());
+        assertEquals(7.0, table.rateAt(table.nearestRow(0.0)));
+    }
+    
+    @Test
+    void testNearestRow_MatchesLinearScan() {
+        Random random = new Random(42);
+        
+        for (int sheet = 0; sheet < 200; sheet++) {
+            int size = 1 + random.nextInt(40);
+            double[] points = new double[size];
+            double[] rates = new double[size];
+            for (int i = 0; i < size; i++) {
+                points[i] = (random.nextInt(41) - 20) * 0.125;
+                rates[i] = 5.0 + random.nextInt(400) / 100.0;
+            }
+            RateTable table = RateTable.of(points, rates);
+            
+            for (int q = 0; q < 200; q++) {
+                double requested = (random.nextInt(61) - 30) * 0.0625;
+                int expected = linearScan(points, requested);
+                
+                int row = table.nearestRow(requested);
+                
+                assertEquals(points[expected], table.pointsAt(row));
+                assertEquals(rates[expected], table.rateAt(row));
+            }
+        }
+    }
+    
+    @Test
+    void testLinearInterpolation() {
+        RateTable table = RateTable.of(new double[] {0.5, -1.0, 0.0, 1.0}, new double[] {6.8, 7.5, 7.0, 6.6},
+                RateInterpolation.LINEAR);
+        
+        assertEquals(0.3, table.quotedPoints(0.3));
+        assertEquals(6.88, table.interpolatedRate(0.3), 1e-12);
+        assertEquals(7.25, table.interpolatedRate(-0.5), 1e-12);
+        assertEquals(6.8, table.interpolatedRate(0.5));
+        assertEquals(6.6, table.interpolatedRate(1.0));
+    }
+    
+    @Test
+    void testInterpolation_ClampsToSheetRange() {
+        RateTable table = RateTable.of(new double[] {0.5, -1.0, 1.0}, new double[] {6.8, 7.5, 6.6},
+                RateInterpolation.MONOTONE_CUBIC);
+        
+        assertEquals(-1.0, table.quotedPoints(-3.0));
+        assertEquals(1.0, table.quotedPoints(5.0));
+        assertEquals(0.5, table.quotedPoints(Double.NaN));
+        assertEquals(7.5, table.interpolatedRate(table.quotedPoints(-3.0)));
+        assertEquals(6.6, table.interpolatedRate(table.quotedPoints(5.0)));
+    }
+    
+    @Test
+    void testMonotoneCubic_PassesThroughRowsWithoutOvershoot() {
+        double[] points = {-2.0, -1.0, -0.75, 0.0, 0.25, 1.0, 2.0};
+        double[] rates = {8.0, 7.4, 7.4, 7.0, 6.5, 6.45, 6.0};
+        RateTable table = RateTable.of(points, rates, RateInterpolation.MONOTONE_CUBIC);
+        
+        for (int i = 0; i < points.length; i++) {
+            assertEquals(rates[i], table.interpolatedRate(points[i]), 1e-12);
+        }
+        
+        double previous = Double.POSITIVE_INFINITY;
+        for (double x = -2.0; x <= 2.0; x += 0.01) {
+            double rate = table.interpolatedRate(table.quotedPoints(x));
+            assertTrue(rate <= previous + 1e-12, "rate rose at " + x);
+            assertTrue(rate <= 8.0 && rate >= 6.0);
+            previous = rate;
+        }
+        assertEquals(7.4, table.interpolatedRate(-0.9), 1e-12);
+    }
+    
+    @Test
+    void testWithInterpolation_KeepsRows() {
+        RateTable nearest = RateTable.of(new double[] {0.0, 1.0}, new double[] {7.0, 6.6});
+        RateTable linear = nearest.withInterpolation(RateInterpolation.LINEAR);
+        
+        assertSame(nearest, nearest.withInterpolation(RateInterpolation.NEAREST));
+        assertEquals(RateInterpolation.LINEAR, linear.getInterpolation());
+        assertEquals(2, linear.size());
+        assertEquals(6.8, linear.interpolatedRate(0.5), 1e-12);
+        assertTrue(linear.estimatedBytes() > nearest.estimatedBytes());
+    }
+    
+    @Test
+    void testRateInterpolationFromKey() {
+        assertEquals(RateInterpolation.MONOTONE_CUBIC, RateInterpolation.fromKey(" Monotone-Cubic "));
+        assertThrows(IllegalArgumentException.class, () -> RateInterpolation.fromKey("spline"));
+    }
+    
+    @Test
+    void testWrap_CompiledLayoutRoundTrip() {
+        RateTable table = RateTable.of(new double[] {0.5, -1.0, 0.0, 0.5, 1.0}, new double[] {6.8, 7.5, 7.0, 9.9, 6.6},
+                RateInterpolation.MONOTONE_CUBIC);
+        ByteBuffer compiled = table.compiled();
+        ByteBuffer mapped = ByteBuffer.allocateDirect(compiled.remaining()).put(compiled).flip();
+        
+        RateTable wrapped = RateTable.wrap(mapped);
+        
+        assertTrue(wrapped.isMapped());
+        assertEquals(4, wrapped.size());
+        assertEquals(RateInterpolation.MONOTONE_CUBIC, wrapped.getInterpolation());
+        for (double requested = -1.5; requested <= 1.5; requested += 0.125) {
+            assertEquals(table.nearestRow(requested), wrapped.nearestRow(requested));
+            assertEquals(table.interpolatedRate(table.quotedPoints(requested)),
+                    wrapped.interpolatedRate(wrapped.quotedPoints(requested)));
+        }
+        assertEquals(0.5, wrapped.quotedPoints(Double.NaN));
+    }
+    
+    @Test
+    void testWrap_RejectsCorruptLayout() {
+        ByteBuffer compiled = RateTable.of(new double[] {0.0, 1.0}, new double[] {7.0, 6.6}).compiled();
+        ByteBuffer truncated = ByteBuffer.allocate(compiled.remaining() - 4).put(compiled.limit(compiled.limit() - 4));
+        
+        assertThrows(RateSheetException.class, () -> RateTable.wrap(truncated));
+        assertThrows(RateSheetException.class, () -> RateTable.wrap(ByteBuffer.allocate(64)));
+    }
+    
+    @Test
+    void testEmptyTable() {
+        assertTrue(RateTable.EMPTY.isEmpty());
+        assertEquals(0, RateTable.EMPTY.size());
+    }
+    
+    private int linearScan(double[] points, double requested) {
+        int closest = 0;
+        double minDiff = Math.abs(points[0] - requested);
+        for (int i = 0; i < points.length; i++) {
+            double diff = Math.abs(points[i] - requested);
+            if (diff < minDiff) {
+                minDiff = diff;
+                closest = i;
+            }
+        }
+        return closest;
+    }
+}
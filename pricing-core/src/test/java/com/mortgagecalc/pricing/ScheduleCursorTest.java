@@ -0,0 +1,107 @@
+package com.mortgagecalc.pricing;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScheduleCursorTest {
+    
+    @Test
+    void testFixedSchedule_FirstAndLastRows() {
+        ScheduleCursor cursor = ScheduleCursor.start(MortgageProduct.FIXED_30, 200000, 6.0, ArmTerms.NONE);
+        
+        assertTrue(cursor.next());
+        assertEquals(1, cursor.getMonth());
+        assertEquals(1199.10, cursor.getPayment());
+        assertEquals(1000.00, cursor.getInterest());
+        assertEquals(199.10, cursor.getPrincipal());
+        assertEquals(199800.90, cursor.getBalance());
+        
+        double principal = cursor.getPrincipal();
+        while (cursor.next()) {
+            principal += cursor.getPrincipal();
+        }
+        
+        assertEquals(360, cursor.getMonth());
+        assertEquals(0.0, cursor.getBalance());
+        assertEquals(200000.0, principal, 0.001);
+        assertFalse(cursor.next());
+    }
+    
+    @Test
+    void testSkip_MatchesStepping() {
+        ScheduleCursor stepped = ScheduleCursor.start(MortgageProduct.FIXED_15, 350000, 5.875, ArmTerms.NONE);
+        for (int i = 0; i < 100; i++) {
+            stepped.next();
+        }
+        ScheduleCursor skipped = ScheduleCursor.start(MortgageProduct.FIXED_15, 350000, 5.875, ArmTerms.NONE);
+        
+        assertEquals(100, skipped.skip(100));
+        assertEquals(stepped.getMonth(), skipped.getMonth());
+        assertEquals(stepped.getBalance(), skipped.getBalance());
+        assertEquals(80, skipped.skip(500));
+    }
+    
+    @Test
+    void testCopy_WalksIndependently() {
+        ScheduleCursor cursor = ScheduleCursor.start(MortgageProduct.ARM_5_1, 300000, 4.0,
+                new ArmTerms(new double[] {4.5}, 2.75, 2.0, 2.0, 5.0));
+        cursor.skip(58);
+        ScheduleCursor copy = cursor.copy();
+        
+        copy.skip(5);
+        
+        assertEquals(58, cursor.getMonth());
+        assertEquals(63, copy.getMonth());
+        cursor.skip(5);
+        assertEquals(copy.getRate(), cursor.getRate());
+        assertEquals(copy.getPayment(), cursor.getPayment());
+        assertEquals(copy.getBalance(), cursor.getBalance());
+    }
+    
+    @Test
+    void testArmSchedule_ResetsWithinCaps() {
+        ArmTerms terms = new ArmTerms(new double[] {5.0, 6.0, 9.0}, 2.75, 2.0, 1.0, 5.0);
+        ScheduleCursor cursor = ScheduleCursor.start(MortgageProduct.ARM_5_1, 300000, 4.0, terms);
+        
+        cursor.skip(60);
+        assertEquals(4.0, cursor.getRate());
+        double fixedPayment = cursor.getPayment();
+        
+        cursor.next();
+        assertEquals(6.0, cursor.getRate()); // 5.0 + 2.75 capped at 4.0 + 2.0
+        assertTrue(cursor.getPayment() > fixedPayment);
+        
+        cursor.skip(12);
+        assertEquals(7.0, cursor.getRate()); // 6.0 + 2.75 capped at 6.0 + 1.0
+        
+        cursor.skip(12);
+        assertEquals(8.0, cursor.getRate()); // 9.0 + 2.75 capped at 7.0 + 1.0
+        
+        cursor.skip(24);
+        assertEquals(9.0, cursor.getRate()); // lifetime cap 4.0 + 5.0
+        
+        cursor.skip(360);
+        assertEquals(360, cursor.getMonth());
+        assertEquals(0.0, cursor.getBalance());
+    }
+    
+    @Test
+    void testArmSchedule_EmptyIndexPathKeepsInitialRate() {
+        ScheduleCursor cursor = ScheduleCursor.start(MortgageProduct.ARM_7_1, 300000, 6.5, ArmTerms.NONE);
+        ScheduleCursor fixed = ScheduleCursor.start(MortgageProduct.FIXED_30, 300000, 6.5, ArmTerms.NONE);
+        
+        cursor.skip(200);
+        fixed.skip(200);
+        
+        assertEquals(6.5, cursor.getRate());
+        assertEquals(fixed.getBalance(), cursor.getBalance());
+    }
+    
+    @Test
+    void testResetRate_FloorsAtMargin() {
+        ArmTerms terms = new ArmTerms(new double[] {-1.0}, 2.75, 5.0, 5.0, 5.0);
+        
+        assertEquals(2.75, terms.resetRate(0, 5.0, 5.0));
+    }
+}
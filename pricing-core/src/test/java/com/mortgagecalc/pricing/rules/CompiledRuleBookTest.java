@@ -0,0 +1,180 @@
+package com.mortgagecalc.pricing.rules;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompiledRuleBookTest {
+    
+    private static final String[] STATES = {"NY", "CA", "TX", "FL", "NJ"};
+    private static final String[] HOME_TYPES = {"Single Family", "Condo", "Townhouse"};
+    private static final String[] PRODUCTS = {"fixed_30", "fixed_15", "arm_5_1", "arm_7_1"};
+    
+    @Test
+    void testParse_NumericOperators() {
+        assertTrue(RuleCondition.parse("loanValue<500000").matches(499999.99));
+        assertFalse(RuleCondition.parse("loanValue<500000").matches(500000));
+        assertTrue(RuleCondition.parse("creditScore<=740").matches(740));
+        assertFalse(RuleCondition.parse("assetsUnderManagement>10000000").matches(10000000));
+        assertTrue(RuleCondition.parse("assetsUnderManagement>10000000").matches(10000000.01));
+        assertTrue(RuleCondition.parse("ltv>=80").matches(80));
+        assertTrue(RuleCondition.parse("creditScore=700").matches(700));
+        assertFalse(RuleCondition.parse("creditScore=700").matches(701));
+    }
+    
+    @Test
+    void testParse_CategoricalOperators() {
+        assertTrue(RuleCondition.parse("state=NY").matches("NY"));
+        assertFalse(RuleCondition.parse("state=NY").matches("ny"));
+        assertTrue(RuleCondition.parse("homeType in Condo | Townhouse").matches("Townhouse"));
+        assertThrows(IllegalArgumentException.class, () -> RuleCondition.parse("state<NY"));
+        assertThrows(IllegalArgumentException.class, () -> RuleCondition.parse("income>5"));
+    }
+    
+    @Test
+    void testLoader_ReadsRuleTable() {
+        String csv = "id,target,adjustment,conditions,description\n"
+                + "SMALL_LOAN,RATE,1.0,loanValue<500000,\"Small Loan Amount (< $500,000): +1.00% to rate\"\n"
+                + "CONDO_NY,POINTS,0.125,state=NY;homeType=Condo,NY condo\n"
+                + "ALL,RATE,0.01,,Everyone\n";
+        
+        List<PricingRule> rules = RuleBookLoader.readCsv("test", new StringReader(csv));
+        
+        assertEquals(3, rules.size());
+        assertEquals("Small Loan Amount (< $500,000): +1.00% to rate", rules.get(0).getDescription());
+        assertEquals(RuleTarget.POINTS, rules.get(1).getTarget());
+        assertEquals(2, rules.get(1).getConditions().size());
+        assertTrue(rules.get(2).getConditions().isEmpty());
+    }
+    
+    @Test
+    void testApply_AddsAdjustmentsInRuleOrder() {
+        CompiledRuleBook ruleBook = CompiledRuleBook.compile(List.of(
+                rule("A", RuleTarget.RATE, 1.0, "loanValue<500000"),
+                rule("B", RuleTarget.RATE, -0.25, "assetsUnderManagement>10000000"),
+                rule("C", RuleTarget.POINTS, 0.25, "state=NY")));
+        
+        RuleMatch match = ruleBook.matchProduct("fixed_30", ruleBook.matchQuote(750, 80, 400000, 15000000, "NY", "Condo"));
+        
+        assertEquals(7.75, ruleBook.apply(RuleTarget.RATE, 7.0, match));
+        assertEquals(0.25, ruleBook.apply(RuleTarget.POINTS, 0.0, match));
+        assertEquals(3, match.size());
+        assertEquals(0, match.ruleId(0));
+        assertEquals(1, match.ruleId(1));
+        assertEquals(2, match.ruleId(2));
+    }
+    
+    @Test
+    void testEmptyRuleBook() {
+        RuleMatch match = CompiledRuleBook.EMPTY.matchQuote(750, 80, 400000, 0, "NY", "Condo");
+        
+        assertEquals(0, match.size());
+        assertEquals(6.5, CompiledRuleBook.EMPTY.apply(RuleTarget.RATE, 6.5, match));
+    }
+    
+    @Test
+    void testCompiledMatchesReferenceEvaluation() {
+        assertMatchesReference(CompiledRuleBook::compile);
+    }
+    
+    @Test
+    void testCompiledMatchesReferenceEvaluation_PastInternLimit() {
+        assertMatchesReference(rules -> CompiledRuleBook.compile(rules, 16));
+    }
+    
+    @Test
+    void testMatchQuote_InternsEquivalentQuotes() {
+        CompiledRuleBook ruleBook = CompiledRuleBook.compile(List.of(rule("A", RuleTarget.RATE, 1.0, "loanValue<500000")));
+        
+        RuleMatch first = ruleBook.matchQuote(750, 80, 400000, 0, "CA", "Condo");
+        RuleMatch second = ruleBook.matchQuote(620, 95, 250000, 0, "TX", "Townhouse");
+        
+        assertSame(first, second);
+        assertNotSame(first, ruleBook.matchQuote(750, 80, 600000, 0, "CA", "Condo"));
+    }
+    
+    @Test
+    void testQuoteMatches_CoversEveryQuote() {
+        Random random = new Random(11);
+        CompiledRuleBook ruleBook = CompiledRuleBook.compile(randomRules(random, 40));
+        
+        List<RuleMatch> matches = ruleBook.quoteMatches();
+        
+        assertEquals(matches.size(), new HashSet<>(matches).size());
+        for (int q = 0; q < 2000; q++) {
+            RuleMatch match = ruleBook.matchQuote(300 + random.nextInt(551), random.nextInt(1200) / 10.0,
+                    50000 + random.nextInt(40) * 25000, random.nextInt(30) * 1000000.0,
+                    STATES[random.nextInt(STATES.length)], HOME_TYPES[random.nextInt(HOME_TYPES.length)]);
+            assertTrue(matches.contains(match), "quote " + q);
+        }
+        assertNull(CompiledRuleBook.compile(randomRules(new Random(11), 40), 4).quoteMatches());
+        assertEquals(1, CompiledRuleBook.EMPTY.quoteMatches().size());
+    }
+    
+    private void assertMatchesReference(Function<List<PricingRule>, CompiledRuleBook> compiler) {
+        Random random = new Random(7);
+        List<PricingRule> rules = randomRules(random, 300);
+        CompiledRuleBook ruleBook = compiler.apply(rules);
+        
+        for (int q = 0; q < 2000; q++) {
+            double creditScore = 300 + random.nextInt(551);
+            double ltv = random.nextInt(1200) / 10.0;
+            double loanValue = 50000 + random.nextInt(40) * 25000;
+            double aum = random.nextInt(30) * 1000000.0;
+            String state = random.nextInt(10) == 0 ? null : STATES[random.nextInt(STATES.length)];
+            String homeType = HOME_TYPES[random.nextInt(HOME_TYPES.length)];
+            String product = PRODUCTS[random.nextInt(PRODUCTS.length)];
+            
+            RuleMatch match = ruleBook.matchProduct(product,
+                    ruleBook.matchQuote(creditScore, ltv, loanValue, aum, state, homeType));
+            
+            double rate = 7.0;
+            double points = 0.0;
+            for (int id = 0; id < rules.size(); id++) {
+                boolean expected = rules.get(id).matches(creditScore, ltv, loanValue, aum, state, homeType, product);
+                assertEquals(expected, match.contains(id), "rule " + id + " for quote " + q);
+                if (expected && rules.get(id).getTarget() == RuleTarget.RATE) {
+                    rate += rules.get(id).getAdjustment();
+                } else if (expected) {
+                    points += rules.get(id).getAdjustment();
+                }
+            }
+            assertEquals(rate, ruleBook.apply(RuleTarget.RATE, 7.0, match), 1e-9, "rate for quote " + q);
+            assertEquals(points, ruleBook.apply(RuleTarget.POINTS, 0.0, match), 1e-9, "points for quote " + q);
+        }
+    }
+    
+    static List<PricingRule> randomRules(Random random, int count) {
+        List<PricingRule> rules = new ArrayList<>();
+        for (int id = 0; id < count; id++) {
+            List<RuleCondition> conditions = new ArrayList<>();
+            int conditionCount = random.nextInt(4);
+            for (int c = 0; c < conditionCount; c++) {
+                conditions.add(switch (random.nextInt(7)) {
+                    case 0 -> RuleCondition.parse("creditScore>=" + (300 + random.nextInt(11) * 50));
+                    case 1 -> RuleCondition.parse("creditScore<" + (300 + random.nextInt(11) * 50));
+                    case 2 -> RuleCondition.parse("ltv>" + random.nextInt(13) * 10);
+                    case 3 -> RuleCondition.parse("loanValue<=" + random.nextInt(40) * 25000);
+                    case 4 -> RuleCondition.parse("assetsUnderManagement>" + random.nextInt(30) * 1000000);
+                    case 5 -> RuleCondition.parse("state in " + STATES[random.nextInt(STATES.length)] + "|"
+                            + STATES[random.nextInt(STATES.length)]);
+                    default -> RuleCondition.parse("product=" + PRODUCTS[random.nextInt(PRODUCTS.length)]);
+                });
+            }
+            RuleTarget target = random.nextBoolean() ? RuleTarget.RATE : RuleTarget.POINTS;
+            rules.add(new PricingRule("R" + id, target, random.nextInt(50) / 100.0, conditions, "Rule " + id));
+        }
+        return rules;
+    }
+    
+    private PricingRule rule(String id, RuleTarget target, double adjustment, String condition) {
+        return new PricingRule(id, target, adjustment, List.of(RuleCondition.parse(condition)), id);
+    }
+}
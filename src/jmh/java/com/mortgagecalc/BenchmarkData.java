@@ -0,0 +1,105 @@
+package com.mortgagecalc;
+
+import com.mortgagecalc.model.MortgageInput;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+/**
+ * Synthetic inputs shared by the benchmarks. Everything is generated from a seeded {@link Random} so runs are
+ * comparable.
+ */
+public final class BenchmarkData {
+    public static final List<String> PRODUCTS = List.of("fixed_30", "fixed_15", "arm_5_1", "arm_7_1");
+    public static final String[] STATES = {"NY", "CA", "TX", "FL", "NJ", "WA"};
+    public static final String[] HOME_TYPES = {"Single Family", "Condo", "Townhouse"};
+    
+    private BenchmarkData() {
+    }
+    
+    public static MortgageInput[] quotes(Random random, int count) {
+        MortgageInput[] inputs = new MortgageInput[count];
+        for (int i = 0; i < count; i++) {
+            double price = 200000 + random.nextInt(80) * 25000;
+            double downPayment = price * (5 + random.nextInt(36)) / 100;
+            
+            MortgageInput input = new MortgageInput();
+            input.setCreditScore(580 + random.nextInt(270));
+            input.setPropertyPrice(price);
+            input.setDownPayment(downPayment);
+            input.setLoanValue(price - downPayment);
+            input.setIncome(60000 + random.nextInt(40) * 10000.0);
+            input.setState(STATES[random.nextInt(STATES.length)]);
+            input.setHomeType(HOME_TYPES[random.nextInt(HOME_TYPES.length)]);
+            input.setPoints(random.nextInt(9) * 0.25 - 1.0);
+            input.setAssetsUnderManagement(random.nextInt(20) * 1000000.0);
+            inputs[i] = input;
+        }
+        return inputs;
+    }
+    
+    /**
+     * Writes one {@code points,rate} sheet per product into a fresh temporary directory, with points spread
+     * evenly over -2..+2 and the rate falling as points rise.
+     */
+    public static Path writeRateSheets(int rows) {
+        try {
+            Path directory = Files.createTempDirectory("rate-sheets");
+            for (String product : PRODUCTS) {
+                try (Writer writer = Files.newBufferedWriter(directory.resolve(product + ".csv"), StandardCharsets.UTF_8)) {
+                    writer.write("points,rate\n");
+                    for (int row = 0; row < rows; row++) {
+                        double points = rows == 1 ? 0 : -2.0 + 4.0 * row / (rows - 1);
+                        writer.write(points + "," + (7.0 - points * 0.25) + "\n");
+                    }
+                }
+            }
+            return directory;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    public static void deleteDirectory(Path directory) {
+        try (Stream<Path> paths = Files.walk(directory)) {
+            for (Path path : paths.sorted(Comparator.reverseOrder()).toList()) {
+                Files.deleteIfExists(path);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+    
+    /**
+     * LLPA-style rule book in the {@code rules/pricing_rules.csv} format: mostly credit score and LTV grids, with
+     * state, home type and product add-ons. Each rule hits only a small slice of quotes, as in a real rule book.
+     */
+    public static String ruleBookCsv(Random random, int count) {
+        StringBuilder csv = new StringBuilder("id,target,adjustment,conditions,description\n");
+        for (int id = 0; id < count; id++) {
+            int fico = 580 + random.nextInt(14) * 20;
+            int ltv = 40 + random.nextInt(12) * 5;
+            String extra = switch (random.nextInt(4)) {
+                case 0 -> "state=" + STATES[random.nextInt(STATES.length)];
+                case 1 -> "homeType=" + HOME_TYPES[random.nextInt(HOME_TYPES.length)];
+                case 2 -> "product=" + PRODUCTS.get(random.nextInt(PRODUCTS.size()));
+                default -> "loanValue<" + (200000 + random.nextInt(20) * 50000);
+            };
+            String target = random.nextBoolean() ? "RATE" : "POINTS";
+            csv.append("LLPA_").append(id).append(',').append(target).append(',')
+                    .append(random.nextInt(200) / 1000.0).append(',')
+                    .append("creditScore>=").append(fico).append(";creditScore<").append(fico + 20)
+                    .append(";ltv>").append(ltv).append(";ltv<=").append(ltv + 5).append(';').append(extra)
+                    .append(",LLPA ").append(id).append('\n');
+        }
+        return csv.toString();
+    }
+}
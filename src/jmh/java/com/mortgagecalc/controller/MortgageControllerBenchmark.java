@@ -0,0 +1,169 @@
+package com.mortgagecalc.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.mortgagecalc.BenchmarkData;
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.service.BatchQuoteService;
+import com.mortgagecalc.service.PricingMetrics;
+import com.mortgagecalc.service.PricingRuleService;
+import com.mortgagecalc.service.QuoteCoalescer;
+import com.mortgagecalc.service.QuoteETagService;
+import com.mortgagecalc.service.RateCalculationService;
+import com.mortgagecalc.service.ValidationService;
+import com.mortgagecalc.utils.CsvUtility;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+
+/**
+ * A single-quote round trip in each wire format. {@code mockMvc} goes through the dispatcher servlet and message
+ * converters with the bundled rate sheets and rule book; {@code objectMapper} binds and serializes around a direct
+ * controller call, so the difference is the MVC overhead. {@code codec} only decodes the request and encodes a
+ * fixed response, isolating the format's CPU cost. {@code notModified} revalidates a GET quote with its current
+ * ETag, the path a client or HTTP cache takes on a repeat read. Setup prints the mean request and response sizes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class MortgageControllerBenchmark {
+    private static final int QUOTES = 1024;
+    
+    @Param({"json", "cbor"})
+    public String format;
+    
+    private ValidatorFactory validatorFactory;
+    private ObjectMapper objectMapper;
+    private MortgageController mortgageController;
+    private MockMvc mockMvc;
+    private MediaType mediaType;
+    private byte[][] requests;
+    private String[][] queries;
+    private String[] eTags;
+    private Object response;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        boolean cbor = format.equals("cbor");
+        objectMapper = cbor
+                ? Jackson2ObjectMapperBuilder.json().factory(new CBORFactory()).build()
+                : Jackson2ObjectMapperBuilder.json().build();
+        mediaType = cbor ? MediaType.APPLICATION_CBOR : MediaType.APPLICATION_JSON;
+        
+        CsvUtility csvUtility = new CsvUtility();
+        csvUtility.init();
+        PricingRuleService pricingRuleService = new PricingRuleService(new ClassPathResource("rules/pricing_rules.csv"));
+        pricingRuleService.init();
+        RateCalculationService rateCalculationService = new RateCalculationService(csvUtility, pricingRuleService);
+        ValidationService validationService = new ValidationService(validatorFactory.getValidator());
+        QuoteETagService quoteETags = new QuoteETagService(csvUtility, pricingRuleService);
+        BatchQuoteService batchQuoteService = new BatchQuoteService(validationService, rateCalculationService,
+                objectMapper, 1024);
+        
+        mortgageController = new MortgageController(validationService,
+                new QuoteCoalescer(rateCalculationService, 64), batchQuoteService, null, PricingMetrics.disabled(),
+                quoteETags);
+        mockMvc = MockMvcBuilders.standaloneSetup(mortgageController)
+                .setMessageConverters(cbor
+                        ? new MappingJackson2CborHttpMessageConverter(objectMapper)
+                        : new MappingJackson2HttpMessageConverter(objectMapper))
+                .build();
+        
+        MortgageInput[] inputs = BenchmarkData.quotes(new Random(42), QUOTES);
+        requests = new byte[QUOTES][];
+        queries = new String[QUOTES][];
+        eTags = new String[QUOTES];
+        long requestBytes = 0;
+        long responseBytes = 0;
+        for (int i = 0; i < QUOTES; i++) {
+            requests[i] = objectMapper.writeValueAsBytes(inputs[i]);
+            MortgageInput input = inputs[i];
+            queries[i] = new String[] {String.valueOf(input.getCreditScore()), String.valueOf(input.getLoanValue()),
+                    input.getState(), input.getHomeType(), String.valueOf(input.getPropertyPrice()),
+                    String.valueOf(input.getDownPayment()), String.valueOf(input.getIncome()),
+                    String.valueOf(input.getPoints()), String.valueOf(input.getAssetsUnderManagement())};
+            eTags[i] = quoteETags.eTag(input, mediaType.toString());
+            requestBytes += requests[i].length;
+            responseBytes += objectMapper.writeValueAsBytes(mortgageController.calculate(inputs[i]).getBody()).length;
+        }
+        response = mortgageController.calculate(inputs[0]).getBody();
+        System.out.printf("%n%s: %d request bytes, %d response bytes per quote%n", format, requestBytes / QUOTES,
+                responseBytes / QUOTES);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+    
+    @Benchmark
+    public byte[] mockMvc() throws Exception {
+        return mockMvc.perform(post("/api/mortgage/calculate")
+                        .contentType(mediaType)
+                        .accept(mediaType)
+                        .content(requests[next++ & (QUOTES - 1)]))
+                .andReturn()
+                .getResponse()
+                .getContentAsByteArray();
+    }
+    
+    @Benchmark
+    public int notModified() throws Exception {
+        int i = next++ & (QUOTES - 1);
+        String[] query = queries[i];
+        return mockMvc.perform(get("/api/mortgage/calculate")
+                        .accept(mediaType)
+                        .header(HttpHeaders.IF_NONE_MATCH, eTags[i])
+                        .param("creditScore", query[0])
+                        .param("loanValue", query[1])
+                        .param("state", query[2])
+                        .param("homeType", query[3])
+                        .param("propertyPrice", query[4])
+                        .param("downPayment", query[5])
+                        .param("income", query[6])
+                        .param("points", query[7])
+                        .param("assetsUnderManagement", query[8]))
+                .andReturn()
+                .getResponse()
+                .getStatus();
+    }
+    
+    @Benchmark
+    public byte[] objectMapper() throws Exception {
+        MortgageInput input = objectMapper.readValue(requests[next++ & (QUOTES - 1)], MortgageInput.class);
+        ResponseEntity<?> response = mortgageController.calculate(input);
+        return objectMapper.writeValueAsBytes(response.getBody());
+    }
+    
+    @Benchmark
+    public byte[] codec() throws Exception {
+        MortgageInput input = objectMapper.readValue(requests[next++ & (QUOTES - 1)], MortgageInput.class);
+        return input.getCreditScore() > 0 ? objectMapper.writeValueAsBytes(response) : null;
+    }
+}
@@ -0,0 +1,165 @@
+package com.mortgagecalc.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mortgagecalc.BenchmarkData;
+import com.mortgagecalc.MortgageCalculatorApplication;
+import com.mortgagecalc.model.MortgageInput;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Closed-loop burst against POST /api/mortgage/calculate, run once per execution mode on an in-process server.
+ * Each client sends its next quote as soon as the previous one returns; latencies are only recorded after the
+ * warmup. Prints p50/p99/max latency, throughput and the number of requests shed with 429. Run with
+ * {@code gradle loadTest -PloadTestArgs="clients=400 seconds=10 warmup=3 maxInFlight=0 modes=platform,virtual"}.
+ */
+public class CalculateLoadTest {
+    private static final int QUOTES = 1024;
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "clients", "400", "seconds", "10", "warmup", "3", "maxInFlight", "0", "modes", "platform,virtual"));
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair[1]);
+        }
+        
+        ObjectMapper objectMapper = new ObjectMapper();
+        MortgageInput[] inputs = BenchmarkData.quotes(new Random(42), QUOTES);
+        byte[][] bodies = new byte[QUOTES][];
+        for (int i = 0; i < QUOTES; i++) {
+            bodies[i] = objectMapper.writeValueAsBytes(inputs[i]);
+        }
+        
+        System.out.printf("%-9s %8s %10s %12s %9s %9s %9s %8s%n",
+                "mode", "clients", "requests", "req/s", "p50 ms", "p99 ms", "max ms", "429s");
+        for (String mode : options.get("modes").split(",")) {
+            Result result = run(mode, bodies, Integer.parseInt(options.get("clients")),
+                    Integer.parseInt(options.get("warmup")), Integer.parseInt(options.get("seconds")),
+                    options.get("maxInFlight"));
+            System.out.printf("%-9s %8s %10d %12.0f %9.2f %9.2f %9.2f %8d%n",
+                    mode, options.get("clients"), result.latencies.length, result.throughput(),
+                    result.percentile(0.50), result.percentile(0.99), result.percentile(1.0), result.shed);
+        }
+    }
+    
+    private static Result run(String mode, byte[][] bodies, int clients, int warmupSeconds, int measureSeconds,
+                              String maxInFlight) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(MortgageCalculatorApplication.class)
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + "virtual".equals(mode),
+                        "mortgage.concurrency.max-in-flight=" + maxInFlight,
+                        "logging.level.root=WARN")
+                .run();
+        
+        try (ExecutorService clientThreads = Executors.newVirtualThreadPerTaskExecutor()) {
+            int port = ((ServletWebServerApplicationContext) context).getWebServer().getPort();
+            URI uri = URI.create("http://localhost:" + port + "/api/mortgage/calculate");
+            HttpClient http = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(clientThreads)
+                    .build();
+            
+            long measureStart = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmupSeconds);
+            long measureEnd = measureStart + TimeUnit.SECONDS.toNanos(measureSeconds);
+            List<Future<ClientLog>> logs = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                int offset = c;
+                logs.add(clientThreads.submit(() -> drive(http, uri, bodies, offset, measureStart, measureEnd)));
+            }
+            
+            List<ClientLog> completed = new ArrayList<>(clients);
+            for (Future<ClientLog> log : logs) {
+                completed.add(log.get());
+            }
+            return new Result(completed, measureSeconds);
+        } finally {
+            context.close();
+        }
+    }
+    
+    private static ClientLog drive(HttpClient http, URI uri, byte[][] bodies, int offset, long measureStart,
+                                   long measureEnd) throws Exception {
+        ClientLog log = new ClientLog();
+        for (int i = offset; ; i++) {
+            long start = System.nanoTime();
+            if (start >= measureEnd) {
+                return log;
+            }
+            
+            HttpRequest request = HttpRequest.newBuilder(uri)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(bodies[i % bodies.length]))
+                    .build();
+            int status = http.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+            
+            if (start >= measureStart) {
+                if (status == 429) {
+                    log.shed++;
+                } else {
+                    log.record(System.nanoTime() - start);
+                }
+            }
+        }
+    }
+    
+    private static final class ClientLog {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long shed;
+        
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+    
+    private static final class Result {
+        private final int seconds;
+        private final long[] latencies;
+        private long shed;
+        
+        Result(List<ClientLog> logs, int seconds) {
+            this.seconds = seconds;
+            this.latencies = new long[logs.stream().mapToInt(log -> log.count).sum()];
+            int offset = 0;
+            for (ClientLog log : logs) {
+                System.arraycopy(log.latencies, 0, latencies, offset, log.count);
+                offset += log.count;
+                shed += log.shed;
+            }
+            Arrays.sort(latencies);
+        }
+        
+        double throughput() {
+            return (double) latencies.length / seconds;
+        }
+        
+        double percentile(double p) {
+            if (latencies.length == 0) {
+                return Double.NaN;
+            }
+            int index = (int) Math.ceil(p * latencies.length) - 1;
+            return latencies[Math.max(0, index)] / 1_000_000.0;
+        }
+    }
+}
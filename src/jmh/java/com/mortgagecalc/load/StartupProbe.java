@@ -0,0 +1,162 @@
+package com.mortgagecalc.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mortgagecalc.BenchmarkData;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Starts the packaged application (gradle cdsApp) in a fresh JVM per run and measures, from process launch, how long
+ * it takes for /actuator/health to answer ("ready") and for the first POST /api/mortgage/calculate, sent as soon as
+ * it is ready, to return ("first quote"). Each mode adds one optimization to the previous one:
+ * <ul>
+ *     <li>{@code default}: rate sheets parsed at startup, bean definitions computed reflectively</li>
+ *     <li>{@code lazy}: {@code mortgage.rates.lazy=true}</li>
+ *     <li>{@code aot}: also {@code -Dspring.aot.enabled=true}, using the processAot bean definitions</li>
+ *     <li>{@code cds}: also {@code -XX:SharedArchiveFile} with the archive from gradle cdsArchive</li>
+ * </ul>
+ * Prints the median and best of each. Run with {@code gradle startupReport -PstartupArgs="runs=5 modes=default,cds"};
+ * arguments starting with {@code --} are passed to the application, e.g. {@code --mortgage.rates.directory=rates}.
+ */
+public class StartupProbe {
+    private static final long TIMEOUT_NANOS = TimeUnit.MINUTES.toNanos(3);
+    
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>(Map.of(
+                "jar", "build/cds/mortgage-calculator.jar", "archive", "build/cds/mortgage-calculator.jsa",
+                "runs", "3", "modes", "default,lazy,aot,cds"));
+        List<String> appArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                appArgs.add(arg);
+                continue;
+            }
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair[1]);
+        }
+        
+        File jar = new File(options.get("jar")).getAbsoluteFile();
+        File archive = new File(options.get("archive")).getAbsoluteFile();
+        byte[] quote = new ObjectMapper().writeValueAsBytes(BenchmarkData.quotes(new Random(42), 1)[0]);
+        int runs = Integer.parseInt(options.get("runs"));
+        
+        System.out.printf("%-8s %5s %12s %12s %16s %16s%n",
+                "mode", "runs", "ready ms", "best ms", "first quote ms", "best ms");
+        for (String mode : options.get("modes").split(",")) {
+            long[] ready = new long[runs];
+            long[] firstQuote = new long[runs];
+            for (int run = 0; run < runs; run++) {
+                long[] timings = launch(command(mode, jar, archive, appArgs), jar.getParentFile(), quote, mode);
+                ready[run] = timings[0];
+                firstQuote[run] = timings[1];
+            }
+            Arrays.sort(ready);
+            Arrays.sort(firstQuote);
+            System.out.printf("%-8s %5d %12d %12d %16d %16d%n", mode, runs, ready[runs / 2], ready[0],
+                    firstQuote[runs / 2], firstQuote[0]);
+        }
+    }
+    
+    private static List<String> command(String mode, File jar, File archive, List<String> appArgs) {
+        List<String> command = new ArrayList<>();
+        command.add(ProcessHandle.current().info().command().orElse("java"));
+        switch (mode) {
+            case "default", "lazy" -> command.add("-Dspring.aot.enabled=false");
+            case "aot" -> command.add("-Dspring.aot.enabled=true");
+            case "cds" -> {
+                if (!archive.isFile()) {
+                    throw new IllegalArgumentException("No CDS archive at " + archive + "; run gradle cdsArchive");
+                }
+                command.add("-XX:SharedArchiveFile=" + archive);
+                command.add("-Dspring.aot.enabled=true");
+            }
+            default -> throw new IllegalArgumentException("Unknown mode " + mode);
+        }
+        command.add("-jar");
+        command.add(jar.getPath());
+        command.add("--mortgage.rates.lazy=" + !"default".equals(mode));
+        command.addAll(appArgs);
+        return command;
+    }
+    
+    /**
+     * Milliseconds from launch to ready and to the first quote. The application's output goes to
+     * {@code startup-<mode>.log} next to the jar.
+     */
+    private static long[] launch(List<String> command, File directory, byte[] quote, String mode) throws Exception {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        List<String> withPort = new ArrayList<>(command);
+        withPort.add("--server.port=" + port);
+        
+        HttpClient http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(1))
+                .build();
+        String base = "http://localhost:" + port;
+        HttpRequest health = HttpRequest.newBuilder(URI.create(base + "/actuator/health"))
+                .GET()
+                .build();
+        HttpRequest calculate = HttpRequest.newBuilder(URI.create(base + "/api/mortgage/calculate"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofByteArray(quote))
+                .build();
+        
+        long start = System.nanoTime();
+        Process process = new ProcessBuilder(withPort)
+                .directory(directory)
+                .redirectErrorStream(true)
+                .redirectOutput(new File(directory, "startup-" + mode + ".log"))
+                .start();
+        try {
+            while (!isUp(http, health)) {
+                if (!process.isAlive() || System.nanoTime() - start > TIMEOUT_NANOS) {
+                    throw new IllegalStateException("Application did not start in " + mode + " mode; see startup-"
+                            + mode + ".log");
+                }
+                Thread.sleep(5);
+            }
+            long ready = System.nanoTime();
+            
+            int status = http.send(calculate, HttpResponse.BodyHandlers.discarding()).statusCode();
+            long firstQuote = System.nanoTime();
+            if (status != 200) {
+                throw new IllegalStateException("First quote returned " + status + " in " + mode + " mode");
+            }
+            return new long[] {TimeUnit.NANOSECONDS.toMillis(ready - start),
+                    TimeUnit.NANOSECONDS.toMillis(firstQuote - start)};
+        } finally {
+            process.destroy();
+            if (!process.waitFor(30, TimeUnit.SECONDS)) {
+                process.destroyForcibly().waitFor();
+            }
+        }
+    }
+    
+    /**
+     * Whether health answers 200; refused or timed-out connections mean the server is not listening yet.
+     */
+    private static boolean isUp(HttpClient http, HttpRequest health) throws InterruptedException {
+        try {
+            return http.send(health, HttpResponse.BodyHandlers.discarding()).statusCode() == 200;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.mortgagecalc.pricing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of one payment and APR per product quote. The solver variants all start from the note rate with its
+ * tabulated discount factor; {@code paymentPow} and {@code paymentTable} isolate the discount-factor lookup.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AprSolverBenchmark {
+    private static final int QUOTES = 1024;
+    private static final int TERM_MONTHS = 360;
+    
+    private DiscountFactorTable table;
+    private double[] rates;
+    private double[] loans;
+    private double[] amountsFinanced;
+    private double[] payments;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        table = DiscountFactorTable.forTerm(TERM_MONTHS);
+        rates = new double[QUOTES];
+        loans = new double[QUOTES];
+        amountsFinanced = new double[QUOTES];
+        payments = new double[QUOTES];
+        for (int i = 0; i < QUOTES; i++) {
+            rates[i] = 5.0 + random.nextInt(24) * 0.125;
+            loans[i] = 150000 + random.nextInt(60) * 25000;
+            amountsFinanced[i] = loans[i] * (1 - (random.nextInt(12) * 0.25 - 0.5) / 100);
+            payments[i] = Amortization.monthlyPayment(loans[i], rates[i], TERM_MONTHS);
+        }
+    }
+    
+    @Benchmark
+    public double paymentPow() {
+        int i = next++ & (QUOTES - 1);
+        return Amortization.monthlyPayment(loans[i], rates[i], TERM_MONTHS);
+    }
+    
+    @Benchmark
+    public double paymentTable() {
+        int i = next++ & (QUOTES - 1);
+        return Amortization.monthlyPayment(loans[i], rates[i] / 1200, table.at(rates[i]), TERM_MONTHS);
+    }
+    
+    @Benchmark
+    public double newton() {
+        int i = next++ & (QUOTES - 1);
+        return AprSolver.NEWTON.solveMonthlyRate(payments[i], amountsFinanced[i], table, rates[i] / 1200,
+                table.at(rates[i]));
+    }
+    
+    @Benchmark
+    public double halley() {
+        int i = next++ & (QUOTES - 1);
+        return AprSolver.HALLEY.solveMonthlyRate(payments[i], amountsFinanced[i], table, rates[i] / 1200,
+                table.at(rates[i]));
+    }
+    
+    @Benchmark
+    public double bisection() {
+        int i = next++ & (QUOTES - 1);
+        return AprSolver.bisect(payments[i], amountsFinanced[i], TERM_MONTHS);
+    }
+}
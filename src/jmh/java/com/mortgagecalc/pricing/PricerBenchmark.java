@@ -0,0 +1,104 @@
+package com.mortgagecalc.pricing;
+
+import com.mortgagecalc.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The embedded pricing API. {@code coldLoad} is the first load in a fresh JVM, class loading included, which is
+ * what a batch job pays before its first quote; {@code quote} is the steady-state cost per quote.
+ */
+@State(Scope.Thread)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PricerBenchmark {
+    private static final int QUOTES = 1024;
+    
+    @Param({"50"})
+    public int sheetSize;
+    
+    @Param({"100"})
+    public int ruleCount;
+    
+    private Path ratesDirectory;
+    private Path rulesFile;
+    private QuoteRequest[] requests;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        ratesDirectory = BenchmarkData.writeRateSheets(sheetSize);
+        try {
+            rulesFile = Files.writeString(ratesDirectory.resolve("pricing_rules.txt"),
+                    BenchmarkData.ruleBookCsv(new Random(ruleCount), ruleCount));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        
+        Random random = new Random(42);
+        requests = new QuoteRequest[QUOTES];
+        for (int i = 0; i < QUOTES; i++) {
+            double price = 200000 + random.nextInt(80) * 25000;
+            QuoteRequest request = new QuoteRequest();
+            request.setCreditScore(580 + random.nextInt(270));
+            request.setPropertyPrice(price);
+            request.setLoanValue(price * (60 + random.nextInt(36)) / 100);
+            request.setPoints(random.nextInt(9) * 0.25 - 1.0);
+            request.setState(BenchmarkData.STATES[random.nextInt(BenchmarkData.STATES.length)]);
+            request.setHomeType(BenchmarkData.HOME_TYPES[random.nextInt(BenchmarkData.HOME_TYPES.length)]);
+            request.setAssetsUnderManagement(random.nextInt(20) * 1000000.0);
+            requests[i] = request;
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteDirectory(ratesDirectory);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @Fork(10)
+    @Warmup(iterations = 0)
+    @Measurement(iterations = 1)
+    public Pricer coldLoad() {
+        return Pricer.load(ratesDirectory, rulesFile);
+    }
+    
+    @Benchmark
+    @BenchmarkMode(Mode.Throughput)
+    public List<Quote> quote(Loaded loaded) {
+        return loaded.pricer.quote(requests[next++ & (QUOTES - 1)]);
+    }
+    
+    /**
+     * Kept out of the outer state so {@code coldLoad} forks start with none of the pricing classes loaded.
+     */
+    @State(Scope.Thread)
+    public static class Loaded {
+        private Pricer pricer;
+        
+        @Setup(Level.Trial)
+        public void setUp(PricerBenchmark benchmark) {
+            pricer = Pricer.load(benchmark.ratesDirectory, benchmark.rulesFile);
+        }
+    }
+}
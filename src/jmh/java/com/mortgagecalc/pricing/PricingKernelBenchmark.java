@@ -0,0 +1,104 @@
+package com.mortgagecalc.pricing;
+
+import com.mortgagecalc.BenchmarkData;
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.service.PricingRuleService;
+import com.mortgagecalc.service.RateCalculationService;
+import com.mortgagecalc.utils.CsvUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The primitive pricing API against the REST-facing service on the same sheets and rules. {@code kernel} should
+ * report zero {@code gc.alloc.rate.norm}.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PricingKernelBenchmark {
+    private static final int QUOTES = 1024;
+    
+    @Param({"3", "100"})
+    public int ruleCount;
+    
+    private Path ratesDirectory;
+    private RateCalculationService rateCalculationService;
+    private PricingKernel kernel;
+    private QuoteResult[] results;
+    private MortgageInput[] inputs;
+    private int[] creditScores;
+    private double[] loanValues;
+    private double[] propertyPrices;
+    private double[] assets;
+    private double[] points;
+    private String[] states;
+    private String[] homeTypes;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(42);
+        ratesDirectory = BenchmarkData.writeRateSheets(50);
+        CsvUtility csvUtility = new CsvUtility(ratesDirectory.toString());
+        csvUtility.init();
+        byte[] rules = BenchmarkData.ruleBookCsv(random, ruleCount).getBytes(StandardCharsets.UTF_8);
+        PricingRuleService pricingRuleService = new PricingRuleService(new ByteArrayResource(rules, "synthetic rules"));
+        pricingRuleService.init();
+        
+        rateCalculationService = new RateCalculationService(csvUtility, pricingRuleService);
+        kernel = rateCalculationService.getKernel();
+        results = PricingKernel.newResults();
+        
+        inputs = BenchmarkData.quotes(random, QUOTES);
+        creditScores = new int[QUOTES];
+        loanValues = new double[QUOTES];
+        propertyPrices = new double[QUOTES];
+        assets = new double[QUOTES];
+        points = new double[QUOTES];
+        states = new String[QUOTES];
+        homeTypes = new String[QUOTES];
+        for (int i = 0; i < QUOTES; i++) {
+            creditScores[i] = inputs[i].getCreditScore();
+            loanValues[i] = inputs[i].getLoanValue();
+            propertyPrices[i] = inputs[i].getPropertyPrice();
+            assets[i] = inputs[i].getAssetsUnderManagement();
+            points[i] = inputs[i].getPoints();
+            states[i] = inputs[i].getState();
+            homeTypes[i] = inputs[i].getHomeType();
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteDirectory(ratesDirectory);
+    }
+    
+    @Benchmark
+    public QuoteResult[] kernel() {
+        int i = next++ & (QUOTES - 1);
+        kernel.priceAll(creditScores[i], loanValues[i], propertyPrices[i], assets[i], states[i], homeTypes[i],
+                points[i], results);
+        return results;
+    }
+    
+    @Benchmark
+    public List<MortgageOption> service() {
+        return rateCalculationService.calculateMortgageOptions(inputs[next++ & (QUOTES - 1)]);
+    }
+}
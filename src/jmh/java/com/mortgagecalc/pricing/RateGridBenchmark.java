@@ -0,0 +1,107 @@
+package com.mortgagecalc.pricing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Base-rate lookup over lock period × LTV × FICO × points. {@code denseGrid} addresses the flat
+ * {@link RateGrid}; {@code nestedMaps} is the same grid as nested sorted maps of one-dimensional rate tables.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RateGridBenchmark {
+    private static final int LOOKUPS = 1024;
+    private static final int[] LOCK_DAYS = {15, 30, 45, 60, 90};
+    
+    private RateGrid grid;
+    private NavigableMap<Integer, NavigableMap<Double, NavigableMap<Double, RateTable>>> nested;
+    private int[] lockDays;
+    private double[] ltvs;
+    private double[] creditScores;
+    private double[] requestedPoints;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        int ltvBands = 10;
+        int ficoBands = 8;
+        int pointColumns = 41;
+        int rows = LOCK_DAYS.length * ltvBands * ficoBands * pointColumns;
+        int[] lockColumn = new int[rows];
+        double[] ltvColumn = new double[rows];
+        double[] ficoColumn = new double[rows];
+        double[] pointsColumn = new double[rows];
+        double[] rateColumn = new double[rows];
+        nested = new TreeMap<>();
+        
+        int row = 0;
+        for (int lock : LOCK_DAYS) {
+            for (int ltv = 0; ltv < ltvBands; ltv++) {
+                for (int fico = 0; fico < ficoBands; fico++) {
+                    double[] points = new double[pointColumns];
+                    double[] rates = new double[pointColumns];
+                    for (int point = 0; point < pointColumns; point++) {
+                        points[point] = -2.0 + point * 0.1;
+                        rates[point] = 6.0 + lock / 300.0 + ltv * 0.05 - fico * 0.08 - points[point] * 0.25;
+                        lockColumn[row] = lock;
+                        ltvColumn[row] = 60 + ltv * 4.0;
+                        ficoColumn[row] = 620 + fico * 20.0;
+                        pointsColumn[row] = points[point];
+                        rateColumn[row] = rates[point];
+                        row++;
+                    }
+                    nested.computeIfAbsent(lock, key -> new TreeMap<>())
+                            .computeIfAbsent(60 + ltv * 4.0, key -> new TreeMap<>())
+                            .put(620 + fico * 20.0, RateTable.of(points, rates));
+                }
+            }
+        }
+        grid = RateGrid.of(lockColumn, ltvColumn, ficoColumn, pointsColumn, rateColumn);
+        
+        Random random = new Random(42);
+        lockDays = new int[LOOKUPS];
+        ltvs = new double[LOOKUPS];
+        creditScores = new double[LOOKUPS];
+        requestedPoints = new double[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            lockDays[i] = 1 + random.nextInt(90);
+            ltvs[i] = 50 + random.nextDouble() * 50;
+            creditScores[i] = 600 + random.nextInt(251);
+            requestedPoints[i] = random.nextDouble() * 5 - 2.5;
+        }
+    }
+    
+    @Benchmark
+    public double denseGrid() {
+        int i = next++ & (LOOKUPS - 1);
+        int cell = grid.cellIndex(lockDays[i], ltvs[i], creditScores[i]) * grid.pointCount();
+        return grid.rateAt(cell, grid.nearestPoint(requestedPoints[i]));
+    }
+    
+    @Benchmark
+    public double nestedMaps() {
+        int i = next++ & (LOOKUPS - 1);
+        Map.Entry<Integer, NavigableMap<Double, NavigableMap<Double, RateTable>>> lock =
+                nested.ceilingEntry(lockDays[i]);
+        NavigableMap<Double, NavigableMap<Double, RateTable>> byLtv = (lock != null ? lock : nested.lastEntry())
+                .getValue();
+        Map.Entry<Double, NavigableMap<Double, RateTable>> ltv = byLtv.ceilingEntry(ltvs[i]);
+        NavigableMap<Double, RateTable> byFico = (ltv != null ? ltv : byLtv.lastEntry()).getValue();
+        Map.Entry<Double, RateTable> fico = byFico.floorEntry(creditScores[i]);
+        RateTable table = (fico != null ? fico : byFico.firstEntry()).getValue();
+        return table.rateAt(table.nearestRow(requestedPoints[i]));
+    }
+}
@@ -0,0 +1,101 @@
+package com.mortgagecalc.pricing;
+
+import com.mortgagecalc.utils.CsvUtility.RatePoint;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rate lookup. {@code nearestRow} is the default pricing path; {@code ratePointScan} is the linear scan over
+ * boxed rate points that it replaced; {@code mappedNearestRow} reads the same table from a compiled sheet in
+ * direct memory; {@code linear} and {@code monotoneCubic} are the interpolating modes.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RateTableBenchmark {
+    private static final int LOOKUPS = 1024;
+    
+    @Param({"5", "50", "500", "5000"})
+    public int sheetSize;
+    
+    private RateTable rateTable;
+    private RateTable mappedTable;
+    private RateTable linearTable;
+    private RateTable cubicTable;
+    private List<RatePoint> ratePoints;
+    private double[] requestedPoints;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(sheetSize);
+        double[] points = new double[sheetSize];
+        double[] rates = new double[sheetSize];
+        ratePoints = new ArrayList<>(sheetSize);
+        for (int row = 0; row < sheetSize; row++) {
+            points[row] = -2.0 + 4.0 * row / Math.max(1, sheetSize - 1);
+            rates[row] = 7.0 - points[row] * 0.25;
+            ratePoints.add(new RatePoint(points[row], rates[row]));
+        }
+        rateTable = RateTable.of(points, rates);
+        ByteBuffer compiled = rateTable.compiled();
+        mappedTable = RateTable.wrap(ByteBuffer.allocateDirect(compiled.remaining()).put(compiled).flip());
+        linearTable = rateTable.withInterpolation(RateInterpolation.LINEAR);
+        cubicTable = rateTable.withInterpolation(RateInterpolation.MONOTONE_CUBIC);
+        
+        requestedPoints = new double[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            requestedPoints[i] = random.nextDouble() * 5 - 2.5;
+        }
+    }
+    
+    @Benchmark
+    public double nearestRow() {
+        return rateTable.rateAt(rateTable.nearestRow(requestedPoints[next++ & (LOOKUPS - 1)]));
+    }
+    
+    @Benchmark
+    public double mappedNearestRow() {
+        return mappedTable.rateAt(mappedTable.nearestRow(requestedPoints[next++ & (LOOKUPS - 1)]));
+    }
+    
+    @Benchmark
+    public double linear() {
+        return linearTable.interpolatedRate(linearTable.quotedPoints(requestedPoints[next++ & (LOOKUPS - 1)]));
+    }
+    
+    @Benchmark
+    public double monotoneCubic() {
+        return cubicTable.interpolatedRate(cubicTable.quotedPoints(requestedPoints[next++ & (LOOKUPS - 1)]));
+    }
+    
+    @Benchmark
+    public double ratePointScan() {
+        double requested = requestedPoints[next++ & (LOOKUPS - 1)];
+        RatePoint closest = ratePoints.get(0);
+        double minDiff = Math.abs(closest.getPoints() - requested);
+        
+        for (RatePoint rp : ratePoints) {
+            double diff = Math.abs(rp.getPoints() - requested);
+            if (diff < minDiff) {
+                minDiff = diff;
+                closest = rp;
+            }
+        }
+        
+        return closest.getRate();
+    }
+}
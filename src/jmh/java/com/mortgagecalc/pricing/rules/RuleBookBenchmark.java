@@ -0,0 +1,102 @@
+package com.mortgagecalc.pricing.rules;
+
+import com.mortgagecalc.BenchmarkData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of rule matching as the rule book grows. {@code compiled} is the pricing path: tiny books are faster
+ * because dimensions no rule constrains are skipped, but once every dimension has boundaries (about 100 rules
+ * here) it should stay roughly flat through 1,000 rules. {@code reference} evaluates every rule's conditions in
+ * turn and shows the linear cost it replaces.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RuleBookBenchmark {
+    private static final int QUOTES = 1024;
+    
+    @Param({"3", "10", "100", "1000"})
+    public int ruleCount;
+    
+    private List<PricingRule> rules;
+    private CompiledRuleBook ruleBook;
+    private double[] creditScores;
+    private double[] ltvs;
+    private double[] loanValues;
+    private double[] assets;
+    private String[] states;
+    private String[] homeTypes;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        Random random = new Random(ruleCount);
+        rules = RuleBookLoader.readCsv("synthetic", new StringReader(BenchmarkData.ruleBookCsv(random, ruleCount)));
+        ruleBook = CompiledRuleBook.compile(rules);
+        
+        creditScores = new double[QUOTES];
+        ltvs = new double[QUOTES];
+        loanValues = new double[QUOTES];
+        assets = new double[QUOTES];
+        states = new String[QUOTES];
+        homeTypes = new String[QUOTES];
+        for (int i = 0; i < QUOTES; i++) {
+            creditScores[i] = 580 + random.nextInt(270);
+            ltvs[i] = 40 + random.nextInt(600) / 10.0;
+            loanValues[i] = 150000 + random.nextInt(60) * 25000;
+            assets[i] = random.nextInt(20) * 1000000.0;
+            states[i] = BenchmarkData.STATES[random.nextInt(BenchmarkData.STATES.length)];
+            homeTypes[i] = BenchmarkData.HOME_TYPES[random.nextInt(BenchmarkData.HOME_TYPES.length)];
+        }
+    }
+    
+    @Benchmark
+    public double compiled() {
+        int i = next++ & (QUOTES - 1);
+        RuleMatch quoteMatch = ruleBook.matchQuote(creditScores[i], ltvs[i], loanValues[i], assets[i], states[i],
+                homeTypes[i]);
+        
+        double total = 0;
+        for (String product : BenchmarkData.PRODUCTS) {
+            RuleMatch match = ruleBook.matchProduct(product, quoteMatch);
+            total += ruleBook.apply(RuleTarget.RATE, 7.0, match);
+            total += ruleBook.apply(RuleTarget.POINTS, 0.0, match);
+        }
+        return total;
+    }
+    
+    @Benchmark
+    public double reference() {
+        int i = next++ & (QUOTES - 1);
+        
+        double total = 0;
+        for (String product : BenchmarkData.PRODUCTS) {
+            double rate = 7.0;
+            double points = 0.0;
+            for (PricingRule rule : rules) {
+                if (rule.matches(creditScores[i], ltvs[i], loanValues[i], assets[i], states[i], homeTypes[i], product)) {
+                    if (rule.getTarget() == RuleTarget.RATE) {
+                        rate += rule.getAdjustment();
+                    } else {
+                        points += rule.getAdjustment();
+                    }
+                }
+            }
+            total += rate + points;
+        }
+        return total;
+    }
+}
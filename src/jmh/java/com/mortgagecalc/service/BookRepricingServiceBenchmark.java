@@ -0,0 +1,95 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.BenchmarkData;
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.utils.CsvUtility;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Re-prices a 20,000-loan book file end to end: CSV parsing, validation, pricing every product and writing the
+ * checkpointed output, with one worker against one per core.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class BookRepricingServiceBenchmark {
+    private static final int LOANS = 20000;
+    
+    @Param({"1", "0"})
+    public int threads;
+    
+    private Path ratesDirectory;
+    private Path workDirectory;
+    private Path input;
+    private Path output;
+    private ValidatorFactory validatorFactory;
+    private BookRepricingService repricingService;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        ratesDirectory = BenchmarkData.writeRateSheets(50);
+        CsvUtility csvUtility = new CsvUtility(ratesDirectory.toString());
+        csvUtility.init();
+        
+        byte[] rules = BenchmarkData.ruleBookCsv(new Random(42), 100).getBytes(StandardCharsets.UTF_8);
+        PricingRuleService pricingRuleService = new PricingRuleService(new ByteArrayResource(rules, "synthetic rules"));
+        pricingRuleService.init();
+        
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        repricingService = new BookRepricingService(new ValidationService(validatorFactory.getValidator()),
+                new RateCalculationService(csvUtility, pricingRuleService), threads, 4096);
+        
+        workDirectory = Files.createTempDirectory("reprice");
+        input = workDirectory.resolve("book.csv");
+        output = workDirectory.resolve("prices.csv");
+        try (Writer writer = Files.newBufferedWriter(input, StandardCharsets.UTF_8)) {
+            writer.write("loanId,creditScore,loanValue,downPayment,propertyPrice,income,state,homeType,points,"
+                    + "assetsUnderManagement\n");
+            MortgageInput[] loans = BenchmarkData.quotes(new Random(7), LOANS);
+            for (int i = 0; i < loans.length; i++) {
+                MortgageInput loan = loans[i];
+                writer.write("LN-" + i + "," + loan.getCreditScore() + "," + loan.getLoanValue() + ","
+                        + loan.getDownPayment() + "," + loan.getPropertyPrice() + "," + loan.getIncome() + ","
+                        + loan.getState() + "," + loan.getHomeType() + "," + loan.getPoints() + ","
+                        + loan.getAssetsUnderManagement() + "\n");
+            }
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+        BenchmarkData.deleteDirectory(ratesDirectory);
+        BenchmarkData.deleteDirectory(workDirectory);
+    }
+    
+    @Benchmark
+    public BookRepricingService.Summary reprice() {
+        try {
+            return repricingService.reprice(input, output, false);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
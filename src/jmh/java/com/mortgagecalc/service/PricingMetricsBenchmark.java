@@ -0,0 +1,74 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.BenchmarkData;
+import com.mortgagecalc.controller.MortgageController;
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.utils.CsvUtility;
+import io.micrometer.prometheus.PrometheusConfig;
+import io.micrometer.prometheus.PrometheusMeterRegistry;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the pricing instrumentation on the calculate path (validation, pricing, product and rule counters,
+ * sampled stage timers), with meters published nowhere against a live Prometheus registry. The quote cache
+ * is off so every call prices.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PricingMetricsBenchmark {
+    private static final int QUOTES = 1024;
+    
+    @Param({"none", "prometheus"})
+    public String registry;
+    
+    private ValidatorFactory validatorFactory;
+    private MortgageController mortgageController;
+    private MortgageInput[] inputs;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        CsvUtility csvUtility = new CsvUtility();
+        csvUtility.init();
+        PricingRuleService pricingRuleService = new PricingRuleService(new ClassPathResource("rules/pricing_rules.csv"));
+        pricingRuleService.init();
+        
+        PricingMetrics metrics = "prometheus".equals(registry)
+                ? new PricingMetrics(new PrometheusMeterRegistry(PrometheusConfig.DEFAULT), 16)
+                : PricingMetrics.disabled();
+        RateCalculationService rateCalculationService = new RateCalculationService(csvUtility, pricingRuleService,
+                QuoteCache.disabled(), metrics);
+        mortgageController = new MortgageController(new ValidationService(validatorFactory.getValidator()),
+                QuoteCoalescer.disabled(rateCalculationService), null, null, metrics,
+                new QuoteETagService(csvUtility, pricingRuleService));
+        inputs = BenchmarkData.quotes(new Random(42), QUOTES);
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+    
+    @Benchmark
+    public ResponseEntity<?> calculate() {
+        return mortgageController.calculate(inputs[next++ & (QUOTES - 1)]);
+    }
+}
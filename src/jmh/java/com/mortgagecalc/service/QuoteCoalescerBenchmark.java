@@ -0,0 +1,66 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.BenchmarkData;
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.utils.CsvUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.springframework.core.io.ClassPathResource;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Four threads quoting through the coalescer with the quote cache off, against a pass-through ({@code stripes=0}).
+ * With one hot key concurrent callers share computations; with 4,096 distinct keys nearly every call leads, which
+ * shows what the striped in-flight bookkeeping costs when there is nothing to share.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Threads(4)
+public class QuoteCoalescerBenchmark {
+    
+    @Param({"0", "64"})
+    public int stripes;
+    
+    @Param({"1", "4096"})
+    public int keys;
+    
+    private QuoteCoalescer coalescer;
+    private MortgageInput[] inputs;
+    
+    @State(Scope.Thread)
+    public static class Cursor {
+        private int next;
+    }
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        CsvUtility csvUtility = new CsvUtility();
+        csvUtility.init();
+        PricingRuleService pricingRuleService = new PricingRuleService(new ClassPathResource("rules/pricing_rules.csv"));
+        pricingRuleService.init();
+        
+        coalescer = new QuoteCoalescer(new RateCalculationService(csvUtility, pricingRuleService,
+                QuoteCache.disabled(), PricingMetrics.disabled()), stripes);
+        inputs = BenchmarkData.quotes(new Random(42), keys);
+    }
+    
+    @Benchmark
+    public List<MortgageOption> calculate(Cursor cursor) {
+        MortgageInput input = inputs[cursor.next];
+        cursor.next = (cursor.next + 1) % inputs.length;
+        return coalescer.calculate(input);
+    }
+}
@@ -0,0 +1,90 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.BenchmarkData;
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.utils.CsvUtility;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * End-to-end quote pricing: snapshot lookup, rule matching, rate table search and option assembly for all four
+ * products, across rate-sheet sizes and rule book sizes, with and without the quote cache and the outcome table.
+ * Setup waits for the outcome table; combinations past its default outcome limit price as usual.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class RateCalculationServiceBenchmark {
+    private static final int QUOTES = 1024;
+    
+    @Param({"5", "50", "500"})
+    public int sheetSize;
+    
+    @Param({"3", "100", "1000"})
+    public int ruleCount;
+    
+    @Param({"0", "10000"})
+    public long quoteCacheSize;
+    
+    @Param({"false", "true"})
+    public boolean outcomeTable;
+    
+    private Path ratesDirectory;
+    private OutcomeTableService outcomeTables;
+    private RateCalculationService rateCalculationService;
+    private MortgageInput[] inputs;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() throws InterruptedException {
+        Random random = new Random(42);
+        ratesDirectory = BenchmarkData.writeRateSheets(sheetSize);
+        CsvUtility csvUtility = new CsvUtility(ratesDirectory.toString());
+        csvUtility.init();
+        
+        byte[] rules = BenchmarkData.ruleBookCsv(random, ruleCount).getBytes(StandardCharsets.UTF_8);
+        PricingRuleService pricingRuleService = new PricingRuleService(new ByteArrayResource(rules, "synthetic rules"));
+        pricingRuleService.init();
+        
+        outcomeTables = new OutcomeTableService(outcomeTable, 1_000_000);
+        rateCalculationService = new RateCalculationService(csvUtility, pricingRuleService,
+                new QuoteCache(quoteCacheSize, Duration.ofMinutes(10)), PricingMetrics.disabled(), outcomeTables);
+        inputs = BenchmarkData.quotes(random, QUOTES);
+        
+        if (outcomeTable && OutcomeTable.build(rateCalculationService.getKernel(), 1_000_000) != null) {
+            outcomeTables.rebuild(csvUtility.getSnapshot(), pricingRuleService.getRuleBook());
+            while (!outcomeTables.stats().containsKey("outcomes")) {
+                Thread.sleep(10);
+            }
+        }
+        System.out.println(outcomeTables.stats());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        outcomeTables.shutdown();
+        BenchmarkData.deleteDirectory(ratesDirectory);
+    }
+    
+    @Benchmark
+    public List<MortgageOption> calculateMortgageOptions() {
+        return rateCalculationService.calculateMortgageOptions(inputs[next++ & (QUOTES - 1)]);
+    }
+}
@@ -0,0 +1,109 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.BenchmarkData;
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.model.SweepRange;
+import com.mortgagecalc.model.SweepRequest;
+import com.mortgagecalc.model.SweepResult;
+import com.mortgagecalc.utils.CsvUtility;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.core.io.ByteArrayResource;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A 10,000-cell sweep (10 credit scores × 10 loan values × 4 down payments × 25 points) priced in one call,
+ * against the same grid priced one {@code calculateMortgageOptions} call per cell.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class SweepServiceBenchmark {
+    private Path ratesDirectory;
+    private ValidatorFactory validatorFactory;
+    private RateCalculationService rateCalculationService;
+    private SweepService sweepService;
+    private SweepRequest request;
+    private MortgageInput[] cells;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        ratesDirectory = BenchmarkData.writeRateSheets(50);
+        CsvUtility csvUtility = new CsvUtility(ratesDirectory.toString());
+        csvUtility.init();
+        
+        byte[] rules = BenchmarkData.ruleBookCsv(new Random(42), 100).getBytes(StandardCharsets.UTF_8);
+        PricingRuleService pricingRuleService = new PricingRuleService(new ByteArrayResource(rules, "synthetic rules"));
+        pricingRuleService.init();
+        
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        rateCalculationService = new RateCalculationService(csvUtility, pricingRuleService);
+        sweepService = new SweepService(rateCalculationService, validatorFactory.getValidator(), 100000);
+        
+        request = new SweepRequest();
+        request.setState("NY");
+        request.setHomeType("Condo");
+        request.setAssetsUnderManagement(2000000.0);
+        request.setCreditScore(new SweepRange(620, 800, 20));
+        request.setLoanValue(new SweepRange(300000, 1200000, 100000));
+        request.setDownPayment(new SweepRange(50000, 350000, 100000));
+        request.setPoints(new SweepRange(-1, 1, 1.0 / 12));
+        
+        cells = new MortgageInput[10000];
+        int cell = 0;
+        for (double creditScore : request.getCreditScore().values()) {
+            for (double loanValue : request.getLoanValue().values()) {
+                for (double downPayment : request.getDownPayment().values()) {
+                    for (double points : request.getPoints().values()) {
+                        MortgageInput input = new MortgageInput();
+                        input.setCreditScore((int) creditScore);
+                        input.setLoanValue(loanValue);
+                        input.setDownPayment(downPayment);
+                        input.setPropertyPrice(loanValue + downPayment);
+                        input.setIncome(200000.0);
+                        input.setPoints(points);
+                        input.setState(request.getState());
+                        input.setHomeType(request.getHomeType());
+                        input.setAssetsUnderManagement(request.getAssetsUnderManagement());
+                        cells[cell++] = input;
+                    }
+                }
+            }
+        }
+        if (cell != cells.length || !sweepService.collectErrors(request).isEmpty()) {
+            throw new IllegalStateException("Benchmark grid is not 10,000 valid cells");
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+        BenchmarkData.deleteDirectory(ratesDirectory);
+    }
+    
+    @Benchmark
+    public SweepResult sweep() {
+        return sweepService.sweep(request);
+    }
+    
+    @Benchmark
+    public void singleQuotes(Blackhole blackhole) {
+        for (MortgageInput input : cells) {
+            blackhole.consume(rateCalculationService.calculateMortgageOptions(input));
+        }
+    }
+}
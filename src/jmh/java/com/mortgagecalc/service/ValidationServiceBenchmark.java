@@ -0,0 +1,76 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.BenchmarkData;
+import com.mortgagecalc.model.MortgageInput;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation cost per quote, for inputs that pass and for inputs that collect several violation messages, on the
+ * hand-written fast path and on reflective Bean Validation.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class ValidationServiceBenchmark {
+    private static final int QUOTES = 1024;
+    
+    @Param({"true", "false"})
+    public boolean fastPath;
+    
+    private ValidatorFactory validatorFactory;
+    private ValidationService validationService;
+    private MortgageInput[] valid;
+    private MortgageInput[] invalid;
+    private int next;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validationService = new ValidationService(validatorFactory.getValidator(), fastPath);
+        
+        valid = BenchmarkData.quotes(new Random(42), QUOTES);
+        invalid = BenchmarkData.quotes(new Random(42), QUOTES);
+        for (MortgageInput input : invalid) {
+            input.setCreditScore(900);
+            input.setState("New York");
+            input.setIncome(null);
+        }
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        validatorFactory.close();
+    }
+    
+    @Benchmark
+    public Set<ConstraintViolation<MortgageInput>> validateInput() {
+        return validationService.validateInput(valid[next++ & (QUOTES - 1)]);
+    }
+    
+    @Benchmark
+    public List<String> constraintErrors() {
+        return validationService.constraintErrors(valid[next++ & (QUOTES - 1)]);
+    }
+    
+    @Benchmark
+    public List<String> collectErrors() {
+        return validationService.collectErrors(invalid[next++ & (QUOTES - 1)]);
+    }
+}
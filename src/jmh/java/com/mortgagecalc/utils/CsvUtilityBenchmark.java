@@ -0,0 +1,62 @@
+package com.mortgagecalc.utils;
+
+import com.mortgagecalc.BenchmarkData;
+import com.mortgagecalc.pricing.RateInterpolation;
+import com.mortgagecalc.pricing.RateSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to load all four rate sheets and publish a snapshot, i.e. the cost of a startup load or a hot reload,
+ * from CSV sheets and from compiled sheets that are mapped rather than parsed.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CsvUtilityBenchmark {
+    
+    @Param({"5", "500", "50000"})
+    public int sheetSize;
+    
+    @Param({"csv", "rsb"})
+    public String format;
+    
+    private Path ratesDirectory;
+    private CsvUtility csvUtility;
+    
+    @Setup(Level.Trial)
+    public void setUp() {
+        ratesDirectory = BenchmarkData.writeRateSheets(sheetSize);
+        if ("rsb".equals(format)) {
+            try {
+                RateSheetCompiler.compile(ratesDirectory, ratesDirectory, RateInterpolation.NEAREST);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+        csvUtility = new CsvUtility(ratesDirectory.toString());
+    }
+    
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        BenchmarkData.deleteDirectory(ratesDirectory);
+    }
+    
+    @Benchmark
+    public RateSnapshot reload() {
+        return csvUtility.reload();
+    }
+}
@@ -0,0 +1,126 @@
+package com.mortgagecalc.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caps the number of mortgage API requests in flight. A request that cannot get a permit within the acquire
+ * timeout is shed with 429 and a Retry-After hint rather than queueing behind the connector. Streaming
+ * responses hold their permit until the async dispatch completes, not just until the handler returns.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+    private final Semaphore permits;
+    private final int maxInFlight;
+    private final long acquireTimeoutMillis;
+    private final long retryAfterSeconds;
+    private final byte[] shedBody;
+    private final AtomicLong shed = new AtomicLong();
+    
+    public ConcurrencyLimitFilter(int maxInFlight, Duration acquireTimeout, Duration retryAfter,
+                                  ObjectMapper objectMapper) {
+        this.permits = new Semaphore(maxInFlight);
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeoutMillis = acquireTimeout.toMillis();
+        this.retryAfterSeconds = Math.max(1, (retryAfter.toMillis() + 999) / 1000);
+        try {
+            this.shedBody = objectMapper.writeValueAsBytes(List.of(
+                    "Too many concurrent requests, retry after " + retryAfterSeconds + "s"));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+    
+    public int getInFlight() {
+        return maxInFlight - permits.availablePermits();
+    }
+    
+    public long getShedCount() {
+        return shed.get();
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if (!acquire()) {
+            shed.incrementAndGet();
+            response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(shedBody);
+            return;
+        }
+        
+        boolean releaseOnAsyncCompletion = false;
+        try {
+            chain.doFilter(request, response);
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new ReleasingListener());
+                releaseOnAsyncCompletion = true;
+            }
+        } finally {
+            if (!releaseOnAsyncCompletion) {
+                permits.release();
+            }
+        }
+    }
+    
+    private boolean acquire() {
+        try {
+            return acquireTimeoutMillis > 0
+                    ? permits.tryAcquire(acquireTimeoutMillis, TimeUnit.MILLISECONDS)
+                    : permits.tryAcquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    /**
+     * Releases the permit once, whichever of complete, error or timeout fires first.
+     */
+    private final class ReleasingListener implements AsyncListener {
+        private final AtomicBoolean released = new AtomicBoolean();
+        
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+        
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+        
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+        
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
+        
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+}
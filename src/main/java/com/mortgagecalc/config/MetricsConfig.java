@@ -0,0 +1,121 @@
+package com.mortgagecalc.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mortgagecalc.service.PricingMetrics;
+import com.mortgagecalc.service.QuoteCache;
+import com.mortgagecalc.service.QuoteCoalescer;
+import com.mortgagecalc.utils.CsvUtility;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.List;
+
+/**
+ * Binds the rate sheet, quote cache and concurrency limit state to the meter registry. Also swaps the JSON and
+ * CBOR converters for ones that time response serialization.
+ */
+@Configuration
+public class MetricsConfig implements WebMvcConfigurer {
+    private final PricingMetrics pricingMetrics;
+    
+    public MetricsConfig(PricingMetrics pricingMetrics) {
+        this.pricingMetrics = pricingMetrics;
+    }
+    
+    @Bean
+    public MeterBinder rateSheetMetrics(CsvUtility csvUtility) {
+        return registry -> {
+            FunctionCounter.builder("mortgage.rates.reloads", csvUtility, CsvUtility::getReloadCount)
+                    .description("Rate sheet reloads, the initial load included")
+                    .tag("result", "success")
+                    .register(registry);
+            FunctionCounter.builder("mortgage.rates.reloads", csvUtility, CsvUtility::getFailedReloadCount)
+                    .description("Rate sheet reloads, the initial load included")
+                    .tag("result", "failure")
+                    .register(registry);
+            Gauge.builder("mortgage.rates.snapshot.version", csvUtility, csv -> csv.getSnapshot().getVersion())
+                    .description("Version of the rate snapshot new quotes are priced against")
+                    .register(registry);
+        };
+    }
+    
+    @Bean
+    public MeterBinder quoteCacheMetrics(QuoteCache quoteCache) {
+        return quoteCache::bindTo;
+    }
+    
+    @Bean
+    public MeterBinder quoteCoalescerMetrics(QuoteCoalescer quoteCoalescer) {
+        return quoteCoalescer::bindTo;
+    }
+    
+    @Bean
+    public MeterBinder concurrencyLimitMetrics(FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter) {
+        ConcurrencyLimitFilter filter = concurrencyLimitFilter.getFilter();
+        return registry -> {
+            Gauge.builder("mortgage.requests.in.flight", filter, ConcurrencyLimitFilter::getInFlight)
+                    .description("Mortgage API requests holding a concurrency permit")
+                    .register(registry);
+            FunctionCounter.builder("mortgage.requests.shed", filter, ConcurrencyLimitFilter::getShedCount)
+                    .description("Mortgage API requests rejected with 429")
+                    .register(registry);
+        };
+    }
+    
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2HttpMessageConverter jackson) {
+                converters.set(i, new TimedJsonConverter(jackson.getObjectMapper(), pricingMetrics));
+            } else if (converters.get(i) instanceof MappingJackson2CborHttpMessageConverter cbor) {
+                converters.set(i, new TimedCborConverter(cbor.getObjectMapper(), pricingMetrics));
+            }
+        }
+    }
+    
+    private static final class TimedJsonConverter extends MappingJackson2HttpMessageConverter {
+        private final PricingMetrics pricingMetrics;
+        
+        TimedJsonConverter(ObjectMapper objectMapper, PricingMetrics pricingMetrics) {
+            super(objectMapper);
+            this.pricingMetrics = pricingMetrics;
+        }
+        
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            long start = System.nanoTime();
+            super.writeInternal(object, type, outputMessage);
+            pricingMetrics.recordSerialization(System.nanoTime() - start);
+        }
+    }
+    
+    private static final class TimedCborConverter extends MappingJackson2CborHttpMessageConverter {
+        private final PricingMetrics pricingMetrics;
+        
+        TimedCborConverter(ObjectMapper objectMapper, PricingMetrics pricingMetrics) {
+            super(objectMapper);
+            this.pricingMetrics = pricingMetrics;
+        }
+        
+        @Override
+        protected void writeInternal(Object object, Type type, HttpOutputMessage outputMessage)
+                throws IOException, HttpMessageNotWritableException {
+            long start = System.nanoTime();
+            super.writeInternal(object, type, outputMessage);
+            pricingMetrics.recordSerialization(System.nanoTime() - start);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.mortgagecalc.config;
+
+import com.mortgagecalc.pricing.ArmTerms;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PricingConfig {
+    
+    /**
+     * ARM reset projection shared by quoted APRs and amortization schedules, so an option's APR and its schedule
+     * describe the same payments.
+     */
+    @Bean
+    public ArmTerms armTerms(@Value("${mortgage.arm.index-path:}") double[] indexPath,
+                             @Value("${mortgage.arm.margin:2.75}") double margin,
+                             @Value("${mortgage.arm.initial-cap:2.0}") double initialCap,
+                             @Value("${mortgage.arm.periodic-cap:2.0}") double periodicCap,
+                             @Value("${mortgage.arm.lifetime-cap:5.0}") double lifetimeCap) {
+        return new ArmTerms(indexPath, margin, initialCap, periodicCap, lifetimeCap);
+    }
+}
@@ -1,13 +1,21 @@
 package com.mortgagecalc.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
+import java.time.Duration;
+
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
@@ -33,4 +41,26 @@ public class WebConfig implements WebMvcConfigurer {
         source.registerCorsConfiguration("/api/**", config);
         return new CorsFilter(source);
     }
+
+    /**
+     * Serves {@code application/cbor} wherever JSON is accepted, chosen by {@code Content-Type} and {@code Accept},
+     * with the same Jackson configuration as JSON.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(
+            @Value("${mortgage.concurrency.max-in-flight:0}") int maxInFlight,
+            @Value("${mortgage.concurrency.acquire-timeout:0ms}") Duration acquireTimeout,
+            @Value("${mortgage.concurrency.retry-after:1s}") Duration retryAfter,
+            ObjectMapper objectMapper) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(
+                new ConcurrencyLimitFilter(Math.max(maxInFlight, 0), acquireTimeout, retryAfter, objectMapper));
+        registration.addUrlPatterns("/api/mortgage/*");
+        registration.setEnabled(maxInFlight > 0);
+        return registration;
+    }
 }
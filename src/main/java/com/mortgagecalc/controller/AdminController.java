@@ -0,0 +1,92 @@
+package com.mortgagecalc.controller;
+
+import com.mortgagecalc.model.RateSnapshotInfo;
+import com.mortgagecalc.pricing.RateSheetException;
+import com.mortgagecalc.service.OutcomeTableService;
+import com.mortgagecalc.service.PricingRuleService;
+import com.mortgagecalc.service.QuoteCache;
+import com.mortgagecalc.service.QuoteCoalescer;
+import com.mortgagecalc.utils.CsvUtility;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+    private final CsvUtility csvUtility;
+    private final PricingRuleService pricingRuleService;
+    private final QuoteCache quoteCache;
+    private final OutcomeTableService outcomeTables;
+    private final QuoteCoalescer quoteCoalescer;
+    
+    public AdminController(CsvUtility csvUtility, PricingRuleService pricingRuleService, QuoteCache quoteCache,
+                           OutcomeTableService outcomeTables, QuoteCoalescer quoteCoalescer) {
+        this.csvUtility = csvUtility;
+        this.pricingRuleService = pricingRuleService;
+        this.quoteCache = quoteCache;
+        this.outcomeTables = outcomeTables;
+        this.quoteCoalescer = quoteCoalescer;
+    }
+    
+    @GetMapping("/rates")
+    public ResponseEntity<RateSnapshotInfo> currentRates() {
+        return ResponseEntity.ok(RateSnapshotInfo.from(csvUtility.getSnapshot()));
+    }
+    
+    @GetMapping("/rates/snapshots")
+    public ResponseEntity<List<RateSnapshotInfo>> retainedRates() {
+        return ResponseEntity.ok(csvUtility.getRetainedSnapshots().stream()
+                .map(RateSnapshotInfo::from)
+                .collect(Collectors.toList()));
+    }
+    
+    @GetMapping("/rates/grids")
+    public ResponseEntity<Map<String, Map<String, Object>>> rateGrids() {
+        Map<String, Map<String, Object>> grids = new LinkedHashMap<>();
+        csvUtility.getSnapshot().getRateGrids()
+                .forEach((mortgageType, grid) -> grids.put(mortgageType, grid.footprint()));
+        return ResponseEntity.ok(grids);
+    }
+    
+    @PostMapping("/rates/reload")
+    public ResponseEntity<?> reloadRates() {
+        try {
+            return ResponseEntity.ok(RateSnapshotInfo.from(csvUtility.reload()));
+        } catch (RateSheetException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body("Rate sheet reload failed: " + e.getMessage());
+        }
+    }
+    
+    @PostMapping("/rules/reload")
+    public ResponseEntity<?> reloadRules() {
+        try {
+            return ResponseEntity.ok(Map.of("rules", pricingRuleService.reload().ruleCount()));
+        } catch (RateSheetException e) {
+            return ResponseEntity.status(HttpStatus.UNPROCESSABLE_ENTITY).body("Pricing rule reload failed: " + e.getMessage());
+        }
+    }
+    
+    @GetMapping("/quote-cache")
+    public ResponseEntity<Map<String, Object>> quoteCacheStats() {
+        return ResponseEntity.ok(quoteCache.stats());
+    }
+    
+    @GetMapping("/outcome-table")
+    public ResponseEntity<Map<String, Object>> outcomeTableStats() {
+        return ResponseEntity.ok(outcomeTables.stats());
+    }
+    
+    @GetMapping("/quote-coalescer")
+    public ResponseEntity<Map<String, Object>> quoteCoalescerStats() {
+        return ResponseEntity.ok(quoteCoalescer.stats());
+    }
+}
@@ -1,48 +1,137 @@
 package com.mortgagecalc.controller;
 
+import com.mortgagecalc.model.BatchQuoteResult;
 import com.mortgagecalc.model.MortgageInput;
 import com.mortgagecalc.model.MortgageOption;
-import com.mortgagecalc.service.RateCalculationService;
+import com.mortgagecalc.model.SweepRequest;
+import com.mortgagecalc.pricing.UnknownRateSnapshotException;
+import com.mortgagecalc.service.BatchQuoteService;
+import com.mortgagecalc.service.PricingMetrics;
+import com.mortgagecalc.service.QuoteCoalescer;
+import com.mortgagecalc.service.QuoteETagService;
+import com.mortgagecalc.service.SweepService;
 import com.mortgagecalc.service.ValidationService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import jakarta.validation.ConstraintViolation;
+import jakarta.servlet.http.HttpServletRequest;
 import java.util.List;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/mortgage")
 public class MortgageController {
     private final ValidationService validationService;
-    private final RateCalculationService rateCalculationService;
+    private final QuoteCoalescer quoteCoalescer;
+    private final BatchQuoteService batchQuoteService;
+    private final SweepService sweepService;
+    private final PricingMetrics pricingMetrics;
+    private final QuoteETagService quoteETags;
     
-    public MortgageController(ValidationService validationService, RateCalculationService rateCalculationService) {
+    public MortgageController(ValidationService validationService, QuoteCoalescer quoteCoalescer,
+                              BatchQuoteService batchQuoteService, SweepService sweepService,
+                              PricingMetrics pricingMetrics, QuoteETagService quoteETags) {
         this.validationService = validationService;
-        this.rateCalculationService = rateCalculationService;
+        this.quoteCoalescer = quoteCoalescer;
+        this.batchQuoteService = batchQuoteService;
+        this.sweepService = sweepService;
+        this.pricingMetrics = pricingMetrics;
+        this.quoteETags = quoteETags;
     }
     
     @PostMapping("/calculate")
     public ResponseEntity<?> calculate(@RequestBody MortgageInput input) {
-        Set<ConstraintViolation<MortgageInput>> violations = validationService.validateInput(input);
+        ResponseEntity<?> rejected = validate(input);
+        if (rejected != null) {
+            return rejected;
+        }
         
-        if (!violations.isEmpty()) {
-            List<String> errors = violations.stream()
-                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
-                    .collect(Collectors.toList());
-            return ResponseEntity.badRequest().body(errors);
+        List<MortgageOption> options = quoteCoalescer.calculate(input);
+        
+        return ResponseEntity.ok(options);
+    }
+    
+    /**
+     * The same quote from query parameters, so HTTP caches can hold it. Responses carry a strong ETag for the input,
+     * rate snapshot and rule book; a request whose If-None-Match names the current tag gets 304 without pricing.
+     */
+    @GetMapping("/calculate")
+    public ResponseEntity<?> getCalculate(MortgageInput input, @RequestHeader HttpHeaders headers) {
+        ResponseEntity<?> rejected = validate(input);
+        if (rejected != null) {
+            return rejected;
         }
         
-        if (!validationService.isDownPaymentValid(input)) {
-            return ResponseEntity.badRequest().body("Down payment cannot exceed property price");
+        String eTag = quoteETags.eTag(input, headers.getFirst(HttpHeaders.ACCEPT));
+        if (QuoteETagService.matches(headers.getIfNoneMatch(), eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .eTag(eTag)
+                    .cacheControl(quoteETags.getCacheControl())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .build();
         }
         
-        List<MortgageOption> options = rateCalculationService.calculateMortgageOptions(input);
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .cacheControl(quoteETags.getCacheControl())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(quoteCoalescer.calculate(input));
+    }
+    
+    @PostMapping(value = "/calculate/batch", consumes = {MediaType.APPLICATION_JSON_VALUE,
+            MediaType.APPLICATION_CBOR_VALUE})
+    public ResponseEntity<List<BatchQuoteResult>> calculateBatch(@RequestBody List<MortgageInput> inputs) {
+        return ResponseEntity.ok(batchQuoteService.quoteAll(inputs));
+    }
+    
+    @PostMapping(value = "/calculate/batch", consumes = MediaType.APPLICATION_NDJSON_VALUE,
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> calculateBatchStream(HttpServletRequest request) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(out -> batchQuoteService.streamQuotes(request.getInputStream(), out));
+    }
+    
+    @PostMapping("/sweep")
+    public ResponseEntity<?> sweep(@RequestBody SweepRequest request) {
+        List<String> errors = sweepService.collectErrors(request);
         
-        return ResponseEntity.ok(options);
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(errors);
+        }
+        
+        return ResponseEntity.ok(sweepService.sweep(request));
+    }
+    
+    /**
+     * A 400 response for an invalid quote input, or null when it can be priced.
+     */
+    private ResponseEntity<?> validate(MortgageInput input) {
+        long start = System.nanoTime();
+        List<String> errors = validationService.constraintErrors(input);
+        pricingMetrics.recordValidation(System.nanoTime() - start);
+        
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest().body(errors);
+        }
+        
+        if (!validationService.isDownPaymentValid(input)) {
+            return ResponseEntity.badRequest().body(ValidationService.DOWN_PAYMENT_ERROR);
+        }
+        return null;
+    }
+    
+    @ExceptionHandler(UnknownRateSnapshotException.class)
+    public ResponseEntity<String> handleUnknownRateSnapshot(UnknownRateSnapshotException e) {
+        return ResponseEntity.status(HttpStatus.GONE).body(e.getMessage());
     }
 }
@@ -0,0 +1,61 @@
+package com.mortgagecalc.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mortgagecalc.model.ScheduleRequest;
+import com.mortgagecalc.service.AmortizationScheduleService;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/mortgage")
+public class ScheduleController {
+    private static final String ROWS = AmortizationScheduleService.ROWS;
+    
+    private final AmortizationScheduleService scheduleService;
+    private final ObjectMapper objectMapper;
+    
+    public ScheduleController(AmortizationScheduleService scheduleService, ObjectMapper objectMapper) {
+        this.scheduleService = scheduleService;
+        this.objectMapper = objectMapper;
+    }
+    
+    @GetMapping("/schedule")
+    public ResponseEntity<StreamingResponseBody> getSchedule(ScheduleRequest request,
+                                                             @RequestParam(defaultValue = "0") int offset,
+                                                             @RequestParam(required = false) Integer limit,
+                                                             @RequestParam(defaultValue = ROWS) String format) {
+        return schedule(request, offset, limit, format);
+    }
+    
+    @PostMapping(value = "/schedule", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> postSchedule(@RequestBody ScheduleRequest request,
+                                                              @RequestParam(defaultValue = "0") int offset,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(defaultValue = ROWS) String format) {
+        return schedule(request, offset, limit, format);
+    }
+    
+    private ResponseEntity<StreamingResponseBody> schedule(ScheduleRequest request, int offset, Integer limit,
+                                                           String format) {
+        List<String> errors = scheduleService.collectErrors(request, offset, limit, format);
+        
+        if (!errors.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(out -> objectMapper.writeValue(out, errors));
+        }
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(out -> scheduleService.writeSchedule(request, offset, limit, format, out));
+    }
+}
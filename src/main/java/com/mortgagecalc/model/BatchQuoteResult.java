@@ -0,0 +1,56 @@
+package com.mortgagecalc.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchQuoteResult {
+    private int index;
+    private List<MortgageOption> options;
+    private List<String> errors;
+    
+    public static BatchQuoteResult success(int index, List<MortgageOption> options) {
+        BatchQuoteResult result = new BatchQuoteResult();
+        result.setIndex(index);
+        result.setOptions(options);
+        return result;
+    }
+    
+    public static BatchQuoteResult failure(int index, List<String> errors) {
+        BatchQuoteResult result = new BatchQuoteResult();
+        result.setIndex(index);
+        result.setErrors(errors);
+        return result;
+    }
+    
+    public int getIndex() {
+        return index;
+    }
+    
+    public void setIndex(int index) {
+        this.index = index;
+    }
+    
+    public List<MortgageOption> getOptions() {
+        return options;
+    }
+    
+    public void setOptions(List<MortgageOption> options) {
+        this.options = options;
+    }
+    
+    public List<String> getErrors() {
+        return errors;
+    }
+    
+    public void setErrors(List<String> errors) {
+        this.errors = errors;
+    }
+    
+    @JsonIgnore
+    public boolean isSuccess() {
+        return errors == null;
+    }
+}
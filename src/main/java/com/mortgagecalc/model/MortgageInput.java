@@ -42,6 +42,11 @@ public class MortgageInput {
     @NotNull(message = "Assets under management is required")
     private Double assetsUnderManagement;
     
+    @Positive(message = "Lock period must be positive")
+    private Integer lockPeriodDays;
+    
+    private Long rateSnapshotId;
+    
     public Integer getCreditScore() {
         return creditScore;
     }
@@ -113,4 +118,20 @@ public class MortgageInput {
     public void setAssetsUnderManagement(Double assetsUnderManagement) {
         this.assetsUnderManagement = assetsUnderManagement;
     }
+    
+    public Integer getLockPeriodDays() {
+        return lockPeriodDays;
+    }
+    
+    public void setLockPeriodDays(Integer lockPeriodDays) {
+        this.lockPeriodDays = lockPeriodDays;
+    }
+    
+    public Long getRateSnapshotId() {
+        return rateSnapshotId;
+    }
+    
+    public void setRateSnapshotId(Long rateSnapshotId) {
+        this.rateSnapshotId = rateSnapshotId;
+    }
 }
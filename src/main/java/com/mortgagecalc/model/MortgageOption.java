@@ -8,7 +8,9 @@ public class MortgageOption {
     private double rate;
     private double points;
     private double apr;
+    private double monthlyPayment;
     private List<String> appliedRules = new ArrayList<>();
+    private long rateSnapshotId;
     
     public String getMortgageType() {
         return mortgageType;
@@ -42,6 +44,14 @@ public class MortgageOption {
         this.apr = apr;
     }
     
+    public double getMonthlyPayment() {
+        return monthlyPayment;
+    }
+    
+    public void setMonthlyPayment(double monthlyPayment) {
+        this.monthlyPayment = monthlyPayment;
+    }
+    
     public List<String> getAppliedRules() {
         return appliedRules;
     }
@@ -53,4 +63,12 @@ public class MortgageOption {
     public void addAppliedRule(String rule) {
         this.appliedRules.add(rule);
     }
+    
+    public long getRateSnapshotId() {
+        return rateSnapshotId;
+    }
+    
+    public void setRateSnapshotId(long rateSnapshotId) {
+        this.rateSnapshotId = rateSnapshotId;
+    }
 }
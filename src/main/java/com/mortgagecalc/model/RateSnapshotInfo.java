@@ -0,0 +1,82 @@
+package com.mortgagecalc.model;
+
+import com.mortgagecalc.pricing.RateInterpolation;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.RateTable;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class RateSnapshotInfo {
+    private long version;
+    private Instant loadedAt;
+    private String source;
+    private long estimatedBytes;
+    private String interpolation;
+    private Map<String, Integer> products = new LinkedHashMap<>();
+    
+    public static RateSnapshotInfo from(RateSnapshot snapshot) {
+        RateSnapshotInfo info = new RateSnapshotInfo();
+        info.setVersion(snapshot.getVersion());
+        info.setLoadedAt(snapshot.getLoadedAt());
+        info.setSource(snapshot.getSource());
+        Map<String, RateTable> rateTables = snapshot.getRateTables();
+        rateTables.forEach((mortgageType, rateTable) -> info.products.put(mortgageType, rateTable.size()));
+        info.setEstimatedBytes(snapshot.estimatedBytes());
+        info.setInterpolation(rateTables.values().stream()
+                .map(RateTable::getInterpolation)
+                .findFirst()
+                .orElse(RateInterpolation.NEAREST)
+                .getKey());
+        return info;
+    }
+    
+    public long getVersion() {
+        return version;
+    }
+    
+    public void setVersion(long version) {
+        this.version = version;
+    }
+    
+    public Instant getLoadedAt() {
+        return loadedAt;
+    }
+    
+    public void setLoadedAt(Instant loadedAt) {
+        this.loadedAt = loadedAt;
+    }
+    
+    public String getSource() {
+        return source;
+    }
+    
+    public void setSource(String source) {
+        this.source = source;
+    }
+    
+    public long getEstimatedBytes() {
+        return estimatedBytes;
+    }
+    
+    public void setEstimatedBytes(long estimatedBytes) {
+        this.estimatedBytes = estimatedBytes;
+    }
+    
+    public String getInterpolation() {
+        return interpolation;
+    }
+    
+    public void setInterpolation(String interpolation) {
+        this.interpolation = interpolation;
+    }
+    
+    public Map<String, Integer> getProducts() {
+        return products;
+    }
+    
+    public void setProducts(Map<String, Integer> products) {
+        this.products = products;
+    }
+}
@@ -0,0 +1,49 @@
+package com.mortgagecalc.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.PositiveOrZero;
+
+/**
+ * Loan to build a schedule for. A {@link MortgageOption} as returned by a quote can be posted as is, plus the
+ * {@code loanValue}: its {@code mortgageType} and {@code rate} are read and its other fields ignored.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class ScheduleRequest {
+    @NotBlank(message = "Mortgage type is required")
+    private String mortgageType;
+    
+    @NotNull(message = "Loan value is required")
+    @Positive(message = "Loan value must be positive")
+    private Double loanValue;
+    
+    @NotNull(message = "Rate is required")
+    @PositiveOrZero(message = "Rate cannot be negative")
+    private Double rate;
+    
+    public String getMortgageType() {
+        return mortgageType;
+    }
+    
+    public void setMortgageType(String mortgageType) {
+        this.mortgageType = mortgageType;
+    }
+    
+    public Double getLoanValue() {
+        return loanValue;
+    }
+    
+    public void setLoanValue(Double loanValue) {
+        this.loanValue = loanValue;
+    }
+    
+    public Double getRate() {
+        return rate;
+    }
+    
+    public void setRate(Double rate) {
+        this.rate = rate;
+    }
+}
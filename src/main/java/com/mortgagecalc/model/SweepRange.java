@@ -0,0 +1,76 @@
+package com.mortgagecalc.model;
+
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+
+/**
+ * Evenly spaced axis values {@code from, from + step, ...} up to and including {@code to}. A single value when
+ * {@code to} is omitted or equal to {@code from}.
+ */
+public class SweepRange {
+    @NotNull(message = "From is required")
+    private Double from;
+    
+    private Double to;
+    
+    @Positive(message = "Step must be positive")
+    private Double step;
+    
+    public SweepRange() {
+    }
+    
+    public SweepRange(double from, double to, double step) {
+        this.from = from;
+        this.to = to;
+        this.step = step;
+    }
+    
+    public Double getFrom() {
+        return from;
+    }
+    
+    public void setFrom(Double from) {
+        this.from = from;
+    }
+    
+    public Double getTo() {
+        return to;
+    }
+    
+    public void setTo(Double to) {
+        this.to = to;
+    }
+    
+    public Double getStep() {
+        return step;
+    }
+    
+    public void setStep(Double step) {
+        this.step = step;
+    }
+    
+    /**
+     * Number of axis values, tolerating floating-point drift in {@code (to - from) / step}; 0 when the range
+     * is malformed (to before from, or a span without a step).
+     */
+    public long count() {
+        if (from == null) {
+            return 0;
+        }
+        if (to == null || to.equals(from)) {
+            return 1;
+        }
+        if (step == null || !(step > 0) || to < from) {
+            return 0;
+        }
+        return (long) (Math.floor((to - from) / step * (1 + 1e-9)) + 1);
+    }
+    
+    public double[] values() {
+        double[] values = new double[(int) count()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i == 0 ? from : from + i * step;
+        }
+        return values;
+    }
+}
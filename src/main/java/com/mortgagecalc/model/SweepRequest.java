@@ -0,0 +1,116 @@
+package com.mortgagecalc.model;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import jakarta.validation.constraints.Size;
+
+/**
+ * A grid of quotes sharing state, home type and AUM. Each cell's property price is its loan value plus its
+ * down payment, so the down payment axis moves LTV.
+ */
+public class SweepRequest {
+    @NotBlank(message = "State is required")
+    @Size(min = 2, max = 2, message = "State must be a 2-letter code")
+    private String state;
+    
+    @NotBlank(message = "Home type is required")
+    private String homeType;
+    
+    @NotNull(message = "Assets under management is required")
+    private Double assetsUnderManagement;
+    
+    @NotNull(message = "Points range is required")
+    @Valid
+    private SweepRange points;
+    
+    @NotNull(message = "Loan value range is required")
+    @Valid
+    private SweepRange loanValue;
+    
+    @NotNull(message = "Credit score range is required")
+    @Valid
+    private SweepRange creditScore;
+    
+    @NotNull(message = "Down payment range is required")
+    @Valid
+    private SweepRange downPayment;
+    
+    @Positive(message = "Lock period must be positive")
+    private Integer lockPeriodDays;
+    
+    private Long rateSnapshotId;
+    
+    public String getState() {
+        return state;
+    }
+    
+    public void setState(String state) {
+        this.state = state;
+    }
+    
+    public String getHomeType() {
+        return homeType;
+    }
+    
+    public void setHomeType(String homeType) {
+        this.homeType = homeType;
+    }
+    
+    public Double getAssetsUnderManagement() {
+        return assetsUnderManagement;
+    }
+    
+    public void setAssetsUnderManagement(Double assetsUnderManagement) {
+        this.assetsUnderManagement = assetsUnderManagement;
+    }
+    
+    public SweepRange getPoints() {
+        return points;
+    }
+    
+    public void setPoints(SweepRange points) {
+        this.points = points;
+    }
+    
+    public SweepRange getLoanValue() {
+        return loanValue;
+    }
+    
+    public void setLoanValue(SweepRange loanValue) {
+        this.loanValue = loanValue;
+    }
+    
+    public SweepRange getCreditScore() {
+        return creditScore;
+    }
+    
+    public void setCreditScore(SweepRange creditScore) {
+        this.creditScore = creditScore;
+    }
+    
+    public SweepRange getDownPayment() {
+        return downPayment;
+    }
+    
+    public void setDownPayment(SweepRange downPayment) {
+        this.downPayment = downPayment;
+    }
+    
+    public Integer getLockPeriodDays() {
+        return lockPeriodDays;
+    }
+    
+    public void setLockPeriodDays(Integer lockPeriodDays) {
+        this.lockPeriodDays = lockPeriodDays;
+    }
+    
+    public Long getRateSnapshotId() {
+        return rateSnapshotId;
+    }
+    
+    public void setRateSnapshotId(Long rateSnapshotId) {
+        this.rateSnapshotId = rateSnapshotId;
+    }
+}
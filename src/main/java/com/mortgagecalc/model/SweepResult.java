@@ -0,0 +1,87 @@
+package com.mortgagecalc.model;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Columnar sweep output. Cells are numbered row-major over {@link #getAxisOrder()} with the last axis varying
+ * fastest, and every product column holds one value per cell in that order.
+ */
+public class SweepResult {
+    private long rateSnapshotId;
+    private List<String> axisOrder;
+    private Map<String, double[]> axes = new LinkedHashMap<>();
+    private int cells;
+    private Map<String, Columns> products = new LinkedHashMap<>();
+    
+    public long getRateSnapshotId() {
+        return rateSnapshotId;
+    }
+    
+    public void setRateSnapshotId(long rateSnapshotId) {
+        this.rateSnapshotId = rateSnapshotId;
+    }
+    
+    public List<String> getAxisOrder() {
+        return axisOrder;
+    }
+    
+    public void setAxisOrder(List<String> axisOrder) {
+        this.axisOrder = axisOrder;
+    }
+    
+    public Map<String, double[]> getAxes() {
+        return axes;
+    }
+    
+    public void setAxes(Map<String, double[]> axes) {
+        this.axes = axes;
+    }
+    
+    public int getCells() {
+        return cells;
+    }
+    
+    public void setCells(int cells) {
+        this.cells = cells;
+    }
+    
+    public Map<String, Columns> getProducts() {
+        return products;
+    }
+    
+    public void setProducts(Map<String, Columns> products) {
+        this.products = products;
+    }
+    
+    public static class Columns {
+        private final double[] rate;
+        private final double[] points;
+        private final double[] apr;
+        private final double[] monthlyPayment;
+        
+        public Columns(int cells) {
+            this.rate = new double[cells];
+            this.points = new double[cells];
+            this.apr = new double[cells];
+            this.monthlyPayment = new double[cells];
+        }
+        
+        public double[] getRate() {
+            return rate;
+        }
+        
+        public double[] getPoints() {
+            return points;
+        }
+        
+        public double[] getApr() {
+            return apr;
+        }
+        
+        public double[] getMonthlyPayment() {
+            return monthlyPayment;
+        }
+    }
+}
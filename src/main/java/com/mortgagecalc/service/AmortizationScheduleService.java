@@ -0,0 +1,137 @@
+package com.mortgagecalc.service;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mortgagecalc.model.ScheduleRequest;
+import com.mortgagecalc.pricing.ArmTerms;
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.ScheduleCursor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+@Service
+public class AmortizationScheduleService {
+    public static final String ROWS = "rows";
+    public static final String COLUMNAR = "columnar";
+    
+    private static final List<String> COLUMNS = List.of("month", "rate", "payment", "interest", "principal", "balance");
+    private static final List<ToDoubleFunction<ScheduleCursor>> COLUMN_VALUES = List.of(
+            ScheduleCursor::getMonth, ScheduleCursor::getRate, ScheduleCursor::getPayment,
+            ScheduleCursor::getInterest, ScheduleCursor::getPrincipal, ScheduleCursor::getBalance);
+    
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final ArmTerms armTerms;
+    
+    public AmortizationScheduleService(Validator validator, ObjectMapper objectMapper, double[] indexPath,
+                                       double margin, double initialCap, double periodicCap, double lifetimeCap) {
+        this(validator, objectMapper, new ArmTerms(indexPath, margin, initialCap, periodicCap, lifetimeCap));
+    }
+    
+    @Autowired
+    public AmortizationScheduleService(Validator validator, ObjectMapper objectMapper, ArmTerms armTerms) {
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.armTerms = armTerms;
+    }
+    
+    public ArmTerms getArmTerms() {
+        return armTerms;
+    }
+    
+    public List<String> collectErrors(ScheduleRequest request, int offset, Integer limit, String format) {
+        List<String> errors = new ArrayList<>();
+        
+        for (ConstraintViolation<ScheduleRequest> violation : validator.validate(request)) {
+            errors.add(violation.getPropertyPath() + ": " + violation.getMessage());
+        }
+        if (request.getMortgageType() != null && !request.getMortgageType().isBlank()
+                && MortgageProduct.find(request.getMortgageType()) == null) {
+            errors.add("mortgageType: Unknown mortgage type " + request.getMortgageType());
+        }
+        if (offset < 0) {
+            errors.add("offset: must not be negative");
+        }
+        if (limit != null && limit < 0) {
+            errors.add("limit: must not be negative");
+        }
+        if (!ROWS.equals(format) && !COLUMNAR.equals(format)) {
+            errors.add("format: must be " + ROWS + " or " + COLUMNAR);
+        }
+        
+        return errors;
+    }
+    
+    /**
+     * Streams one page of the schedule. Rows are generated as they are written, so only the cursor is held in
+     * memory. The columnar layout skips to the page once and walks a copy of the cursor from there for each column,
+     * so it holds no more than the row layout.
+     */
+    public void writeSchedule(ScheduleRequest request, int offset, Integer limit, String format, OutputStream out)
+            throws IOException {
+        MortgageProduct product = MortgageProduct.find(request.getMortgageType());
+        int termMonths = product.getTermMonths();
+        int first = Math.min(offset, termMonths);
+        int count = limit == null ? termMonths - first : Math.min(limit, termMonths - first);
+        
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            json.writeStartObject();
+            json.writeStringField("mortgageType", product.getDisplayName());
+            json.writeNumberField("loanValue", request.getLoanValue());
+            json.writeNumberField("rate", request.getRate());
+            json.writeNumberField("termMonths", termMonths);
+            json.writeNumberField("offset", first);
+            json.writeNumberField("count", count);
+            
+            if (COLUMNAR.equals(format)) {
+                ScheduleCursor page = cursorAt(product, request, first);
+                for (int column = 0; column < COLUMNS.size(); column++) {
+                    json.writeArrayFieldStart(COLUMNS.get(column));
+                    ScheduleCursor cursor = page.copy();
+                    for (int row = 0; row < count && cursor.next(); row++) {
+                        writeValue(json, column, COLUMN_VALUES.get(column).applyAsDouble(cursor));
+                    }
+                    json.writeEndArray();
+                }
+            } else {
+                json.writeArrayFieldStart("rows");
+                ScheduleCursor cursor = cursorAt(product, request, first);
+                for (int row = 0; row < count && cursor.next(); row++) {
+                    json.writeStartObject();
+                    for (int column = 0; column < COLUMNS.size(); column++) {
+                        json.writeFieldName(COLUMNS.get(column));
+                        writeValue(json, column, COLUMN_VALUES.get(column).applyAsDouble(cursor));
+                    }
+                    json.writeEndObject();
+                }
+                json.writeEndArray();
+            }
+            
+            json.writeEndObject();
+        }
+    }
+    
+    private ScheduleCursor cursorAt(MortgageProduct product, ScheduleRequest request, int offset) {
+        ScheduleCursor cursor = ScheduleCursor.start(product, request.getLoanValue(), request.getRate(), armTerms);
+        cursor.skip(offset);
+        return cursor;
+    }
+    
+    private static void writeValue(JsonGenerator json, int column, double value) throws IOException {
+        if (column == 0) {
+            json.writeNumber((int) value);
+        } else {
+            json.writeNumber(value);
+        }
+    }
+}
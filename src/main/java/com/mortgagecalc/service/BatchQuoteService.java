@@ -0,0 +1,124 @@
+package com.mortgagecalc.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.mortgagecalc.model.BatchQuoteResult;
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.pricing.UnknownRateSnapshotException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+@Service
+public class BatchQuoteService {
+    private static final Logger log = LoggerFactory.getLogger(BatchQuoteService.class);
+    
+    private final ValidationService validationService;
+    private final RateCalculationService rateCalculationService;
+    private final ObjectReader inputReader;
+    private final ObjectWriter resultWriter;
+    private final int streamChunkSize;
+    
+    public BatchQuoteService(ValidationService validationService, RateCalculationService rateCalculationService,
+                             ObjectMapper objectMapper,
+                             @Value("${mortgage.batch.stream-chunk-size:1024}") int streamChunkSize) {
+        this.validationService = validationService;
+        this.rateCalculationService = rateCalculationService;
+        this.inputReader = objectMapper.readerFor(MortgageInput.class);
+        this.resultWriter = objectMapper.writerFor(BatchQuoteResult.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        this.streamChunkSize = streamChunkSize;
+    }
+    
+    public List<BatchQuoteResult> quoteAll(List<MortgageInput> inputs) {
+        return quoteAll(inputs, 0);
+    }
+    
+    /**
+     * Validates and prices one item. Whatever goes wrong with it becomes that item's errors, so one bad item never
+     * fails the rest of a batch.
+     */
+    public BatchQuoteResult quote(int index, MortgageInput input) {
+        List<String> errors = validationService.collectErrors(input);
+        
+        if (!errors.isEmpty()) {
+            return BatchQuoteResult.failure(index, errors);
+        }
+        
+        try {
+            return BatchQuoteResult.success(index, rateCalculationService.calculateMortgageOptions(input));
+        } catch (UnknownRateSnapshotException e) {
+            return BatchQuoteResult.failure(index, List.of(e.getMessage()));
+        } catch (RuntimeException e) {
+            log.warn("Batch item {} failed to price", index, e);
+            return BatchQuoteResult.failure(index, List.of("Pricing failed: "
+                    + (e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName())));
+        }
+    }
+    
+    /**
+     * Reads NDJSON inputs and writes one NDJSON result line per input, in order. Only one chunk of inputs and
+     * results is held at a time, so memory stays flat regardless of the body size. An input that fails validation
+     * or pricing gets an error result on its line; a line that cannot be parsed ends the stream with an error
+     * result at that index. An empty body gets an empty response.
+     */
+    public void streamQuotes(InputStream body, OutputStream out) throws IOException {
+        List<MortgageInput> chunk = new ArrayList<>(streamChunkSize);
+        int index = 0;
+        
+        try (JsonGenerator generator = resultWriter.createGenerator(out)) {
+            // readValues already parses the first token, so a body that starts malformed fails here.
+            try (MappingIterator<MortgageInput> inputs = inputReader.readValues(body)) {
+                while (inputs.hasNextValue()) {
+                    chunk.add(inputs.nextValue());
+                    if (chunk.size() == streamChunkSize) {
+                        index = writeChunk(chunk, index, generator);
+                    }
+                }
+                index = writeChunk(chunk, index, generator);
+            } catch (JsonProcessingException e) {
+                index = writeChunk(chunk, index, generator);
+                resultWriter.writeValue(generator, BatchQuoteResult.failure(index++,
+                        List.of("Malformed NDJSON input: " + e.getOriginalMessage())));
+            }
+            // The writer separates results; only a stream that wrote any needs the last one terminated.
+            if (index > 0) {
+                generator.writeRaw('\n');
+            }
+        }
+    }
+    
+    private List<BatchQuoteResult> quoteAll(List<MortgageInput> inputs, int firstIndex) {
+        return IntStream.range(0, inputs.size())
+                .parallel()
+                .mapToObj(i -> quote(firstIndex + i, inputs.get(i)))
+                .collect(Collectors.toList());
+    }
+    
+    private int writeChunk(List<MortgageInput> chunk, int firstIndex, JsonGenerator generator) throws IOException {
+        for (BatchQuoteResult result : quoteAll(chunk, firstIndex)) {
+            resultWriter.writeValue(generator, result);
+        }
+        generator.flush();
+        
+        int nextIndex = firstIndex + chunk.size();
+        chunk.clear();
+        return nextIndex;
+    }
+}
@@ -0,0 +1,408 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.pricing.CsvReader;
+import com.mortgagecalc.pricing.UnknownRateSnapshotException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Re-prices a loan file offline. The input is a CSV whose header names {@link MortgageInput} properties, plus an
+ * optional {@code loanId} that is copied to the output; other columns are ignored. Rows are read in chunks,
+ * chunks are priced in parallel, and each chunk's lines are written in input order as soon as it and every
+ * earlier chunk are done. Only {@code 2 × threads} chunks are ever read ahead, so memory stays flat however large
+ * the file is.
+ * <p>
+ * After each chunk the output is forced to disk and {@code <output>.checkpoint} records the rows and bytes
+ * finished. A resumed run truncates the output to that point and skips the finished rows; a completed run
+ * deletes the checkpoint.
+ */
+@Service
+public class BookRepricingService {
+    private static final Logger log = LoggerFactory.getLogger(BookRepricingService.class);
+    
+    public static final String LOAN_ID_COLUMN = "loanId";
+    public static final String OUTPUT_HEADER =
+            "row,loanId,mortgageType,rateSnapshotId,rate,points,apr,monthlyPayment,errors\n";
+    
+    static final String CHECKPOINT_EXTENSION = ".checkpoint";
+    
+    private static final long PROGRESS_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(10);
+    
+    private final ValidationService validationService;
+    private final RateCalculationService rateCalculationService;
+    private final int threads;
+    private final int chunkSize;
+    
+    public BookRepricingService(ValidationService validationService, RateCalculationService rateCalculationService,
+                                @Value("${mortgage.reprice.threads:0}") int threads,
+                                @Value("${mortgage.reprice.chunk-size:4096}") int chunkSize) {
+        this.validationService = validationService;
+        this.rateCalculationService = rateCalculationService;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.chunkSize = Math.max(1, chunkSize);
+    }
+    
+    /**
+     * Prices every row of {@code input} into {@code output}. Without {@code resume}, or when there is no
+     * checkpoint, the output is rewritten from the start.
+     *
+     * @throws IOException if a file cannot be read or written, or the checkpoint does not fit the files
+     */
+    public Summary reprice(Path input, Path output, boolean resume) throws IOException {
+        Path checkpointFile = checkpointFor(output);
+        Checkpoint checkpoint = resume ? Checkpoint.read(checkpointFile) : Checkpoint.START;
+        AtomicInteger workerIds = new AtomicInteger();
+        ExecutorService workers = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "reprice-" + workerIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        
+        long start = System.nanoTime();
+        Summary summary = new Summary(checkpoint.rows);
+        try (CsvReader reader = new CsvReader(Files.newBufferedReader(input, StandardCharsets.UTF_8));
+             FileChannel out = FileChannel.open(output, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            String[] header = nextRecord(reader);
+            if (header == null) {
+                throw new IOException("Loan file " + input + " has no header row");
+            }
+            Columns columns = new Columns(header);
+            
+            if (out.size() < checkpoint.bytes) {
+                throw new IOException("Output " + output + " is shorter than its checkpoint; rerun without resume");
+            }
+            out.truncate(checkpoint.bytes);
+            out.position(checkpoint.bytes);
+            if (checkpoint.bytes == 0) {
+                writeFully(out, OUTPUT_HEADER.getBytes(StandardCharsets.UTF_8));
+            }
+            for (long row = 0; row < checkpoint.rows; row++) {
+                if (nextRecord(reader) == null) {
+                    throw new IOException("Loan file " + input + " has fewer rows than its checkpoint");
+                }
+            }
+            
+            Deque<Future<Chunk>> pending = new ArrayDeque<>();
+            long nextRow = checkpoint.rows;
+            long lastProgress = start;
+            while (true) {
+                List<String[]> records = new ArrayList<>(chunkSize);
+                String[] record;
+                while (records.size() < chunkSize && (record = nextRecord(reader)) != null) {
+                    records.add(record);
+                }
+                if (!records.isEmpty()) {
+                    long firstRow = nextRow;
+                    nextRow += records.size();
+                    pending.add(workers.submit(() -> priceChunk(columns, firstRow, records)));
+                }
+                if (pending.isEmpty()) {
+                    break;
+                }
+                if (records.isEmpty() || pending.size() >= 2 * threads) {
+                    Chunk chunk = await(pending.poll());
+                    writeFully(out, chunk.lines);
+                    out.force(false);
+                    new Checkpoint(chunk.endRow, out.position()).write(checkpointFile);
+                    summary.add(chunk);
+                    
+                    long now = System.nanoTime();
+                    if (now - lastProgress >= PROGRESS_INTERVAL_NANOS) {
+                        lastProgress = now;
+                        log.info("Re-priced {} rows, {} quotes/sec", chunk.endRow,
+                                Math.round(summary.quotes * 1e9 / (now - start)));
+                    }
+                }
+            }
+        } finally {
+            workers.shutdownNow();
+        }
+        
+        Files.deleteIfExists(checkpointFile);
+        summary.elapsedNanos = System.nanoTime() - start;
+        return summary;
+    }
+    
+    public static Path checkpointFor(Path output) {
+        return output.resolveSibling(output.getFileName() + CHECKPOINT_EXTENSION);
+    }
+    
+    private Chunk priceChunk(Columns columns, long firstRow, List<String[]> records) {
+        StringBuilder lines = new StringBuilder(records.size() * 4 * 96);
+        Chunk chunk = new Chunk(firstRow + records.size());
+        
+        for (int i = 0; i < records.size(); i++) {
+            String[] record = records.get(i);
+            String row = Long.toString(firstRow + i);
+            String loanId = columns.loanId(record);
+            
+            List<String> errors;
+            List<MortgageOption> options = List.of();
+            try {
+                MortgageInput input = columns.parse(record);
+                errors = validationService.collectErrors(input);
+                if (errors.isEmpty()) {
+                    options = rateCalculationService.calculateMortgageOptions(input);
+                }
+            } catch (IllegalArgumentException | UnknownRateSnapshotException e) {
+                errors = List.of(e.getMessage());
+            }
+            
+            if (!errors.isEmpty()) {
+                chunk.failed++;
+                lines.append(row).append(',');
+                appendField(lines, loanId);
+                lines.append(",,,,,,,");
+                appendField(lines, String.join("; ", errors));
+                lines.append('\n');
+                continue;
+            }
+            for (MortgageOption option : options) {
+                chunk.quotes++;
+                lines.append(row).append(',');
+                appendField(lines, loanId);
+                lines.append(',');
+                appendField(lines, option.getMortgageType());
+                lines.append(',').append(option.getRateSnapshotId())
+                        .append(',').append(option.getRate())
+                        .append(',').append(option.getPoints())
+                        .append(',').append(option.getApr())
+                        .append(',').append(option.getMonthlyPayment())
+                        .append(",\n");
+            }
+        }
+        
+        chunk.lines = lines.toString().getBytes(StandardCharsets.UTF_8);
+        return chunk;
+    }
+    
+    /**
+     * Next non-blank record, or {@code null} at the end of the file.
+     */
+    private static String[] nextRecord(CsvReader reader) throws IOException {
+        String[] record;
+        do {
+            record = reader.readNext();
+        } while (record != null && record.length == 1 && record[0].isBlank());
+        return record;
+    }
+    
+    private static Chunk await(Future<Chunk> chunk) throws IOException {
+        try {
+            return chunk.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while re-pricing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+    
+    private static void writeFully(FileChannel out, byte[] bytes) throws IOException {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        while (buffer.hasRemaining()) {
+            out.write(buffer);
+        }
+    }
+    
+    private static void appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return;
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            line.append(value);
+            return;
+        }
+        line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+    
+    /**
+     * Rows and quotes written by one run, not counting rows a resumed run skipped.
+     */
+    public static final class Summary {
+        private final long resumedRows;
+        private long rows;
+        private long quotes;
+        private long failedRows;
+        private long elapsedNanos;
+        
+        Summary(long resumedRows) {
+            this.resumedRows = resumedRows;
+        }
+        
+        private void add(Chunk chunk) {
+            rows = chunk.endRow - resumedRows;
+            quotes += chunk.quotes;
+            failedRows += chunk.failed;
+        }
+        
+        public long getResumedRows() {
+            return resumedRows;
+        }
+        
+        public long getRows() {
+            return rows;
+        }
+        
+        public long getQuotes() {
+            return quotes;
+        }
+        
+        public long getFailedRows() {
+            return failedRows;
+        }
+        
+        public long getElapsedNanos() {
+            return elapsedNanos;
+        }
+        
+        public double getQuotesPerSecond() {
+            return elapsedNanos > 0 ? quotes * 1e9 / elapsedNanos : 0.0;
+        }
+    }
+    
+    /**
+     * Rows fully written and the output length at that point.
+     */
+    static final class Checkpoint {
+        static final Checkpoint START = new Checkpoint(0, 0);
+        
+        private final long rows;
+        private final long bytes;
+        
+        Checkpoint(long rows, long bytes) {
+            this.rows = rows;
+            this.bytes = bytes;
+        }
+        
+        static Checkpoint read(Path file) throws IOException {
+            if (!Files.exists(file)) {
+                return START;
+            }
+            Properties properties = new Properties();
+            try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                properties.load(reader);
+            }
+            try {
+                return new Checkpoint(Long.parseLong(properties.getProperty("rows")),
+                        Long.parseLong(properties.getProperty("bytes")));
+            } catch (NumberFormatException e) {
+                throw new IOException("Malformed checkpoint " + file, e);
+            }
+        }
+        
+        /**
+         * Replaces the checkpoint by renaming a complete new file over it, so a crash never leaves it half written.
+         */
+        void write(Path file) throws IOException {
+            Path temporary = Files.createTempFile(file.toAbsolutePath().getParent(), file.getFileName().toString(),
+                    ".tmp");
+            try {
+                try (Writer writer = Files.newBufferedWriter(temporary, StandardCharsets.UTF_8)) {
+                    writer.write("rows=" + rows + "\nbytes=" + bytes + "\n");
+                }
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temporary);
+            }
+        }
+    }
+    
+    private static final class Chunk {
+        private final long endRow;
+        private byte[] lines;
+        private int quotes;
+        private int failed;
+        
+        Chunk(long endRow) {
+            this.endRow = endRow;
+        }
+    }
+    
+    /**
+     * Header positions of the {@link MortgageInput} properties the file provides.
+     */
+    private static final class Columns {
+        private final String[] names;
+        private final int loanIdColumn;
+        
+        Columns(String[] header) {
+            this.names = new String[header.length];
+            int loanId = -1;
+            for (int i = 0; i < header.length; i++) {
+                names[i] = header[i].trim();
+                if (names[i].equals(LOAN_ID_COLUMN)) {
+                    loanId = i;
+                }
+            }
+            this.loanIdColumn = loanId;
+        }
+        
+        String loanId(String[] record) {
+            return loanIdColumn >= 0 && loanIdColumn < record.length ? record[loanIdColumn].trim() : null;
+        }
+        
+        /**
+         * @throws IllegalArgumentException if a numeric column holds something else
+         */
+        MortgageInput parse(String[] record) {
+            MortgageInput input = new MortgageInput();
+            for (int i = 0; i < names.length && i < record.length; i++) {
+                String value = record[i].trim();
+                if (value.isEmpty()) {
+                    continue;
+                }
+                try {
+                    switch (names[i]) {
+                        case "creditScore" -> input.setCreditScore(Integer.parseInt(value));
+                        case "loanValue" -> input.setLoanValue(Double.parseDouble(value));
+                        case "state" -> input.setState(value);
+                        case "homeType" -> input.setHomeType(value);
+                        case "propertyPrice" -> input.setPropertyPrice(Double.parseDouble(value));
+                        case "downPayment" -> input.setDownPayment(Double.parseDouble(value));
+                        case "income" -> input.setIncome(Double.parseDouble(value));
+                        case "points" -> input.setPoints(Double.parseDouble(value));
+                        case "assetsUnderManagement" -> input.setAssetsUnderManagement(Double.parseDouble(value));
+                        case "lockPeriodDays" -> input.setLockPeriodDays(Integer.parseInt(value));
+                        case "rateSnapshotId" -> input.setRateSnapshotId(Long.parseLong(value));
+                        default -> {
+                        }
+                    }
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(names[i] + ": Malformed number " + value);
+                }
+            }
+            return input;
+        }
+    }
+}
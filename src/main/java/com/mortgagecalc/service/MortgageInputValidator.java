@@ -0,0 +1,108 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.model.MortgageInput;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hand-specialized equivalent of Bean Validation over {@link MortgageInput}. A valid input is checked in one
+ * short-circuit pass and allocates nothing; messages are only built once something has failed. Property paths,
+ * messages and edge cases (neither NaN nor -0.0 is positive, blank means {@code trim()} is empty) follow
+ * Hibernate Validator exactly, so a constraint added to {@link MortgageInput} must be added here too.
+ */
+public final class MortgageInputValidator {
+    private MortgageInputValidator() {
+    }
+    
+    /**
+     * "property: message" for each violated annotation constraint, in field order; empty when all hold.
+     */
+    public static List<String> constraintErrors(MortgageInput input) {
+        Integer creditScore = input.getCreditScore();
+        String state = input.getState();
+        Integer lockPeriodDays = input.getLockPeriodDays();
+        boolean valid = creditScore != null && creditScore >= 300 && creditScore <= 850
+                && isPositive(input.getLoanValue())
+                && !isBlank(state) && state.length() == 2
+                && !isBlank(input.getHomeType())
+                && isPositive(input.getPropertyPrice())
+                && isPositive(input.getDownPayment())
+                && isPositive(input.getIncome())
+                && input.getPoints() != null
+                && input.getAssetsUnderManagement() != null
+                && (lockPeriodDays == null || lockPeriodDays > 0);
+        
+        return valid ? List.of() : describeViolations(input);
+    }
+    
+    private static List<String> describeViolations(MortgageInput input) {
+        List<String> errors = new ArrayList<>();
+        
+        Integer creditScore = input.getCreditScore();
+        if (creditScore == null) {
+            errors.add("creditScore: Credit score is required");
+        } else if (creditScore < 300) {
+            errors.add("creditScore: Credit score must be at least 300");
+        } else if (creditScore > 850) {
+            errors.add("creditScore: Credit score cannot exceed 850");
+        }
+        
+        checkPositive(errors, input.getLoanValue(), "loanValue: Loan value is required",
+                "loanValue: Loan value must be positive");
+        
+        String state = input.getState();
+        if (isBlank(state)) {
+            errors.add("state: State is required");
+        }
+        if (state != null && state.length() != 2) {
+            errors.add("state: State must be a 2-letter code");
+        }
+        
+        if (isBlank(input.getHomeType())) {
+            errors.add("homeType: Home type is required");
+        }
+        
+        checkPositive(errors, input.getPropertyPrice(), "propertyPrice: Property price is required",
+                "propertyPrice: Property price must be positive");
+        checkPositive(errors, input.getDownPayment(), "downPayment: Down payment is required",
+                "downPayment: Down payment must be positive");
+        checkPositive(errors, input.getIncome(), "income: Income is required", "income: Income must be positive");
+        
+        if (input.getPoints() == null) {
+            errors.add("points: Points is required");
+        }
+        if (input.getAssetsUnderManagement() == null) {
+            errors.add("assetsUnderManagement: Assets under management is required");
+        }
+        if (input.getLockPeriodDays() != null && input.getLockPeriodDays() <= 0) {
+            errors.add("lockPeriodDays: Lock period must be positive");
+        }
+        
+        return errors;
+    }
+    
+    private static void checkPositive(List<String> errors, Double value, String requiredError, String positiveError) {
+        if (value == null) {
+            errors.add(requiredError);
+        } else if (!(value > 0.0)) {
+            errors.add(positiveError);
+        }
+    }
+    
+    private static boolean isPositive(Double value) {
+        return value != null && value > 0.0;
+    }
+    
+    private static boolean isBlank(String value) {
+        if (value == null) {
+            return true;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (value.charAt(i) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
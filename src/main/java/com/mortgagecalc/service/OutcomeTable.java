@@ -0,0 +1,135 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.pricing.ArmTerms;
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.PricingKernel;
+import com.mortgagecalc.pricing.QuoteResult;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.pricing.rules.RuleMatch;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Every outcome one rate snapshot and rule book can quote, priced per dollar borrowed. A quote's outcome only
+ * depends on its quote rule match and, per product, the base row it prices from, so the table is a flat array
+ * indexed by {@code (match slot, product, base row)} and a lookup replaces pricing entirely.
+ */
+public final class OutcomeTable {
+    private final RateSnapshot snapshot;
+    private final CompiledRuleBook ruleBook;
+    private final ArmTerms armTerms;
+    private final int[] slots;
+    private final int[] productOffsets;
+    private final int rowsPerMatch;
+    private final QuoteCache.PricedOption[] outcomes;
+    
+    private OutcomeTable(RateSnapshot snapshot, CompiledRuleBook ruleBook, ArmTerms armTerms, int[] slots,
+                         int[] productOffsets, int rowsPerMatch, QuoteCache.PricedOption[] outcomes) {
+        this.snapshot = snapshot;
+        this.ruleBook = ruleBook;
+        this.armTerms = armTerms;
+        this.slots = slots;
+        this.productOffsets = productOffsets;
+        this.rowsPerMatch = rowsPerMatch;
+        this.outcomes = outcomes;
+    }
+    
+    /**
+     * Prices every reachable quote match against every base row of every product. Returns {@code null} when the
+     * outcomes cannot be enumerated (a product interpolates or has no rates, or the rule book's intern limit is
+     * hit) or would exceed {@code maxOutcomes}.
+     */
+    public static OutcomeTable build(PricingKernel kernel, long maxOutcomes) {
+        int[] productOffsets = new int[MortgageProduct.count()];
+        long rowsPerMatch = 0;
+        for (MortgageProduct product : MortgageProduct.values()) {
+            int rows = kernel.baseRowCount(product);
+            if (rows <= 0) {
+                return null;
+            }
+            productOffsets[product.ordinal()] = (int) rowsPerMatch;
+            rowsPerMatch += rows;
+        }
+        
+        CompiledRuleBook ruleBook = kernel.getRuleBook();
+        List<RuleMatch> matches = ruleBook.quoteMatches();
+        if (matches == null || rowsPerMatch * matches.size() > Math.min(maxOutcomes, Integer.MAX_VALUE)) {
+            return null;
+        }
+        
+        int maxId = matches.stream().mapToInt(RuleMatch::getId).max().orElse(0);
+        int[] slots = new int[maxId + 1];
+        Arrays.fill(slots, -1);
+        QuoteCache.PricedOption[] outcomes = new QuoteCache.PricedOption[(int) rowsPerMatch * matches.size()];
+        Map<Integer, List<String>> descriptions = new HashMap<>();
+        QuoteResult result = new QuoteResult();
+        
+        for (int slot = 0; slot < matches.size(); slot++) {
+            RuleMatch quoteRules = matches.get(slot);
+            slots[quoteRules.getId()] = slot;
+            for (MortgageProduct product : MortgageProduct.values()) {
+                int offset = slot * (int) rowsPerMatch + productOffsets[product.ordinal()];
+                for (int row = 0; row < kernel.baseRowCount(product); row++) {
+                    kernel.priceBaseRow(product, quoteRules, row, 1.0, result);
+                    RuleMatch applied = result.getAppliedRules();
+                    List<String> appliedRules = applied.getId() >= 0
+                            ? descriptions.computeIfAbsent(applied.getId(),
+                                    id -> List.copyOf(ruleBook.describe(applied)))
+                            : List.copyOf(ruleBook.describe(applied));
+                    outcomes[offset + row] = new QuoteCache.PricedOption(product, result.getRateSnapshotId(),
+                            result.getRate(), result.getPoints(), result.getApr(), result.getMonthlyPayment(),
+                            applied, appliedRules);
+                }
+            }
+        }
+        
+        return new OutcomeTable(kernel.getSnapshot(), ruleBook, kernel.getArmTerms(), slots, productOffsets,
+                (int) rowsPerMatch, outcomes);
+    }
+    
+    /**
+     * Whether quotes priced by {@code kernel} may be looked up here.
+     */
+    public boolean isFor(PricingKernel kernel) {
+        return kernel.getSnapshot() == snapshot && kernel.getRuleBook() == ruleBook
+                && kernel.getArmTerms() == armTerms;
+    }
+    
+    public boolean covers(RuleMatch quoteRules) {
+        return slotOf(quoteRules) >= 0;
+    }
+    
+    /**
+     * The outcome for a {@link #covers covered} quote match and a base row from {@link PricingKernel#baseRow}.
+     */
+    public QuoteCache.PricedOption get(RuleMatch quoteRules, MortgageProduct product, int row) {
+        return outcomes[slotOf(quoteRules) * rowsPerMatch + productOffsets[product.ordinal()] + row];
+    }
+    
+    public RateSnapshot getSnapshot() {
+        return snapshot;
+    }
+    
+    public CompiledRuleBook getRuleBook() {
+        return ruleBook;
+    }
+    
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("rateSnapshotId", snapshot.getVersion());
+        stats.put("quoteMatches", outcomes.length / rowsPerMatch);
+        stats.put("rowsPerMatch", rowsPerMatch);
+        stats.put("outcomes", outcomes.length);
+        return stats;
+    }
+    
+    private int slotOf(RuleMatch quoteRules) {
+        int id = quoteRules.getId();
+        return id >= 0 && id < slots.length ? slots[id] : -1;
+    }
+}
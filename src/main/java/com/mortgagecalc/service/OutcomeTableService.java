@@ -0,0 +1,133 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.pricing.ArmTerms;
+import com.mortgagecalc.pricing.PricingKernel;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.utils.CsvUtility;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PreDestroy;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Keeps an {@link OutcomeTable} for the current rate snapshot and rule book, rebuilt on a background thread
+ * whenever {@link CsvUtility} publishes a snapshot or a quote finds the rule book has changed. Until the new
+ * table is ready, {@link #current} returns {@code null} and quotes are priced as usual.
+ */
+@Service
+public class OutcomeTableService {
+    private static final Logger log = LoggerFactory.getLogger(OutcomeTableService.class);
+    
+    private final boolean enabled;
+    private final long maxOutcomes;
+    private final ArmTerms armTerms;
+    private final ExecutorService builder;
+    private volatile OutcomeTable table;
+    private RateSnapshot requestedSnapshot;
+    private CompiledRuleBook requestedRuleBook;
+    
+    public OutcomeTableService(boolean enabled, long maxOutcomes) {
+        this(enabled, maxOutcomes, ArmTerms.NONE);
+    }
+    
+    public OutcomeTableService(boolean enabled, long maxOutcomes, ArmTerms armTerms) {
+        this.enabled = enabled;
+        this.maxOutcomes = maxOutcomes;
+        this.armTerms = armTerms;
+        this.builder = enabled ? Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "outcome-table");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+    
+    @Autowired
+    public OutcomeTableService(CsvUtility csvUtility, PricingRuleService pricingRuleService, ArmTerms armTerms,
+                               @Value("${mortgage.outcome-table.enabled:false}") boolean enabled,
+                               @Value("${mortgage.outcome-table.max-outcomes:1000000}") long maxOutcomes) {
+        this(enabled, maxOutcomes, armTerms);
+        if (enabled) {
+            csvUtility.addSnapshotListener(snapshot -> rebuild(snapshot, pricingRuleService.getRuleBook()));
+        }
+    }
+    
+    public static OutcomeTableService disabled() {
+        return new OutcomeTableService(false, 0);
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * The table for {@code kernel}'s snapshot and rule book, or {@code null} if it is not built (yet). A miss
+     * for the latest snapshot and rule book schedules a build; kernels over pinned snapshots never do.
+     */
+    public OutcomeTable current(PricingKernel kernel, RateSnapshot latestSnapshot) {
+        if (!enabled) {
+            return null;
+        }
+        OutcomeTable current = table;
+        if (current != null && current.isFor(kernel)) {
+            return current;
+        }
+        if (kernel.getSnapshot() == latestSnapshot) {
+            rebuild(latestSnapshot, kernel.getRuleBook());
+        }
+        return null;
+    }
+    
+    /**
+     * Builds a table for the pair on the background thread unless that pair was the last one requested.
+     */
+    public synchronized void rebuild(RateSnapshot snapshot, CompiledRuleBook ruleBook) {
+        if (!enabled || (snapshot == requestedSnapshot && ruleBook == requestedRuleBook)) {
+            return;
+        }
+        requestedSnapshot = snapshot;
+        requestedRuleBook = ruleBook;
+        builder.execute(() -> build(snapshot, ruleBook));
+    }
+    
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", enabled);
+        OutcomeTable current = table;
+        if (current != null) {
+            stats.putAll(current.stats());
+        }
+        return stats;
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        if (builder != null) {
+            builder.shutdownNow();
+        }
+    }
+    
+    private void build(RateSnapshot snapshot, CompiledRuleBook ruleBook) {
+        long start = System.nanoTime();
+        try {
+            OutcomeTable built = OutcomeTable.build(PricingKernel.of(snapshot, ruleBook, armTerms), maxOutcomes);
+            if (built == null) {
+                log.info("Rate snapshot {} cannot be tabulated within {} outcomes; pricing each quote",
+                        snapshot.getVersion(), maxOutcomes);
+                return;
+            }
+            table = built;
+            log.info("Built outcome table for rate snapshot {} with {} outcomes in {} ms", snapshot.getVersion(),
+                    built.stats().get("outcomes"), (System.nanoTime() - start) / 1_000_000);
+        } catch (RuntimeException e) {
+            log.error("Outcome table build failed for rate snapshot {}", snapshot.getVersion(), e);
+        }
+    }
+}
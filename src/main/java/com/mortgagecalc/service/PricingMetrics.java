@@ -0,0 +1,181 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.PricingStage;
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.pricing.rules.RuleMatch;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pricing meters, registered once so the hot path only increments. Validation, whole-quote pricing and
+ * serialization are timed on every request. The kernel stages are only timed for one priced quote in
+ * {@code mortgage.metrics.stage-sample-rate}, because reading the clock around each stage of every product
+ * would cost about as much as the pricing itself.
+ * <p>
+ * The timers are count and total time kept in adders rather than full {@link io.micrometer.core.instrument.Timer
+ * Timers}, whose max tracking reads the wall clock on every record. A quote prices every product, so the
+ * per-product quote counters share one adder, and each rule applied to several products of a quote is counted
+ * with a single increment.
+ */
+@Component
+public class PricingMetrics {
+    static final String STAGE_TIMER = "mortgage.pricing.stage";
+    
+    private final MeterRegistry registry;
+    private final int stageSampleRate;
+    private final StageTimer pricing;
+    private final StageTimer validation;
+    private final StageTimer serialization;
+    private final StageTimer[] stages = new StageTimer[PricingStage.count()];
+    private final LongAdder quotes = new LongAdder();
+    private volatile RuleCounters ruleCounters;
+    
+    public PricingMetrics(MeterRegistry registry,
+                          @Value("${mortgage.metrics.stage-sample-rate:16}") int stageSampleRate) {
+        this.registry = registry;
+        this.stageSampleRate = stageSampleRate;
+        this.pricing = new StageTimer();
+        FunctionTimer.builder("mortgage.pricing", pricing, StageTimer::count, StageTimer::totalNanos,
+                        TimeUnit.NANOSECONDS)
+                .description("Time to price every product for one quote")
+                .register(registry);
+        this.validation = stageTimer("validation");
+        this.serialization = stageTimer("serialization");
+        for (PricingStage stage : PricingStage.values()) {
+            stages[stage.ordinal()] = stageTimer(stage.getTag());
+        }
+        for (MortgageProduct product : MortgageProduct.values()) {
+            FunctionCounter.builder("mortgage.quotes", quotes, LongAdder::sum)
+                    .description("Priced quotes per product")
+                    .tag("product", product.getKey())
+                    .register(registry);
+        }
+    }
+    
+    /**
+     * Meters published nowhere, for callers built outside Spring.
+     */
+    public static PricingMetrics disabled() {
+        return new PricingMetrics(new CompositeMeterRegistry(), 0);
+    }
+    
+    public void recordValidation(long nanos) {
+        validation.record(nanos);
+    }
+    
+    public void recordPricing(long nanos) {
+        pricing.record(nanos);
+    }
+    
+    public void recordSerialization(long nanos) {
+        serialization.record(nanos);
+    }
+    
+    /**
+     * Per-stage accumulator for a sampled quote, or {@code null} when this quote is not sampled.
+     */
+    public long[] stageClock() {
+        return stageSampleRate > 0 && ThreadLocalRandom.current().nextInt(stageSampleRate) == 0
+                ? new long[PricingStage.count()]
+                : null;
+    }
+    
+    public void recordStages(long[] stageNanos) {
+        if (stageNanos != null) {
+            for (int i = 0; i < stageNanos.length; i++) {
+                stages[i].record(stageNanos[i]);
+            }
+        }
+    }
+    
+    /**
+     * Counts one quote priced for every product, and each rule it applied once per product it applied to. The
+     * product matches are narrowed from {@code quoteRules} the same way the kernel does.
+     */
+    public void recordQuote(RuleMatch quoteRules, CompiledRuleBook ruleBook) {
+        quotes.increment();
+        
+        if (quoteRules.size() > 0) {
+            RuleMatch[] productRules = new RuleMatch[MortgageProduct.count()];
+            for (MortgageProduct product : MortgageProduct.values()) {
+                productRules[product.ordinal()] = ruleBook.matchProduct(product.getKey(), quoteRules);
+            }
+            Counter[] counters = ruleCounters(ruleBook);
+            for (int i = 0; i < quoteRules.size(); i++) {
+                int ruleId = quoteRules.ruleId(i);
+                int applied = 0;
+                for (RuleMatch match : productRules) {
+                    if (match.contains(ruleId)) {
+                        applied++;
+                    }
+                }
+                if (applied > 0) {
+                    counters[ruleId].increment(applied);
+                }
+            }
+        }
+    }
+    
+    private Counter[] ruleCounters(CompiledRuleBook ruleBook) {
+        RuleCounters current = ruleCounters;
+        if (current == null || current.ruleBook != ruleBook) {
+            Counter[] counters = new Counter[ruleBook.ruleCount()];
+            for (int i = 0; i < counters.length; i++) {
+                counters[i] = Counter.builder("mortgage.rules.applied")
+                        .description("Quotes each pricing rule was applied to")
+                        .tag("rule", ruleBook.rule(i).getId())
+                        .register(registry);
+            }
+            current = new RuleCounters(ruleBook, counters);
+            ruleCounters = current;
+        }
+        return current.counters;
+    }
+    
+    private StageTimer stageTimer(String stage) {
+        StageTimer timer = new StageTimer();
+        FunctionTimer.builder(STAGE_TIMER, timer, StageTimer::count, StageTimer::totalNanos, TimeUnit.NANOSECONDS)
+                .description("Time spent in one stage of a quote")
+                .tag("stage", stage)
+                .register(registry);
+        return timer;
+    }
+    
+    private static final class StageTimer {
+        private final LongAdder count = new LongAdder();
+        private final LongAdder totalNanos = new LongAdder();
+        
+        void record(long nanos) {
+            count.increment();
+            totalNanos.add(nanos);
+        }
+        
+        long count() {
+            return count.sum();
+        }
+        
+        double totalNanos() {
+            return totalNanos.sum();
+        }
+    }
+    
+    private static final class RuleCounters {
+        private final CompiledRuleBook ruleBook;
+        private final Counter[] counters;
+        
+        RuleCounters(CompiledRuleBook ruleBook, Counter[] counters) {
+            this.ruleBook = ruleBook;
+            this.counters = counters;
+        }
+    }
+}
@@ -0,0 +1,80 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.pricing.RateSheetException;
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.pricing.rules.PricingRule;
+import com.mortgagecalc.pricing.rules.RuleBookLoader;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import jakarta.annotation.PostConstruct;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+@Service
+public class PricingRuleService {
+    private static final Logger log = LoggerFactory.getLogger(PricingRuleService.class);
+    
+    private final Resource rulesLocation;
+    private final AtomicReference<CompiledRuleBook> ruleBook = new AtomicReference<>(CompiledRuleBook.EMPTY);
+    private volatile String contentDigest = digest(new byte[0]);
+    
+    public PricingRuleService(@Value("${mortgage.rules.location:classpath:rules/pricing_rules.csv}") Resource rulesLocation) {
+        this.rulesLocation = rulesLocation;
+    }
+    
+    @PostConstruct
+    public void init() {
+        reload();
+    }
+    
+    public synchronized CompiledRuleBook reload() {
+        byte[] source;
+        try (InputStream is = rulesLocation.getInputStream()) {
+            source = is.readAllBytes();
+        } catch (IOException e) {
+            throw new RateSheetException("Error loading pricing rules from " + rulesLocation.getDescription(), e);
+        }
+        List<PricingRule> rules = RuleBookLoader.readCsv(rulesLocation.getDescription(),
+                new StringReader(new String(source, StandardCharsets.UTF_8)));
+        
+        CompiledRuleBook compiled = CompiledRuleBook.compile(rules);
+        ruleBook.set(compiled);
+        contentDigest = digest(source);
+        log.info("Compiled {} pricing rules from {}", compiled.ruleCount(), rulesLocation.getDescription());
+        return compiled;
+    }
+    
+    public CompiledRuleBook getRuleBook() {
+        return ruleBook.get();
+    }
+    
+    /**
+     * SHA-256 of the rules file the current book was compiled from, base64url-encoded; that of an empty file while
+     * {@link CompiledRuleBook#EMPTY} is current. It names the book by content, so processes that loaded the same
+     * rules agree on it across restarts. It is set after the book is swapped in, so a caller that reads it before
+     * pricing never labels an older book with it.
+     */
+    public String getContentDigest() {
+        return contentDigest;
+    }
+    
+    private static String digest(byte[] source) {
+        try {
+            return Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(MessageDigest.getInstance("SHA-256").digest(source));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,204 @@
+package com.mortgagecalc.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.pricing.rules.RuleMatch;
+import com.mortgagecalc.utils.CsvUtility;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bounded cache of priced quote outcomes. Two quotes share an entry when they are priced against the same rate
+ * snapshot and rule book, land in the same rule buckets (the interned quote {@code RuleMatch}) and rate grid
+ * cells, and request the same points; everything else on the input only scales the payment, so outcomes are
+ * stored per dollar borrowed. Entries are dropped whenever {@link CsvUtility} publishes a new snapshot.
+ */
+@Component
+public class QuoteCache {
+    private final Cache<Key, List<PricedOption>> cache;
+    
+    public QuoteCache(long maximumSize, Duration expireAfterWrite) {
+        this.cache = maximumSize > 0
+                ? Caffeine.newBuilder()
+                        .maximumSize(maximumSize)
+                        .expireAfterWrite(expireAfterWrite)
+                        .recordStats()
+                        .build()
+                : null;
+    }
+    
+    @Autowired
+    public QuoteCache(CsvUtility csvUtility,
+                      @Value("${mortgage.quote-cache.maximum-size:10000}") long maximumSize,
+                      @Value("${mortgage.quote-cache.expire-after-write:10m}") Duration expireAfterWrite) {
+        this(maximumSize, expireAfterWrite);
+        csvUtility.addSnapshotListener(snapshot -> invalidateAll());
+    }
+    
+    public static QuoteCache disabled() {
+        return new QuoteCache(0, Duration.ZERO);
+    }
+    
+    public boolean isEnabled() {
+        return cache != null;
+    }
+    
+    /**
+     * Returns the cached outcome or {@code null}; callers price on a miss and {@link #put} the result. Two
+     * callers racing on the same miss both price, which is cheaper than a capturing loader on every hit.
+     */
+    public List<PricedOption> getIfPresent(Key key) {
+        return cache != null ? cache.getIfPresent(key) : null;
+    }
+    
+    public void put(Key key, List<PricedOption> priced) {
+        if (cache != null) {
+            cache.put(key, priced);
+        }
+    }
+    
+    public void invalidateAll() {
+        if (cache != null) {
+            cache.invalidateAll();
+        }
+    }
+    
+    /**
+     * Publishes the Caffeine statistics as {@code cache.*} meters tagged {@code cache=quotes}.
+     */
+    public void bindTo(MeterRegistry registry) {
+        if (cache != null) {
+            CaffeineCacheMetrics.monitor(registry, cache, "quotes");
+        }
+    }
+    
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", cache != null);
+        if (cache != null) {
+            CacheStats cacheStats = cache.stats();
+            stats.put("size", cache.estimatedSize());
+            stats.put("hits", cacheStats.hitCount());
+            stats.put("misses", cacheStats.missCount());
+            stats.put("hitRate", cacheStats.hitRate());
+            stats.put("evictions", cacheStats.evictionCount());
+        }
+        return stats;
+    }
+    
+    /**
+     * Canonical pricing-relevant dimensions of a quote. The rule book is compared by identity, since interned
+     * match ids are only unique within one compiled book.
+     */
+    public static final class Key {
+        private final long rateSnapshotId;
+        private final CompiledRuleBook ruleBook;
+        private final int quoteMatchId;
+        private final long gridCells;
+        private final long pointsBits;
+        
+        public Key(long rateSnapshotId, CompiledRuleBook ruleBook, int quoteMatchId, double points) {
+            this(rateSnapshotId, ruleBook, quoteMatchId, 0L, points);
+        }
+        
+        /**
+         * @param gridCells the quote's packed rate grid cells from {@code PricingKernel.locate}
+         */
+        public Key(long rateSnapshotId, CompiledRuleBook ruleBook, int quoteMatchId, long gridCells, double points) {
+            this.rateSnapshotId = rateSnapshotId;
+            this.ruleBook = ruleBook;
+            this.quoteMatchId = quoteMatchId;
+            this.gridCells = gridCells;
+            this.pointsBits = Double.doubleToLongBits(points + 0.0);
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key
+                    && rateSnapshotId == key.rateSnapshotId
+                    && ruleBook == key.ruleBook
+                    && quoteMatchId == key.quoteMatchId
+                    && gridCells == key.gridCells
+                    && pointsBits == key.pointsBits;
+        }
+        
+        @Override
+        public int hashCode() {
+            int hash = Long.hashCode(rateSnapshotId);
+            hash = 31 * hash + System.identityHashCode(ruleBook);
+            hash = 31 * hash + quoteMatchId;
+            hash = 31 * hash + Long.hashCode(gridCells);
+            return 31 * hash + Long.hashCode(pointsBits);
+        }
+    }
+    
+    /**
+     * One product's outcome, with the payment expressed per dollar borrowed. The interned rule match is kept
+     * alongside the descriptions; it is only meaningful against the rule book in the entry's key.
+     */
+    public static final class PricedOption {
+        private final MortgageProduct product;
+        private final long rateSnapshotId;
+        private final double rate;
+        private final double points;
+        private final double apr;
+        private final double paymentPerDollar;
+        private final RuleMatch appliedRuleMatch;
+        private final List<String> appliedRules;
+        
+        public PricedOption(MortgageProduct product, long rateSnapshotId, double rate, double points, double apr,
+                            double paymentPerDollar, RuleMatch appliedRuleMatch, List<String> appliedRules) {
+            this.product = product;
+            this.rateSnapshotId = rateSnapshotId;
+            this.rate = rate;
+            this.points = points;
+            this.apr = apr;
+            this.paymentPerDollar = paymentPerDollar;
+            this.appliedRuleMatch = appliedRuleMatch;
+            this.appliedRules = appliedRules;
+        }
+        
+        public MortgageProduct getProduct() {
+            return product;
+        }
+        
+        public long getRateSnapshotId() {
+            return rateSnapshotId;
+        }
+        
+        public double getRate() {
+            return rate;
+        }
+        
+        public double getPoints() {
+            return points;
+        }
+        
+        public double getApr() {
+            return apr;
+        }
+        
+        public double getPaymentPerDollar() {
+            return paymentPerDollar;
+        }
+        
+        public RuleMatch getAppliedRuleMatch() {
+            return appliedRuleMatch;
+        }
+        
+        public List<String> getAppliedRules() {
+            return appliedRules;
+        }
+    }
+}
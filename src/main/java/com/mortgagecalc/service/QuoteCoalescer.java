@@ -0,0 +1,250 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.pricing.PricingKernel;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Deduplicates identical quotes that are in flight at the same time. The first request for a key prices it through
+ * {@link RateCalculationService#calculateMortgageOptions}; requests arriving with the same key before it finishes
+ * wait for and return the same result, or rethrow the same exception. Keys are the input fields pricing reads (so
+ * payloads that differ only in income or down payment share) plus the kernel current when the request arrived, so a
+ * request never joins one priced against an older rate snapshot or rule book.
+ * <p>
+ * In-flight keys are spread over a power-of-two number of stripes, each a plain map under its own lock held only to
+ * look up, insert or remove, so unrelated keys on different stripes never contend and no lock is held while pricing.
+ * Coalesced callers share one options list and must treat it as read-only.
+ */
+@Component
+public class QuoteCoalescer {
+    private final RateCalculationService rateCalculationService;
+    private final Stripe[] stripes;
+    private final LongAdder computed = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    
+    /**
+     * @param stripes lock stripes, rounded up to a power of two; 0 disables coalescing
+     */
+    @Autowired
+    public QuoteCoalescer(RateCalculationService rateCalculationService,
+                          @Value("${mortgage.quote-coalescing.stripes:64}") int stripes) {
+        this.rateCalculationService = rateCalculationService;
+        if (stripes > 0) {
+            this.stripes = new Stripe[Integer.highestOneBit(Math.min(stripes, 1 << 16) * 2 - 1)];
+            for (int i = 0; i < this.stripes.length; i++) {
+                this.stripes[i] = new Stripe();
+            }
+        } else {
+            this.stripes = null;
+        }
+    }
+    
+    public static QuoteCoalescer disabled(RateCalculationService rateCalculationService) {
+        return new QuoteCoalescer(rateCalculationService, 0);
+    }
+    
+    public boolean isEnabled() {
+        return stripes != null;
+    }
+    
+    public List<MortgageOption> calculate(MortgageInput input) {
+        if (stripes == null) {
+            return rateCalculationService.calculateMortgageOptions(input);
+        }
+        
+        Key key = new Key(rateCalculationService.getKernel(), input);
+        Stripe stripe = stripes[(key.hash ^ (key.hash >>> 16)) & (stripes.length - 1)];
+        CompletableFuture<List<MortgageOption>> pending;
+        CompletableFuture<List<MortgageOption>> leading = null;
+        synchronized (stripe) {
+            pending = stripe.inFlight.get(key);
+            if (pending == null) {
+                leading = new CompletableFuture<>();
+                stripe.inFlight.put(key, leading);
+            }
+        }
+        
+        if (leading == null) {
+            coalesced.increment();
+            return await(pending);
+        }
+        
+        computed.increment();
+        inFlight.incrementAndGet();
+        List<MortgageOption> options;
+        try {
+            options = rateCalculationService.calculateMortgageOptions(input);
+        } catch (RuntimeException | Error e) {
+            finish(stripe, key);
+            leading.completeExceptionally(e);
+            throw e;
+        }
+        finish(stripe, key);
+        leading.complete(options);
+        return options;
+    }
+    
+    /**
+     * Requests that priced their own key.
+     */
+    public long getComputedCount() {
+        return computed.sum();
+    }
+    
+    /**
+     * Requests answered by joining an identical request already in flight.
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    /**
+     * Publishes {@code mortgage.quotes.coalescer} counters tagged {@code result=computed|coalesced} and the number
+     * of keys being priced as {@code mortgage.quotes.coalescer.in.flight}.
+     */
+    public void bindTo(MeterRegistry registry) {
+        if (stripes == null) {
+            return;
+        }
+        FunctionCounter.builder("mortgage.quotes.coalescer", this, QuoteCoalescer::getComputedCount)
+                .description("Quote requests by whether they priced their own key or joined one in flight")
+                .tag("result", "computed")
+                .register(registry);
+        FunctionCounter.builder("mortgage.quotes.coalescer", this, QuoteCoalescer::getCoalescedCount)
+                .description("Quote requests by whether they priced their own key or joined one in flight")
+                .tag("result", "coalesced")
+                .register(registry);
+        Gauge.builder("mortgage.quotes.coalescer.in.flight", this, QuoteCoalescer::getInFlight)
+                .description("Distinct quote keys being priced")
+                .register(registry);
+    }
+    
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", stripes != null);
+        if (stripes != null) {
+            long computedCount = getComputedCount();
+            long coalescedCount = getCoalescedCount();
+            stats.put("stripes", stripes.length);
+            stats.put("computed", computedCount);
+            stats.put("coalesced", coalescedCount);
+            stats.put("coalescedRate", computedCount + coalescedCount == 0
+                    ? 0.0 : (double) coalescedCount / (computedCount + coalescedCount));
+            stats.put("inFlight", getInFlight());
+        }
+        return stats;
+    }
+    
+    /**
+     * Removes the key before its result is published, so a request arriving afterwards prices afresh instead of
+     * joining a finished computation.
+     */
+    private void finish(Stripe stripe, Key key) {
+        synchronized (stripe) {
+            stripe.inFlight.remove(key);
+        }
+        inFlight.decrementAndGet();
+    }
+    
+    private static List<MortgageOption> await(CompletableFuture<List<MortgageOption>> pending) {
+        try {
+            return pending.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private static final class Stripe {
+        private final Map<Key, CompletableFuture<List<MortgageOption>>> inFlight = new HashMap<>();
+    }
+    
+    /**
+     * The fields of a validated {@link MortgageInput} that pricing reads, with an absent lock period as the
+     * shortest and signed zeros folded. The kernel is compared by identity.
+     */
+    private static final class Key {
+        private final PricingKernel kernel;
+        private final Long rateSnapshotId;
+        private final int lockPeriodDays;
+        private final int creditScore;
+        private final long loanValueBits;
+        private final long propertyPriceBits;
+        private final long assetsUnderManagementBits;
+        private final long pointsBits;
+        private final String state;
+        private final String homeType;
+        private final int hash;
+        
+        Key(PricingKernel kernel, MortgageInput input) {
+            this.kernel = kernel;
+            this.rateSnapshotId = input.getRateSnapshotId();
+            this.lockPeriodDays = input.getLockPeriodDays() != null ? input.getLockPeriodDays() : 0;
+            this.creditScore = input.getCreditScore();
+            this.loanValueBits = Double.doubleToLongBits(input.getLoanValue() + 0.0);
+            this.propertyPriceBits = Double.doubleToLongBits(input.getPropertyPrice() + 0.0);
+            this.assetsUnderManagementBits = Double.doubleToLongBits(input.getAssetsUnderManagement() + 0.0);
+            this.pointsBits = Double.doubleToLongBits(input.getPoints() + 0.0);
+            this.state = input.getState();
+            this.homeType = input.getHomeType();
+            
+            int h = System.identityHashCode(kernel);
+            h = 31 * h + Objects.hashCode(rateSnapshotId);
+            h = 31 * h + lockPeriodDays;
+            h = 31 * h + creditScore;
+            h = 31 * h + Long.hashCode(loanValueBits);
+            h = 31 * h + Long.hashCode(propertyPriceBits);
+            h = 31 * h + Long.hashCode(assetsUnderManagementBits);
+            h = 31 * h + Long.hashCode(pointsBits);
+            h = 31 * h + Objects.hashCode(state);
+            this.hash = 31 * h + Objects.hashCode(homeType);
+        }
+        
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Key key
+                    && hash == key.hash
+                    && kernel == key.kernel
+                    && Objects.equals(rateSnapshotId, key.rateSnapshotId)
+                    && lockPeriodDays == key.lockPeriodDays
+                    && creditScore == key.creditScore
+                    && loanValueBits == key.loanValueBits
+                    && propertyPriceBits == key.propertyPriceBits
+                    && assetsUnderManagementBits == key.assetsUnderManagementBits
+                    && pointsBits == key.pointsBits
+                    && Objects.equals(state, key.state)
+                    && Objects.equals(homeType, key.homeType);
+        }
+        
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
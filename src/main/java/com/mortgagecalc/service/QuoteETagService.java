@@ -0,0 +1,109 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.pricing.ArmTerms;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.utils.CsvUtility;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * Strong validators for GET /api/mortgage/calculate. A tag digests the rate snapshot a quote is priced against (the
+ * pinned one, or the current one), the rule book, the ARM terms, the input fields pricing reads and the requested
+ * representation, so it changes whenever the response bytes could and a client holding it can be answered 304
+ * without pricing. The snapshot enters by version, which every body carries as {@code rateSnapshotId}, and by
+ * content digest, since versions restart with the process and a restarted one may number different sheets the same.
+ * A pinned snapshot is resolved first, so an evicted pin is answered 410 rather than matched. Everything is read
+ * before pricing, so a publish racing a request can only make a tag older than its body, which costs the next
+ * request a full response rather than serving a stale one.
+ */
+@Service
+public class QuoteETagService {
+    private final CsvUtility csvUtility;
+    private final PricingRuleService pricingRuleService;
+    private final String armTerms;
+    private final CacheControl cacheControl;
+    
+    public QuoteETagService(CsvUtility csvUtility, PricingRuleService pricingRuleService) {
+        this(csvUtility, pricingRuleService, Duration.ZERO);
+    }
+    
+    public QuoteETagService(CsvUtility csvUtility, PricingRuleService pricingRuleService, Duration maxAge) {
+        this(csvUtility, pricingRuleService, ArmTerms.NONE, maxAge);
+    }
+    
+    /**
+     * @param armTerms the resets quoted ARM APRs are computed over, so a deploy that changes them retires old tags
+     * @param maxAge   how long an HTTP cache may reuse a quote without revalidating; zero makes every reuse
+     *                 revalidate
+     */
+    @Autowired
+    public QuoteETagService(CsvUtility csvUtility, PricingRuleService pricingRuleService, ArmTerms armTerms,
+                            @Value("${mortgage.quote-http-cache.max-age:0s}") Duration maxAge) {
+        this.csvUtility = csvUtility;
+        this.pricingRuleService = pricingRuleService;
+        this.armTerms = armTerms.toString();
+        this.cacheControl = maxAge.isZero() || maxAge.isNegative()
+                ? CacheControl.noCache()
+                : CacheControl.maxAge(maxAge);
+    }
+    
+    /**
+     * Quoted entity tag for a validated input served as {@code accept}, e.g. {@code "Jx0..."}.
+     *
+     * @throws com.mortgagecalc.pricing.UnknownRateSnapshotException if the pinned snapshot has been evicted
+     */
+    public String eTag(MortgageInput input, String accept) {
+        RateSnapshot snapshot = input.getRateSnapshotId() != null
+                ? csvUtility.getSnapshot(input.getRateSnapshotId())
+                : csvUtility.getSnapshot();
+        String canonical = snapshot.getVersion()
+                + "|" + snapshot.getContentDigest()
+                + "|" + pricingRuleService.getContentDigest()
+                + "|" + armTerms
+                + "|" + input.getCreditScore()
+                + "|" + (input.getLoanValue() + 0.0)
+                + "|" + (input.getPropertyPrice() + 0.0)
+                + "|" + (input.getAssetsUnderManagement() + 0.0)
+                + "|" + (input.getPoints() + 0.0)
+                + "|" + input.getState()
+                + "|" + input.getHomeType()
+                + "|" + (input.getLockPeriodDays() != null ? input.getLockPeriodDays() : 0)
+                + "|" + (accept != null ? accept : "");
+        byte[] digest = sha256().digest(canonical.getBytes(StandardCharsets.UTF_8));
+        return "\"" + Base64.getUrlEncoder().withoutPadding().encodeToString(digest).substring(0, 22) + "\"";
+    }
+    
+    public CacheControl getCacheControl() {
+        return cacheControl;
+    }
+    
+    /**
+     * Whether an {@code If-None-Match} list names {@code eTag}, using the weak comparison RFC 9110 prescribes for it.
+     */
+    public static boolean matches(List<String> ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch) {
+            if ("*".equals(candidate) || eTag.equals(candidate.startsWith("W/") ? candidate.substring(2) : candidate)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -2,8 +2,15 @@ package com.mortgagecalc.service;
 
 import com.mortgagecalc.model.MortgageInput;
 import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.pricing.ArmTerms;
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.PricingKernel;
+import com.mortgagecalc.pricing.PricingStage;
+import com.mortgagecalc.pricing.QuoteResult;
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.pricing.rules.RuleMatch;
 import com.mortgagecalc.utils.CsvUtility;
-import com.mortgagecalc.utils.CsvUtility.RatePoint;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
@@ -12,100 +19,165 @@ import java.util.List;
 @Service
 public class RateCalculationService {
     private final CsvUtility csvUtility;
+    private final PricingRuleService pricingRuleService;
+    private final QuoteCache quoteCache;
+    private final PricingMetrics metrics;
+    private final OutcomeTableService outcomeTables;
+    private final ArmTerms armTerms;
     
-    private static final double SMALL_LOAN_THRESHOLD = 500000.0;
-    private static final double SMALL_LOAN_RATE_INCREASE = 1.0;
-    
-    private static final double HIGH_AUM_THRESHOLD = 10000000.0;
-    private static final double HIGH_AUM_RATE_DECREASE = 0.25;
+    public RateCalculationService(CsvUtility csvUtility, PricingRuleService pricingRuleService) {
+        this(csvUtility, pricingRuleService, QuoteCache.disabled(), PricingMetrics.disabled());
+    }
     
-    private static final String NEW_YORK_STATE = "NY";
-    private static final double NEW_YORK_POINTS_INCREASE = 0.25;
+    public RateCalculationService(CsvUtility csvUtility, PricingRuleService pricingRuleService,
+                                  QuoteCache quoteCache) {
+        this(csvUtility, pricingRuleService, quoteCache, PricingMetrics.disabled());
+    }
     
-    public RateCalculationService(CsvUtility csvUtility) {
-        this.csvUtility = csvUtility;
+    public RateCalculationService(CsvUtility csvUtility, PricingRuleService pricingRuleService,
+                                  QuoteCache quoteCache, PricingMetrics metrics) {
+        this(csvUtility, pricingRuleService, quoteCache, metrics, OutcomeTableService.disabled());
     }
     
-    public List<MortgageOption> calculateMortgageOptions(MortgageInput input) {
-        List<MortgageOption> options = new ArrayList<>();
-        
-        options.add(calculateOption("fixed_30", "30-Year Fixed", input, 30));
-        options.add(calculateOption("fixed_15", "15-Year Fixed", input, 15));
-        options.add(calculateOption("arm_5_1", "5/1 ARM", input, 30));
-        options.add(calculateOption("arm_7_1", "7/1 ARM", input, 30));
-        
-        return options;
+    public RateCalculationService(CsvUtility csvUtility, PricingRuleService pricingRuleService,
+                                  QuoteCache quoteCache, PricingMetrics metrics, OutcomeTableService outcomeTables) {
+        this(csvUtility, pricingRuleService, quoteCache, metrics, outcomeTables, ArmTerms.NONE);
     }
     
-    private MortgageOption calculateOption(String rateKey, String mortgageType, MortgageInput input, int loanTermYears) {
-        MortgageOption option = new MortgageOption();
-        option.setMortgageType(mortgageType);
-        
-        RatePoint baseRatePoint = findClosestRatePoint(rateKey, input.getPoints());
-        
-        double rate = baseRatePoint.getRate();
-        double points = baseRatePoint.getPoints();
-        
-        rate = applyRateRules(rate, input, option);
-        points = applyPointsRules(points, input, option);
-        
-        option.setRate(rate);
-        option.setPoints(points);
-        
-        double fees = (points / 100) * input.getLoanValue();
-        double totalInterest = calculateTotalInterest(input.getLoanValue(), rate, loanTermYears);
-        double apr = (totalInterest + fees) / input.getLoanValue() / loanTermYears;
-        
-        option.setApr(apr);
-        
-        return option;
+    /**
+     * @param armTerms resets adjustable products' APRs are computed over; {@link ArmTerms#NONE} keeps the initial
+     *                 rate for the term
+     */
+    @Autowired
+    public RateCalculationService(CsvUtility csvUtility, PricingRuleService pricingRuleService,
+                                  QuoteCache quoteCache, PricingMetrics metrics, OutcomeTableService outcomeTables,
+                                  ArmTerms armTerms) {
+        this.csvUtility = csvUtility;
+        this.pricingRuleService = pricingRuleService;
+        this.quoteCache = quoteCache;
+        this.metrics = metrics;
+        this.outcomeTables = outcomeTables;
+        this.armTerms = armTerms;
     }
     
-    private RatePoint findClosestRatePoint(String mortgageType, double requestedPoints) {
-        List<RatePoint> ratePoints = csvUtility.getRatePoints(mortgageType);
-        
-        if (ratePoints.isEmpty()) {
-            throw new IllegalStateException("No rate data available for " + mortgageType);
+    public List<MortgageOption> calculateMortgageOptions(MortgageInput input) {
+        long start = System.nanoTime();
+        PricingKernel kernel = getKernel(input.getRateSnapshotId());
+        List<MortgageOption> options = new ArrayList<>(MortgageProduct.count());
+        
+        long[] stageNanos = metrics.stageClock();
+        long matchStart = stageNanos != null ? System.nanoTime() : 0L;
+        RuleMatch quoteRules = kernel.matchQuote(input.getCreditScore(), input.getLoanValue(),
+                input.getPropertyPrice(), input.getAssetsUnderManagement(), input.getState(), input.getHomeType());
+        if (stageNanos != null) {
+            stageNanos[PricingStage.RULE_APPLICATION.ordinal()] += System.nanoTime() - matchStart;
+        }
+        long gridCells = kernel.locate(input.getLockPeriodDays() != null ? input.getLockPeriodDays() : 0,
+                input.getCreditScore(), input.getLoanValue(), input.getPropertyPrice());
+        
+        OutcomeTable outcomeTable = outcomeTables.current(kernel, csvUtility.getSnapshot());
+        if (outcomeTable != null && outcomeTable.covers(quoteRules)) {
+            for (MortgageProduct product : MortgageProduct.values()) {
+                QuoteCache.PricedOption priced = outcomeTable.get(quoteRules, product,
+                        kernel.baseRow(product, gridCells, input.getPoints()));
+                options.add(toOption(priced, input.getLoanValue()));
+            }
+            metrics.recordQuote(quoteRules, kernel.getRuleBook());
+            metrics.recordPricing(System.nanoTime() - start);
+            return options;
         }
         
-        RatePoint closest = ratePoints.get(0);
-        double minDiff = Math.abs(closest.getPoints() - requestedPoints);
-        
-        for (RatePoint rp : ratePoints) {
-            double diff = Math.abs(rp.getPoints() - requestedPoints);
-            if (diff < minDiff) {
-                minDiff = diff;
-                closest = rp;
+        if (!quoteCache.isEnabled() || quoteRules.getId() < 0) {
+            QuoteResult result = new QuoteResult();
+            for (MortgageProduct product : MortgageProduct.values()) {
+                kernel.price(product, quoteRules, gridCells, input.getLoanValue(), input.getPoints(), result,
+                        stageNanos);
+                options.add(toOption(result, kernel.getRuleBook()));
             }
+            metrics.recordQuote(quoteRules, kernel.getRuleBook());
+            metrics.recordStages(stageNanos);
+            metrics.recordPricing(System.nanoTime() - start);
+            return options;
         }
         
-        return closest;
-    }
-    
-    private double applyRateRules(double rate, MortgageInput input, MortgageOption option) {
-        if (input.getLoanValue() < SMALL_LOAN_THRESHOLD) {
-            rate += SMALL_LOAN_RATE_INCREASE;
-            option.addAppliedRule("Small Loan Amount (< $500,000): +1.00% to rate");
+        QuoteCache.Key key = new QuoteCache.Key(kernel.getSnapshot().getVersion(), kernel.getRuleBook(),
+                quoteRules.getId(), gridCells, input.getPoints());
+        List<QuoteCache.PricedOption> priced = quoteCache.getIfPresent(key);
+        if (priced == null) {
+            priced = priceAll(kernel, quoteRules, gridCells, input.getPoints(), stageNanos);
+            quoteCache.put(key, priced);
+            metrics.recordStages(stageNanos);
         }
         
-        if (input.getAssetsUnderManagement() > HIGH_AUM_THRESHOLD) {
-            rate -= HIGH_AUM_RATE_DECREASE;
-            option.addAppliedRule("High Assets Under Management (> $10,000,000): -0.25% to rate");
+        for (QuoteCache.PricedOption option : priced) {
+            options.add(toOption(option, input.getLoanValue()));
         }
         
-        return rate;
+        metrics.recordQuote(quoteRules, kernel.getRuleBook());
+        metrics.recordPricing(System.nanoTime() - start);
+        return options;
+    }
+    
+    /**
+     * Kernel over the current rate snapshot and rule book, rebuilt only when either has been replaced. High-volume
+     * callers should fetch it once per batch rather than once per quote.
+     */
+    public PricingKernel getKernel() {
+        return csvUtility.getSnapshot().kernel(pricingRuleService.getRuleBook(), armTerms);
+    }
+    
+    /**
+     * Kernel over the pinned rate snapshot, or {@link #getKernel()} when {@code rateSnapshotId} is null. Each
+     * retained snapshot keeps its own kernel, so pinned quotes reuse it until the rule book changes or the snapshot
+     * is evicted.
+     *
+     * @throws com.mortgagecalc.pricing.UnknownRateSnapshotException if the pinned snapshot has been evicted
+     */
+    public PricingKernel getKernel(Long rateSnapshotId) {
+        return rateSnapshotId != null
+                ? csvUtility.getSnapshot(rateSnapshotId).kernel(pricingRuleService.getRuleBook(), armTerms)
+                : getKernel();
     }
     
-    private double applyPointsRules(double points, MortgageInput input, MortgageOption option) {
-        if (NEW_YORK_STATE.equals(input.getState())) {
-            points += NEW_YORK_POINTS_INCREASE;
-            option.addAppliedRule("New York State: +0.25 points");
+    /**
+     * Prices every product for one dollar borrowed, so the outcome only depends on the cache key's dimensions.
+     */
+    private List<QuoteCache.PricedOption> priceAll(PricingKernel kernel, RuleMatch quoteRules, long gridCells,
+                                                   double points, long[] stageNanos) {
+        List<QuoteCache.PricedOption> priced = new ArrayList<>(MortgageProduct.count());
+        QuoteResult result = new QuoteResult();
+        
+        for (MortgageProduct product : MortgageProduct.values()) {
+            kernel.price(product, quoteRules, gridCells, 1.0, points, result, stageNanos);
+            priced.add(new QuoteCache.PricedOption(product, result.getRateSnapshotId(), result.getRate(),
+                    result.getPoints(), result.getApr(), result.getMonthlyPayment(), result.getAppliedRules(),
+                    List.copyOf(kernel.getRuleBook().describe(result.getAppliedRules()))));
         }
         
-        return points;
+        return priced;
     }
     
-    private double calculateTotalInterest(double principal, double annualRate, int years) {
-        return principal * (annualRate / 100) * years;
+    private MortgageOption toOption(QuoteResult result, CompiledRuleBook ruleBook) {
+        MortgageOption option = new MortgageOption();
+        option.setMortgageType(result.getProduct().getDisplayName());
+        option.setRateSnapshotId(result.getRateSnapshotId());
+        option.setRate(result.getRate());
+        option.setPoints(result.getPoints());
+        option.setApr(result.getApr());
+        option.setMonthlyPayment(result.getMonthlyPayment());
+        option.setAppliedRules(ruleBook.describe(result.getAppliedRules()));
+        return option;
+    }
+    
+    private MortgageOption toOption(QuoteCache.PricedOption priced, double loanValue) {
+        MortgageOption option = new MortgageOption();
+        option.setMortgageType(priced.getProduct().getDisplayName());
+        option.setRateSnapshotId(priced.getRateSnapshotId());
+        option.setRate(priced.getRate());
+        option.setPoints(priced.getPoints());
+        option.setApr(priced.getApr());
+        option.setMonthlyPayment(loanValue * priced.getPaymentPerDollar());
+        option.setAppliedRules(new ArrayList<>(priced.getAppliedRules()));
+        return option;
     }
 }
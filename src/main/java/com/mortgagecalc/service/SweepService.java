@@ -0,0 +1,212 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.model.SweepRange;
+import com.mortgagecalc.model.SweepRequest;
+import com.mortgagecalc.model.SweepResult;
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.PricingKernel;
+import com.mortgagecalc.pricing.QuoteResult;
+import com.mortgagecalc.pricing.rules.RuleMatch;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import jakarta.validation.Validator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Prices a cartesian grid of credit scores × loan values × down payments × points against one kernel. Cells
+ * are split into fork/join leaves of contiguous indexes; each leaf reuses one {@link QuoteResult} per product
+ * and only re-matches the quote rules when a non-points coordinate changes, since points vary fastest.
+ */
+@Service
+public class SweepService {
+    public static final List<String> AXIS_ORDER = List.of("creditScore", "loanValue", "downPayment", "points");
+    
+    static final int LEAF_CELLS = 1024;
+    
+    private final RateCalculationService rateCalculationService;
+    private final Validator validator;
+    private final int maxCells;
+    
+    public SweepService(RateCalculationService rateCalculationService, Validator validator,
+                        @Value("${mortgage.sweep.max-cells:100000}") int maxCells) {
+        this.rateCalculationService = rateCalculationService;
+        this.validator = validator;
+        this.maxCells = maxCells;
+    }
+    
+    public List<String> collectErrors(SweepRequest request) {
+        List<String> errors = new ArrayList<>();
+        validator.validate(request).forEach(violation ->
+                errors.add(violation.getPropertyPath() + ": " + violation.getMessage()));
+        if (!errors.isEmpty()) {
+            return errors;
+        }
+        
+        checkRange(errors, "creditScore", request.getCreditScore());
+        checkRange(errors, "loanValue", request.getLoanValue());
+        checkRange(errors, "downPayment", request.getDownPayment());
+        checkRange(errors, "points", request.getPoints());
+        if (!errors.isEmpty()) {
+            return errors;
+        }
+        
+        long cells = cellCount(request);
+        if (cells > maxCells) {
+            return List.of("Sweep of " + (cells == Long.MAX_VALUE ? "too many" : Long.toString(cells))
+                    + " cells exceeds the limit of " + maxCells);
+        }
+        
+        for (double creditScore : request.getCreditScore().values()) {
+            if (creditScore < 300 || creditScore > 850 || creditScore != Math.rint(creditScore)) {
+                errors.add("creditScore: Credit scores must be whole numbers from 300 to 850");
+                break;
+            }
+        }
+        if (!(request.getLoanValue().getFrom() > 0.0)) {
+            errors.add("loanValue: Loan value must be positive");
+        }
+        if (!(request.getDownPayment().getFrom() > 0.0)) {
+            errors.add("downPayment: Down payment must be positive");
+        }
+        
+        return errors;
+    }
+    
+    /**
+     * Prices every cell of a request that passed {@link #collectErrors(SweepRequest)}. Each cell's property
+     * price is its loan value plus its down payment.
+     *
+     * @throws com.mortgagecalc.pricing.UnknownRateSnapshotException if the pinned snapshot has been evicted
+     */
+    public SweepResult sweep(SweepRequest request) {
+        PricingKernel kernel = rateCalculationService.getKernel(request.getRateSnapshotId());
+        Grid grid = new Grid(kernel, request);
+        ForkJoinPool.commonPool().invoke(new SweepTask(grid, 0, grid.cells));
+        
+        SweepResult result = new SweepResult();
+        result.setRateSnapshotId(kernel.getSnapshot().getVersion());
+        result.setAxisOrder(AXIS_ORDER);
+        result.getAxes().put("creditScore", grid.creditScores);
+        result.getAxes().put("loanValue", grid.loanValues);
+        result.getAxes().put("downPayment", grid.downPayments);
+        result.getAxes().put("points", grid.points);
+        result.setCells(grid.cells);
+        for (MortgageProduct product : MortgageProduct.values()) {
+            result.getProducts().put(product.getKey(), grid.columns[product.ordinal()]);
+        }
+        return result;
+    }
+    
+    private static void checkRange(List<String> errors, String field, SweepRange range) {
+        if (range.getTo() != null && range.getTo() < range.getFrom()) {
+            errors.add(field + ": Range end must not be before its start");
+        } else if (range.count() == 0) {
+            errors.add(field + ": Step is required when the range spans more than one value");
+        }
+    }
+    
+    /**
+     * Cells in the grid, saturating at {@link Long#MAX_VALUE} rather than overflowing.
+     */
+    private static long cellCount(SweepRequest request) {
+        long cells = 1;
+        for (SweepRange range : List.of(request.getCreditScore(), request.getLoanValue(), request.getDownPayment(),
+                request.getPoints())) {
+            try {
+                cells = Math.multiplyExact(cells, range.count());
+            } catch (ArithmeticException e) {
+                return Long.MAX_VALUE;
+            }
+        }
+        return cells;
+    }
+    
+    /**
+     * Axis values and the preallocated output columns shared by every leaf; leaves write disjoint cells.
+     */
+    private static final class Grid {
+        private final PricingKernel kernel;
+        private final SweepRequest request;
+        private final double[] creditScores;
+        private final double[] loanValues;
+        private final double[] downPayments;
+        private final double[] points;
+        private final int lockPeriodDays;
+        private final int cells;
+        private final SweepResult.Columns[] columns = new SweepResult.Columns[MortgageProduct.count()];
+        
+        Grid(PricingKernel kernel, SweepRequest request) {
+            this.kernel = kernel;
+            this.request = request;
+            this.creditScores = request.getCreditScore().values();
+            this.loanValues = request.getLoanValue().values();
+            this.downPayments = request.getDownPayment().values();
+            this.points = request.getPoints().values();
+            this.lockPeriodDays = request.getLockPeriodDays() != null ? request.getLockPeriodDays() : 0;
+            this.cells = creditScores.length * loanValues.length * downPayments.length * points.length;
+            for (int i = 0; i < columns.length; i++) {
+                columns[i] = new SweepResult.Columns(cells);
+            }
+        }
+        
+        void price(int from, int to) {
+            QuoteResult[] results = PricingKernel.newResults();
+            int prefix = -1;
+            RuleMatch quoteRules = null;
+            long gridCells = 0;
+            double loanValue = 0;
+            
+            for (int cell = from; cell < to; cell++) {
+                int cellPrefix = cell / points.length;
+                if (cellPrefix != prefix) {
+                    prefix = cellPrefix;
+                    double downPayment = downPayments[prefix % downPayments.length];
+                    int rest = prefix / downPayments.length;
+                    loanValue = loanValues[rest % loanValues.length];
+                    double creditScore = creditScores[rest / loanValues.length];
+                    quoteRules = kernel.matchQuote(creditScore, loanValue, loanValue + downPayment,
+                            request.getAssetsUnderManagement(), request.getState(), request.getHomeType());
+                    gridCells = kernel.locate(lockPeriodDays, creditScore, loanValue, loanValue + downPayment);
+                }
+                
+                double requestedPoints = points[cell % points.length];
+                for (int i = 0; i < results.length; i++) {
+                    QuoteResult result = results[i];
+                    kernel.price(MortgageProduct.byOrdinal(i), quoteRules, gridCells, loanValue, requestedPoints,
+                            result, null);
+                    SweepResult.Columns column = columns[i];
+                    column.getRate()[cell] = result.getRate();
+                    column.getPoints()[cell] = result.getPoints();
+                    column.getApr()[cell] = result.getApr();
+                    column.getMonthlyPayment()[cell] = result.getMonthlyPayment();
+                }
+            }
+        }
+    }
+    
+    private static final class SweepTask extends RecursiveAction {
+        private final Grid grid;
+        private final int from;
+        private final int to;
+        
+        SweepTask(Grid grid, int from, int to) {
+            this.grid = grid;
+            this.from = from;
+            this.to = to;
+        }
+        
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_CELLS) {
+                grid.price(from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new SweepTask(grid, from, mid), new SweepTask(grid, mid, to));
+        }
+    }
+}
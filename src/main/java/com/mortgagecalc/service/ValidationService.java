@@ -1,18 +1,32 @@
 package com.mortgagecalc.service;
 
 import com.mortgagecalc.model.MortgageInput;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Validator;
+import java.util.List;
 import java.util.Set;
+import java.util.stream.Collectors;
 
 @Service
 public class ValidationService {
+    public static final String DOWN_PAYMENT_ERROR = "Down payment cannot exceed property price";
+    public static final String MISSING_INPUT_ERROR = "Mortgage input is required";
+
     private final Validator validator;
+    private final boolean fastPath;
 
     public ValidationService(Validator validator) {
+        this(validator, true);
+    }
+
+    @Autowired
+    public ValidationService(Validator validator, @Value("${mortgage.validation.fast-path:true}") boolean fastPath) {
         this.validator = validator;
+        this.fastPath = fastPath;
     }
 
     public Set<ConstraintViolation<MortgageInput>> validateInput(MortgageInput input) {
@@ -26,4 +40,37 @@ public class ValidationService {
     public boolean isDownPaymentValid(MortgageInput input) {
         return input.getDownPayment() <= input.getPropertyPrice();
     }
+    
+    /**
+     * "property: message" for every violated annotation constraint. Uses {@link MortgageInputValidator} unless
+     * {@code mortgage.validation.fast-path} is off; the reflective path returns the same messages, in no
+     * particular order.
+     */
+    public List<String> constraintErrors(MortgageInput input) {
+        if (fastPath) {
+            return MortgageInputValidator.constraintErrors(input);
+        }
+        
+        return validateInput(input).stream()
+                .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                .collect(Collectors.toList());
+    }
+    
+    public List<String> collectErrors(MortgageInput input) {
+        if (input == null) {
+            return List.of(MISSING_INPUT_ERROR);
+        }
+        
+        List<String> errors = constraintErrors(input);
+        
+        if (!errors.isEmpty()) {
+            return errors;
+        }
+        
+        if (!isDownPaymentValid(input)) {
+            return List.of(DOWN_PAYMENT_ERROR);
+        }
+        
+        return List.of();
+    }
 }
@@ -0,0 +1,57 @@
+package com.mortgagecalc.utils;
+
+import com.mortgagecalc.MortgageCalculatorApplication;
+import com.mortgagecalc.service.BookRepricingService;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Re-prices a servicing book file with {@link BookRepricingService}, starting the application without its web
+ * server so rates, rules and caches are configured exactly as on the servers. Run with
+ * {@code gradle repriceBook -PrepriceArgs="input=book.csv output=prices.csv resume=true"}; arguments starting with
+ * {@code --} are passed to Spring, e.g. {@code --mortgage.rates.directory=rates --mortgage.reprice.threads=8}.
+ */
+public final class BookRepricer {
+    private BookRepricer() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        List<String> springArgs = new ArrayList<>();
+        for (String arg : args) {
+            if (arg.startsWith("--")) {
+                springArgs.add(arg);
+                continue;
+            }
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        if (!options.containsKey("input") || !options.containsKey("output")) {
+            System.err.println("Usage: BookRepricer input=<loan csv> output=<result csv> [resume=true] "
+                    + "[--mortgage.<property>=<value> ...]");
+            System.exit(2);
+        }
+        
+        Path input = Paths.get(options.get("input"));
+        Path output = Paths.get(options.get("output"));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(MortgageCalculatorApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(springArgs.toArray(new String[0]))) {
+            BookRepricingService.Summary summary = context.getBean(BookRepricingService.class)
+                    .reprice(input, output, Boolean.parseBoolean(options.get("resume")));
+            System.out.printf("Re-priced %d loans (%d rejected, %d skipped from the checkpoint) into %s: "
+                            + "%d quotes in %.1fs, %.0f quotes/sec%n", summary.getRows(), summary.getFailedRows(),
+                    summary.getResumedRows(), output, summary.getQuotes(), summary.getElapsedNanos() / 1e9,
+                    summary.getQuotesPerSecond());
+        }
+    }
+}
@@ -1,55 +1,280 @@
 package com.mortgagecalc.utils;
 
-import com.opencsv.CSVReader;
-import com.opencsv.exceptions.CsvValidationException;
+import com.mortgagecalc.pricing.RateGrid;
+import com.mortgagecalc.pricing.RateInterpolation;
+import com.mortgagecalc.pricing.RateSheetException;
+import com.mortgagecalc.pricing.RateSheetLoader;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.RateTable;
+import com.mortgagecalc.pricing.UnknownRateSnapshotException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Component
 public class CsvUtility {
-    private final Map<String, List<RatePoint>> mortgageRates = new HashMap<>();
+    private static final Logger log = LoggerFactory.getLogger(CsvUtility.class);
     
+    private static final List<String> CLASSPATH_SHEETS = List.of("fixed_30", "fixed_15", "arm_5_1", "arm_7_1");
+    
+    private static final int DEFAULT_HISTORY_SIZE = 10;
+    private static final long DEFAULT_HISTORY_MAX_BYTES = 64L * 1024 * 1024;
+    
+    private final AtomicReference<RateSnapshot> currentSnapshot = new AtomicReference<>(RateSnapshot.EMPTY);
+    private final NavigableMap<Long, RateSnapshot> retainedSnapshots = new ConcurrentSkipListMap<>();
+    private final AtomicLong versions = new AtomicLong();
+    private final AtomicLong failedReloads = new AtomicLong();
+    private final List<Consumer<RateSnapshot>> snapshotListeners = new CopyOnWriteArrayList<>();
+    private final Path ratesDirectory;
+    private final int historySize;
+    private final long historyMaxBytes;
+    private final RateInterpolation interpolation;
+    private final boolean lazy;
+    
+    public CsvUtility() {
+        this("");
+    }
+    
+    public CsvUtility(String ratesDirectory) {
+        this(ratesDirectory, DEFAULT_HISTORY_SIZE, DEFAULT_HISTORY_MAX_BYTES);
+    }
+    
+    public CsvUtility(String ratesDirectory, int historySize, long historyMaxBytes) {
+        this(ratesDirectory, historySize, historyMaxBytes, RateInterpolation.NEAREST.getKey());
+    }
+    
+    public CsvUtility(String ratesDirectory, int historySize, long historyMaxBytes, String interpolation) {
+        this(ratesDirectory, historySize, historyMaxBytes, interpolation, false);
+    }
+    
+    @Autowired
+    public CsvUtility(@Value("${mortgage.rates.directory:}") String ratesDirectory,
+                      @Value("${mortgage.rates.history-size:10}") int historySize,
+                      @Value("${mortgage.rates.history-max-bytes:67108864}") long historyMaxBytes,
+                      @Value("${mortgage.rates.interpolation:nearest}") String interpolation,
+                      @Value("${mortgage.rates.lazy:false}") boolean lazy) {
+        this.ratesDirectory = ratesDirectory.isBlank() ? null : Paths.get(ratesDirectory);
+        this.historySize = Math.max(1, historySize);
+        this.historyMaxBytes = historyMaxBytes;
+        this.interpolation = RateInterpolation.fromKey(interpolation);
+        this.lazy = lazy;
+    }
+    
+    /**
+     * Publishes the first snapshot. When lazy, only the sheet names are listed here and each product's sheet is
+     * parsed by the first quote or lookup that needs it, so startup does not wait on rate data; a sheet that
+     * fails to parse then fails those requests instead of startup.
+     */
     @PostConstruct
     public void init() {
-        loadCsvData("fixed_30", "csv/fixed_30.csv");
-        loadCsvData("fixed_15", "csv/fixed_15.csv");
-        loadCsvData("arm_5_1", "csv/arm_5_1.csv");
-        loadCsvData("arm_7_1", "csv/arm_7_1.csv");
+        publish(lazy);
     }
     
-    private void loadCsvData(String mortgageType, String resourcePath) {
-        List<RatePoint> ratePoints = new ArrayList<>();
+    /**
+     * Parses every rate sheet into a fresh snapshot and publishes it with a single reference swap. Readers are
+     * never blocked; concurrent reloads are serialized so versions are published in order. If parsing fails, or the
+     * sheets leave a product with neither a table nor a grid, the current snapshot stays in place.
+     */
+    public synchronized RateSnapshot reload() {
+        return publish(false);
+    }
+    
+    private synchronized RateSnapshot publish(boolean deferred) {
+        Map<String, RateTable> rateTables = new LinkedHashMap<>();
+        Map<String, RateGrid> rateGrids = new LinkedHashMap<>();
+        Map<String, Supplier<RateTable>> tableLoaders = new LinkedHashMap<>();
+        Map<String, Supplier<RateGrid>> gridLoaders = new LinkedHashMap<>();
+        String source = ratesDirectory != null ? ratesDirectory.toString() : "classpath:csv";
+        try {
+            if (ratesDirectory != null && deferred) {
+                RateSheetLoader.deferDirectory(ratesDirectory, interpolation, tableLoaders, gridLoaders);
+            } else if (ratesDirectory != null) {
+                RateSheetLoader.loadDirectory(ratesDirectory, interpolation, rateTables, rateGrids);
+            } else if (deferred) {
+                deferClasspath(tableLoaders, gridLoaders);
+            } else {
+                loadClasspath(rateTables, rateGrids);
+            }
+            RateSheetLoader.requireEveryProduct(source, deferred ? tableLoaders.keySet() : rateTables.keySet(),
+                    deferred ? gridLoaders.keySet() : rateGrids.keySet());
+        } catch (RuntimeException e) {
+            failedReloads.incrementAndGet();
+            throw e;
+        }
         
-        try (InputStream is = getClass().getClassLoader().getResourceAsStream(resourcePath);
-             CSVReader reader = new CSVReader(new InputStreamReader(is))) {
-            
-            reader.readNext();
-            
-            String[] line;
-            while ((line = reader.readNext()) != null) {
-                if (line.length >= 2) {
-                    double points = Double.parseDouble(line[0]);
-                    double rate = Double.parseDouble(line[1]);
-                    ratePoints.add(new RatePoint(points, rate));
-                }
+        RateSnapshot snapshot = deferred
+                ? RateSnapshot.deferred(versions.incrementAndGet(), Instant.now(), source, tableLoaders, gridLoaders)
+                : new RateSnapshot(versions.incrementAndGet(), Instant.now(), source, rateTables, rateGrids);
+        if (!deferred) {
+            // Digest the sheets here, on the reloading thread, rather than in the first request that tags a quote.
+            snapshot.getContentDigest();
+        }
+        retainedSnapshots.put(snapshot.getVersion(), snapshot);
+        currentSnapshot.set(snapshot);
+        evictSnapshots();
+        log.info("Published rate snapshot {} from {} with products {} and grids {}{}", snapshot.getVersion(), source,
+                snapshot.getProducts(), snapshot.getGriddedProducts(), deferred ? ", loaded on first use" : "");
+        snapshotListeners.forEach(listener -> listener.accept(snapshot));
+        return snapshot;
+    }
+    
+    /**
+     * Registers a callback run on the reloading thread after each new snapshot is published.
+     */
+    public void addSnapshotListener(Consumer<RateSnapshot> listener) {
+        snapshotListeners.add(listener);
+    }
+    
+    /**
+     * Drops the oldest snapshots until both the count and the memory budget hold. The current snapshot is
+     * always kept, even if it alone exceeds the budget.
+     */
+    private void evictSnapshots() {
+        long retainedBytes = 0;
+        for (RateSnapshot snapshot : retainedSnapshots.values()) {
+            retainedBytes += snapshot.estimatedBytes();
+        }
+        
+        while (retainedSnapshots.size() > 1
+                && (retainedSnapshots.size() > historySize || (historyMaxBytes > 0 && retainedBytes > historyMaxBytes))) {
+            RateSnapshot evicted = retainedSnapshots.pollFirstEntry().getValue();
+            retainedBytes -= evicted.estimatedBytes();
+            log.info("Evicted rate snapshot {}", evicted.getVersion());
+        }
+    }
+    
+    /**
+     * Loads the bundled sheets, plus a {@code csv/<product>.grid.csv} grid for any product that has one.
+     */
+    private void loadClasspath(Map<String, RateTable> rateTables, Map<String, RateGrid> rateGrids) {
+        for (String mortgageType : CLASSPATH_SHEETS) {
+            rateTables.put(mortgageType, readClasspathSheet(mortgageType));
+            if (getClass().getClassLoader().getResource(classpathGrid(mortgageType)) != null) {
+                rateGrids.put(mortgageType, readClasspathGrid(mortgageType));
+            }
+        }
+    }
+    
+    private void deferClasspath(Map<String, Supplier<RateTable>> rateTables,
+                                Map<String, Supplier<RateGrid>> rateGrids) {
+        for (String mortgageType : CLASSPATH_SHEETS) {
+            if (getClass().getClassLoader().getResource(classpathSheet(mortgageType)) == null) {
+                throw new RateSheetException("Missing rate sheet " + classpathSheet(mortgageType));
+            }
+            rateTables.put(mortgageType, () -> readClasspathSheet(mortgageType));
+            if (getClass().getClassLoader().getResource(classpathGrid(mortgageType)) != null) {
+                rateGrids.put(mortgageType, () -> readClasspathGrid(mortgageType));
             }
-            
-            mortgageRates.put(mortgageType, ratePoints);
-        } catch (IOException | CsvValidationException e) {
-            throw new RuntimeException("Error loading CSV data for " + mortgageType, e);
         }
     }
     
+    private RateTable readClasspathSheet(String mortgageType) {
+        String resourcePath = classpathSheet(mortgageType);
+        InputStream is = getClass().getClassLoader().getResourceAsStream(resourcePath);
+        if (is == null) {
+            throw new RateSheetException("Missing rate sheet " + resourcePath);
+        }
+        try (Reader reader = new InputStreamReader(is, StandardCharsets.UTF_8)) {
+            return RateSheetLoader.readCsv(mortgageType, reader, interpolation);
+        } catch (IOException e) {
+            throw new RateSheetException("Error loading CSV data for " + mortgageType, e);
+        }
+    }
+    
+    private RateGrid readClasspathGrid(String mortgageType) {
+        InputStream grid = getClass().getClassLoader().getResourceAsStream(classpathGrid(mortgageType));
+        if (grid == null) {
+            throw new RateSheetException("Missing rate grid " + classpathGrid(mortgageType));
+        }
+        try (Reader reader = new InputStreamReader(grid, StandardCharsets.UTF_8)) {
+            return RateSheetLoader.readGridCsv(mortgageType, reader);
+        } catch (IOException e) {
+            throw new RateSheetException("Error loading rate grid for " + mortgageType, e);
+        }
+    }
+    
+    private static String classpathSheet(String mortgageType) {
+        return "csv/" + mortgageType + RateSheetLoader.CSV_EXTENSION;
+    }
+    
+    private static String classpathGrid(String mortgageType) {
+        return "csv/" + mortgageType + RateSheetLoader.GRID_EXTENSION;
+    }
+    
+    public RateSnapshot getSnapshot() {
+        return currentSnapshot.get();
+    }
+    
+    /**
+     * Returns a retained snapshot so a locked quote can be re-priced against the exact sheets it was first
+     * priced with.
+     */
+    public RateSnapshot getSnapshot(long version) {
+        RateSnapshot snapshot = retainedSnapshots.get(version);
+        
+        if (snapshot == null) {
+            throw new UnknownRateSnapshotException(version);
+        }
+        
+        return snapshot;
+    }
+    
+    /**
+     * Snapshots published since startup, the initial load included.
+     */
+    public long getReloadCount() {
+        return versions.get();
+    }
+    
+    public long getFailedReloadCount() {
+        return failedReloads.get();
+    }
+    
+    public List<RateSnapshot> getRetainedSnapshots() {
+        return new ArrayList<>(retainedSnapshots.descendingMap().values());
+    }
+    
+    public Path getRatesDirectory() {
+        return ratesDirectory;
+    }
+    
+    
     public List<RatePoint> getRatePoints(String mortgageType) {
-        return mortgageRates.getOrDefault(mortgageType, new ArrayList<>());
+        RateTable rateTable = getRateTable(mortgageType);
+        List<RatePoint> ratePoints = new ArrayList<>(rateTable.size());
+        
+        for (int row = 0; row < rateTable.size(); row++) {
+            ratePoints.add(new RatePoint(rateTable.pointsAt(row), rateTable.rateAt(row)));
+        }
+        
+        return ratePoints;
+    }
+    
+    public RateTable getRateTable(String mortgageType) {
+        return currentSnapshot.get().getRateTable(mortgageType);
     }
     
     public static class RatePoint {
@@ -0,0 +1,74 @@
+package com.mortgagecalc.utils;
+
+import com.mortgagecalc.pricing.RateInterpolation;
+import com.mortgagecalc.pricing.RateSheetLoader;
+import com.mortgagecalc.pricing.RateTable;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Converts every {@code <product>.csv} sheet in a directory into a compiled {@code <product>.rsb} sheet that
+ * {@link CsvUtility} maps instead of parsing. Rate grids ({@code <product>.grid.csv}) have no compiled form and are
+ * left alone. Compile with the interpolation mode the servers are configured
+ * with, otherwise they fall back to a heap copy. Run with
+ * {@code gradle compileRateSheets -PrateSheetArgs="source=rates target=rates interpolation=nearest"}; target
+ * defaults to the source directory.
+ */
+public final class RateSheetCompiler {
+    private RateSheetCompiler() {
+    }
+    
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>(Map.of("interpolation", RateInterpolation.NEAREST.getKey()));
+        for (String arg : args) {
+            String[] pair = arg.split("=", 2);
+            options.put(pair[0], pair.length > 1 ? pair[1] : "");
+        }
+        if (!options.containsKey("source")) {
+            System.err.println("Usage: RateSheetCompiler source=<csv directory> [target=<directory>] "
+                    + "[interpolation=nearest|linear|monotone-cubic]");
+            System.exit(2);
+        }
+        
+        Path source = Paths.get(options.get("source"));
+        Path target = Paths.get(options.getOrDefault("target", options.get("source")));
+        int compiled = compile(source, target, RateInterpolation.fromKey(options.get("interpolation")));
+        System.out.printf("Compiled %d rate sheets from %s into %s%n", compiled, source, target);
+    }
+    
+    /**
+     * Compiles each CSV sheet in {@code source} into {@code target}, returning the number of sheets written. Grid
+     * files are skipped.
+     */
+    public static int compile(Path source, Path target, RateInterpolation interpolation) throws IOException {
+        Files.createDirectories(target);
+        int compiled = 0;
+        
+        try (DirectoryStream<Path> sheets = Files.newDirectoryStream(source, "*" + RateSheetLoader.CSV_EXTENSION)) {
+            for (Path sheet : sheets) {
+                String fileName = sheet.getFileName().toString();
+                if (fileName.endsWith(RateSheetLoader.GRID_EXTENSION)) {
+                    continue;
+                }
+                String mortgageType = fileName.substring(0, fileName.lastIndexOf('.'));
+                RateTable rateTable;
+                try (Reader reader = Files.newBufferedReader(sheet, StandardCharsets.UTF_8)) {
+                    rateTable = RateSheetLoader.readCsv(mortgageType, reader, interpolation);
+                }
+                Path compiledSheet = target.resolve(mortgageType + RateSheetLoader.COMPILED_EXTENSION);
+                RateSheetLoader.writeCompiled(rateTable, compiledSheet);
+                compiled++;
+            }
+        }
+        
+        return compiled;
+    }
+}
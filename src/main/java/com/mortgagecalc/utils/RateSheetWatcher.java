@@ -0,0 +1,90 @@
+package com.mortgagecalc.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Watches the configured rate directory and republishes the rate snapshot when sheets change. Editors and copy
+ * tools usually touch a file several times, so events are coalesced until the directory has been quiet for the
+ * debounce interval before parsing on this thread.
+ */
+@Component
+public class RateSheetWatcher {
+    private static final Logger log = LoggerFactory.getLogger(RateSheetWatcher.class);
+    
+    private final CsvUtility csvUtility;
+    private final Duration debounce;
+    private WatchService watchService;
+    private Thread watcherThread;
+    
+    public RateSheetWatcher(CsvUtility csvUtility,
+                            @Value("${mortgage.rates.watch-debounce:500ms}") Duration debounce) {
+        this.csvUtility = csvUtility;
+        this.debounce = debounce;
+    }
+    
+    @PostConstruct
+    public void start() throws IOException {
+        Path directory = csvUtility.getRatesDirectory();
+        if (directory == null) {
+            return;
+        }
+        
+        watchService = FileSystems.getDefault().newWatchService();
+        directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY, StandardWatchEventKinds.ENTRY_DELETE);
+        
+        watcherThread = new Thread(this::watch, "rate-sheet-watcher");
+        watcherThread.setDaemon(true);
+        watcherThread.start();
+        log.info("Watching {} for rate sheet changes", directory);
+    }
+    
+    @PreDestroy
+    public void stop() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+    
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                do {
+                    key.pollEvents();
+                    key.reset();
+                    key = watchService.poll(debounce.toMillis(), TimeUnit.MILLISECONDS);
+                } while (key != null);
+                
+                try {
+                    csvUtility.reload();
+                } catch (RuntimeException e) {
+                    log.error("Rate sheet reload failed, keeping snapshot {}", csvUtility.getSnapshot().getVersion(), e);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            log.debug("Rate sheet watcher stopped");
+        }
+    }
+    
+    boolean isWatching() {
+        return watcherThread != null && watcherThread.isAlive();
+    }
+}
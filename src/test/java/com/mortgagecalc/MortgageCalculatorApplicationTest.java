@@ -1,12 +1,90 @@
 package com.mortgagecalc;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import com.mortgagecalc.model.MortgageInput;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 
 @SpringBootTest
+@AutoConfigureMockMvc
 class MortgageCalculatorApplicationTest {
     
+    private final ObjectMapper cborMapper = new CBORMapper();
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
     @Test
     void contextLoads() {
     }
+    
+    @Test
+    void testCalculate_NegotiatesCbor() throws Exception {
+        MockHttpServletResponse cbor = mockMvc.perform(post("/api/mortgage/calculate")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(createInput())))
+                .andReturn()
+                .getResponse();
+        MockHttpServletResponse json = mockMvc.perform(post("/api/mortgage/calculate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsBytes(createInput())))
+                .andReturn()
+                .getResponse();
+        
+        assertEquals(200, cbor.getStatus());
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, cbor.getContentType());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, json.getContentType());
+        assertEquals(objectMapper.readTree(json.getContentAsByteArray()),
+                cborMapper.readTree(cbor.getContentAsByteArray()));
+        assertTrue(cbor.getContentAsByteArray().length < json.getContentAsByteArray().length);
+    }
+    
+    @Test
+    void testCalculateBatch_AcceptsCbor() throws Exception {
+        MortgageInput invalid = createInput();
+        invalid.setCreditScore(100);
+        
+        MockHttpServletResponse response = mockMvc.perform(post("/api/mortgage/calculate/batch")
+                        .contentType(MediaType.APPLICATION_CBOR)
+                        .accept(MediaType.APPLICATION_CBOR)
+                        .content(cborMapper.writeValueAsBytes(List.of(createInput(), invalid))))
+                .andReturn()
+                .getResponse();
+        
+        assertEquals(200, response.getStatus());
+        JsonNode results = cborMapper.readTree(response.getContentAsByteArray());
+        assertEquals(2, results.size());
+        assertEquals(4, results.get(0).get("options").size());
+        assertEquals("creditScore: Credit score must be at least 300", results.get(1).get("errors").get(0).asText());
+    }
+    
+    private static MortgageInput createInput() {
+        MortgageInput input = new MortgageInput();
+        input.setCreditScore(740);
+        input.setLoanValue(400000.0);
+        input.setState("CA");
+        input.setHomeType("Condo");
+        input.setPropertyPrice(500000.0);
+        input.setDownPayment(100000.0);
+        input.setIncome(150000.0);
+        input.setPoints(0.0);
+        input.setAssetsUnderManagement(0.0);
+        return input;
+    }
 }
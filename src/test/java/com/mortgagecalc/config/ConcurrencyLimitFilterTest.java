@@ -0,0 +1,47 @@
+package com.mortgagecalc.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitFilterTest {
+    
+    private final ConcurrencyLimitFilter filter =
+            new ConcurrencyLimitFilter(1, Duration.ZERO, Duration.ofMillis(1500), new ObjectMapper());
+    
+    @Test
+    void testDoFilter_ShedsWhenSaturated() throws Exception {
+        MockHttpServletResponse shedResponse = new MockHttpServletResponse();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        filter.doFilter(new MockHttpServletRequest("POST", "/api/mortgage/calculate"), response,
+                (req, res) -> filter.doFilter(new MockHttpServletRequest("POST", "/api/mortgage/calculate"),
+                        shedResponse, (innerReq, innerRes) -> fail("Second request should have been shed")));
+        
+        assertEquals(HttpStatus.OK.value(), response.getStatus());
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS.value(), shedResponse.getStatus());
+        assertEquals("2", shedResponse.getHeader("Retry-After"));
+        assertEquals("[\"Too many concurrent requests, retry after 2s\"]", shedResponse.getContentAsString());
+        assertEquals(1, filter.getShedCount());
+        assertEquals(0, filter.getInFlight());
+    }
+    
+    @Test
+    void testDoFilter_AsyncHoldsPermitUntilComplete() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/mortgage/calculate/batch");
+        request.setAsyncSupported(true);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        
+        filter.doFilter(request, response, (req, res) -> req.startAsync());
+        
+        assertEquals(1, filter.getInFlight());
+        request.getAsyncContext().complete();
+        assertEquals(0, filter.getInFlight());
+    }
+}
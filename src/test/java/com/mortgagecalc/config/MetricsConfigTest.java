@@ -0,0 +1,39 @@
+package com.mortgagecalc.config;
+
+import com.mortgagecalc.service.PricingMetrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsConfigTest {
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testExtendMessageConverters_TimesJsonAndCbor() throws Exception {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        List<HttpMessageConverter<?>> converters = new ArrayList<>(List.of(new MappingJackson2HttpMessageConverter(),
+                new MappingJackson2CborHttpMessageConverter()));
+        
+        new MetricsConfig(new PricingMetrics(registry, 0)).extendMessageConverters(converters);
+        ((HttpMessageConverter<Object>) converters.get(0)).write(Map.of("rate", 6.5), MediaType.APPLICATION_JSON,
+                new MockHttpOutputMessage());
+        MockHttpOutputMessage cbor = new MockHttpOutputMessage();
+        ((HttpMessageConverter<Object>) converters.get(1)).write(Map.of("rate", 6.5), MediaType.APPLICATION_CBOR,
+                cbor);
+        
+        assertInstanceOf(MappingJackson2CborHttpMessageConverter.class, converters.get(1));
+        assertEquals(MediaType.APPLICATION_CBOR, cbor.getHeaders().getContentType());
+        assertEquals(2, registry.get("mortgage.pricing.stage").tag("stage", "serialization").functionTimer()
+                .count());
+    }
+}
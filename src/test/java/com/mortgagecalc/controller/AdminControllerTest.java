@@ -0,0 +1,127 @@
+package com.mortgagecalc.controller;
+
+import com.mortgagecalc.model.RateSnapshotInfo;
+import com.mortgagecalc.pricing.RateGrid;
+import com.mortgagecalc.pricing.RateSheetException;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.RateTable;
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.service.OutcomeTableService;
+import com.mortgagecalc.service.PricingRuleService;
+import com.mortgagecalc.service.QuoteCache;
+import com.mortgagecalc.service.QuoteCoalescer;
+import com.mortgagecalc.utils.CsvUtility;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class AdminControllerTest {
+    
+    @Mock
+    private CsvUtility csvUtility;
+    
+    @Mock
+    private PricingRuleService pricingRuleService;
+    
+    @Mock
+    private QuoteCache quoteCache;
+    
+    @Mock
+    private OutcomeTableService outcomeTables;
+    
+    @Mock
+    private QuoteCoalescer quoteCoalescer;
+    
+    @InjectMocks
+    private AdminController adminController;
+    
+    @Test
+    void testReloadRates() {
+        RateSnapshot snapshot = new RateSnapshot(7, Instant.now(), "test",
+                Map.of("fixed_30", RateTable.of(new double[] {0.0, 1.0}, new double[] {7.0, 6.6})));
+        when(csvUtility.reload()).thenReturn(snapshot);
+        
+        ResponseEntity<?> response = adminController.reloadRates();
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        RateSnapshotInfo info = (RateSnapshotInfo) response.getBody();
+        assertEquals(7, info.getVersion());
+        assertEquals(Map.of("fixed_30", 2), info.getProducts());
+        assertEquals("nearest", info.getInterpolation());
+    }
+    
+    @Test
+    void testRateGrids() {
+        RateGrid grid = RateGrid.of(new int[] {30, 60}, new double[] {80, 80}, new double[] {680, 680},
+                new double[] {0, 0}, new double[] {7.0, 7.1});
+        when(csvUtility.getSnapshot()).thenReturn(new RateSnapshot(7, Instant.now(), "test",
+                Map.of("fixed_30", RateTable.of(new double[] {0.0}, new double[] {7.0})), Map.of("fixed_30", grid)));
+        
+        ResponseEntity<Map<String, Map<String, Object>>> response = adminController.rateGrids();
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("fixed_30", grid.footprint()), response.getBody());
+        assertEquals(16L, response.getBody().get("fixed_30").get("rateBytes"));
+    }
+    
+    @Test
+    void testReloadRates_Failure() {
+        when(csvUtility.reload()).thenThrow(new RateSheetException("Error loading CSV data for fixed_30"));
+        
+        ResponseEntity<?> response = adminController.reloadRates();
+        
+        assertEquals(HttpStatus.UNPROCESSABLE_ENTITY, response.getStatusCode());
+        assertEquals("Rate sheet reload failed: Error loading CSV data for fixed_30", response.getBody());
+    }
+    
+    @Test
+    void testReloadRules() {
+        when(pricingRuleService.reload()).thenReturn(CompiledRuleBook.EMPTY);
+        
+        ResponseEntity<?> response = adminController.reloadRules();
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(Map.of("rules", 0), response.getBody());
+    }
+    
+    @Test
+    void testQuoteCacheStats() {
+        when(quoteCache.stats()).thenReturn(Map.of("enabled", true, "hits", 3L, "misses", 1L));
+        
+        ResponseEntity<Map<String, Object>> response = adminController.quoteCacheStats();
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(3L, response.getBody().get("hits"));
+    }
+    
+    @Test
+    void testOutcomeTableStats() {
+        when(outcomeTables.stats()).thenReturn(Map.of("enabled", true, "outcomes", 1200));
+        
+        ResponseEntity<Map<String, Object>> response = adminController.outcomeTableStats();
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(1200, response.getBody().get("outcomes"));
+    }
+    
+    @Test
+    void testQuoteCoalescerStats() {
+        when(quoteCoalescer.stats()).thenReturn(Map.of("enabled", true, "computed", 10L, "coalesced", 4L));
+        
+        ResponseEntity<Map<String, Object>> response = adminController.quoteCoalescerStats();
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(4L, response.getBody().get("coalesced"));
+    }
+}
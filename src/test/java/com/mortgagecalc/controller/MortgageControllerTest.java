@@ -1,27 +1,43 @@
 package com.mortgagecalc.controller;
 
+import com.mortgagecalc.model.BatchQuoteResult;
 import com.mortgagecalc.model.MortgageInput;
 import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.model.SweepRequest;
+import com.mortgagecalc.model.SweepResult;
+import com.mortgagecalc.pricing.UnknownRateSnapshotException;
+import com.mortgagecalc.service.BatchQuoteService;
+import com.mortgagecalc.service.PricingMetrics;
+import com.mortgagecalc.service.QuoteCoalescer;
+import com.mortgagecalc.service.QuoteETagService;
 import com.mortgagecalc.service.RateCalculationService;
+import com.mortgagecalc.service.SweepService;
 import com.mortgagecalc.service.ValidationService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Path;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import org.mockito.Mockito;
 
@@ -34,7 +50,18 @@ class MortgageControllerTest {
     @Mock
     private RateCalculationService rateCalculationService;
     
-    @InjectMocks
+    @Mock
+    private BatchQuoteService batchQuoteService;
+    
+    @Mock
+    private SweepService sweepService;
+    
+    @Mock
+    private PricingMetrics pricingMetrics;
+    
+    @Mock
+    private QuoteETagService quoteETags;
+    
     private MortgageController mortgageController;
     
     private MortgageInput validInput;
@@ -42,6 +69,9 @@ class MortgageControllerTest {
     
     @BeforeEach
     void setUp() {
+        mortgageController = new MortgageController(validationService, new QuoteCoalescer(rateCalculationService, 4),
+                batchQuoteService, sweepService, pricingMetrics, quoteETags);
+        
         validInput = new MortgageInput();
         validInput.setCreditScore(750);
         validInput.setLoanValue(400000.0);
@@ -72,8 +102,7 @@ class MortgageControllerTest {
     
     @Test
     void testCalculate_ValidInput() {
-        Set<ConstraintViolation<MortgageInput>> emptyViolations = new HashSet<>();
-        when(validationService.validateInput(any(MortgageInput.class))).thenReturn(emptyViolations);
+        when(validationService.constraintErrors(any(MortgageInput.class))).thenReturn(List.of());
         when(validationService.isDownPaymentValid(any(MortgageInput.class))).thenReturn(true);
         when(rateCalculationService.calculateMortgageOptions(any(MortgageInput.class))).thenReturn(mortgageOptions);
         
@@ -90,10 +119,21 @@ class MortgageControllerTest {
         assertEquals("15-Year Fixed", responseOptions.get(1).getMortgageType());
     }
     
+    @Test
+    void testCalculate_ConstraintViolations() {
+        when(validationService.constraintErrors(any(MortgageInput.class)))
+                .thenReturn(List.of("creditScore: Credit score cannot exceed 850"));
+        
+        ResponseEntity<?> response = mortgageController.calculate(validInput);
+        
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(List.of("creditScore: Credit score cannot exceed 850"), response.getBody());
+        Mockito.verifyNoInteractions(rateCalculationService);
+    }
+    
     @Test
     void testCalculate_InvalidDownPayment() {
-        Set<ConstraintViolation<MortgageInput>> emptyViolations = new HashSet<>();
-        when(validationService.validateInput(any(MortgageInput.class))).thenReturn(emptyViolations);
+        when(validationService.constraintErrors(any(MortgageInput.class))).thenReturn(List.of());
         when(validationService.isDownPaymentValid(any(MortgageInput.class))).thenReturn(false);
         
         ResponseEntity<?> response = mortgageController.calculate(validInput);
@@ -102,4 +142,115 @@ class MortgageControllerTest {
         assertNotNull(response.getBody());
         assertEquals("Down payment cannot exceed property price", response.getBody());
     }
+    
+    @Test
+    void testGetCalculate_SendsETag() {
+        when(validationService.constraintErrors(any(MortgageInput.class))).thenReturn(List.of());
+        when(validationService.isDownPaymentValid(any(MortgageInput.class))).thenReturn(true);
+        when(rateCalculationService.calculateMortgageOptions(any(MortgageInput.class))).thenReturn(mortgageOptions);
+        when(quoteETags.eTag(validInput, "application/json")).thenReturn("\"3-1-abc\"");
+        when(quoteETags.getCacheControl()).thenReturn(CacheControl.noCache());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setAccept(List.of(MediaType.APPLICATION_JSON));
+        headers.setIfNoneMatch("\"2-1-abc\"");
+        
+        ResponseEntity<?> response = mortgageController.getCalculate(validInput, headers);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(mortgageOptions, response.getBody());
+        assertEquals("\"3-1-abc\"", response.getHeaders().getETag());
+        assertEquals("no-cache", response.getHeaders().getCacheControl());
+        assertEquals(List.of(HttpHeaders.ACCEPT), response.getHeaders().getVary());
+    }
+    
+    @Test
+    void testGetCalculate_MatchingETagSkipsPricing() {
+        when(validationService.constraintErrors(any(MortgageInput.class))).thenReturn(List.of());
+        when(validationService.isDownPaymentValid(any(MortgageInput.class))).thenReturn(true);
+        when(quoteETags.eTag(validInput, null)).thenReturn("\"3-1-abc\"");
+        when(quoteETags.getCacheControl()).thenReturn(CacheControl.noCache());
+        HttpHeaders headers = new HttpHeaders();
+        headers.setIfNoneMatch(List.of("\"2-1-abc\"", "W/\"3-1-abc\""));
+        
+        ResponseEntity<?> response = mortgageController.getCalculate(validInput, headers);
+        
+        assertEquals(HttpStatus.NOT_MODIFIED, response.getStatusCode());
+        assertNull(response.getBody());
+        assertEquals("\"3-1-abc\"", response.getHeaders().getETag());
+        Mockito.verifyNoInteractions(rateCalculationService);
+    }
+    
+    @Test
+    void testGetCalculate_InvalidInputHasNoETag() {
+        when(validationService.constraintErrors(any(MortgageInput.class)))
+                .thenReturn(List.of("creditScore: Credit score is required"));
+        
+        ResponseEntity<?> response = mortgageController.getCalculate(validInput, new HttpHeaders());
+        
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertNull(response.getHeaders().getETag());
+        Mockito.verifyNoInteractions(quoteETags);
+    }
+    
+    @Test
+    void testCalculateBatch() {
+        List<MortgageInput> inputs = List.of(validInput, validInput);
+        List<BatchQuoteResult> results = List.of(
+                BatchQuoteResult.success(0, mortgageOptions),
+                BatchQuoteResult.failure(1, List.of("Down payment cannot exceed property price")));
+        when(batchQuoteService.quoteAll(inputs)).thenReturn(results);
+        
+        ResponseEntity<List<BatchQuoteResult>> response = mortgageController.calculateBatch(inputs);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(results, response.getBody());
+    }
+    
+    @Test
+    void testCalculateBatchStream() throws IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("{}\n".getBytes(StandardCharsets.UTF_8));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        ResponseEntity<StreamingResponseBody> response = mortgageController.calculateBatchStream(request);
+        response.getBody().writeTo(out);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_NDJSON, response.getHeaders().getContentType());
+        verify(batchQuoteService).streamQuotes(any(InputStream.class), eq(out));
+    }
+    
+    @Test
+    void testSweep_Success() {
+        SweepRequest request = new SweepRequest();
+        SweepResult result = new SweepResult();
+        when(sweepService.collectErrors(request)).thenReturn(List.of());
+        when(sweepService.sweep(request)).thenReturn(result);
+        
+        ResponseEntity<?> response = mortgageController.sweep(request);
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(result, response.getBody());
+    }
+    
+    @Test
+    void testSweep_InvalidRequest() {
+        SweepRequest request = new SweepRequest();
+        List<String> errors = List.of("points: Points range is required");
+        when(sweepService.collectErrors(request)).thenReturn(errors);
+        
+        ResponseEntity<?> response = mortgageController.sweep(request);
+        
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        assertEquals(errors, response.getBody());
+        verify(sweepService, Mockito.never()).sweep(any());
+    }
+    
+    @Test
+    void testHandleUnknownRateSnapshot() {
+        ResponseEntity<String> response = mortgageController.handleUnknownRateSnapshot(new UnknownRateSnapshotException(4));
+        
+        assertEquals(HttpStatus.GONE, response.getStatusCode());
+        assertEquals("Rate snapshot 4 is not available", response.getBody());
+    }
 }
@@ -0,0 +1,64 @@
+package com.mortgagecalc.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mortgagecalc.model.ScheduleRequest;
+import com.mortgagecalc.service.AmortizationScheduleService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ScheduleControllerTest {
+    
+    @Mock
+    private AmortizationScheduleService scheduleService;
+    
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper();
+    
+    @InjectMocks
+    private ScheduleController scheduleController;
+    
+    @Test
+    void testGetSchedule_StreamsPage() throws IOException {
+        ScheduleRequest request = new ScheduleRequest();
+        when(scheduleService.collectErrors(request, 10, 5, "columnar")).thenReturn(List.of());
+        
+        ResponseEntity<StreamingResponseBody> response = scheduleController.getSchedule(request, 10, 5, "columnar");
+        
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        verify(scheduleService).writeSchedule(eq(request), eq(10), eq(5), eq("columnar"), any());
+    }
+    
+    @Test
+    void testPostSchedule_InvalidRequest() throws IOException {
+        ScheduleRequest request = new ScheduleRequest();
+        when(scheduleService.collectErrors(request, 0, null, "rows")).thenReturn(List.of("rate: Rate is required"));
+        
+        ResponseEntity<StreamingResponseBody> response = scheduleController.postSchedule(request, 0, null, "rows");
+        
+        assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        assertEquals("[\"rate: Rate is required\"]", out.toString(StandardCharsets.UTF_8));
+    }
+}
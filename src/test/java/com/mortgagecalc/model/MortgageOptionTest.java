@@ -16,6 +16,7 @@ class MortgageOptionTest {
         option.setRate(6.5);
         option.setPoints(0.5);
         option.setApr(6.75);
+        option.setMonthlyPayment(1264.14);
         List<String> rules = Arrays.asList("Rule 1", "Rule 2");
         option.setAppliedRules(rules);
         
@@ -23,6 +24,7 @@ class MortgageOptionTest {
         assertEquals(6.5, option.getRate());
         assertEquals(0.5, option.getPoints());
         assertEquals(6.75, option.getApr());
+        assertEquals(1264.14, option.getMonthlyPayment());
         assertEquals(2, option.getAppliedRules().size());
         assertEquals("Rule 1", option.getAppliedRules().get(0));
         assertEquals("Rule 2", option.getAppliedRules().get(1));
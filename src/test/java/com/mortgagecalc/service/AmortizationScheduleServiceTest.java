@@ -0,0 +1,116 @@
+package com.mortgagecalc.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.model.ScheduleRequest;
+import com.mortgagecalc.pricing.Amortization;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AmortizationScheduleServiceTest {
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private AmortizationScheduleService scheduleService;
+    
+    @BeforeEach
+    void setUp() {
+        Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+        scheduleService = new AmortizationScheduleService(validator, objectMapper, new double[] {4.5}, 2.75, 2.0,
+                2.0, 5.0);
+    }
+    
+    @Test
+    void testWriteSchedule_RowsPage() throws IOException {
+        JsonNode schedule = write(request("30-Year Fixed", 200000.0, 6.0), 12, 3, AmortizationScheduleService.ROWS);
+        
+        assertEquals("30-Year Fixed", schedule.get("mortgageType").asText());
+        assertEquals(360, schedule.get("termMonths").asInt());
+        assertEquals(12, schedule.get("offset").asInt());
+        assertEquals(3, schedule.get("count").asInt());
+        assertEquals(3, schedule.get("rows").size());
+        assertEquals(13, schedule.get("rows").get(0).get("month").asInt());
+        assertEquals(1199.10, schedule.get("rows").get(0).get("payment").asDouble());
+    }
+    
+    @Test
+    void testWriteSchedule_ColumnarMatchesRows() throws IOException {
+        ScheduleRequest request = request("arm_5_1", 300000.0, 5.5);
+        JsonNode rows = write(request, 55, 10, AmortizationScheduleService.ROWS);
+        JsonNode columns = write(request, 55, 10, AmortizationScheduleService.COLUMNAR);
+        
+        assertNull(columns.get("rows"));
+        for (String column : List.of("month", "rate", "payment", "interest", "principal", "balance")) {
+            assertEquals(10, columns.get(column).size());
+            for (int i = 0; i < 10; i++) {
+                assertEquals(rows.get("rows").get(i).get(column), columns.get(column).get(i));
+            }
+        }
+        assertEquals(5.5, columns.get("rate").get(4).asDouble());
+        assertEquals(7.25, columns.get("rate").get(5).asDouble());
+    }
+    
+    @Test
+    void testWriteSchedule_FromQuotedOption() throws IOException {
+        MortgageOption option = new MortgageOption();
+        option.setMortgageType("5/1 ARM");
+        option.setRate(5.5);
+        option.setPoints(0.5);
+        option.setApr(6.1);
+        option.setRateSnapshotId(3);
+        ObjectNode body = objectMapper.valueToTree(option);
+        body.put("loanValue", 300000.0);
+        
+        ScheduleRequest request = objectMapper.treeToValue(body, ScheduleRequest.class);
+        JsonNode schedule = write(request, 0, 1, AmortizationScheduleService.ROWS);
+        
+        assertTrue(scheduleService.collectErrors(request, 0, 1, AmortizationScheduleService.ROWS).isEmpty());
+        assertEquals("5/1 ARM", schedule.get("mortgageType").asText());
+        assertEquals(Amortization.monthlyPayment(300000, 5.5, 360),
+                schedule.get("rows").get(0).get("payment").asDouble(), 0.005);
+    }
+    
+    @Test
+    void testWriteSchedule_OffsetPastEnd() throws IOException {
+        JsonNode schedule = write(request("fixed_15", 100000.0, 5.0), 500, null, AmortizationScheduleService.ROWS);
+        
+        assertEquals(180, schedule.get("offset").asInt());
+        assertEquals(0, schedule.get("count").asInt());
+        assertEquals(0, schedule.get("rows").size());
+    }
+    
+    @Test
+    void testCollectErrors() {
+        List<String> errors = scheduleService.collectErrors(request("balloon", null, 6.0), -1, -5, "xml");
+        
+        assertTrue(errors.contains("loanValue: Loan value is required"));
+        assertTrue(errors.contains("mortgageType: Unknown mortgage type balloon"));
+        assertTrue(errors.contains("offset: must not be negative"));
+        assertTrue(errors.contains("limit: must not be negative"));
+        assertTrue(errors.contains("format: must be rows or columnar"));
+        assertTrue(scheduleService.collectErrors(request("fixed_30", 1000.0, 6.0), 0, null, "rows").isEmpty());
+    }
+    
+    private JsonNode write(ScheduleRequest request, int offset, Integer limit, String format) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        scheduleService.writeSchedule(request, offset, limit, format, out);
+        return objectMapper.readTree(out.toByteArray());
+    }
+    
+    private ScheduleRequest request(String mortgageType, Double loanValue, Double rate) {
+        ScheduleRequest request = new ScheduleRequest();
+        request.setMortgageType(mortgageType);
+        request.setLoanValue(loanValue);
+        request.setRate(rate);
+        return request;
+    }
+}
@@ -0,0 +1,184 @@
+package com.mortgagecalc.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.mortgagecalc.model.BatchQuoteResult;
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.model.MortgageOption;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BatchQuoteServiceTest {
+    
+    @Mock
+    private ValidationService validationService;
+    
+    @Mock
+    private RateCalculationService rateCalculationService;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    
+    private BatchQuoteService batchQuoteService;
+    
+    @BeforeEach
+    void setUp() {
+        batchQuoteService = new BatchQuoteService(validationService, rateCalculationService, objectMapper, 16);
+        
+        lenient().when(validationService.collectErrors(any())).thenReturn(List.of());
+        lenient().when(validationService.collectErrors(argThat(input -> input != null && input.getCreditScore() < 300)))
+                .thenReturn(List.of("creditScore: Credit score must be at least 300"));
+        lenient().when(rateCalculationService.calculateMortgageOptions(any(MortgageInput.class)))
+                .thenAnswer(invocation -> List.of(optionFor(invocation.getArgument(0))));
+    }
+    
+    @Test
+    void testQuoteAll_PreservesInputOrder() {
+        List<MortgageInput> inputs = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            inputs.add(createInput(300 + (i % 500)));
+        }
+        
+        List<BatchQuoteResult> results = batchQuoteService.quoteAll(inputs);
+        
+        assertEquals(1000, results.size());
+        for (int i = 0; i < results.size(); i++) {
+            assertEquals(i, results.get(i).getIndex());
+            assertTrue(results.get(i).isSuccess());
+            assertEquals("score-" + (300 + (i % 500)), results.get(i).getOptions().get(0).getMortgageType());
+        }
+    }
+    
+    @Test
+    void testQuoteAll_ReportsPerItemErrors() {
+        List<MortgageInput> inputs = List.of(createInput(750), createInput(100), createInput(700));
+        
+        List<BatchQuoteResult> results = batchQuoteService.quoteAll(inputs);
+        
+        assertTrue(results.get(0).isSuccess());
+        assertFalse(results.get(1).isSuccess());
+        assertNull(results.get(1).getOptions());
+        assertEquals(List.of("creditScore: Credit score must be at least 300"), results.get(1).getErrors());
+        assertTrue(results.get(2).isSuccess());
+        verify(rateCalculationService, never()).calculateMortgageOptions(argThat(input -> input.getCreditScore() == 100));
+    }
+    
+    @Test
+    void testStreamQuotes_WritesOneLinePerInputInOrder() throws IOException {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            body.append(objectMapper.writeValueAsString(createInput(i == 42 ? 100 : 700 + i))).append('\n');
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        batchQuoteService.streamQuotes(new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), out);
+        
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(100, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            BatchQuoteResult result = objectMapper.readValue(lines[i], BatchQuoteResult.class);
+            assertEquals(i, result.getIndex());
+            assertEquals(i != 42, result.isSuccess());
+        }
+    }
+    
+    @Test
+    void testStreamQuotes_MalformedLineEndsStream() throws IOException {
+        String body = objectMapper.writeValueAsString(createInput(750)) + "\n{\"creditScore\":\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        batchQuoteService.streamQuotes(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(objectMapper.readValue(lines[0], BatchQuoteResult.class).isSuccess());
+        BatchQuoteResult failure = objectMapper.readValue(lines[1], BatchQuoteResult.class);
+        assertEquals(1, failure.getIndex());
+        assertTrue(failure.getErrors().get(0).startsWith("Malformed NDJSON input"));
+    }
+    
+    @Test
+    void testStreamQuotes_MalformedFirstTokenReportedAtIndexZero() throws IOException {
+        String body = "not json\n" + objectMapper.writeValueAsString(createInput(750)) + "\n";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        batchQuoteService.streamQuotes(new ByteArrayInputStream(body.getBytes(StandardCharsets.UTF_8)), out);
+        
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(1, lines.length);
+        BatchQuoteResult failure = objectMapper.readValue(lines[0], BatchQuoteResult.class);
+        assertEquals(0, failure.getIndex());
+        assertTrue(failure.getErrors().get(0).startsWith("Malformed NDJSON input"));
+    }
+    
+    @Test
+    void testStreamQuotes_EmptyBodyWritesNothing() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        batchQuoteService.streamQuotes(new ByteArrayInputStream(new byte[0]), out);
+        
+        assertEquals(0, out.size());
+    }
+    
+    @Test
+    void testStreamQuotes_PricingFailureReportedOnItsLine() throws IOException {
+        when(rateCalculationService.calculateMortgageOptions(argThat(input -> input.getCreditScore() == 701)))
+                .thenThrow(new IllegalStateException("No rate data available for fixed_30"));
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            body.append(objectMapper.writeValueAsString(createInput(700 + i))).append('\n');
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        
+        batchQuoteService.streamQuotes(new ByteArrayInputStream(body.toString().getBytes(StandardCharsets.UTF_8)), out);
+        
+        String response = out.toString(StandardCharsets.UTF_8);
+        String[] lines = response.split("\n");
+        assertEquals(40, lines.length);
+        assertTrue(response.endsWith("}\n"));
+        for (int i = 0; i < lines.length; i++) {
+            BatchQuoteResult result = objectMapper.readValue(lines[i], BatchQuoteResult.class);
+            assertEquals(i, result.getIndex());
+            assertEquals(i != 1, result.isSuccess());
+        }
+        assertEquals(List.of("Pricing failed: No rate data available for fixed_30"),
+                objectMapper.readValue(lines[1], BatchQuoteResult.class).getErrors());
+    }
+    
+    private MortgageOption optionFor(MortgageInput input) {
+        MortgageOption option = new MortgageOption();
+        option.setMortgageType("score-" + input.getCreditScore());
+        return option;
+    }
+    
+    private MortgageInput createInput(int creditScore) {
+        MortgageInput input = new MortgageInput();
+        input.setCreditScore(creditScore);
+        input.setLoanValue(400000.0);
+        input.setState("CA");
+        input.setHomeType("Single Family");
+        input.setPropertyPrice(500000.0);
+        input.setDownPayment(100000.0);
+        input.setIncome(120000.0);
+        input.setPoints(0.0);
+        input.setAssetsUnderManagement(200000.0);
+        return input;
+    }
+}
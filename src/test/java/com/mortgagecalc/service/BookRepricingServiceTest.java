@@ -0,0 +1,155 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.RateTable;
+import com.mortgagecalc.utils.CsvUtility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class BookRepricingServiceTest {
+    
+    private static final String HEADER =
+            "loanId,creditScore,loanValue,downPayment,propertyPrice,income,state,homeType,points,"
+                    + "assetsUnderManagement,servicer\n";
+    
+    @Mock
+    private CsvUtility csvUtility;
+    
+    private RateCalculationService rateCalculationService;
+    private BookRepricingService repricingService;
+    
+    @BeforeEach
+    void setUp() {
+        PricingRuleService pricingRuleService = new PricingRuleService(new ClassPathResource("rules/pricing_rules.csv"));
+        pricingRuleService.init();
+        rateCalculationService = new RateCalculationService(csvUtility, pricingRuleService);
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        repricingService = new BookRepricingService(new ValidationService(validator), rateCalculationService, 2, 4);
+        
+        Map<String, RateTable> rateTables = new LinkedHashMap<>();
+        for (MortgageProduct product : MortgageProduct.values()) {
+            rateTables.put(product.getKey(), RateTable.of(
+                    new double[] {-1.0, -0.5, 0.0, 0.5, 1.0},
+                    new double[] {7.5, 7.2, 7.0, 6.8, 6.6}));
+        }
+        lenient().when(csvUtility.getSnapshot()).thenReturn(new RateSnapshot(1, Instant.now(), "test", rateTables));
+    }
+    
+    @Test
+    void testReprice_WritesEveryQuoteInOrder(@TempDir Path directory) throws IOException {
+        StringBuilder book = new StringBuilder(HEADER);
+        for (int row = 0; row < 23; row++) {
+            book.append(loan(row)).append('\n');
+        }
+        book.append("bad-score,seven,400000,100000,500000,150000,NY,Condo,0,0,\n");
+        book.append("\"LN, 25\",720,400000,100000,500000,150000,New York,Condo,0,0,\n");
+        Path input = Files.writeString(directory.resolve("book.csv"), book.toString());
+        Path output = directory.resolve("prices.csv");
+        
+        BookRepricingService.Summary summary = repricingService.reprice(input, output, false);
+        
+        assertEquals(25, summary.getRows());
+        assertEquals(2, summary.getFailedRows());
+        assertEquals(0, summary.getResumedRows());
+        assertEquals(23L * MortgageProduct.count(), summary.getQuotes());
+        assertFalse(Files.exists(BookRepricingService.checkpointFor(output)));
+        
+        List<String> lines = Files.readAllLines(output, StandardCharsets.UTF_8);
+        assertEquals(BookRepricingService.OUTPUT_HEADER.trim(), lines.get(0));
+        assertEquals(1 + 23 * MortgageProduct.count() + 2, lines.size());
+        
+        List<MortgageOption> options = rateCalculationService.calculateMortgageOptions(input(7));
+        for (int i = 0; i < options.size(); i++) {
+            MortgageOption option = options.get(i);
+            assertEquals("7,LN-7," + option.getMortgageType() + ",1," + option.getRate() + "," + option.getPoints()
+                    + "," + option.getApr() + "," + option.getMonthlyPayment() + ",",
+                    lines.get(1 + 7 * MortgageProduct.count() + i));
+        }
+        assertEquals("23,bad-score,,,,,,,creditScore: Malformed number seven", lines.get(lines.size() - 2));
+        assertEquals("24,\"LN, 25\",,,,,,,state: State must be a 2-letter code", lines.get(lines.size() - 1));
+    }
+    
+    @Test
+    void testReprice_ResumesFromCheckpoint(@TempDir Path directory) throws IOException {
+        StringBuilder book = new StringBuilder(HEADER);
+        for (int row = 0; row < 10; row++) {
+            book.append(loan(row)).append('\n');
+        }
+        Path input = Files.writeString(directory.resolve("book.csv"), book.toString());
+        Path output = directory.resolve("prices.csv");
+        repricingService.reprice(input, output, false);
+        String expected = Files.readString(output);
+        
+        // A run that died after finishing six rows, part way through writing the seventh.
+        int finished = 0;
+        for (int newlines = 0; newlines < 1 + 6 * MortgageProduct.count(); newlines++) {
+            finished = expected.indexOf('\n', finished) + 1;
+        }
+        Files.writeString(output, expected.substring(0, finished) + "6,LN-6,30-Year Fi");
+        new BookRepricingService.Checkpoint(6, finished).write(BookRepricingService.checkpointFor(output));
+        
+        BookRepricingService.Summary summary = repricingService.reprice(input, output, true);
+        
+        assertEquals(6, summary.getResumedRows());
+        assertEquals(4, summary.getRows());
+        assertEquals(4L * MortgageProduct.count(), summary.getQuotes());
+        assertEquals(expected, Files.readString(output));
+        assertFalse(Files.exists(BookRepricingService.checkpointFor(output)));
+    }
+    
+    @Test
+    void testReprice_RejectsCheckpointPastOutput(@TempDir Path directory) throws IOException {
+        Path input = Files.writeString(directory.resolve("book.csv"), HEADER + loan(0) + "\n");
+        Path output = Files.writeString(directory.resolve("prices.csv"), BookRepricingService.OUTPUT_HEADER);
+        new BookRepricingService.Checkpoint(1, 4096).write(BookRepricingService.checkpointFor(output));
+        
+        IOException e = assertThrows(IOException.class, () -> repricingService.reprice(input, output, true));
+        assertTrue(e.getMessage().endsWith("is shorter than its checkpoint; rerun without resume"));
+        
+        repricingService.reprice(input, output, false);
+        assertEquals(1 + MortgageProduct.count(), Files.readAllLines(output).size());
+    }
+    
+    private String loan(int row) {
+        return "LN-" + row + "," + (600 + row * 10) + "," + (300000 + row * 10000) + ",100000,"
+                + (400000 + row * 10000) + ",150000,NY,Condo," + (row % 3 - 1) * 0.5 + "," + row * 1000000.0
+                + ",acme";
+    }
+    
+    private MortgageInput input(int row) {
+        MortgageInput input = new MortgageInput();
+        input.setCreditScore(600 + row * 10);
+        input.setLoanValue(300000.0 + row * 10000);
+        input.setDownPayment(100000.0);
+        input.setPropertyPrice(400000.0 + row * 10000);
+        input.setIncome(150000.0);
+        input.setState("NY");
+        input.setHomeType("Condo");
+        input.setPoints((row % 3 - 1) * 0.5);
+        input.setAssetsUnderManagement(row * 1000000.0);
+        return input;
+    }
+}
@@ -0,0 +1,131 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.model.MortgageInput;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import jakarta.validation.metadata.PropertyDescriptor;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MortgageInputValidatorTest {
+    
+    private ValidationService reflective;
+    private LocalValidatorFactoryBean validator;
+    
+    @BeforeEach
+    void setUp() {
+        validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        reflective = new ValidationService(validator, false);
+    }
+    
+    @Test
+    void testConstraintErrors_ValidInputAllocatesNoList() {
+        assertSame(List.of(), MortgageInputValidator.constraintErrors(createValidInput()));
+    }
+    
+    @Test
+    void testConstraintErrors_EmptyInput() {
+        MortgageInput input = new MortgageInput();
+        
+        List<String> errors = MortgageInputValidator.constraintErrors(input);
+        
+        assertEquals(9, errors.size());
+        assertEquals("creditScore: Credit score is required", errors.get(0));
+        assertSameMessages(input);
+    }
+    
+    @Test
+    void testConstraintErrors_EdgeCasesMatchBeanValidation() {
+        List<Consumer<MortgageInput>> edits = List.of(
+                input -> input.setCreditScore(299),
+                input -> input.setCreditScore(300),
+                input -> input.setCreditScore(850),
+                input -> input.setCreditScore(851),
+                input -> input.setLoanValue(0.0),
+                input -> input.setLoanValue(-0.0),
+                input -> input.setLoanValue(Double.NaN),
+                input -> input.setLoanValue(Double.POSITIVE_INFINITY),
+                input -> input.setIncome(Double.NEGATIVE_INFINITY),
+                input -> input.setState(""),
+                input -> input.setState("  "),
+                input -> input.setState("\t"),
+                input -> input.setState("NYC"),
+                input -> input.setState(null),
+                input -> input.setHomeType(" \n"),
+                input -> input.setHomeType(" "),
+                input -> input.setPoints(null),
+                input -> input.setAssetsUnderManagement(null),
+                input -> input.setDownPayment(-1.0),
+                input -> input.setLockPeriodDays(0),
+                input -> input.setLockPeriodDays(-30),
+                input -> input.setLockPeriodDays(45));
+        
+        for (Consumer<MortgageInput> edit : edits) {
+            MortgageInput input = createValidInput();
+            edit.accept(input);
+            assertSameMessages(input);
+        }
+    }
+    
+    @Test
+    void testConstraintErrors_RandomInputsMatchBeanValidation() {
+        Random random = new Random(7);
+        Double[] amounts = {null, -5.0, -0.0, 0.0, 1.0, 250000.0, Double.NaN};
+        String[] codes = {null, "", " ", "CA", "ny", "NYC", "C"};
+        
+        for (int i = 0; i < 2000; i++) {
+            MortgageInput input = new MortgageInput();
+            input.setCreditScore(random.nextInt(8) == 0 ? null : 250 + random.nextInt(650));
+            input.setLoanValue(amounts[random.nextInt(amounts.length)]);
+            input.setState(codes[random.nextInt(codes.length)]);
+            input.setHomeType(codes[random.nextInt(codes.length)]);
+            input.setPropertyPrice(amounts[random.nextInt(amounts.length)]);
+            input.setDownPayment(amounts[random.nextInt(amounts.length)]);
+            input.setIncome(amounts[random.nextInt(amounts.length)]);
+            input.setPoints(amounts[random.nextInt(amounts.length)]);
+            input.setAssetsUnderManagement(amounts[random.nextInt(amounts.length)]);
+            input.setLockPeriodDays(random.nextInt(4) == 0 ? null : random.nextInt(121) - 30);
+            assertSameMessages(input);
+        }
+    }
+    
+    @Test
+    void testMortgageInputConstraints_Unchanged() {
+        int constraints = 0;
+        for (PropertyDescriptor property : validator.getConstraintsForClass(MortgageInput.class)
+                .getConstrainedProperties()) {
+            constraints += property.getConstraintDescriptors().size();
+        }
+        
+        assertEquals(17, constraints, "MortgageInput constraints changed; update MortgageInputValidator to match");
+    }
+    
+    private void assertSameMessages(MortgageInput input) {
+        List<String> fast = MortgageInputValidator.constraintErrors(input);
+        List<String> expected = reflective.constraintErrors(input);
+        
+        assertEquals(expected.size(), fast.size(), () -> "expected " + expected + " but was " + fast);
+        assertEquals(new HashSet<>(expected), new HashSet<>(fast));
+    }
+    
+    private MortgageInput createValidInput() {
+        MortgageInput input = new MortgageInput();
+        input.setCreditScore(750);
+        input.setLoanValue(400000.0);
+        input.setState("CA");
+        input.setHomeType("Single Family");
+        input.setPropertyPrice(500000.0);
+        input.setDownPayment(100000.0);
+        input.setIncome(120000.0);
+        input.setPoints(0.0);
+        input.setAssetsUnderManagement(200000.0);
+        return input;
+    }
+}
@@ -0,0 +1,107 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.PricingKernel;
+import com.mortgagecalc.pricing.QuoteResult;
+import com.mortgagecalc.pricing.RateGrid;
+import com.mortgagecalc.pricing.RateInterpolation;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.RateTable;
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.pricing.rules.RuleMatch;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OutcomeTableTest {
+    
+    private static final String[] STATES = {"NY", "CA", "TX"};
+    private static final String[] HOME_TYPES = {"Condo", "Single Family"};
+    
+    private CompiledRuleBook ruleBook;
+    private Map<String, RateTable> rateTables;
+    private RateGrid grid;
+    
+    @BeforeEach
+    void setUp() {
+        PricingRuleService pricingRuleService = new PricingRuleService(new ClassPathResource("rules/pricing_rules.csv"));
+        pricingRuleService.init();
+        ruleBook = pricingRuleService.getRuleBook();
+        
+        rateTables = new LinkedHashMap<>();
+        for (MortgageProduct product : MortgageProduct.values()) {
+            rateTables.put(product.getKey(), RateTable.of(
+                    new double[] {-1.0, -0.5, 0.0, 0.5, 1.0},
+                    new double[] {7.5, 7.2, 7.0, 6.8, 6.6}));
+        }
+        grid = RateGrid.of(new int[] {30, 30, 60, 60}, new double[] {80, 100, 80, 100},
+                new double[] {300, 300, 300, 300}, new double[] {0, 0, 0, 0}, new double[] {6.0, 6.5, 6.25, 6.75});
+    }
+    
+    @Test
+    void testGet_MatchesKernelPricing() {
+        PricingKernel kernel = PricingKernel.of(new RateSnapshot(2, Instant.now(), "test", rateTables,
+                Map.of("arm_7_1", grid)), ruleBook);
+        OutcomeTable table = OutcomeTable.build(kernel, 100000);
+        QuoteResult result = new QuoteResult();
+        Random random = new Random(3);
+        
+        assertTrue(table.isFor(kernel));
+        for (int q = 0; q < 2000; q++) {
+            double creditScore = 300 + random.nextInt(551);
+            double loanValue = 100000 + random.nextInt(20) * 50000;
+            double propertyPrice = loanValue + 50000 + random.nextInt(10) * 50000;
+            double assets = random.nextInt(4) * 5000000.0;
+            double points = random.nextInt(13) * 0.25 - 1.5;
+            int lockPeriodDays = random.nextInt(90);
+            RuleMatch quoteRules = kernel.matchQuote(creditScore, loanValue, propertyPrice, assets,
+                    STATES[random.nextInt(STATES.length)], HOME_TYPES[random.nextInt(HOME_TYPES.length)]);
+            long gridCells = kernel.locate(lockPeriodDays, creditScore, loanValue, propertyPrice);
+            
+            assertTrue(table.covers(quoteRules));
+            for (MortgageProduct product : MortgageProduct.values()) {
+                kernel.price(product, quoteRules, gridCells, loanValue, points, result, null);
+                QuoteCache.PricedOption priced = table.get(quoteRules, product,
+                        kernel.baseRow(product, gridCells, points));
+                
+                assertEquals(result.getRate(), priced.getRate());
+                assertEquals(result.getPoints(), priced.getPoints());
+                assertEquals(result.getApr(), priced.getApr());
+                assertEquals(result.getMonthlyPayment(), loanValue * priced.getPaymentPerDollar());
+                assertSame(result.getAppliedRules(), priced.getAppliedRuleMatch());
+                assertEquals(ruleBook.describe(result.getAppliedRules()),
+                        priced.getAppliedRules());
+            }
+        }
+    }
+    
+    @Test
+    void testBuild_InterpolatedSheetsAreNotTabulated() {
+        Map<String, RateTable> linear = new LinkedHashMap<>(rateTables);
+        linear.put("fixed_15", rateTables.get("fixed_15").withInterpolation(RateInterpolation.LINEAR));
+        
+        assertNull(OutcomeTable.build(PricingKernel.of(new RateSnapshot(2, Instant.now(), "test", linear), ruleBook),
+                100000));
+        assertNotNull(OutcomeTable.build(PricingKernel.of(new RateSnapshot(2, Instant.now(), "test", linear,
+                Map.of("fixed_15", grid)), ruleBook), 100000));
+    }
+    
+    @Test
+    void testBuild_OutcomeLimit() {
+        PricingKernel kernel = PricingKernel.of(new RateSnapshot(2, Instant.now(), "test", rateTables), ruleBook);
+        OutcomeTable table = OutcomeTable.build(kernel, 100000);
+        long outcomes = ((Number) table.stats().get("outcomes")).longValue();
+        
+        assertEquals(20, table.stats().get("rowsPerMatch"));
+        assertNotNull(OutcomeTable.build(kernel, outcomes));
+        assertNull(OutcomeTable.build(kernel, outcomes - 1));
+        assertNull(OutcomeTable.build(PricingKernel.of(RateSnapshot.EMPTY, ruleBook), 100000));
+    }
+}
@@ -0,0 +1,119 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.PricingKernel;
+import com.mortgagecalc.pricing.PricingStage;
+import com.mortgagecalc.pricing.QuoteResult;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.RateTable;
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.pricing.rules.PricingRule;
+import com.mortgagecalc.pricing.rules.RuleCondition;
+import com.mortgagecalc.pricing.rules.RuleMatch;
+import com.mortgagecalc.pricing.rules.RuleTarget;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingMetricsTest {
+    
+    private SimpleMeterRegistry registry;
+    private CompiledRuleBook ruleBook;
+    private PricingKernel kernel;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        PricingRuleService pricingRuleService = new PricingRuleService(new ClassPathResource("rules/pricing_rules.csv"));
+        pricingRuleService.init();
+        ruleBook = pricingRuleService.getRuleBook();
+        
+        Map<String, RateTable> rateTables = new LinkedHashMap<>();
+        for (MortgageProduct product : MortgageProduct.values()) {
+            rateTables.put(product.getKey(), RateTable.of(new double[] {0.0, 1.0}, new double[] {7.0, 6.6}));
+        }
+        kernel = PricingKernel.of(new RateSnapshot(1, Instant.now(), "test", rateTables), ruleBook);
+    }
+    
+    @Test
+    void testRecordQuote_CountsProductsAndRules() {
+        PricingMetrics metrics = new PricingMetrics(registry, 0);
+        RuleMatch quoteRules = kernel.matchQuote(750, 400000, 500000, 0, "NY", "Condo");
+        
+        metrics.recordQuote(quoteRules, ruleBook);
+        metrics.recordQuote(quoteRules, ruleBook);
+        
+        for (MortgageProduct product : MortgageProduct.values()) {
+            assertEquals(2.0, registry.get("mortgage.quotes").tag("product", product.getKey()).functionCounter()
+                    .count());
+        }
+        assertEquals(2, quoteRules.size());
+        for (int i = 0; i < quoteRules.size(); i++) {
+            String ruleId = ruleBook.rule(quoteRules.ruleId(i)).getId();
+            assertEquals(2.0 * MortgageProduct.count(), registry.get("mortgage.rules.applied").tag("rule", ruleId)
+                    .counter().count());
+        }
+        assertEquals(0.0, registry.get("mortgage.rules.applied").tag("rule", "HIGH_AUM").counter().count());
+    }
+    
+    @Test
+    void testRecordQuote_CountsRulesOnlyForProductsTheyApplyTo() {
+        PricingMetrics metrics = new PricingMetrics(registry, 0);
+        CompiledRuleBook armOnly = CompiledRuleBook.compile(List.of(
+                new PricingRule("ARM_ONLY", RuleTarget.RATE, 0.125, List.of(RuleCondition.parse("product=arm_5_1")),
+                        "5/1 ARM: +0.125% to rate"),
+                new PricingRule("NY", RuleTarget.POINTS, 0.25, List.of(RuleCondition.parse("state=NY")),
+                        "New York State: +0.25 points")));
+        
+        metrics.recordQuote(armOnly.matchQuote(750, 80, 400000, 0, "NY", "Condo"), armOnly);
+        
+        assertEquals(1.0, registry.get("mortgage.rules.applied").tag("rule", "ARM_ONLY").counter().count());
+        assertEquals(MortgageProduct.count(), registry.get("mortgage.rules.applied").tag("rule", "NY").counter()
+                .count());
+    }
+    
+    @Test
+    void testStageClock_SampledStagesRecorded() {
+        PricingMetrics metrics = new PricingMetrics(registry, 1);
+        long[] stageNanos = metrics.stageClock();
+        
+        kernel.price(MortgageProduct.FIXED_30, kernel.matchQuote(750, 600000, 750000, 0, "CA", "Condo"), 600000,
+                0.0, new QuoteResult(), stageNanos);
+        metrics.recordStages(stageNanos);
+        
+        for (PricingStage stage : PricingStage.values()) {
+            assertEquals(1, registry.get(PricingMetrics.STAGE_TIMER).tag("stage", stage.getTag()).functionTimer()
+                    .count());
+        }
+        assertEquals(stageNanos[PricingStage.APR.ordinal()], registry.get(PricingMetrics.STAGE_TIMER)
+                .tag("stage", "apr").functionTimer().totalTime(TimeUnit.NANOSECONDS));
+    }
+    
+    @Test
+    void testStageClock_DisabledNeverSamples() {
+        PricingMetrics metrics = new PricingMetrics(registry, 0);
+        
+        assertNull(metrics.stageClock());
+        metrics.recordStages(null);
+        assertEquals(0, registry.get(PricingMetrics.STAGE_TIMER).tag("stage", "apr").functionTimer().count());
+    }
+    
+    @Test
+    void testRecordValidation() {
+        PricingMetrics metrics = new PricingMetrics(registry, 0);
+        
+        metrics.recordValidation(1500);
+        
+        assertEquals(1500.0, registry.get(PricingMetrics.STAGE_TIMER).tag("stage", "validation").functionTimer()
+                .totalTime(TimeUnit.NANOSECONDS));
+    }
+}
@@ -0,0 +1,42 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.pricing.RateSheetException;
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PricingRuleServiceTest {
+    
+    @Test
+    void testInit_LoadsDefaultRuleBook() {
+        PricingRuleService service = new PricingRuleService(new ClassPathResource("rules/pricing_rules.csv"));
+        
+        service.init();
+        
+        CompiledRuleBook ruleBook = service.getRuleBook();
+        assertEquals(3, ruleBook.ruleCount());
+        assertEquals("SMALL_LOAN", ruleBook.rule(0).getId());
+        assertEquals("NEW_YORK", ruleBook.rule(2).getId());
+        String digest = service.getContentDigest();
+        
+        service.reload();
+        assertEquals(digest, service.getContentDigest());
+        assertNotEquals(new PricingRuleService(new ByteArrayResource(new byte[0])).getContentDigest(), digest);
+    }
+    
+    @Test
+    void testReload_InvalidRuleKeepsCurrentBook() {
+        PricingRuleService service = new PricingRuleService(new ByteArrayResource(
+                "id,target,adjustment,conditions,description\nBAD,RATE,1.0,income>5,Bad\n".getBytes(StandardCharsets.UTF_8)));
+        
+        assertThrows(RateSheetException.class, service::reload);
+        assertSame(CompiledRuleBook.EMPTY, service.getRuleBook());
+        assertEquals(new PricingRuleService(new ByteArrayResource(new byte[0])).getContentDigest(),
+                service.getContentDigest());
+    }
+}
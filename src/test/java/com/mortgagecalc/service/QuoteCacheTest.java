@@ -0,0 +1,67 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.rules.CompiledRuleBook;
+import com.mortgagecalc.utils.CsvUtility;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuoteCacheTest {
+    
+    private static final List<QuoteCache.PricedOption> PRICED = List.of(
+            new QuoteCache.PricedOption(MortgageProduct.FIXED_30, 1, 7.0, 0.0, 7.0, 0.0066, null, List.of()));
+    
+    @Test
+    void testGet_HitOnEqualKey() {
+        QuoteCache quoteCache = new QuoteCache(100, Duration.ofMinutes(10));
+        AtomicInteger pricings = new AtomicInteger();
+        
+        get(quoteCache, new QuoteCache.Key(1, CompiledRuleBook.EMPTY, 4, 0.0), pricings);
+        get(quoteCache, new QuoteCache.Key(1, CompiledRuleBook.EMPTY, 4, -0.0), pricings);
+        get(quoteCache, new QuoteCache.Key(1, CompiledRuleBook.EMPTY, 4, 0.5), pricings);
+        get(quoteCache, new QuoteCache.Key(1, CompiledRuleBook.compile(List.of()), 4, 0.0), pricings);
+        
+        assertEquals(3, pricings.get());
+        assertEquals(1L, quoteCache.stats().get("hits"));
+    }
+    
+    @Test
+    void testSnapshotListener_InvalidatesOnReload() {
+        CsvUtility csvUtility = new CsvUtility();
+        QuoteCache quoteCache = new QuoteCache(csvUtility, 100, Duration.ofMinutes(10));
+        AtomicInteger pricings = new AtomicInteger();
+        QuoteCache.Key key = new QuoteCache.Key(1, CompiledRuleBook.EMPTY, 0, 0.0);
+        
+        get(quoteCache, key, pricings);
+        csvUtility.reload();
+        get(quoteCache, key, pricings);
+        
+        assertEquals(2, pricings.get());
+    }
+    
+    @Test
+    void testDisabled_AlwaysPrices() {
+        QuoteCache quoteCache = QuoteCache.disabled();
+        AtomicInteger pricings = new AtomicInteger();
+        QuoteCache.Key key = new QuoteCache.Key(1, CompiledRuleBook.EMPTY, 0, 0.0);
+        
+        get(quoteCache, key, pricings);
+        get(quoteCache, key, pricings);
+        
+        assertEquals(2, pricings.get());
+        assertFalse(quoteCache.isEnabled());
+        assertEquals(false, quoteCache.stats().get("enabled"));
+    }
+    
+    private static void get(QuoteCache quoteCache, QuoteCache.Key key, AtomicInteger pricings) {
+        if (quoteCache.getIfPresent(key) == null) {
+            pricings.incrementAndGet();
+            quoteCache.put(key, PRICED);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.pricing.UnknownRateSnapshotException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteCoalescerTest {
+    
+    @Mock
+    private RateCalculationService rateCalculationService;
+    
+    @Test
+    void testCalculate_IdenticalConcurrentRequestsShareOneComputation() throws Exception {
+        QuoteCoalescer coalescer = new QuoteCoalescer(rateCalculationService, 8);
+        List<MortgageOption> options = List.of(new MortgageOption());
+        CountDownLatch release = new CountDownLatch(1);
+        when(rateCalculationService.calculateMortgageOptions(any(MortgageInput.class))).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            return options;
+        });
+        
+        List<Future<List<MortgageOption>>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            for (int i = 0; i < 4; i++) {
+                // Income and down payment do not affect pricing, so they do not split the key.
+                MortgageInput input = input(0.0);
+                input.setIncome(100000.0 + i);
+                results.add(executor.submit(() -> coalescer.calculate(input)));
+            }
+            awaitCoalesced(coalescer, 3);
+            release.countDown();
+            for (Future<List<MortgageOption>> result : results) {
+                assertSame(options, result.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        verify(rateCalculationService, times(1)).calculateMortgageOptions(any(MortgageInput.class));
+        assertEquals(1, coalescer.getComputedCount());
+        assertEquals(3, coalescer.getCoalescedCount());
+        assertEquals(0, coalescer.getInFlight());
+    }
+    
+    @Test
+    void testCalculate_DifferentKeysAndLaterRequestsPriceSeparately() {
+        QuoteCoalescer coalescer = new QuoteCoalescer(rateCalculationService, 8);
+        when(rateCalculationService.calculateMortgageOptions(any(MortgageInput.class)))
+                .thenAnswer(invocation -> List.of(new MortgageOption()));
+        
+        List<MortgageOption> first = coalescer.calculate(input(0.0));
+        List<MortgageOption> second = coalescer.calculate(input(0.0));
+        coalescer.calculate(input(0.5));
+        
+        assertNotSame(first, second);
+        verify(rateCalculationService, times(3)).calculateMortgageOptions(any(MortgageInput.class));
+        assertEquals(3, coalescer.getComputedCount());
+        assertEquals(0, coalescer.getCoalescedCount());
+    }
+    
+    @Test
+    void testCalculate_FailureReachesEveryWaiter() throws Exception {
+        QuoteCoalescer coalescer = new QuoteCoalescer(rateCalculationService, 1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(rateCalculationService.calculateMortgageOptions(any(MortgageInput.class))).thenAnswer(invocation -> {
+            release.await(10, TimeUnit.SECONDS);
+            throw new UnknownRateSnapshotException(7L);
+        });
+        
+        List<Future<List<MortgageOption>>> results = new ArrayList<>();
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> coalescer.calculate(input(0.0))));
+            }
+            awaitCoalesced(coalescer, 2);
+            release.countDown();
+            for (Future<List<MortgageOption>> result : results) {
+                Exception e = assertThrows(Exception.class, () -> result.get(10, TimeUnit.SECONDS));
+                assertInstanceOf(UnknownRateSnapshotException.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertEquals(0, coalescer.getInFlight());
+        verify(rateCalculationService, times(1)).calculateMortgageOptions(any(MortgageInput.class));
+    }
+    
+    @Test
+    void testDisabled_PassesThroughWithoutMeters() {
+        QuoteCoalescer coalescer = QuoteCoalescer.disabled(rateCalculationService);
+        List<MortgageOption> options = List.of(new MortgageOption());
+        when(rateCalculationService.calculateMortgageOptions(any(MortgageInput.class))).thenReturn(options);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+        
+        assertSame(options, coalescer.calculate(input(0.0)));
+        
+        assertFalse(coalescer.isEnabled());
+        assertEquals(0, coalescer.getComputedCount());
+        assertTrue(registry.getMeters().isEmpty());
+        assertEquals(false, coalescer.stats().get("enabled"));
+    }
+    
+    @Test
+    void testBindTo_CountsByResult() {
+        QuoteCoalescer coalescer = new QuoteCoalescer(rateCalculationService, 3);
+        when(rateCalculationService.calculateMortgageOptions(any(MortgageInput.class)))
+                .thenReturn(List.of(new MortgageOption()));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        coalescer.bindTo(registry);
+        
+        coalescer.calculate(input(0.0));
+        
+        assertEquals(1.0, registry.get("mortgage.quotes.coalescer").tag("result", "computed").functionCounter()
+                .count());
+        assertEquals(0.0, registry.get("mortgage.quotes.coalescer").tag("result", "coalesced").functionCounter()
+                .count());
+        assertEquals(4, coalescer.stats().get("stripes"));
+    }
+    
+    private void awaitCoalesced(QuoteCoalescer coalescer, long waiters) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (coalescer.getCoalescedCount() < waiters) {
+            assertTrue(System.nanoTime() < deadline, "Requests did not join the in-flight quote");
+            Thread.sleep(1);
+        }
+    }
+    
+    private MortgageInput input(double points) {
+        MortgageInput input = new MortgageInput();
+        input.setCreditScore(740);
+        input.setLoanValue(400000.0);
+        input.setDownPayment(100000.0);
+        input.setPropertyPrice(500000.0);
+        input.setIncome(150000.0);
+        input.setState("NY");
+        input.setHomeType("Condo");
+        input.setPoints(points);
+        input.setAssetsUnderManagement(0.0);
+        return input;
+    }
+}
@@ -0,0 +1,156 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.pricing.ArmTerms;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.RateTable;
+import com.mortgagecalc.pricing.UnknownRateSnapshotException;
+import com.mortgagecalc.utils.CsvUtility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class QuoteETagServiceTest {
+    
+    @Mock
+    private CsvUtility csvUtility;
+    
+    @Mock
+    private PricingRuleService pricingRuleService;
+    
+    private QuoteETagService quoteETags;
+    
+    @BeforeEach
+    void setUp() {
+        quoteETags = new QuoteETagService(csvUtility, pricingRuleService);
+        lenient().when(csvUtility.getSnapshot()).thenReturn(snapshot(5, 6.5));
+        lenient().when(pricingRuleService.getContentDigest()).thenReturn("rules-a");
+    }
+    
+    @Test
+    void testETag_StableForTheSamePricingInput() {
+        String eTag = quoteETags.eTag(input(), "application/json");
+        
+        MortgageInput unpriced = input();
+        unpriced.setIncome(999999.0);
+        unpriced.setDownPayment(1.0);
+        MortgageInput negativeZero = input();
+        negativeZero.setPoints(-0.0);
+        
+        assertTrue(eTag.matches("\"[A-Za-z0-9_-]{22}\""), eTag);
+        assertEquals(eTag, quoteETags.eTag(input(), "application/json"));
+        assertEquals(eTag, quoteETags.eTag(unpriced, "application/json"));
+        assertEquals(eTag, quoteETags.eTag(negativeZero, "application/json"));
+    }
+    
+    @Test
+    void testETag_ChangesWithInputRepresentationAndContent() {
+        String eTag = quoteETags.eTag(input(), "application/json");
+        
+        MortgageInput points = input();
+        points.setPoints(0.5);
+        MortgageInput lock = input();
+        lock.setLockPeriodDays(45);
+        
+        assertNotEquals(eTag, quoteETags.eTag(points, "application/json"));
+        assertNotEquals(eTag, quoteETags.eTag(lock, "application/json"));
+        assertNotEquals(eTag, quoteETags.eTag(input(), "application/cbor"));
+        
+        when(csvUtility.getSnapshot()).thenReturn(snapshot(6, 6.625));
+        String repriced = quoteETags.eTag(input(), "application/json");
+        assertNotEquals(eTag, repriced);
+        
+        when(pricingRuleService.getContentDigest()).thenReturn("rules-b");
+        assertNotEquals(repriced, quoteETags.eTag(input(), "application/json"));
+    }
+    
+    @Test
+    void testETag_ChangesWithSnapshotVersionAndArmTerms() {
+        String eTag = quoteETags.eTag(input(), "application/json");
+        
+        // Bodies carry rateSnapshotId, so a reload of identical sheets still changes them.
+        when(csvUtility.getSnapshot()).thenReturn(snapshot(6, 6.5));
+        assertNotEquals(eTag, quoteETags.eTag(input(), "application/json"));
+        
+        // A restarted process may number different sheets the same.
+        when(csvUtility.getSnapshot()).thenReturn(snapshot(5, 6.75));
+        assertNotEquals(eTag, quoteETags.eTag(input(), "application/json"));
+        
+        when(csvUtility.getSnapshot()).thenReturn(snapshot(5, 6.5));
+        QuoteETagService resetting = new QuoteETagService(csvUtility, pricingRuleService,
+                new ArmTerms(new double[] {4.5}, 2.75, 2.0, 2.0, 5.0), Duration.ZERO);
+        assertEquals(eTag, quoteETags.eTag(input(), "application/json"));
+        assertNotEquals(eTag, resetting.eTag(input(), "application/json"));
+    }
+    
+    @Test
+    void testETag_PinnedSnapshotIgnoresCurrentSnapshot() {
+        MortgageInput pinned = input();
+        pinned.setRateSnapshotId(4L);
+        when(csvUtility.getSnapshot(4L)).thenReturn(snapshot(4, 6.625));
+        
+        String eTag = quoteETags.eTag(pinned, null);
+        
+        assertNotEquals(quoteETags.eTag(input(), null), eTag);
+        when(csvUtility.getSnapshot()).thenReturn(snapshot(4, 6.625));
+        assertEquals(quoteETags.eTag(input(), null), eTag);
+    }
+    
+    @Test
+    void testETag_EvictedPinIsNotTagged() {
+        MortgageInput pinned = input();
+        pinned.setRateSnapshotId(4L);
+        when(csvUtility.getSnapshot(4L)).thenThrow(new UnknownRateSnapshotException(4));
+        
+        assertThrows(UnknownRateSnapshotException.class, () -> quoteETags.eTag(pinned, null));
+    }
+    
+    @Test
+    void testMatches_WeakComparisonAndWildcard() {
+        String eTag = "\"5-2-abc\"";
+        
+        assertTrue(QuoteETagService.matches(List.of("\"4-2-abc\"", eTag), eTag));
+        assertTrue(QuoteETagService.matches(List.of("W/\"5-2-abc\""), eTag));
+        assertTrue(QuoteETagService.matches(List.of("*"), eTag));
+        assertFalse(QuoteETagService.matches(List.of("\"5-2-abd\""), eTag));
+        assertFalse(QuoteETagService.matches(List.of(), eTag));
+    }
+    
+    @Test
+    void testCacheControl_MaxAge() {
+        assertEquals("no-cache", quoteETags.getCacheControl().getHeaderValue());
+        assertEquals("max-age=30", new QuoteETagService(csvUtility, pricingRuleService, Duration.ofSeconds(30))
+                .getCacheControl().getHeaderValue());
+    }
+    
+    private RateSnapshot snapshot(long version, double rate) {
+        return new RateSnapshot(version, Instant.now(), "test",
+                Map.of("fixed_30", RateTable.of(new double[] {0.0}, new double[] {rate})));
+    }
+    
+    private MortgageInput input() {
+        MortgageInput input = new MortgageInput();
+        input.setCreditScore(740);
+        input.setLoanValue(400000.0);
+        input.setDownPayment(100000.0);
+        input.setPropertyPrice(500000.0);
+        input.setIncome(150000.0);
+        input.setState("NY");
+        input.setHomeType("Condo");
+        input.setPoints(0.0);
+        input.setAssetsUnderManagement(0.0);
+        return input;
+    }
+}
@@ -2,19 +2,26 @@ package com.mortgagecalc.service;
 
 import com.mortgagecalc.model.MortgageInput;
 import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.pricing.PricingKernel;
+import com.mortgagecalc.pricing.RateGrid;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.RateTable;
 import com.mortgagecalc.utils.CsvUtility;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
 
-import java.util.ArrayList;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.anyDouble;
-import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -23,16 +30,16 @@ class RateCalculationServiceTest {
     @Mock
     private CsvUtility csvUtility;
     
+    private PricingRuleService pricingRuleService;
     private RateCalculationService rateCalculationService;
     
     @BeforeEach
     void setUp() {
-        rateCalculationService = new RateCalculationService(csvUtility);
+        pricingRuleService = new PricingRuleService(new ClassPathResource("rules/pricing_rules.csv"));
+        pricingRuleService.init();
+        rateCalculationService = new RateCalculationService(csvUtility, pricingRuleService);
         
-        setupMockRatePoints("fixed_30");
-        setupMockRatePoints("fixed_15");
-        setupMockRatePoints("arm_5_1");
-        setupMockRatePoints("arm_7_1");
+        setupMockRateSnapshot("fixed_30", "fixed_15", "arm_5_1", "arm_7_1");
     }
     
     @Test
@@ -120,15 +127,182 @@ class RateCalculationServiceTest {
         }
     }
     
-    private void setupMockRatePoints(String mortgageType) {
-        List<CsvUtility.RatePoint> ratePoints = new ArrayList<>();
-        ratePoints.add(new CsvUtility.RatePoint(-1.0, 7.5));
-        ratePoints.add(new CsvUtility.RatePoint(-0.5, 7.2));
-        ratePoints.add(new CsvUtility.RatePoint(0.0, 7.0));
-        ratePoints.add(new CsvUtility.RatePoint(0.5, 6.8));
-        ratePoints.add(new CsvUtility.RatePoint(1.0, 6.6));
+    @Test
+    void testCalculateMortgageOptions_NearestPointsRow() {
+        MortgageInput input = createStandardInput();
+        input.setPoints(0.3);
+        
+        List<MortgageOption> options = rateCalculationService.calculateMortgageOptions(input);
+        
+        for (MortgageOption option : options) {
+            assertEquals(6.8, option.getRate());
+            assertEquals(0.5, option.getPoints());
+        }
+    }
+    
+    @Test
+    void testCalculateMortgageOptions_StampsSnapshotVersion() {
+        List<MortgageOption> options = rateCalculationService.calculateMortgageOptions(createStandardInput());
+        
+        for (MortgageOption option : options) {
+            assertEquals(1, option.getRateSnapshotId());
+        }
+    }
+    
+    @Test
+    void testCalculateMortgageOptions_PinnedSnapshot() {
+        RateSnapshot pinned = new RateSnapshot(3, Instant.now(), "test", Map.of(
+                "fixed_30", RateTable.of(new double[] {0.0}, new double[] {5.0}),
+                "fixed_15", RateTable.of(new double[] {0.0}, new double[] {4.5}),
+                "arm_5_1", RateTable.of(new double[] {0.0}, new double[] {4.0}),
+                "arm_7_1", RateTable.of(new double[] {0.0}, new double[] {4.25})));
+        when(csvUtility.getSnapshot(3)).thenReturn(pinned);
+        MortgageInput input = createStandardInput();
+        input.setRateSnapshotId(3L);
+        
+        List<MortgageOption> options = rateCalculationService.calculateMortgageOptions(input);
+        
+        assertEquals(5.0, options.get(0).getRate());
+        assertEquals(4.5, options.get(1).getRate());
+        assertEquals(3, options.get(0).getRateSnapshotId());
+    }
+    
+    @Test
+    void testCalculateMortgageOptions_CachedAcrossLoanValues() {
+        QuoteCache quoteCache = new QuoteCache(100, Duration.ofMinutes(10));
+        RateCalculationService cached = new RateCalculationService(csvUtility, pricingRuleService, quoteCache);
+        MortgageInput larger = createStandardInput();
+        larger.setLoanValue(650000.0);
+        larger.setPropertyPrice(800000.0);
+        
+        List<MortgageOption> first = cached.calculateMortgageOptions(createStandardInput());
+        List<MortgageOption> second = cached.calculateMortgageOptions(larger);
+        List<MortgageOption> expected = rateCalculationService.calculateMortgageOptions(larger);
+        
+        assertEquals(1L, quoteCache.stats().get("hits"));
+        assertEquals(1L, quoteCache.stats().get("misses"));
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getRate(), second.get(i).getRate());
+            assertEquals(expected.get(i).getApr(), second.get(i).getApr());
+            assertEquals(expected.get(i).getMonthlyPayment(), second.get(i).getMonthlyPayment());
+            assertEquals(expected.get(i).getAppliedRules(), second.get(i).getAppliedRules());
+            assertNotEquals(first.get(i).getMonthlyPayment(), second.get(i).getMonthlyPayment());
+        }
+    }
+    
+    @Test
+    void testCalculateMortgageOptions_CacheMissesOnNewBucketOrSnapshot() {
+        QuoteCache quoteCache = new QuoteCache(100, Duration.ofMinutes(10));
+        RateCalculationService cached = new RateCalculationService(csvUtility, pricingRuleService, quoteCache);
+        MortgageInput newYork = createStandardInput();
+        newYork.setState("NY");
+        
+        cached.calculateMortgageOptions(createStandardInput());
+        cached.calculateMortgageOptions(newYork);
+        RateTable reloaded = RateTable.of(new double[] {0.0}, new double[] {6.5});
+        when(csvUtility.getSnapshot()).thenReturn(new RateSnapshot(2, Instant.now(), "test", Map.of(
+                "fixed_30", reloaded, "fixed_15", reloaded, "arm_5_1", reloaded, "arm_7_1", reloaded)));
+        List<MortgageOption> options = cached.calculateMortgageOptions(createStandardInput());
+        
+        assertEquals(0L, quoteCache.stats().get("hits"));
+        assertEquals(3L, quoteCache.stats().get("misses"));
+        assertEquals(6.5, options.get(0).getRate());
+        assertEquals(2, options.get(0).getRateSnapshotId());
+    }
+    
+    @Test
+    void testCalculateMortgageOptions_RateGridLockPeriod() {
+        QuoteCache quoteCache = new QuoteCache(100, Duration.ofMinutes(10));
+        RateCalculationService cached = new RateCalculationService(csvUtility, pricingRuleService, quoteCache);
+        Map<String, RateTable> rateTables = new LinkedHashMap<>();
+        RateTable rateTable = RateTable.of(new double[] {0.0}, new double[] {7.0});
+        for (String mortgageType : List.of("fixed_30", "fixed_15", "arm_5_1", "arm_7_1")) {
+            rateTables.put(mortgageType, rateTable);
+        }
+        RateGrid grid = RateGrid.of(new int[] {30, 60}, new double[] {100, 100}, new double[] {300, 300},
+                new double[] {0, 0}, new double[] {6.0, 6.25});
+        when(csvUtility.getSnapshot()).thenReturn(new RateSnapshot(4, Instant.now(), "test", rateTables,
+                Map.of("fixed_30", grid)));
+        MortgageInput longLock = createStandardInput();
+        longLock.setLockPeriodDays(45);
+        
+        List<MortgageOption> shortOptions = cached.calculateMortgageOptions(createStandardInput());
+        List<MortgageOption> longOptions = cached.calculateMortgageOptions(longLock);
+        
+        assertEquals(0L, quoteCache.stats().get("hits"));
+        assertEquals(2L, quoteCache.stats().get("misses"));
+        assertEquals(shortOptions.get(0).getRate() + 0.25, longOptions.get(0).getRate(), 1e-12);
+        assertEquals(shortOptions.get(1).getRate(), longOptions.get(1).getRate());
+        assertEquals(rateCalculationService.calculateMortgageOptions(longLock).get(0).getRate(),
+                longOptions.get(0).getRate());
+    }
+    
+    @Test
+    void testCalculateMortgageOptions_ServedFromOutcomeTable() throws InterruptedException {
+        OutcomeTableService outcomeTables = new OutcomeTableService(true, 100000);
+        RateCalculationService tabulated = new RateCalculationService(csvUtility, pricingRuleService,
+                QuoteCache.disabled(), PricingMetrics.disabled(), outcomeTables);
+        MortgageInput input = createStandardInput();
+        
+        List<MortgageOption> first = tabulated.calculateMortgageOptions(input);
+        long deadline = System.nanoTime() + 10_000_000_000L;
+        while (!outcomeTables.stats().containsKey("outcomes") && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        input.setPoints(0.3);
+        List<MortgageOption> second = tabulated.calculateMortgageOptions(input);
+        List<MortgageOption> expected = rateCalculationService.calculateMortgageOptions(input);
+        outcomeTables.shutdown();
+        
+        assertEquals(1L, outcomeTables.stats().get("rateSnapshotId"));
+        assertEquals(4, first.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).getMortgageType(), second.get(i).getMortgageType());
+            assertEquals(expected.get(i).getRate(), second.get(i).getRate());
+            assertEquals(expected.get(i).getPoints(), second.get(i).getPoints());
+            assertEquals(expected.get(i).getApr(), second.get(i).getApr());
+            assertEquals(expected.get(i).getMonthlyPayment(), second.get(i).getMonthlyPayment());
+            assertEquals(expected.get(i).getAppliedRules(), second.get(i).getAppliedRules());
+        }
+    }
+    
+    @Test
+    void testGetKernel_RebuiltOnlyWhenSnapshotChanges() {
+        PricingKernel first = rateCalculationService.getKernel();
+        assertSame(first, rateCalculationService.getKernel());
+        
+        setupMockRateSnapshot("fixed_30", "fixed_15", "arm_5_1", "arm_7_1");
+        
+        assertNotSame(first, rateCalculationService.getKernel());
+    }
+    
+    @Test
+    void testGetKernel_PinnedSnapshotKeepsItsKernel() {
+        RateSnapshot pinned = new RateSnapshot(3, Instant.now(), "test", Map.of(
+                "fixed_30", RateTable.of(new double[] {0.0}, new double[] {5.0})));
+        when(csvUtility.getSnapshot(3)).thenReturn(pinned);
+        
+        PricingKernel first = rateCalculationService.getKernel(3L);
+        
+        assertSame(pinned, first.getSnapshot());
+        assertSame(first, rateCalculationService.getKernel(3L));
+        assertNotSame(first, rateCalculationService.getKernel());
+        
+        pricingRuleService.reload();
+        PricingKernel rebuilt = rateCalculationService.getKernel(3L);
+        assertNotSame(first, rebuilt);
+        assertSame(pricingRuleService.getRuleBook(), rebuilt.getRuleBook());
+    }
+    
+    private void setupMockRateSnapshot(String... mortgageTypes) {
+        Map<String, RateTable> rateTables = new LinkedHashMap<>();
+        for (String mortgageType : mortgageTypes) {
+            rateTables.put(mortgageType, RateTable.of(
+                    new double[] {-1.0, -0.5, 0.0, 0.5, 1.0},
+                    new double[] {7.5, 7.2, 7.0, 6.8, 6.6}));
+        }
         
-        when(csvUtility.getRatePoints(eq(mortgageType))).thenReturn(ratePoints);
+        lenient().when(csvUtility.getSnapshot()).thenReturn(new RateSnapshot(1, Instant.now(), "test", rateTables));
     }
     
     private MortgageInput createStandardInput() {
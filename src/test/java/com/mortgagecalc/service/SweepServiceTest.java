@@ -0,0 +1,177 @@
+package com.mortgagecalc.service;
+
+import com.mortgagecalc.model.MortgageInput;
+import com.mortgagecalc.model.MortgageOption;
+import com.mortgagecalc.model.SweepRange;
+import com.mortgagecalc.model.SweepRequest;
+import com.mortgagecalc.model.SweepResult;
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.RateTable;
+import com.mortgagecalc.utils.CsvUtility;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.lenient;
+
+@ExtendWith(MockitoExtension.class)
+class SweepServiceTest {
+    
+    @Mock
+    private CsvUtility csvUtility;
+    
+    private RateCalculationService rateCalculationService;
+    private SweepService sweepService;
+    
+    @BeforeEach
+    void setUp() {
+        PricingRuleService pricingRuleService = new PricingRuleService(new ClassPathResource("rules/pricing_rules.csv"));
+        pricingRuleService.init();
+        rateCalculationService = new RateCalculationService(csvUtility, pricingRuleService);
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        sweepService = new SweepService(rateCalculationService, validator, 5000);
+        
+        Map<String, RateTable> rateTables = new LinkedHashMap<>();
+        for (MortgageProduct product : MortgageProduct.values()) {
+            rateTables.put(product.getKey(), RateTable.of(
+                    new double[] {-1.0, -0.5, 0.0, 0.5, 1.0},
+                    new double[] {7.5, 7.2, 7.0, 6.8, 6.6}));
+        }
+        lenient().when(csvUtility.getSnapshot()).thenReturn(new RateSnapshot(1, Instant.now(), "test", rateTables));
+    }
+    
+    @Test
+    void testSweep_MatchesSingleQuotes() {
+        SweepRequest request = createRequest();
+        request.setPoints(new SweepRange(-1, 1, 0.02));
+        
+        assertEquals(List.of(), sweepService.collectErrors(request));
+        SweepResult result = sweepService.sweep(request);
+        
+        assertEquals(SweepService.AXIS_ORDER, result.getAxisOrder());
+        assertEquals(1, result.getRateSnapshotId());
+        assertEquals(3 * 4 * 2 * 101, result.getCells());
+        assertTrue(result.getCells() > SweepService.LEAF_CELLS);
+        
+        double[] creditScores = result.getAxes().get("creditScore");
+        double[] loanValues = result.getAxes().get("loanValue");
+        double[] downPayments = result.getAxes().get("downPayment");
+        double[] points = result.getAxes().get("points");
+        int cell = 0;
+        for (double creditScore : creditScores) {
+            for (double loanValue : loanValues) {
+                for (double downPayment : downPayments) {
+                    for (double point : points) {
+                        MortgageInput input = new MortgageInput();
+                        input.setCreditScore((int) creditScore);
+                        input.setLoanValue(loanValue);
+                        input.setDownPayment(downPayment);
+                        input.setPropertyPrice(loanValue + downPayment);
+                        input.setPoints(point);
+                        input.setState("NY");
+                        input.setHomeType("Condo");
+                        input.setAssetsUnderManagement(5000000.0);
+                        
+                        List<MortgageOption> options = rateCalculationService.calculateMortgageOptions(input);
+                        for (MortgageProduct product : MortgageProduct.values()) {
+                            MortgageOption expected = options.get(product.ordinal());
+                            SweepResult.Columns columns = result.getProducts().get(product.getKey());
+                            assertEquals(expected.getRate(), columns.getRate()[cell]);
+                            assertEquals(expected.getPoints(), columns.getPoints()[cell]);
+                            assertEquals(expected.getApr(), columns.getApr()[cell]);
+                            assertEquals(expected.getMonthlyPayment(), columns.getMonthlyPayment()[cell]);
+                        }
+                        cell++;
+                    }
+                }
+            }
+        }
+    }
+    
+    @Test
+    void testSweep_SingleValueRanges() {
+        SweepRequest request = createRequest();
+        request.setCreditScore(new SweepRange());
+        request.getCreditScore().setFrom(720.0);
+        request.setPoints(new SweepRange(0.5, 0.5, 0.25));
+        
+        SweepResult result = sweepService.sweep(request);
+        
+        assertArrayEquals(new double[] {720.0}, result.getAxes().get("creditScore"));
+        assertArrayEquals(new double[] {0.5}, result.getAxes().get("points"));
+        assertEquals(4 * 2, result.getCells());
+    }
+    
+    @Test
+    void testCollectErrors_MissingFields() {
+        List<String> errors = sweepService.collectErrors(new SweepRequest());
+        
+        assertTrue(errors.contains("state: State is required"));
+        assertTrue(errors.contains("points: Points range is required"));
+        assertTrue(errors.contains("creditScore: Credit score range is required"));
+    }
+    
+    @Test
+    void testCollectErrors_MalformedRanges() {
+        SweepRequest request = createRequest();
+        request.setLoanValue(new SweepRange(600000, 500000, 1000));
+        request.getPoints().setStep(null);
+        request.getCreditScore().setStep(-1.0);
+        
+        List<String> errors = sweepService.collectErrors(request);
+        
+        assertEquals(List.of("creditScore.step: Step must be positive"), errors);
+        
+        request.getCreditScore().setStep(50.0);
+        errors = sweepService.collectErrors(request);
+        
+        assertEquals(List.of("loanValue: Range end must not be before its start",
+                "points: Step is required when the range spans more than one value"), errors);
+    }
+    
+    @Test
+    void testCollectErrors_OutOfBoundsValues() {
+        SweepRequest request = createRequest();
+        request.setCreditScore(new SweepRange(800, 900, 50));
+        request.getDownPayment().setFrom(0.0);
+        
+        assertEquals(List.of("creditScore: Credit scores must be whole numbers from 300 to 850",
+                "downPayment: Down payment must be positive"), sweepService.collectErrors(request));
+    }
+    
+    @Test
+    void testCollectErrors_CellLimit() {
+        SweepRequest request = createRequest();
+        request.setPoints(new SweepRange(-1, 1, 0.001));
+        
+        assertEquals(List.of("Sweep of 48024 cells exceeds the limit of 5000"), sweepService.collectErrors(request));
+        
+        request.setPoints(new SweepRange(0, 1e18, 1e-3));
+        
+        assertEquals(List.of("Sweep of too many cells exceeds the limit of 5000"), sweepService.collectErrors(request));
+    }
+    
+    private SweepRequest createRequest() {
+        SweepRequest request = new SweepRequest();
+        request.setState("NY");
+        request.setHomeType("Condo");
+        request.setAssetsUnderManagement(5000000.0);
+        request.setCreditScore(new SweepRange(650, 750, 50));
+        request.setLoanValue(new SweepRange(400000, 700000, 100000));
+        request.setDownPayment(new SweepRange(100000, 200000, 100000));
+        request.setPoints(new SweepRange(-1, 1, 0.5));
+        return request;
+    }
+}
@@ -6,6 +6,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
 
 import jakarta.validation.ConstraintViolation;
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -69,6 +70,48 @@ class ValidationServiceTest {
         assertTrue(validationService.isDownPaymentValid(input));
     }
     
+    @Test
+    void testCollectErrors_ValidInput() {
+        assertTrue(validationService.collectErrors(createValidInput()).isEmpty());
+    }
+    
+    @Test
+    void testCollectErrors_ConstraintViolations() {
+        MortgageInput input = createValidInput();
+        input.setCreditScore(200);
+        
+        List<String> errors = validationService.collectErrors(input);
+        
+        assertEquals(List.of("creditScore: Credit score must be at least 300"), errors);
+    }
+    
+    @Test
+    void testCollectErrors_DownPayment() {
+        MortgageInput input = createValidInput();
+        input.setDownPayment(600000.0);
+        
+        assertEquals(List.of(ValidationService.DOWN_PAYMENT_ERROR), validationService.collectErrors(input));
+    }
+    
+    @Test
+    void testCollectErrors_ReflectiveFallback() {
+        ValidationService reflective = new ValidationService(validator, false);
+        MortgageInput input = createValidInput();
+        input.setCreditScore(900);
+        input.setState("NYC");
+        
+        List<String> errors = reflective.collectErrors(input);
+        
+        assertEquals(Set.of("creditScore: Credit score cannot exceed 850", "state: State must be a 2-letter code"),
+                Set.copyOf(errors));
+        assertEquals(Set.copyOf(errors), Set.copyOf(validationService.collectErrors(input)));
+    }
+    
+    @Test
+    void testCollectErrors_MissingInput() {
+        assertEquals(List.of(ValidationService.MISSING_INPUT_ERROR), validationService.collectErrors(null));
+    }
+    
     private MortgageInput createValidInput() {
         MortgageInput input = new MortgageInput();
         input.setCreditScore(750);
@@ -1,7 +1,14 @@
 package com.mortgagecalc.utils;
 
+import com.mortgagecalc.pricing.MortgageProduct;
+import com.mortgagecalc.pricing.RateInterpolation;
+import com.mortgagecalc.pricing.RateSheetException;
+import com.mortgagecalc.pricing.RateSnapshot;
+import com.mortgagecalc.pricing.RateTable;
+import com.mortgagecalc.pricing.UnknownRateSnapshotException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
 import org.springframework.core.io.ClassPathResource;
 import org.springframework.core.io.Resource;
 
@@ -79,6 +86,32 @@ class CsvUtilityTest {
         assertTrue(ratePoints.isEmpty());
     }
     
+    @Test
+    void testGetRateTable_Fixed30() {
+        RateTable rateTable = csvUtility.getRateTable("fixed_30");
+        
+        assertEquals(5, rateTable.size());
+        assertEquals(7.0, rateTable.rateAt(rateTable.nearestRow(0.1)));
+        assertEquals(6.6, rateTable.rateAt(rateTable.nearestRow(2.0)));
+    }
+    
+    @Test
+    void testInit_AppliesConfiguredInterpolation() {
+        CsvUtility interpolating = new CsvUtility("", 10, 1L << 20, "linear");
+        interpolating.init();
+        
+        RateTable rateTable = interpolating.getRateTable("fixed_30");
+        
+        assertEquals(RateInterpolation.LINEAR, rateTable.getInterpolation());
+        assertEquals(6.88, rateTable.interpolatedRate(rateTable.quotedPoints(0.3)), 1e-12);
+        assertThrows(IllegalArgumentException.class, () -> new CsvUtility("", 10, 1L << 20, "spline"));
+    }
+    
+    @Test
+    void testGetRateTable_NonExistentType() {
+        assertTrue(csvUtility.getRateTable("non_existent").isEmpty());
+    }
+    
     @Test
     void testRatePointClass() {
         CsvUtility.RatePoint ratePoint = new CsvUtility.RatePoint(0.5, 6.8);
@@ -87,6 +120,264 @@ class CsvUtilityTest {
         assertEquals(6.8, ratePoint.getRate());
     }
     
+    @Test
+    void testInit_PublishesFirstSnapshot() {
+        RateSnapshot snapshot = csvUtility.getSnapshot();
+        
+        assertEquals(1, snapshot.getVersion());
+        assertEquals(4, snapshot.getRateTables().size());
+    }
+    
+    @Test
+    void testReload_FromDirectorySwapsSnapshot(@TempDir Path ratesDirectory) throws IOException {
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,7.0\n1.0,6.6");
+        writeOtherSheets(ratesDirectory);
+        CsvUtility directoryUtility = new CsvUtility(ratesDirectory.toString());
+        directoryUtility.init();
+        RateSnapshot before = directoryUtility.getSnapshot();
+        
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,6.9\n1.0,6.5");
+        RateSnapshot after = directoryUtility.reload();
+        
+        assertEquals(before.getVersion() + 1, after.getVersion());
+        assertSame(after, directoryUtility.getSnapshot());
+        assertEquals(7.0, before.getRateTable("fixed_30").rateAt(0));
+        assertEquals(6.9, after.getRateTable("fixed_30").rateAt(0));
+    }
+    
+    @Test
+    void testReload_MapsCompiledSheets(@TempDir Path ratesDirectory) throws IOException {
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.5,6.8\n0.0,7.0\n1.0,6.6");
+        Files.writeString(ratesDirectory.resolve("fixed_15.csv"), "points,rate\n0.0,6.3");
+        
+        assertEquals(2, RateSheetCompiler.compile(ratesDirectory, ratesDirectory, RateInterpolation.NEAREST));
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,9.9");
+        writeOtherSheets(ratesDirectory);
+        CsvUtility directoryUtility = new CsvUtility(ratesDirectory.toString());
+        directoryUtility.init();
+        
+        RateTable fixed30 = directoryUtility.getRateTable("fixed_30");
+        assertTrue(fixed30.isMapped());
+        assertEquals(3, fixed30.size());
+        assertEquals(6.8, fixed30.rateAt(fixed30.nearestRow(0.4)));
+        assertEquals(64, fixed30.estimatedBytes());
+        assertEquals(6.3, directoryUtility.getRateTable("fixed_15").rateAt(0));
+    }
+    
+    @Test
+    void testCompile_SkipsRateGrids(@TempDir Path ratesDirectory) throws IOException {
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,7.0");
+        Files.writeString(ratesDirectory.resolve("fixed_30.grid.csv"),
+                "lockDays,ltvMax,ficoMin,points,rate\n30,80,680,0,7.0\n60,80,680,0,7.1");
+        
+        assertEquals(1, RateSheetCompiler.compile(ratesDirectory, ratesDirectory, RateInterpolation.NEAREST));
+        
+        assertTrue(Files.exists(ratesDirectory.resolve("fixed_30.rsb")));
+        assertFalse(Files.exists(ratesDirectory.resolve("fixed_30.grid.rsb")));
+        writeOtherSheets(ratesDirectory);
+        CsvUtility directoryUtility = new CsvUtility(ratesDirectory.toString());
+        directoryUtility.init();
+        RateSnapshot snapshot = directoryUtility.getSnapshot();
+        assertFalse(snapshot.getProducts().contains("fixed_30.grid"));
+        assertTrue(snapshot.getRateTable("fixed_30").isMapped());
+        assertEquals(2, snapshot.getRateGrid("fixed_30").cellCount());
+    }
+    
+    @Test
+    void testReload_CompiledSheetForOtherInterpolationIsCopied(@TempDir Path ratesDirectory) throws IOException {
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,7.0\n1.0,6.6");
+        RateSheetCompiler.compile(ratesDirectory, ratesDirectory, RateInterpolation.NEAREST);
+        writeOtherSheets(ratesDirectory);
+        CsvUtility directoryUtility = new CsvUtility(ratesDirectory.toString(), 10, 1L << 20, "linear");
+        directoryUtility.init();
+        
+        RateTable fixed30 = directoryUtility.getRateTable("fixed_30");
+        
+        assertFalse(fixed30.isMapped());
+        assertEquals(RateInterpolation.LINEAR, fixed30.getInterpolation());
+        assertEquals(6.8, fixed30.interpolatedRate(0.5), 1e-12);
+    }
+    
+    @Test
+    void testReload_CorruptCompiledSheetFails(@TempDir Path ratesDirectory) throws IOException {
+        Files.write(ratesDirectory.resolve("fixed_30.rsb"), new byte[] {1, 2, 3});
+        writeOtherSheets(ratesDirectory);
+        CsvUtility directoryUtility = new CsvUtility(ratesDirectory.toString());
+        
+        RateSheetException e = assertThrows(RateSheetException.class, directoryUtility::init);
+        
+        assertEquals("Error mapping compiled rate sheet for fixed_30", e.getMessage());
+    }
+    
+    @Test
+    void testReload_LoadsRateGrids(@TempDir Path ratesDirectory) throws IOException {
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,7.0");
+        Files.writeString(ratesDirectory.resolve("fixed_30.grid.csv"),
+                "lockDays,ltvMax,ficoMin,points,rate\n30,80,680,0,7.0\n60,80,680,0,7.1");
+        writeOtherSheets(ratesDirectory);
+        CsvUtility directoryUtility = new CsvUtility(ratesDirectory.toString());
+        directoryUtility.init();
+        
+        RateSnapshot snapshot = directoryUtility.getSnapshot();
+        
+        assertEquals(List.of("fixed_30"), List.copyOf(snapshot.getGriddedProducts()));
+        assertEquals(7.0, snapshot.getRateTable("fixed_30").rateAt(0));
+        assertEquals(2, snapshot.getRateGrid("fixed_30").cellCount());
+        assertNull(snapshot.getRateGrid("fixed_15"));
+        assertTrue(csvUtility.getSnapshot().getRateGrids().isEmpty());
+    }
+    
+    @Test
+    void testReload_IncompleteRateGridFails(@TempDir Path ratesDirectory) throws IOException {
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,7.0");
+        Files.writeString(ratesDirectory.resolve("fixed_30.grid.csv"),
+                "lockDays,ltvMax,ficoMin,points,rate\n30,80,680,0,7.0\n60,95,680,0,7.1");
+        writeOtherSheets(ratesDirectory);
+        CsvUtility directoryUtility = new CsvUtility(ratesDirectory.toString());
+        
+        RateSheetException e = assertThrows(RateSheetException.class, directoryUtility::init);
+        
+        assertEquals("Error loading rate grid for fixed_30", e.getMessage());
+    }
+    
+    @Test
+    void testInit_LazyLoadsEachProductOnFirstUse(@TempDir Path ratesDirectory) throws IOException {
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,7.0");
+        Files.writeString(ratesDirectory.resolve("fixed_15.csv"), "points,rate\n0.0,not-a-rate");
+        Files.writeString(ratesDirectory.resolve("fixed_30.grid.csv"),
+                "lockDays,ltvMax,ficoMin,points,rate\n30,80,680,0,7.0\n60,80,680,0,7.1");
+        writeOtherSheets(ratesDirectory);
+        CsvUtility lazyUtility = new CsvUtility(ratesDirectory.toString(), 10, 0, "nearest", true);
+        lazyUtility.init();
+        
+        RateSnapshot snapshot = lazyUtility.getSnapshot();
+        
+        assertEquals(List.of("arm_5_1", "arm_7_1", "fixed_15", "fixed_30"),
+                snapshot.getProducts().stream().sorted().toList());
+        assertEquals(List.of("fixed_30"), List.copyOf(snapshot.getGriddedProducts()));
+        assertFalse(snapshot.isLoaded());
+        assertEquals(7.0, snapshot.getRateTable("fixed_30").rateAt(0));
+        assertEquals(2, snapshot.getRateGrid("fixed_30").cellCount());
+        assertFalse(snapshot.isLoaded());
+        
+        RateSheetException e = assertThrows(RateSheetException.class, () -> snapshot.getRateTable("fixed_15"));
+        assertEquals("Error loading CSV data for fixed_15", e.getMessage());
+        
+        Files.writeString(ratesDirectory.resolve("fixed_15.csv"), "points,rate\n0.0,6.3");
+        assertEquals(6.3, snapshot.getRateTable("fixed_15").rateAt(0));
+        assertFalse(snapshot.isLoaded());
+        assertEquals(4, snapshot.getRateTables().size());
+        assertTrue(snapshot.isLoaded());
+    }
+    
+    @Test
+    void testInit_LazyClasspathSheetsMatchEager() {
+        CsvUtility lazyUtility = new CsvUtility("", 10, 0, "nearest", true);
+        lazyUtility.init();
+        
+        RateSnapshot lazy = lazyUtility.getSnapshot();
+        long unloadedBytes = lazy.estimatedBytes();
+        
+        assertFalse(lazy.isLoaded());
+        assertEquals(csvUtility.getSnapshot().getRateTables().keySet(), lazy.getRateTables().keySet());
+        assertEquals(csvUtility.getRatePoints("fixed_30").size(), lazyUtility.getRatePoints("fixed_30").size());
+        assertTrue(lazy.isLoaded());
+        assertTrue(lazy.estimatedBytes() > unloadedBytes);
+        
+        lazyUtility.reload();
+        assertTrue(lazyUtility.getSnapshot().isLoaded());
+    }
+    
+    @Test
+    void testReload_FailureKeepsCurrentSnapshot(@TempDir Path ratesDirectory) throws IOException {
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,7.0");
+        writeOtherSheets(ratesDirectory);
+        CsvUtility directoryUtility = new CsvUtility(ratesDirectory.toString());
+        directoryUtility.init();
+        RateSnapshot before = directoryUtility.getSnapshot();
+        
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,not-a-rate");
+        
+        assertThrows(RateSheetException.class, directoryUtility::reload);
+        assertSame(before, directoryUtility.getSnapshot());
+        assertEquals(1, directoryUtility.getReloadCount());
+        assertEquals(1, directoryUtility.getFailedReloadCount());
+    }
+    
+    @Test
+    void testReload_ProductWithoutSheetOrGridKeepsCurrentSnapshot(@TempDir Path ratesDirectory) throws IOException {
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,7.0");
+        writeOtherSheets(ratesDirectory);
+        CsvUtility directoryUtility = new CsvUtility(ratesDirectory.toString());
+        directoryUtility.init();
+        RateSnapshot before = directoryUtility.getSnapshot();
+        
+        Files.delete(ratesDirectory.resolve("arm_7_1.csv"));
+        Files.delete(ratesDirectory.resolve("fixed_15.csv"));
+        
+        RateSheetException e = assertThrows(RateSheetException.class, directoryUtility::reload);
+        assertEquals("No rate sheet or grid for fixed_15, arm_7_1 in " + ratesDirectory, e.getMessage());
+        assertSame(before, directoryUtility.getSnapshot());
+        assertEquals(1, directoryUtility.getFailedReloadCount());
+        
+        CsvUtility lazyUtility = new CsvUtility(ratesDirectory.toString(), 10, 0, "nearest", true);
+        assertThrows(RateSheetException.class, lazyUtility::init);
+        assertSame(RateSnapshot.EMPTY, lazyUtility.getSnapshot());
+        assertEquals(1, lazyUtility.getFailedReloadCount());
+        
+        // A grid alone is enough to price a product.
+        Files.writeString(ratesDirectory.resolve("fixed_15.grid.csv"),
+                "lockDays,ltvMax,ficoMin,points,rate\n30,80,680,0,6.3");
+        Files.writeString(ratesDirectory.resolve("arm_7_1.grid.csv"),
+                "lockDays,ltvMax,ficoMin,points,rate\n30,80,680,0,6.2");
+        assertEquals(2, directoryUtility.reload().getVersion());
+    }
+    
+    @Test
+    void testGetSnapshot_PinnedVersionSurvivesReload() {
+        RateSnapshot first = csvUtility.getSnapshot();
+        
+        csvUtility.reload();
+        
+        assertSame(first, csvUtility.getSnapshot(first.getVersion()));
+        assertNotSame(first, csvUtility.getSnapshot());
+    }
+    
+    @Test
+    void testReload_EvictsByCount() {
+        CsvUtility boundedUtility = new CsvUtility("", 3, 0);
+        for (int i = 0; i < 5; i++) {
+            boundedUtility.reload();
+        }
+        
+        List<RateSnapshot> retained = boundedUtility.getRetainedSnapshots();
+        
+        assertEquals(List.of(5L, 4L, 3L), retained.stream().map(RateSnapshot::getVersion).toList());
+        assertThrows(UnknownRateSnapshotException.class, () -> boundedUtility.getSnapshot(2));
+    }
+    
+    @Test
+    void testReload_EvictsByMemoryBudgetButKeepsCurrent() {
+        CsvUtility boundedUtility = new CsvUtility("", 10, 1);
+        boundedUtility.reload();
+        boundedUtility.reload();
+        
+        assertEquals(1, boundedUtility.getRetainedSnapshots().size());
+        assertEquals(2, boundedUtility.getSnapshot().getVersion());
+    }
+    
+    /**
+     * Writes a one-row sheet for every product {@code ratesDirectory} has no sheet for yet.
+     */
+    private static void writeOtherSheets(Path ratesDirectory) throws IOException {
+        for (MortgageProduct product : MortgageProduct.values()) {
+            Path sheet = ratesDirectory.resolve(product.getKey() + ".csv");
+            if (!Files.exists(sheet) && !Files.exists(ratesDirectory.resolve(product.getKey() + ".rsb"))) {
+                Files.writeString(sheet, "points,rate\n0.0,6.0");
+            }
+        }
+    }
+    
     private void createTestCsvFile(String resourcePath, String content) throws IOException {
         Path tempFile = Files.createTempFile("test", ".csv");
         Files.writeString(tempFile, content);
@@ -0,0 +1,52 @@
+package com.mortgagecalc.utils;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RateSheetWatcherTest {
+    
+    @Test
+    void testWatcher_ReloadsOnFileChange(@TempDir Path ratesDirectory) throws Exception {
+        Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,7.0");
+        for (String mortgageType : List.of("fixed_15", "arm_5_1", "arm_7_1")) {
+            Files.writeString(ratesDirectory.resolve(mortgageType + ".csv"), "points,rate\n0.0,6.0");
+        }
+        CsvUtility csvUtility = new CsvUtility(ratesDirectory.toString());
+        csvUtility.init();
+        RateSheetWatcher watcher = new RateSheetWatcher(csvUtility, Duration.ofMillis(50));
+        watcher.start();
+        
+        try {
+            assertTrue(watcher.isWatching());
+            Files.writeString(ratesDirectory.resolve("fixed_30.csv"), "points,rate\n0.0,6.25");
+            
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (csvUtility.getSnapshot().getVersion() == 1 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            
+            assertEquals(6.25, csvUtility.getRateTable("fixed_30").rateAt(0));
+        } finally {
+            watcher.stop();
+        }
+    }
+    
+    @Test
+    void testWatcher_DisabledWithoutDirectory() throws IOException {
+        CsvUtility csvUtility = new CsvUtility();
+        RateSheetWatcher watcher = new RateSheetWatcher(csvUtility, Duration.ofMillis(50));
+        
+        watcher.start();
+        
+        assertFalse(watcher.isWatching());
+        watcher.stop();
+    }
+}